@@ -0,0 +1,110 @@
+#!/usr/bin/env bash
+# 启动耗时基准: 从JVM启动到第一个MCP tools/list响应的时间(time-to-first-tools/list)
+#
+# 用法:
+#   mvn -Pfast-startup package -DskipTests
+#   scripts/startup-benchmark.sh [运行次数, 默认5]
+#
+# 对比两种启动方式:
+#   baseline     java -jar target/main-1.0.0.jar
+#   fast-startup java -XX:SharedArchiveFile=... -Dspring.aot.enabled=true -jar target/fast-startup/main-1.0.0.jar
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-8888}"
+BASE_URL="http://localhost:${PORT}"
+PROJECT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+TARGET_DIR="${PROJECT_DIR}/target"
+JAR_NAME="${JAR_NAME:-main-1.0.0.jar}"
+FAST_DIR="${TARGET_DIR}/fast-startup"
+WORK_DIR="$(mktemp -d)"
+APP_ARGS=(--server.port="${PORT}")
+
+cleanup() {
+    jobs -p | xargs -r kill 2>/dev/null || true
+    rm -rf "${WORK_DIR}"
+}
+trap cleanup EXIT
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+post_message() {
+    local endpoint="$1" payload="$2"
+    curl -s -o /dev/null -X POST -H 'Content-Type: application/json' -d "${payload}" "${BASE_URL}${endpoint}"
+}
+
+# 启动应用并测量到第一个tools/list响应的毫秒数
+measure_once() {
+    local label="$1"; shift
+    local sse_log="${WORK_DIR}/${label}.sse"
+    local app_log="${WORK_DIR}/${label}.log"
+    local start end endpoint app_pid sse_pid
+
+    start=$(now_ms)
+    "$@" "${APP_ARGS[@]}" > "${app_log}" 2>&1 &
+    app_pid=$!
+
+    # 连接SSE端点, 直到拿到消息端点(应用尚未就绪时curl会立即失败, 重试即可)
+    endpoint=""
+    while [ -z "${endpoint}" ]; do
+        if ! kill -0 "${app_pid}" 2>/dev/null; then
+            echo "[${label}] 应用启动失败, 日志: ${app_log}" >&2
+            cat "${app_log}" >&2
+            exit 1
+        fi
+        : > "${sse_log}"
+        curl -sN "${BASE_URL}/sse" > "${sse_log}" 2>/dev/null &
+        sse_pid=$!
+        sleep 0.05
+        endpoint=$(sed -n 's/^data:[[:space:]]*\(\/.*sessionId=.*\)$/\1/p' "${sse_log}" | head -n 1 | tr -d '\r')
+        if [ -z "${endpoint}" ]; then
+            kill "${sse_pid}" 2>/dev/null || true
+        fi
+    done
+
+    post_message "${endpoint}" '{"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"startup-benchmark","version":"1.0.0"}}}'
+    post_message "${endpoint}" '{"jsonrpc":"2.0","method":"notifications/initialized"}'
+    post_message "${endpoint}" '{"jsonrpc":"2.0","id":2,"method":"tools/list","params":{}}'
+
+    until grep -q '"id":2' "${sse_log}"; do
+        sleep 0.01
+    done
+    end=$(now_ms)
+
+    kill "${sse_pid}" "${app_pid}" 2>/dev/null || true
+    wait "${app_pid}" 2>/dev/null || true
+    echo $(( end - start ))
+}
+
+run_series() {
+    local label="$1"; shift
+    local total=0 min=0 max=0 t
+    for i in $(seq 1 "${RUNS}"); do
+        t=$(measure_once "${label}" "$@")
+        total=$(( total + t ))
+        if [ "${min}" -eq 0 ] || [ "${t}" -lt "${min}" ]; then min=${t}; fi
+        if [ "${t}" -gt "${max}" ]; then max=${t}; fi
+        echo "[${label}] 第${i}次: ${t} ms"
+    done
+    printf '%-14s avg=%6d ms  min=%6d ms  max=%6d ms\n' "${label}" $(( total / RUNS )) "${min}" "${max}" >> "${WORK_DIR}/summary"
+}
+
+if [ ! -f "${TARGET_DIR}/${JAR_NAME}" ]; then
+    echo "未找到 ${TARGET_DIR}/${JAR_NAME}, 请先执行 mvn -Pfast-startup package -DskipTests" >&2
+    exit 1
+fi
+
+run_series baseline java -jar "${TARGET_DIR}/${JAR_NAME}"
+
+if [ -f "${FAST_DIR}/application.jsa" ]; then
+    run_series fast-startup java -XX:SharedArchiveFile="${FAST_DIR}/application.jsa" \
+        -Dspring.aot.enabled=true -jar "${FAST_DIR}/${JAR_NAME}"
+else
+    echo "未找到CDS归档 ${FAST_DIR}/application.jsa, 跳过fast-startup对比" >&2
+fi
+
+echo
+echo "time-to-first-tools/list (${RUNS}次)"
+cat "${WORK_DIR}/summary"
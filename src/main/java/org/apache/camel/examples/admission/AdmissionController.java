@@ -0,0 +1,398 @@
+package org.apache.camel.examples.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.AdmissionProperties;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * MCP工具调用的准入控制
+ * <p>
+ * 同时执行的调用数达到上限后, 新调用按分类规则进入对应优先级类别的有界队列, 空出名额时先放行优先级高的类别.
+ * 每个调用带有排队期限: 按当前排队长度与平均执行时间估计无法按期出队的调用在入队前即被拒绝,
+ * 出队时已超过期限的调用直接丢弃, 不再执行. 以观测周期内的最小排队时延衡量负载, 持续超过目标值时判定为过载,
+ * 过载期间可丢弃类别的新调用直接拒绝, 直到排队时延回落
+ */
+@Slf4j
+@Component
+public class AdmissionController {
+
+    public static final String REJECT_OVERLOADED = "overloaded";
+    public static final String REJECT_QUEUE_FULL = "queue-full";
+    public static final String REJECT_DEADLINE = "deadline";
+    public static final String REJECT_EXPIRED = "expired";
+    public static final String REJECT_CANCELLED = "cancelled";
+
+    // 平均执行时间的平滑系数
+    private static final double SERVICE_TIME_WEIGHT = 0.2;
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final long targetDelayNanos;
+    private final long intervalNanos;
+    private final ClassQueue defaultQueue;
+    private final Map<String, ClassQueue> queuesByName = new LinkedHashMap<>();
+    private final List<ClassQueue> queues;
+    private final List<CompiledRule> rules = new ArrayList<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private int running;
+    private double serviceNanos;
+    private boolean overloaded;
+    private long intervalStart = System.nanoTime();
+    private long minDelayNanos = Long.MAX_VALUE;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public AdmissionController(AdmissionProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.maxConcurrent = Math.max(1, properties.getMaxConcurrent());
+        this.targetDelayNanos = properties.getTargetDelay().toNanos();
+        this.intervalNanos = properties.getInterval().toNanos();
+        properties.getClasses().forEach((name, priorityClass) -> queuesByName.put(name, new ClassQueue(name, priorityClass)));
+        ClassQueue fallback = queuesByName.get(properties.getDefaultClass());
+        if (fallback == null) {
+            log.warn("默认类别 {} 未定义, 按最高优先级、不可丢弃处理", properties.getDefaultClass());
+            fallback = new ClassQueue(properties.getDefaultClass(),
+                AdmissionProperties.PriorityClass.of(Integer.MIN_VALUE, 256, Duration.ofSeconds(10), false));
+            queuesByName.put(fallback.name, fallback);
+        }
+        this.defaultQueue = fallback;
+        this.queues = queuesByName.values().stream().sorted(Comparator.comparingInt(queue -> queue.priority)).toList();
+        for (AdmissionProperties.Rule rule : properties.getRules()) {
+            ClassQueue queue = queuesByName.get(rule.getPriorityClass());
+            if (queue == null) {
+                throw new IllegalArgumentException("准入规则引用了未定义的类别: " + rule.getPriorityClass());
+            }
+            rules.add(new CompiledRule(glob(rule.getTool()), glob(rule.getClient()), queue));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 包装交给MCP服务的工具, 经由MCP会话的调用先经过准入控制
+     */
+    public ToolCallback wrap(ToolCallback tool) {
+        return enabled ? new AdmittedToolCallback(tool, this) : tool;
+    }
+
+    /**
+     * 为一次调用申请执行名额, 需要排队时阻塞当前线程直到放行或被拒绝
+     *
+     * @param tool   工具名
+     * @param client MCP客户端名称与版本(名称/版本), 未知时为空
+     */
+    public Decision admit(String tool, String client) {
+        ClassQueue queue = classify(tool, client);
+        long now = System.nanoTime();
+        Waiter waiter;
+        lock.lock();
+        try {
+            if (running < maxConcurrent) {
+                running++;
+                observe(0, now);
+                return admitted(queue, now, 0);
+            }
+            String rejected = overloaded && queue.sheddable ? REJECT_OVERLOADED
+                : queue.waiters.size() >= queue.capacity ? REJECT_QUEUE_FULL
+                : estimateWaitNanos(queue) > queue.timeoutNanos ? REJECT_DEADLINE
+                : null;
+            if (rejected != null) {
+                return rejected(queue, rejected);
+            }
+
+            waiter = new Waiter(lock.newCondition(), now, now + queue.timeoutNanos);
+            queue.waiters.addLast(waiter);
+            try {
+                while (waiter.state == Waiter.WAITING) {
+                    long remaining = waiter.deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        queue.waiters.remove(waiter);
+                        waiter.state = Waiter.DROPPED;
+                        break;
+                    }
+                    waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (waiter.state == Waiter.WAITING) {
+                    queue.waiters.remove(waiter);
+                    return rejected(queue, REJECT_CANCELLED);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (waiter.state == Waiter.GRANTED) {
+            return admitted(queue, waiter.grantedAt, waiter.grantedAt - waiter.enqueuedAt);
+        }
+        return rejected(queue, REJECT_EXPIRED);
+    }
+
+    /**
+     * 当前是否判定为过载
+     */
+    public boolean isOverloaded() {
+        lock.lock();
+        try {
+            return overloaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queues.stream().mapToInt(queue -> queue.waiters.size()).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(Permit permit) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            running--;
+            long serviceTime = now - permit.startedAt;
+            serviceNanos = serviceNanos == 0 ? serviceTime
+                : serviceNanos + SERVICE_TIME_WEIGHT * (serviceTime - serviceNanos);
+            dispatch(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按优先级放行排队的调用, 已超过排队期限的调用直接丢弃
+     */
+    private void dispatch(long now) {
+        while (running < maxConcurrent) {
+            Waiter next = null;
+            for (ClassQueue queue : queues) {
+                Iterator<Waiter> iterator = queue.waiters.iterator();
+                while (next == null && iterator.hasNext()) {
+                    Waiter waiter = iterator.next();
+                    iterator.remove();
+                    if (waiter.deadline - now > 0) {
+                        next = waiter;
+                    } else {
+                        waiter.state = Waiter.DROPPED;
+                        waiter.condition.signal();
+                    }
+                }
+                if (next != null) {
+                    break;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            running++;
+            next.state = Waiter.GRANTED;
+            next.grantedAt = now;
+            observe(now - next.enqueuedAt, now);
+            next.condition.signal();
+        }
+    }
+
+    /**
+     * 记录排队时延; 每个观测周期结束时, 周期内的最小排队时延超过目标值即判定为过载
+     */
+    private void observe(long delayNanos, long now) {
+        minDelayNanos = Math.min(minDelayNanos, delayNanos);
+        if (now - intervalStart < intervalNanos) {
+            return;
+        }
+        boolean wasOverloaded = overloaded;
+        overloaded = minDelayNanos > targetDelayNanos;
+        if (overloaded != wasOverloaded) {
+            log.warn(overloaded ? "工具调用排队时延持续超过 {} ms, 开始拒绝可丢弃类别的调用"
+                : "工具调用排队时延已回落到 {} ms以内, 恢复接纳", TimeUnit.NANOSECONDS.toMillis(targetDelayNanos));
+        }
+        intervalStart = now;
+        minDelayNanos = Long.MAX_VALUE;
+    }
+
+    /**
+     * 排在前面的调用(同级及更高优先级)按平均执行时间出队所需的时间
+     */
+    private long estimateWaitNanos(ClassQueue target) {
+        int ahead = 0;
+        for (ClassQueue queue : queues) {
+            if (queue.priority > target.priority) {
+                break;
+            }
+            ahead += queue.waiters.size();
+        }
+        return (long) (serviceNanos * (ahead + 1) / maxConcurrent);
+    }
+
+    private ClassQueue classify(String tool, String client) {
+        for (CompiledRule rule : rules) {
+            if (rule.matches(tool, client)) {
+                return rule.queue();
+            }
+        }
+        return defaultQueue;
+    }
+
+    private Decision admitted(ClassQueue queue, long startedAt, long delayNanos) {
+        if (meterRegistry != null) {
+            Timer.builder("mcp.admission.queue.delay")
+                .tags("class", queue.name)
+                .register(meterRegistry)
+                .record(delayNanos, TimeUnit.NANOSECONDS);
+        }
+        record(queue, "admitted");
+        return new Decision(new Permit(this, startedAt), queue.name, null, 0);
+    }
+
+    private Decision rejected(ClassQueue queue, String reason) {
+        log.info("工具调用未被接纳, 类别: {}, 原因: {}", queue.name, reason);
+        record(queue, reason);
+        long retryAfter = REJECT_OVERLOADED.equals(reason) ? intervalNanos : Math.max(intervalNanos, (long) serviceNanos);
+        return new Decision(null, queue.name, reason, retryAfter);
+    }
+
+    private void record(ClassQueue queue, String result) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder("mcp.admission")
+            .tags("class", queue.name, "result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private static Pattern glob(String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            return null;
+        }
+        StringBuilder regex = new StringBuilder();
+        for (String part : pattern.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * 准入结果, 放行时permit非空, 需在调用结束后关闭
+     */
+    public record Decision(Permit permit, String priorityClass, String reason, long retryAfterNanos) {
+
+        public boolean admitted() {
+            return permit != null;
+        }
+    }
+
+    /**
+     * 执行名额, 关闭时归还并放行下一个排队的调用
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final AdmissionController controller;
+        private final long startedAt;
+        private boolean closed;
+
+        private Permit(AdmissionController controller, long startedAt) {
+            this.controller = controller;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                controller.release(this);
+            }
+        }
+    }
+
+    private static final class ClassQueue {
+
+        private final String name;
+        private final int priority;
+        private final int capacity;
+        private final long timeoutNanos;
+        private final boolean sheddable;
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+        ClassQueue(String name, AdmissionProperties.PriorityClass priorityClass) {
+            this.name = name;
+            this.priority = priorityClass.getPriority();
+            this.capacity = priorityClass.getQueueCapacity();
+            this.timeoutNanos = priorityClass.getQueueTimeout().toNanos();
+            this.sheddable = priorityClass.isSheddable();
+        }
+    }
+
+    private static final class Waiter {
+
+        static final int WAITING = 0;
+        static final int GRANTED = 1;
+        static final int DROPPED = 2;
+
+        private final Condition condition;
+        private final long enqueuedAt;
+        private final long deadline;
+        private int state = WAITING;
+        private long grantedAt;
+
+        Waiter(Condition condition, long enqueuedAt, long deadline) {
+            this.condition = condition;
+            this.enqueuedAt = enqueuedAt;
+            this.deadline = deadline;
+        }
+    }
+
+    private record CompiledRule(Pattern tool, Pattern client, ClassQueue queue) {
+
+        boolean matches(String toolName, String clientName) {
+            if (!matches(tool, toolName)) {
+                return false;
+            }
+            if (client == null) {
+                return true;
+            }
+            if (clientName == null) {
+                return false;
+            }
+            // 规则可以只写客户端名称, 也可以写名称/版本
+            int slash = clientName.lastIndexOf('/');
+            return client.matcher(clientName).matches()
+                || slash > 0 && client.matcher(clientName.substring(0, slash)).matches();
+        }
+
+        private static boolean matches(Pattern pattern, String value) {
+            return pattern == null || value != null && pattern.matcher(value).matches();
+        }
+    }
+}
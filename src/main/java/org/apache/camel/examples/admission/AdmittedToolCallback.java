@@ -0,0 +1,83 @@
+package org.apache.camel.examples.admission;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 经过准入控制的工具, 只对经由MCP会话的调用生效; 组合工具等进程内调用不排队, 避免外层调用占着名额等待内层调用
+ */
+final class AdmittedToolCallback implements ToolCallback {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ToolCallback delegate;
+    private final AdmissionController controller;
+
+    AdmittedToolCallback(ToolCallback delegate, AdmissionController controller) {
+        this.delegate = delegate;
+        this.controller = controller;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return delegate.call(toolInput);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        Optional<McpSyncServerExchange> exchange = toolContext == null || toolContext.getContext() == null
+            ? Optional.empty()
+            : McpToolUtils.getMcpExchange(toolContext);
+        if (exchange.isEmpty()) {
+            return delegate.call(toolInput, toolContext);
+        }
+
+        // MCP SDK不向工具暴露会话id, 以客户端在initialize时上报的名称与版本匹配规则, 同一客户端版本的所有会话归为一类
+        String client = Optional.ofNullable(exchange.get().getClientInfo())
+            .map(info -> info.name() + "/" + info.version())
+            .orElse(null);
+        AdmissionController.Decision decision = controller.admit(getToolDefinition().name(), client);
+        if (!decision.admitted()) {
+            return rejected(decision);
+        }
+        try (AdmissionController.Permit ignored = decision.permit()) {
+            return delegate.call(toolInput, toolContext);
+        }
+    }
+
+    /**
+     * 与限流一致, 以HTTP响应的形式返回, 503表示稍后可重试
+     */
+    private static String rejected(AdmissionController.Decision decision) {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("Retry-After", String.valueOf(Math.max(1, (decision.retryAfterNanos() + 999_999_999L) / 1_000_000_000L)));
+        HttpResponseBean response = new HttpResponseBean(503, headers,
+            "服务繁忙, 调用未被接纳(" + decision.priorityClass() + "): " + decision.reason());
+        try {
+            return OBJECT_MAPPER.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化拒绝响应失败", e);
+        }
+    }
+}
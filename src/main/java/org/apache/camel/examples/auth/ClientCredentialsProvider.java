@@ -0,0 +1,184 @@
+package org.apache.camel.examples.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * OAuth2 client_credentials令牌提供者
+ * <ul>
+ *     <li>令牌缓存到到期前refreshBefore, 之后的调用仍使用当前令牌, 同时触发后台刷新</li>
+ *     <li>每次获取令牌后按到期时间预约一次后台刷新, 正常情况下调用方不会等待令牌端点</li>
+ *     <li>并发刷新合并为一次请求(single flight)</li>
+ *     <li>上游401时使被拒绝的令牌失效, 同一令牌的多次401只触发一次刷新</li>
+ * </ul>
+ */
+@Slf4j
+public class ClientCredentialsProvider implements CredentialProvider {
+
+    private static final String AUTHORIZATION = "Authorization";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // 令牌端点未返回expires_in时的默认有效期
+    private static final Duration DEFAULT_EXPIRES_IN = Duration.ofMinutes(5);
+
+    private final URI tokenUri;
+    private final String basicAuthorization;
+    private final String form;
+    private final Duration refreshBefore;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicReference<CompletableFuture<Token>> inflight = new AtomicReference<>();
+    private volatile Token current;
+
+    public ClientCredentialsProvider(URI tokenUri, String clientId, String clientSecret, String scope,
+                                     Duration refreshBefore, Duration requestTimeout,
+                                     HttpClient httpClient, ScheduledExecutorService scheduler) {
+        this.tokenUri = tokenUri;
+        this.basicAuthorization = "Basic " + Base64.getEncoder().encodeToString(
+            (encode(clientId) + ":" + encode(clientSecret)).getBytes(StandardCharsets.UTF_8));
+        this.form = "grant_type=client_credentials" + (scope == null || scope.isBlank() ? "" : "&scope=" + encode(scope));
+        this.refreshBefore = refreshBefore;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = httpClient;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Map<String, String> credentials() {
+        Token token = current;
+        Instant now = Instant.now();
+        if (token == null || !now.isBefore(token.expiresAt())) {
+            token = await(refresh());
+        } else if (!now.isBefore(token.refreshAt())) {
+            // 临近过期, 本次仍使用当前令牌, 后台刷新
+            refresh();
+        }
+        return Map.of(AUTHORIZATION, token.authorization());
+    }
+
+    @Override
+    public void invalidate(Map<String, String> rejected) {
+        Token token = current;
+        if (token != null && rejected != null && token.authorization().equals(rejected.get(AUTHORIZATION))) {
+            current = null;
+        }
+    }
+
+    /**
+     * 刷新令牌, 已有刷新在进行时复用同一个结果
+     */
+    CompletableFuture<Token> refresh() {
+        while (true) {
+            CompletableFuture<Token> existing = inflight.get();
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<Token> created = new CompletableFuture<>();
+            if (inflight.compareAndSet(null, created)) {
+                fetch().whenComplete((token, error) -> {
+                    if (error != null) {
+                        log.warn("获取访问令牌失败: {}", tokenUri, error);
+                        inflight.set(null);
+                        created.completeExceptionally(error);
+                        return;
+                    }
+                    current = token;
+                    inflight.set(null);
+                    scheduleRefresh(token);
+                    created.complete(token);
+                });
+                return created;
+            }
+        }
+    }
+
+    private CompletableFuture<Token> fetch() {
+        HttpRequest request = HttpRequest.newBuilder(tokenUri)
+            .timeout(requestTimeout)
+            .header("Authorization", basicAuthorization)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .header("Accept", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(form))
+            .build();
+        Instant requestedAt = Instant.now();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> parse(response, requestedAt));
+    }
+
+    private Token parse(HttpResponse<byte[]> response, Instant requestedAt) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("令牌端点返回状态码 " + response.statusCode());
+        }
+        JsonNode body;
+        try {
+            body = OBJECT_MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException("令牌端点返回的不是合法的JSON", e);
+        }
+        String accessToken = body.path("access_token").asText(null);
+        if (accessToken == null || accessToken.isEmpty()) {
+            throw new IllegalStateException("令牌端点响应中缺少access_token");
+        }
+
+        // 以发出请求的时间为起点计算到期时间, 避免网络耗时导致令牌在本地被认为仍然有效
+        Duration expiresIn = body.path("expires_in").canConvertToLong()
+            ? Duration.ofSeconds(body.get("expires_in").asLong())
+            : DEFAULT_EXPIRES_IN;
+        Instant expiresAt = requestedAt.plus(expiresIn);
+        Instant refreshAt = expiresIn.compareTo(refreshBefore.multipliedBy(2)) > 0
+            ? expiresAt.minus(refreshBefore)
+            : requestedAt.plus(expiresIn.dividedBy(2));
+        log.debug("已获取访问令牌: {}, 有效期 {} 秒", tokenUri, expiresIn.toSeconds());
+        return new Token("Bearer " + accessToken, expiresAt, refreshAt);
+    }
+
+    private void scheduleRefresh(Token token) {
+        long delay = Math.max(0, Duration.between(Instant.now(), token.refreshAt()).toMillis());
+        scheduler.schedule(() -> {
+            // 令牌已被替换(例如401后重新获取)时跳过
+            if (current == token) {
+                refresh();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private Token await(CompletableFuture<Token> future) {
+        try {
+            return future.get(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待访问令牌时被中断", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("获取访问令牌失败: " + tokenUri, e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value == null ? "" : value, StandardCharsets.UTF_8);
+    }
+
+    record Token(String authorization, Instant expiresAt, Instant refreshAt) {
+    }
+}
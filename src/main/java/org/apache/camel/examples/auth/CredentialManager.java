@@ -0,0 +1,96 @@
+package org.apache.camel.examples.auth;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.CredentialProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * 按上游主机管理凭证提供者
+ * 配置中声明的主机在启动时注册, 也可以通过{@link #register}注册自定义的{@link CredentialProvider}
+ */
+@Slf4j
+@Component
+public class CredentialManager {
+
+    private final Map<String, CredentialProvider> providers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final HttpClient httpClient;
+
+    @Autowired
+    public CredentialManager(CredentialProperties properties) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "credential-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(properties.getRequestTimeout())
+            .build();
+        properties.getHosts().forEach((host, upstream) -> register(host, create(upstream, properties)));
+    }
+
+    /**
+     * 为上游主机注册凭证提供者
+     *
+     * @param host 主机名, 或host:port仅匹配指定端口
+     */
+    public void register(String host, CredentialProvider provider) {
+        providers.put(host.toLowerCase(Locale.ROOT), provider);
+        log.info("已为上游 {} 注册凭证: {}", host, provider.getClass().getSimpleName());
+    }
+
+    /**
+     * 按请求地址查找凭证提供者, host:port优先于host
+     */
+    public Optional<CredentialProvider> find(String url) {
+        if (providers.isEmpty() || url == null) {
+            return Optional.empty();
+        }
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (uri.getHost() == null) {
+            return Optional.empty();
+        }
+
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (uri.getPort() != -1) {
+            CredentialProvider provider = providers.get(host + ":" + uri.getPort());
+            if (provider != null) {
+                return Optional.of(provider);
+            }
+        }
+        return Optional.ofNullable(providers.get(host));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private CredentialProvider create(CredentialProperties.Upstream upstream, CredentialProperties properties) {
+        if (upstream.getType() == CredentialProperties.Type.STATIC) {
+            return new StaticCredentialProvider(upstream.getHeader(), upstream.getValue());
+        }
+        if (upstream.getTokenUri() == null || upstream.getTokenUri().isBlank()) {
+            throw new IllegalArgumentException("client-credentials凭证缺少token-uri");
+        }
+        return new ClientCredentialsProvider(URI.create(upstream.getTokenUri()), upstream.getClientId(),
+            upstream.getClientSecret(), upstream.getScope(), properties.getRefreshBefore(),
+            properties.getRequestTimeout(), httpClient, scheduler);
+    }
+}
@@ -0,0 +1,24 @@
+package org.apache.camel.examples.auth;
+
+import java.util.Map;
+
+/**
+ * 上游凭证提供者, 由CredentialManager按上游主机选择, 路由在发出请求前附加其返回的请求头
+ */
+public interface CredentialProvider {
+
+    /**
+     * 当前有效的凭证
+     *
+     * @return 需要附加到请求上的请求头, key为请求头名称
+     */
+    Map<String, String> credentials();
+
+    /**
+     * 上游以401拒绝了给定的凭证, 使其失效, 下一次调用credentials时重新获取
+     *
+     * @param rejected 被拒绝的请求时附加的请求头
+     */
+    default void invalidate(Map<String, String> rejected) {
+    }
+}
@@ -0,0 +1,20 @@
+package org.apache.camel.examples.auth;
+
+import java.util.Map;
+
+/**
+ * 固定请求头凭证, 例如API Key
+ */
+public class StaticCredentialProvider implements CredentialProvider {
+
+    private final Map<String, String> headers;
+
+    public StaticCredentialProvider(String header, String value) {
+        this.headers = Map.of(header, value);
+    }
+
+    @Override
+    public Map<String, String> credentials() {
+        return headers;
+    }
+}
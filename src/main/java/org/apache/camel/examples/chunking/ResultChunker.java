@@ -0,0 +1,223 @@
+package org.apache.camel.examples.chunking;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.ResultChunkProperties;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 超大工具结果的分块返回与续读
+ * <p>
+ * 发给MCP客户端的结果超过阈值时, 完整结果暂存在{@link ResultStore}中, 工具只返回第一块, 响应头带续读游标;
+ * 模型通过read_result_chunk工具按游标读取后续分块, 不再请求上游. 顶层为JSON数组的结果按条目切分, 每块都是合法的JSON数组, 其余按字节切分
+ */
+@Slf4j
+@Component
+public class ResultChunker {
+
+    public static final String CURSOR_HEADER = "X-Result-Cursor";
+    public static final String RANGE_HEADER = "X-Result-Range";
+    public static final String EXPIRES_HEADER = "X-Result-Expires-In";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ResultChunkProperties properties;
+    private final ResultStore store;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public ResultChunker(ResultChunkProperties properties) {
+        this(properties, new ResultStore(properties.getTtl().toNanos(), properties.getMaxSize().toBytes()));
+    }
+
+    ResultChunker(ResultChunkProperties properties, ResultStore store) {
+        this.properties = properties;
+        this.store = store;
+    }
+
+    /**
+     * 响应体超过阈值时暂存完整结果, 返回第一块; 未超过阈值或无法暂存时原样返回
+     */
+    public HttpResponseBean chunk(String toolName, HttpResponseBean response) {
+        if (!properties.isEnabled() || response == null || response.getBody() == null) {
+            return response;
+        }
+        String body = response.getBody();
+        long threshold = properties.getThreshold().toBytes();
+        // 每个UTF-8字符最多3字节(代理对2个char共4字节), 明显小于阈值时不必编码
+        if ((long) body.length() * 3 <= threshold) {
+            return response;
+        }
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        if (content.length <= threshold) {
+            return response;
+        }
+
+        Optional<ResultStore.StoredResult> stored = store.put(toolName, content, itemBounds(content));
+        if (stored.isEmpty()) {
+            log.warn("工具 {} 的结果({} 字节)超过暂存上限, 原样返回", toolName, content.length);
+            count(toolName, "too-large");
+            return response;
+        }
+        log.debug("工具 {} 的结果({} 字节)已暂存为 {}, 分块返回", toolName, content.length, stored.get().id());
+        count(toolName, "stored");
+
+        HttpResponseBean first = read(stored.get(), 0, null);
+        Map<String, Object> headers = new HashMap<>();
+        if (response.getHeaders() != null) {
+            headers.putAll(response.getHeaders());
+        }
+        headers.putAll(first.getHeaders());
+        return new HttpResponseBean(response.getStatusCode(), headers, first.getBody());
+    }
+
+    @Tool(name = "read_result_chunk", description = "读取超大工具结果的后续分块. 工具结果过大时只返回第一块, 响应头X-Result-Cursor为续读游标, "
+        + "X-Result-Range为本块范围; 以游标调用本工具获取下一块, 不会再次请求上游. 结果在X-Result-Expires-In秒后过期")
+    public HttpResponseBean readResultChunk(
+        @ToolParam(description = "上一块响应头中的X-Result-Cursor") String cursor,
+        @ToolParam(description = "起始位置, 覆盖游标中的位置; JSON数组结果为条目序号(从0开始), 其余为字节偏移", required = false) Integer offset,
+        @ToolParam(description = "读取的条目数或字节数, 默认按分块大小", required = false) Integer limit) {
+        int separator = cursor == null ? -1 : cursor.lastIndexOf(':');
+        if (separator <= 0) {
+            return error(400, "无效的游标: " + cursor);
+        }
+        int position;
+        try {
+            position = offset != null ? offset : Integer.parseInt(cursor.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return error(400, "无效的游标: " + cursor);
+        }
+        if (position < 0 || (limit != null && limit <= 0)) {
+            return error(400, "offset不能为负数, limit必须大于0");
+        }
+
+        Optional<ResultStore.StoredResult> stored = store.get(cursor.substring(0, separator));
+        if (stored.isEmpty()) {
+            count("read_result_chunk", "expired");
+            return error(410, "结果已过期或不存在, 请重新调用原工具");
+        }
+        ResultStore.StoredResult result = stored.get();
+        int total = result.isItems() ? result.itemCount() : result.size();
+        if (position >= total) {
+            return error(416, "起始位置超出结果范围, 共 " + total + (result.isItems() ? " 个条目" : " 字节"));
+        }
+        count(result.toolName(), "read");
+        return read(result, position, limit);
+    }
+
+    private HttpResponseBean read(ResultStore.StoredResult result, int offset, Integer limit) {
+        int budget = (int) Math.min(properties.getChunkSize().toBytes(), Integer.MAX_VALUE);
+        int cap = (int) Math.min(properties.getThreshold().toBytes(), Integer.MAX_VALUE);
+        String body;
+        String range;
+        int next;
+        int total;
+        if (result.isItems()) {
+            int[] bounds = result.itemBounds();
+            total = result.itemCount();
+            int start = bounds[2 * offset];
+            int end = offset + 1;
+            int last = limit != null ? (int) Math.min(total, (long) offset + limit) : total;
+            int maxBytes = limit != null ? cap : budget;
+            // 每块至少一个条目
+            while (end < last && bounds[2 * end + 1] - start <= maxBytes) {
+                end++;
+            }
+            body = "[" + new String(result.bytes(start, bounds[2 * (end - 1) + 1]), StandardCharsets.UTF_8) + "]";
+            range = "items " + offset + "-" + (end - 1) + "/" + total;
+            next = end;
+        } else {
+            total = result.size();
+            int length = limit != null ? Math.min(limit, cap) : budget;
+            int start = offset;
+            while (start < total && isContinuation(result, start)) {
+                start++;
+            }
+            int end = (int) Math.min(total, (long) start + length);
+            // 不在UTF-8多字节字符中间切开
+            while (end < total && end > start + 1 && isContinuation(result, end)) {
+                end--;
+            }
+            body = new String(result.bytes(start, end), StandardCharsets.UTF_8);
+            range = "bytes " + start + "-" + (end - 1) + "/" + total;
+            next = end;
+        }
+
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(RANGE_HEADER, range);
+        headers.put(EXPIRES_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(store.remainingNanos(result))));
+        if (next < total) {
+            headers.put(CURSOR_HEADER, result.id() + ":" + next);
+        }
+        return new HttpResponseBean(200, headers, body);
+    }
+
+    private static boolean isContinuation(ResultStore.StoredResult result, int index) {
+        return (result.content().get(index) & 0xC0) == 0x80;
+    }
+
+    /**
+     * 顶层为JSON数组时返回每个条目的起止字节偏移, 否则返回null
+     */
+    static int[] itemBounds(byte[] content) {
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return null;
+            }
+            int[] bounds = new int[64];
+            int count = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    return null;
+                }
+                if (count == bounds.length) {
+                    bounds = Arrays.copyOf(bounds, count * 2);
+                }
+                bounds[count++] = (int) parser.currentTokenLocation().getByteOffset();
+                parser.skipChildren();
+                parser.finishToken();
+                bounds[count++] = (int) parser.currentLocation().getByteOffset();
+            }
+            if (parser.nextToken() != null || count == 0) {
+                return null;
+            }
+            return Arrays.copyOf(bounds, count);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static HttpResponseBean error(int status, String message) {
+        return new HttpResponseBean(status, new HashMap<>(), message);
+    }
+
+    private void count(String toolName, String result) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder("mcp.result.chunks")
+            .tags("tool", toolName != null ? toolName : "unknown", "result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+}
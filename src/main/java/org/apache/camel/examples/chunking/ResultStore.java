@@ -0,0 +1,134 @@
+package org.apache.camel.examples.chunking;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * 短期暂存超大工具结果的堆外存储
+ * <p>
+ * 结果内容复制到direct缓冲区, 不占用堆也不参与GC复制; 按存入顺序保存, 过期或总大小超过上限时从最早的结果开始淘汰.
+ * 过期结果在存取时顺带清理, 不需要后台线程. 结果id为随机生成的128位值, 不可猜测
+ */
+public class ResultStore {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final long ttlNanos;
+    private final long maxBytes;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, StoredResult> results = new LinkedHashMap<>();
+    private long storedBytes;
+
+    public ResultStore(long ttlNanos, long maxBytes) {
+        this(ttlNanos, maxBytes, System::nanoTime);
+    }
+
+    ResultStore(long ttlNanos, long maxBytes, LongSupplier clock) {
+        this.ttlNanos = ttlNanos;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+    }
+
+    /**
+     * 存入结果
+     *
+     * @param itemBounds JSON数组每个条目在content中的起止偏移(交替排列), 不是数组时为null
+     * @return 结果超过存储上限时返回空
+     */
+    public Optional<StoredResult> put(String toolName, byte[] content, int[] itemBounds) {
+        if (content.length > maxBytes) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+        buffer.put(content).flip();
+
+        synchronized (this) {
+            long now = clock.getAsLong();
+            evictExpired(now);
+            Iterator<StoredResult> oldest = results.values().iterator();
+            while (storedBytes + content.length > maxBytes && oldest.hasNext()) {
+                storedBytes -= oldest.next().size();
+                oldest.remove();
+            }
+            StoredResult result = new StoredResult(newId(), toolName, buffer.asReadOnlyBuffer(), itemBounds, now + ttlNanos);
+            results.put(result.id(), result);
+            storedBytes += content.length;
+            return Optional.of(result);
+        }
+    }
+
+    /**
+     * 取出未过期的结果
+     */
+    public synchronized Optional<StoredResult> get(String id) {
+        evictExpired(clock.getAsLong());
+        return Optional.ofNullable(results.get(id));
+    }
+
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * 剩余有效期, 纳秒
+     */
+    public long remainingNanos(StoredResult result) {
+        return Math.max(0, result.expiresAt() - clock.getAsLong());
+    }
+
+    private void evictExpired(long now) {
+        // 有效期相同, 存入顺序即过期顺序
+        Iterator<Map.Entry<String, StoredResult>> entries = results.entrySet().iterator();
+        while (entries.hasNext()) {
+            StoredResult result = entries.next().getValue();
+            if (result.expiresAt() - now > 0) {
+                return;
+            }
+            storedBytes -= result.size();
+            entries.remove();
+        }
+    }
+
+    private static String newId() {
+        byte[] id = new byte[16];
+        RANDOM.nextBytes(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+    }
+
+    /**
+     * 一个暂存的结果, content为只读的堆外缓冲区
+     */
+    public record StoredResult(String id, String toolName, ByteBuffer content, int[] itemBounds, long expiresAt) {
+
+        public int size() {
+            return content.capacity();
+        }
+
+        public boolean isItems() {
+            return itemBounds != null;
+        }
+
+        public int itemCount() {
+            return itemBounds != null ? itemBounds.length / 2 : 0;
+        }
+
+        /**
+         * 复制[from, to)字节
+         */
+        public byte[] bytes(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            content.duplicate().position(from).get(bytes);
+            return bytes;
+        }
+    }
+}
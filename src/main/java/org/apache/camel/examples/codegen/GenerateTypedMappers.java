@@ -0,0 +1,39 @@
+package org.apache.camel.examples.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 编译期根据OpenAPI文档生成类型化的请求/响应record以及无反射的映射类, 由{@link TypedMapperProcessor}处理
+ * <p>
+ * 每个操作生成 {@code XxxRequest}、{@code XxxResponse}(以及嵌套对象对应的record)和 {@code XxxMapper}:
+ * <pre>
+ * &#64;GenerateTypedMappers(spec = "openapi/orders.yaml", packageName = "com.example.orders")
+ * public class OrdersTools {
+ * }
+ * </pre>
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+@Repeatable(GenerateTypedMappers.List.class)
+public @interface GenerateTypedMappers {
+
+    /**
+     * OpenAPI文档位置, 相对于编译输出目录的资源路径(如src/main/resources下的文件), 找不到时按文件路径读取
+     */
+    String spec();
+
+    /**
+     * 生成代码所在的包
+     */
+    String packageName();
+
+    @Retention(RetentionPolicy.SOURCE)
+    @Target(ElementType.TYPE)
+    @interface List {
+        GenerateTypedMappers[] value();
+    }
+}
@@ -0,0 +1,549 @@
+package org.apache.camel.examples.codegen;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 根据OpenAPI文档生成类型化record和无反射映射类的源码
+ * <p>
+ * 每个操作生成:
+ * <ul>
+ *     <li>{@code XxxRequest}: 路径/查询/请求头参数以及请求体</li>
+ *     <li>{@code XxxResponse}: 第一个2xx响应的JSON结构, 嵌套对象生成独立的record</li>
+ *     <li>{@code XxxMapper}: 工具入参 → 请求record → HttpRequestBean, 以及基于流式解析的响应读取</li>
+ * </ul>
+ * 声明了属性的对象映射为record, 未声明属性的对象以紧凑JSON文本(String)保留
+ */
+public final class TypedMapperGenerator {
+
+    static final String GENERATED_BY = "org.apache.camel.examples.codegen.TypedMapperProcessor";
+
+    private static final Set<String> RESERVED_NAMES = Set.of(
+        "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const", "continue",
+        "default", "do", "double", "else", "enum", "extends", "final", "finally", "float", "for", "goto", "if",
+        "implements", "import", "instanceof", "int", "interface", "long", "native", "new", "package", "private",
+        "protected", "public", "return", "short", "static", "strictfp", "super", "switch", "synchronized", "this",
+        "throw", "throws", "transient", "try", "void", "volatile", "while", "true", "false", "null", "var",
+        "record", "yield", "getClass", "hashCode", "notify", "notifyAll", "wait", "clone", "finalize");
+
+    private final String packageName;
+    private final Map<String, String> sources = new LinkedHashMap<>();
+    private final Set<String> typeNames = new HashSet<>();
+
+    public TypedMapperGenerator(String packageName) {
+        this.packageName = packageName;
+    }
+
+    /**
+     * 生成源码
+     *
+     * @return 简单类名 → 源码
+     */
+    public Map<String, String> generate(OpenAPI openAPI) {
+        if (openAPI == null || openAPI.getPaths() == null) {
+            return Collections.emptyMap();
+        }
+        openAPI.getPaths().forEach((path, pathItem) -> pathItem.readOperationsMap()
+            .forEach((method, operation) -> generateOperation(method.name(), path, operation)));
+        return Collections.unmodifiableMap(sources);
+    }
+
+    private void generateOperation(String method, String path, Operation operation) {
+        // 与ToolParserService中缺省工具名的规则保持一致
+        String operationId = operation.getOperationId();
+        if (operationId == null || operationId.trim().isEmpty()) {
+            operationId = method.toLowerCase(Locale.ROOT) + path.replaceAll("[^a-zA-Z0-9]", "");
+        }
+        String baseName = toTypeName(operationId);
+        OperationModel model = new OperationModel(operationId, method, path, uniqueTypeName(baseName + "Mapper"));
+
+        Set<String> requestFieldNames = new HashSet<>();
+        List<FieldModel> requestFields = new ArrayList<>();
+        if (operation.getParameters() != null) {
+            for (Parameter parameter : operation.getParameters()) {
+                if (!"path".equals(parameter.getIn()) && !"query".equals(parameter.getIn()) && !"header".equals(parameter.getIn())) {
+                    continue;
+                }
+                TypeModel type = resolve(parameter.getSchema(), baseName + toTypeName(parameter.getName()), model);
+                requestFields.add(new FieldModel(parameter.getName(), uniqueFieldName(parameter.getName(), requestFieldNames),
+                    type, parameter.getIn(), parameter.getDescription()));
+            }
+        }
+        if (operation.getRequestBody() != null) {
+            Schema<?> bodySchema = jsonSchema(operation.getRequestBody().getContent());
+            TypeModel type = resolve(bodySchema, baseName + "Body", model);
+            requestFields.add(new FieldModel("body", uniqueFieldName("body", requestFieldNames), type, "body",
+                operation.getRequestBody().getDescription()));
+        }
+        model.request = new RecordModel(uniqueTypeName(baseName + "Request"), requestFields, "操作 " + operationId + " 的请求参数");
+        model.response = resolve(responseSchema(operation), baseName + "Response", model);
+
+        sources.put(model.request.name, recordSource(model.request));
+        for (RecordModel record : model.records) {
+            sources.put(record.name, recordSource(record));
+        }
+        sources.put(model.mapperName, mapperSource(model));
+    }
+
+    // ---------- 类型解析 ----------
+
+    private TypeModel resolve(Schema<?> schema, String typeName, OperationModel model) {
+        if (schema == null || model.resolving.containsKey(schema)) {
+            return TypeModel.RAW;
+        }
+        String type = schema.getType();
+        if (type == null && schema.getItems() != null) {
+            type = "array";
+        }
+        if ("array".equals(type)) {
+            model.resolving.put(schema, Boolean.TRUE);
+            TypeModel item = resolve(schema.getItems(), typeName + "Item", model);
+            model.resolving.remove(schema);
+            return TypeModel.list(item);
+        }
+        if ("string".equals(type)) {
+            return TypeModel.STRING;
+        }
+        if ("integer".equals(type)) {
+            return "int32".equals(schema.getFormat()) ? TypeModel.INTEGER : TypeModel.LONG;
+        }
+        if ("number".equals(type)) {
+            return TypeModel.DOUBLE;
+        }
+        if ("boolean".equals(type)) {
+            return TypeModel.BOOLEAN;
+        }
+        if ((type == null || "object".equals(type)) && schema.getProperties() != null && !schema.getProperties().isEmpty()) {
+            model.resolving.put(schema, Boolean.TRUE);
+            String name = uniqueTypeName(typeName);
+            Set<String> fieldNames = new HashSet<>();
+            List<FieldModel> fields = new ArrayList<>();
+            for (Map.Entry<String, Schema> property : schema.getProperties().entrySet()) {
+                TypeModel fieldType = resolve(property.getValue(), name + toTypeName(property.getKey()), model);
+                fields.add(new FieldModel(property.getKey(), uniqueFieldName(property.getKey(), fieldNames), fieldType,
+                    null, property.getValue() == null ? null : property.getValue().getDescription()));
+            }
+            model.resolving.remove(schema);
+            model.records.add(new RecordModel(name, fields, "操作 " + model.operationId + " 中的对象"
+                + (schema.getDescription() == null ? "" : ": " + schema.getDescription())));
+            return TypeModel.record(name);
+        }
+        return TypeModel.RAW;
+    }
+
+    private static Schema<?> responseSchema(Operation operation) {
+        if (operation.getResponses() == null) {
+            return null;
+        }
+        for (Map.Entry<String, ApiResponse> response : operation.getResponses().entrySet()) {
+            if (response.getKey().startsWith("2") && response.getValue() != null) {
+                return jsonSchema(response.getValue().getContent());
+            }
+        }
+        return null;
+    }
+
+    private static Schema<?> jsonSchema(Content content) {
+        if (content == null) {
+            return null;
+        }
+        MediaType mediaType = content.get("application/json");
+        if (mediaType == null) {
+            mediaType = content.entrySet().stream()
+                .filter(entry -> entry.getKey().contains("json"))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+        }
+        return mediaType == null ? null : mediaType.getSchema();
+    }
+
+    // ---------- 源码输出 ----------
+
+    private String recordSource(RecordModel record) {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n")
+            .append("import java.util.List;\n")
+            .append("import javax.annotation.processing.Generated;\n\n")
+            .append("/**\n")
+            .append(" * ").append(javadoc(record.description)).append('\n');
+        boolean hasParams = false;
+        for (FieldModel field : record.fields) {
+            if (field.description != null && !field.description.isBlank()) {
+                source.append(hasParams ? "" : " *\n")
+                    .append(" * @param ").append(field.javaName).append(' ').append(javadoc(field.description)).append('\n');
+                hasParams = true;
+            }
+        }
+        source.append(" */\n")
+            .append("@Generated(\"").append(GENERATED_BY).append("\")\n")
+            .append("public record ").append(record.name).append("(");
+        for (int i = 0; i < record.fields.size(); i++) {
+            FieldModel field = record.fields.get(i);
+            source.append(i == 0 ? "\n" : ",\n")
+                .append("    ").append(field.type.javaType()).append(' ').append(field.javaName);
+        }
+        source.append(record.fields.isEmpty() ? "" : "\n").append(") {\n}\n");
+        return source.toString();
+    }
+
+    private String mapperSource(OperationModel model) {
+        String mapper = model.mapperName;
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n")
+            .append("import com.fasterxml.jackson.core.JsonGenerator;\n")
+            .append("import com.fasterxml.jackson.core.JsonParser;\n")
+            .append("import com.fasterxml.jackson.core.JsonToken;\n")
+            .append("import org.apache.camel.examples.codegen.TypedValues;\n")
+            .append("import org.apache.camel.examples.domain.HttpRequestBean;\n\n")
+            .append("import java.io.IOException;\n")
+            .append("import java.util.HashMap;\n")
+            .append("import java.util.List;\n")
+            .append("import java.util.Map;\n")
+            .append("import javax.annotation.processing.Generated;\n\n")
+            .append("/**\n")
+            .append(" * 操作 ").append(javadoc(model.operationId)).append(" (").append(model.method).append(' ')
+            .append(javadoc(model.path)).append(") 的映射, 不使用反射和JSON树\n")
+            .append(" */\n")
+            .append("@Generated(\"").append(GENERATED_BY).append("\")\n")
+            .append("public final class ").append(mapper).append(" {\n\n")
+            .append("    public static final String METHOD = ").append(literal(model.method)).append(";\n")
+            .append("    public static final String PATH = ").append(literal(model.path)).append(";\n\n")
+            .append("    private ").append(mapper).append("() {\n    }\n\n");
+
+        appendFromArguments(source, model);
+        appendToHttpRequest(source, model);
+
+        source.append("    /**\n     * 读取2xx响应体\n     */\n")
+            .append("    public static ").append(model.response.javaType()).append(" readResponse(String json) throws IOException {\n")
+            .append("        return TypedValues.read(json, ").append(readerRef(model.response, mapper, 0)).append(");\n")
+            .append("    }\n");
+
+        for (RecordModel record : model.records) {
+            appendRecordMethods(source, record, mapper);
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private void appendFromArguments(StringBuilder source, OperationModel model) {
+        RecordModel request = model.request;
+        source.append("    /**\n     * 将工具入参转换为类型化请求\n     */\n")
+            .append("    public static ").append(request.name).append(" fromArguments(Map<String, Object> arguments) {\n")
+            .append("        return new ").append(request.name).append('(');
+        for (int i = 0; i < request.fields.size(); i++) {
+            FieldModel field = request.fields.get(i);
+            source.append(i == 0 ? "\n" : ",\n").append("            ")
+                .append(converterCall(field.type, model.mapperName, "arguments.get(" + literal(field.jsonName) + ")"));
+        }
+        source.append(");\n    }\n\n");
+    }
+
+    private void appendToHttpRequest(StringBuilder source, OperationModel model) {
+        source.append("    /**\n     * 构建HTTP请求, 与动态生成的工具发出的请求一致\n     */\n")
+            .append("    public static HttpRequestBean toHttpRequest(String baseUrl, ").append(model.request.name).append(" request) {\n")
+            .append("        String path = PATH;\n")
+            .append("        Map<String, String> headers = new HashMap<>();\n")
+            .append("        Map<String, String> queryParams = new HashMap<>();\n")
+            .append("        String body = null;\n");
+        for (FieldModel field : model.request.fields) {
+            String accessor = "request." + field.javaName + "()";
+            switch (field.in) {
+                case "path" -> source.append("        path = TypedValues.expand(path, ").append(literal(field.jsonName))
+                    .append(", ").append(accessor).append(");\n");
+                case "query", "header" -> source.append("        if (").append(accessor).append(" != null) {\n")
+                    .append("            ").append("query".equals(field.in) ? "queryParams" : "headers").append(".put(")
+                    .append(literal(field.jsonName)).append(", ").append(accessor).append(".toString());\n")
+                    .append("        }\n");
+                default -> source.append("        body = TypedValues.write(").append(accessor).append(", ")
+                    .append(writerRef(field.type, model.mapperName, 0)).append(");\n");
+            }
+        }
+        source.append("        return new HttpRequestBean(METHOD, baseUrl + path, headers, body, queryParams);\n")
+            .append("    }\n\n");
+    }
+
+    private void appendRecordMethods(StringBuilder source, RecordModel record, String mapper) {
+        // 流式读取
+        source.append("\n    static ").append(record.name).append(" read").append(record.name)
+            .append("(JsonParser parser) throws IOException {\n")
+            .append("        if (parser.currentToken() != JsonToken.START_OBJECT) {\n")
+            .append("            parser.skipChildren();\n")
+            .append("            return null;\n")
+            .append("        }\n");
+        for (int i = 0; i < record.fields.size(); i++) {
+            source.append("        ").append(record.fields.get(i).type.javaType()).append(" v").append(i).append(" = null;\n");
+        }
+        source.append("        while (parser.nextToken() == JsonToken.FIELD_NAME) {\n")
+            .append("            String field = parser.currentName();\n")
+            .append("            parser.nextToken();\n")
+            .append("            switch (field) {\n");
+        for (int i = 0; i < record.fields.size(); i++) {
+            FieldModel field = record.fields.get(i);
+            source.append("                case ").append(literal(field.jsonName)).append(" -> v").append(i).append(" = ")
+                .append(readerCall(field.type, mapper, "parser")).append(";\n");
+        }
+        source.append("                default -> parser.skipChildren();\n")
+            .append("            }\n")
+            .append("        }\n")
+            .append("        return new ").append(record.name).append('(').append(variables(record.fields.size())).append(");\n")
+            .append("    }\n");
+
+        // 流式写出
+        source.append("\n    static void write").append(record.name).append("(JsonGenerator generator, ").append(record.name)
+            .append(" value) throws IOException {\n")
+            .append("        generator.writeStartObject();\n");
+        for (FieldModel field : record.fields) {
+            String accessor = "value." + field.javaName + "()";
+            source.append("        if (").append(accessor).append(" != null) {\n")
+                .append("            generator.writeFieldName(").append(literal(field.jsonName)).append(");\n")
+                .append("            ").append(writerCall(field.type, mapper, accessor)).append(";\n")
+                .append("        }\n");
+        }
+        source.append("        generator.writeEndObject();\n")
+            .append("    }\n");
+
+        // 从工具入参转换
+        source.append("\n    static ").append(record.name).append(" from").append(record.name).append("(Object value) {\n")
+            .append("        Map<String, Object> map = TypedValues.asMap(value);\n")
+            .append("        if (map == null) {\n")
+            .append("            return null;\n")
+            .append("        }\n")
+            .append("        return new ").append(record.name).append('(');
+        for (int i = 0; i < record.fields.size(); i++) {
+            FieldModel field = record.fields.get(i);
+            source.append(i == 0 ? "\n" : ",\n").append("            ")
+                .append(converterCall(field.type, mapper, "map.get(" + literal(field.jsonName) + ")"));
+        }
+        source.append(");\n    }\n");
+    }
+
+    private static String readerCall(TypeModel type, String mapper, String parser) {
+        return switch (type.kind) {
+            case RECORD -> "read" + type.recordName + "(" + parser + ")";
+            case LIST -> "TypedValues.readList(" + parser + ", " + readerRef(type.item, mapper, 0) + ")";
+            default -> "TypedValues." + type.kind.reader + "(" + parser + ")";
+        };
+    }
+
+    private static String readerRef(TypeModel type, String mapper, int depth) {
+        return switch (type.kind) {
+            case RECORD -> mapper + "::read" + type.recordName;
+            case LIST -> "p" + depth + " -> TypedValues.readList(p" + depth + ", " + readerRef(type.item, mapper, depth + 1) + ")";
+            default -> "TypedValues::" + type.kind.reader;
+        };
+    }
+
+    private static String writerCall(TypeModel type, String mapper, String value) {
+        return switch (type.kind) {
+            case RECORD -> "write" + type.recordName + "(generator, " + value + ")";
+            case LIST -> "TypedValues.writeList(generator, " + value + ", " + writerRef(type.item, mapper, 0) + ")";
+            default -> "TypedValues." + type.kind.writer + "(generator, " + value + ")";
+        };
+    }
+
+    private static String writerRef(TypeModel type, String mapper, int depth) {
+        return switch (type.kind) {
+            case RECORD -> mapper + "::write" + type.recordName;
+            case LIST -> "(g" + depth + ", v" + depth + ") -> TypedValues.writeList(g" + depth + ", v" + depth + ", "
+                + writerRef(type.item, mapper, depth + 1) + ")";
+            default -> "TypedValues::" + type.kind.writer;
+        };
+    }
+
+    private static String converterCall(TypeModel type, String mapper, String value) {
+        return switch (type.kind) {
+            case RECORD -> "from" + type.recordName + "(" + value + ")";
+            case LIST -> "TypedValues.asList(" + value + ", " + converterRef(type.item, mapper, 0) + ")";
+            default -> "TypedValues." + type.kind.converter + "(" + value + ")";
+        };
+    }
+
+    private static String converterRef(TypeModel type, String mapper, int depth) {
+        return switch (type.kind) {
+            case RECORD -> mapper + "::from" + type.recordName;
+            case LIST -> "o" + depth + " -> TypedValues.asList(o" + depth + ", " + converterRef(type.item, mapper, depth + 1) + ")";
+            default -> "TypedValues::" + type.kind.converter;
+        };
+    }
+
+    private static String variables(int count) {
+        StringBuilder variables = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            variables.append(i == 0 ? "v" : ", v").append(i);
+        }
+        return variables.toString();
+    }
+
+    // ---------- 命名 ----------
+
+    private String uniqueTypeName(String name) {
+        String candidate = name;
+        for (int i = 2; !typeNames.add(candidate); i++) {
+            candidate = name + i;
+        }
+        return candidate;
+    }
+
+    private static String uniqueFieldName(String jsonName, Set<String> used) {
+        String name = toFieldName(jsonName);
+        String candidate = name;
+        for (int i = 2; !used.add(candidate); i++) {
+            candidate = name + i;
+        }
+        return candidate;
+    }
+
+    static String toTypeName(String name) {
+        String camel = camelCase(name);
+        if (camel.isEmpty()) {
+            return "Value";
+        }
+        String typeName = Character.toUpperCase(camel.charAt(0)) + camel.substring(1);
+        return Character.isDigit(typeName.charAt(0)) ? "T" + typeName : typeName;
+    }
+
+    static String toFieldName(String name) {
+        String camel = camelCase(name);
+        if (camel.isEmpty()) {
+            return "value";
+        }
+        String fieldName = Character.toLowerCase(camel.charAt(0)) + camel.substring(1);
+        if (Character.isDigit(fieldName.charAt(0))) {
+            return "v" + fieldName;
+        }
+        return RESERVED_NAMES.contains(fieldName) ? fieldName + "_" : fieldName;
+    }
+
+    private static String camelCase(String name) {
+        StringBuilder result = new StringBuilder();
+        boolean upperNext = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < 0x80 && Character.isLetterOrDigit(c)) {
+                result.append(upperNext && result.length() > 0 ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            } else {
+                upperNext = true;
+            }
+        }
+        return result.toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static String javadoc(String text) {
+        return text.replace("*/", "*&#47;").replace("\\u", "\\\\u").replaceAll("\\s+", " ").trim();
+    }
+
+    // ---------- 模型 ----------
+
+    private enum Kind {
+        STRING("String", "readString", "writeString", "asString"),
+        INTEGER("Integer", "readInteger", "writeInteger", "asInteger"),
+        LONG("Long", "readLong", "writeLong", "asLong"),
+        DOUBLE("Double", "readDouble", "writeDouble", "asDouble"),
+        BOOLEAN("Boolean", "readBoolean", "writeBoolean", "asBoolean"),
+        RAW("String", "readRaw", "writeRaw", "asRawJson"),
+        RECORD(null, null, null, null),
+        LIST(null, null, null, null);
+
+        private final String javaType;
+        private final String reader;
+        private final String writer;
+        private final String converter;
+
+        Kind(String javaType, String reader, String writer, String converter) {
+            this.javaType = javaType;
+            this.reader = reader;
+            this.writer = writer;
+            this.converter = converter;
+        }
+    }
+
+    private record TypeModel(Kind kind, String recordName, TypeModel item) {
+
+        static final TypeModel STRING = new TypeModel(Kind.STRING, null, null);
+        static final TypeModel INTEGER = new TypeModel(Kind.INTEGER, null, null);
+        static final TypeModel LONG = new TypeModel(Kind.LONG, null, null);
+        static final TypeModel DOUBLE = new TypeModel(Kind.DOUBLE, null, null);
+        static final TypeModel BOOLEAN = new TypeModel(Kind.BOOLEAN, null, null);
+        static final TypeModel RAW = new TypeModel(Kind.RAW, null, null);
+
+        static TypeModel record(String name) {
+            return new TypeModel(Kind.RECORD, name, null);
+        }
+
+        static TypeModel list(TypeModel item) {
+            return new TypeModel(Kind.LIST, null, item);
+        }
+
+        String javaType() {
+            return switch (kind) {
+                case RECORD -> recordName;
+                case LIST -> "List<" + item.javaType() + ">";
+                default -> kind.javaType;
+            };
+        }
+    }
+
+    private record FieldModel(String jsonName, String javaName, TypeModel type, String in, String description) {
+    }
+
+    private record RecordModel(String name, List<FieldModel> fields, String description) {
+    }
+
+    private static final class OperationModel {
+
+        private final String operationId;
+        private final String method;
+        private final String path;
+        private final String mapperName;
+        private final List<RecordModel> records = new ArrayList<>();
+        private final Map<Schema<?>, Boolean> resolving = new IdentityHashMap<>();
+        private RecordModel request;
+        private TypeModel response;
+
+        private OperationModel(String operationId, String method, String path, String mapperName) {
+            this.operationId = operationId;
+            this.method = method;
+            this.path = path;
+            this.mapperName = mapperName;
+        }
+    }
+}
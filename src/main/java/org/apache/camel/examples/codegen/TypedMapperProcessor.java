@@ -0,0 +1,117 @@
+package org.apache.camel.examples.codegen;
+
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.ParseOptions;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 处理{@link GenerateTypedMappers}, 在编译期读取OpenAPI文档并生成类型化record与映射类
+ * <p>
+ * 不通过META-INF/services注册: pom中的compile-codegen在generate-sources阶段先单独编译codegen包,
+ * 处理器只在default-testCompile的annotationProcessors中启用. 主代码的工具在运行时按配置加载文档, 没有使用生成的映射类,
+ * 目前生成结果只用于TypedMapperGeneratorTest与TypedMapperBenchmark
+ */
+@SupportedAnnotationTypes({
+    "org.apache.camel.examples.codegen.GenerateTypedMappers",
+    "org.apache.camel.examples.codegen.GenerateTypedMappers.List"
+})
+public class TypedMapperProcessor extends AbstractProcessor {
+
+    private final Set<String> processed = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<Element> elements = new HashSet<>();
+        elements.addAll(roundEnv.getElementsAnnotatedWith(GenerateTypedMappers.class));
+        elements.addAll(roundEnv.getElementsAnnotatedWith(GenerateTypedMappers.List.class));
+
+        for (Element element : elements) {
+            for (GenerateTypedMappers annotation : element.getAnnotationsByType(GenerateTypedMappers.class)) {
+                if (processed.add(annotation.packageName() + ":" + annotation.spec())) {
+                    generate(element, annotation);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(Element element, GenerateTypedMappers annotation) {
+        OpenAPI openAPI;
+        try {
+            openAPI = parse(readSpec(annotation.spec()));
+        } catch (IOException | IllegalArgumentException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "无法读取OpenAPI文档 " + annotation.spec() + ": " + e.getMessage(), element);
+            return;
+        }
+
+        Map<String, String> sources = new TypedMapperGenerator(annotation.packageName()).generate(openAPI);
+        Filer filer = processingEnv.getFiler();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            String className = annotation.packageName() + "." + source.getKey();
+            try {
+                JavaFileObject file = filer.createSourceFile(className, element);
+                try (Writer writer = file.openWriter()) {
+                    writer.write(source.getValue());
+                }
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "写入生成类失败 " + className + ": " + e.getMessage(), element);
+            }
+        }
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+            "根据 " + annotation.spec() + " 生成了 " + sources.size() + " 个类型", element);
+    }
+
+    /**
+     * 优先从编译输出目录读取(资源文件在编译前已复制), 否则按文件路径读取
+     */
+    private String readSpec(String location) throws IOException {
+        try {
+            FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", location);
+            return resource.getCharContent(true).toString();
+        } catch (IOException | IllegalArgumentException e) {
+            Path path = Path.of(location);
+            if (!Files.isRegularFile(path)) {
+                throw new IOException("在编译输出目录和文件系统中均未找到", e);
+            }
+            return Files.readString(path, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static OpenAPI parse(String content) {
+        ParseOptions parseOptions = new ParseOptions();
+        parseOptions.setResolve(true);
+        parseOptions.setResolveFully(true);
+        OpenAPI openAPI = new OpenAPIParser().readContents(content, null, parseOptions).getOpenAPI();
+        if (openAPI == null) {
+            throw new IllegalArgumentException("文档解析结果为空");
+        }
+        return openAPI;
+    }
+}
@@ -0,0 +1,325 @@
+package org.apache.camel.examples.codegen;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 生成的映射类在运行时使用的转换方法, 只基于Jackson流式API, 不使用反射和JSON树
+ */
+public final class TypedValues {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private TypedValues() {
+    }
+
+    @FunctionalInterface
+    public interface ValueReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface ValueWriter<T> {
+        void write(JsonGenerator generator, T value) throws IOException;
+    }
+
+    // ---------- 读取JSON ----------
+
+    public static <T> T read(String json, ValueReader<T> reader) throws IOException {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return parser.nextToken() == null ? null : reader.read(parser);
+        }
+    }
+
+    public static String readString(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    public static Integer readInteger(JsonParser parser) throws IOException {
+        Number number = readNumber(parser);
+        return number == null ? null : number.intValue();
+    }
+
+    public static Long readLong(JsonParser parser) throws IOException {
+        Number number = readNumber(parser);
+        return number == null ? null : number.longValue();
+    }
+
+    public static Double readDouble(JsonParser parser) throws IOException {
+        Number number = readNumber(parser);
+        return number == null ? null : number.doubleValue();
+    }
+
+    public static Boolean readBoolean(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return Boolean.valueOf(parser.getText().trim());
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    /**
+     * 读取任意结构, 以紧凑JSON文本返回, 用于文档中未声明属性的对象
+     */
+    public static String readRaw(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+    }
+
+    public static <T> List<T> readList(JsonParser parser, ValueReader<T> itemReader) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<T> items = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            items.add(itemReader.read(parser));
+        }
+        return items;
+    }
+
+    private static Number readNumber(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getNumberValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return parseNumber(parser.getText());
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    // ---------- 写出JSON ----------
+
+    public static <T> String write(T value, ValueWriter<T> writer) {
+        if (value == null) {
+            return null;
+        }
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            writer.write(generator, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("序列化请求体失败", e);
+        }
+        return out.toString();
+    }
+
+    public static void writeString(JsonGenerator generator, String value) throws IOException {
+        generator.writeString(value);
+    }
+
+    public static void writeInteger(JsonGenerator generator, Integer value) throws IOException {
+        generator.writeNumber(value);
+    }
+
+    public static void writeLong(JsonGenerator generator, Long value) throws IOException {
+        generator.writeNumber(value);
+    }
+
+    public static void writeDouble(JsonGenerator generator, Double value) throws IOException {
+        generator.writeNumber(value);
+    }
+
+    public static void writeBoolean(JsonGenerator generator, Boolean value) throws IOException {
+        generator.writeBoolean(value);
+    }
+
+    public static void writeRaw(JsonGenerator generator, String value) throws IOException {
+        generator.writeRawValue(value);
+    }
+
+    public static <T> void writeList(JsonGenerator generator, List<T> values, ValueWriter<T> itemWriter) throws IOException {
+        generator.writeStartArray();
+        for (T value : values) {
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                itemWriter.write(generator, value);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    // ---------- 转换工具入参 ----------
+
+    public static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    public static Integer asInteger(Object value) {
+        Number number = asNumber(value);
+        return number == null ? null : number.intValue();
+    }
+
+    public static Long asLong(Object value) {
+        Number number = asNumber(value);
+        return number == null ? null : number.longValue();
+    }
+
+    public static Double asDouble(Object value) {
+        Number number = asNumber(value);
+        return number == null ? null : number.doubleValue();
+    }
+
+    public static Boolean asBoolean(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return Boolean.valueOf(value.toString().trim());
+    }
+
+    /**
+     * 将工具入参中的任意值转为JSON文本, 字符串视为已经是JSON
+     */
+    public static String asRawJson(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        return write(value, TypedValues::writeUntyped);
+    }
+
+    public static <T> List<T> asList(Object value, Function<Object, T> itemConverter) {
+        if (value == null) {
+            return null;
+        }
+        List<T> items = new ArrayList<>();
+        if (value instanceof Iterable<?> iterable) {
+            iterable.forEach(item -> items.add(itemConverter.apply(item)));
+        } else {
+            items.add(itemConverter.apply(value));
+        }
+        return items;
+    }
+
+    /**
+     * 工具入参中的对象, 可能是已解析的Map, 也可能是JSON字符串
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> asMap(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return (Map<String, Object>) map;
+        }
+        if (value instanceof String json && !json.isBlank()) {
+            try {
+                Object parsed = read(json, TypedValues::readUntyped);
+                return parsed instanceof Map<?, ?> map ? (Map<String, Object>) map : null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 展开路径模板中的参数, 值为空时保留占位符
+     */
+    public static String expand(String template, String name, Object value) {
+        return value == null ? template : template.replace("{" + name + "}", value.toString());
+    }
+
+    private static Number asNumber(Object value) {
+        if (value == null || value instanceof Number) {
+            return (Number) value;
+        }
+        return parseNumber(value.toString());
+    }
+
+    private static Number parseNumber(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        try {
+            return trimmed.indexOf('.') < 0 && trimmed.indexOf('e') < 0 && trimmed.indexOf('E') < 0
+                ? (Number) Long.valueOf(trimmed)
+                : (Number) Double.valueOf(trimmed);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Object readUntyped(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT: {
+                Map<String, Object> map = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    map.put(field, readUntyped(parser));
+                }
+                return map;
+            }
+            case START_ARRAY:
+                return readList(parser, TypedValues::readUntyped);
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    private static void writeUntyped(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Map<?, ?> map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                writeUntyped(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof Iterable<?> iterable) {
+            generator.writeStartArray();
+            for (Object item : iterable) {
+                writeUntyped(generator, item);
+            }
+            generator.writeEndArray();
+        } else if (value instanceof Number number) {
+            generator.writeNumber(number.toString());
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+}
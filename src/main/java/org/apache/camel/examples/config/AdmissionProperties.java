@@ -0,0 +1,111 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MCP工具调用的准入控制配置: 并发上限之外的调用按优先级类别排队, 超过排队期限或服务过载时提前拒绝
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 同时执行的MCP工具调用数上限
+     */
+    private int maxConcurrent = 64;
+
+    /**
+     * 排队时延的目标值, 一个观测周期内的最小排队时延都超过该值时判定为过载
+     */
+    private Duration targetDelay = Duration.ofMillis(50);
+
+    /**
+     * 过载判定的观测周期
+     */
+    private Duration interval = Duration.ofMillis(500);
+
+    /**
+     * 未匹配任何规则的调用所属的类别
+     */
+    private String defaultClass = "interactive";
+
+    /**
+     * 优先级类别, key为类别名
+     */
+    private Map<String, PriorityClass> classes = defaultClasses();
+
+    /**
+     * 按顺序匹配的分类规则, 第一条匹配的规则决定调用的类别
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class PriorityClass {
+
+        /**
+         * 数值越小越先出队
+         */
+        private int priority;
+
+        /**
+         * 排队的调用数上限, 队列已满时直接拒绝
+         */
+        private int queueCapacity = 256;
+
+        /**
+         * 排队期限, 预计或实际排队超过该时间的调用不再执行
+         */
+        private Duration queueTimeout = Duration.ofSeconds(10);
+
+        /**
+         * 过载时是否直接拒绝该类别的新调用
+         */
+        private boolean sheddable = true;
+
+        public static PriorityClass of(int priority, int queueCapacity, Duration queueTimeout, boolean sheddable) {
+            PriorityClass priorityClass = new PriorityClass();
+            priorityClass.setPriority(priority);
+            priorityClass.setQueueCapacity(queueCapacity);
+            priorityClass.setQueueTimeout(queueTimeout);
+            priorityClass.setSheddable(sheddable);
+            return priorityClass;
+        }
+    }
+
+    @Data
+    public static class Rule {
+
+        /**
+         * 工具名, 支持*通配, 为空表示不限
+         */
+        private String tool;
+
+        /**
+         * MCP客户端在initialize时上报的名称, 或"名称/版本", 支持*通配, 为空表示不限
+         */
+        private String client;
+
+        /**
+         * 匹配的调用所属的类别
+         */
+        private String priorityClass;
+    }
+
+    private static Map<String, PriorityClass> defaultClasses() {
+        Map<String, PriorityClass> classes = new LinkedHashMap<>();
+        classes.put("interactive", PriorityClass.of(0, 256, Duration.ofSeconds(5), false));
+        classes.put("batch", PriorityClass.of(10, 1024, Duration.ofSeconds(60), true));
+        return classes;
+    }
+}
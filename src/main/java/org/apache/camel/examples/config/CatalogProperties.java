@@ -0,0 +1,19 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 工具列表缓存配置, 工具列表按注册表版本预先序列化
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.catalog")
+public class CatalogProperties {
+
+    /**
+     * GET /mcp/tools每页的工具数, 超出时返回nextCursor
+     */
+    private int pageSize = 100;
+}
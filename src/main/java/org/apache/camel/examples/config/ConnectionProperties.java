@@ -0,0 +1,108 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 上游连接池配置, 所有HTTP端点共享同一个连接池, 按上游主机应用连接配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.connections")
+public class ConnectionProperties {
+
+    /**
+     * 连接池的最大连接数
+     */
+    private int maxTotal = 200;
+
+    /**
+     * 清理过期与空闲超时连接的间隔
+     */
+    private Duration evictionInterval = Duration.ofSeconds(5);
+
+    private Profile defaults = new Profile();
+
+    /**
+     * key为上游主机, 可带端口(host:port), 含.或:时需写作[api.internal:8443], 未声明的主机使用defaults
+     */
+    private Map<String, Profile> hosts = new LinkedHashMap<>();
+
+    private Prewarm prewarm = new Prewarm();
+
+    private Dns dns = new Dns();
+
+    private Tls tls = new Tls();
+
+    @Data
+    public static class Profile {
+
+        /**
+         * 每个上游(scheme+host+port)的最大连接数
+         */
+        private int maxPerRoute = 20;
+
+        /**
+         * 空闲连接在池中保留的时长, 上游Keep-Alive响应头声明更短时以上游为准
+         */
+        private Duration keepAlive = Duration.ofSeconds(30);
+
+        /**
+         * 连接的最长存活时间, 到期后不再复用, 为空表示不限制
+         */
+        private Duration timeToLive;
+
+        /**
+         * 连接空闲超过该时长后复用前先检查连接是否仍然可用
+         */
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        /**
+         * 启动时预先建立的连接数, 0表示不预热
+         */
+        private int prewarmConnections = 1;
+    }
+
+    @Data
+    public static class Prewarm {
+
+        private boolean enabled = true;
+
+        /**
+         * 预热的最长等待时间, 超时后不再等待, 应用照常就绪
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Dns {
+
+        /**
+         * 解析结果的缓存时间, 后台在到期前刷新
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * 刷新失败时继续使用旧结果的最长时间
+         */
+        private Duration maxStale = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Tls {
+
+        /**
+         * 客户端TLS会话缓存, 同一上游的新连接以会话恢复代替完整握手
+         */
+        private int sessionCacheSize = 1000;
+
+        private Duration sessionTimeout = Duration.ofHours(1);
+    }
+}
@@ -0,0 +1,64 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 上游响应体的读取配置: 文本按声明的字符集解码, 二进制内容以base64作为MCP的图片或资源内容返回
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.content")
+public class ContentProperties {
+
+    /**
+     * 二进制响应的默认大小上限
+     */
+    private DataSize binaryMaxSize = DataSize.ofMegabytes(10);
+
+    /**
+     * 文本响应的默认大小上限, 为空表示不限制
+     */
+    private DataSize textMaxSize;
+
+    /**
+     * 按媒体类型覆盖大小上限, 键为完整类型(image/png)或主类型通配(image/*)
+     */
+    private Map<String, DataSize> maxSizes = new LinkedHashMap<>();
+
+    /**
+     * 二进制内容等待发送给MCP客户端的最长时间, 超时未取走的丢弃
+     */
+    private Duration attachmentTtl = Duration.ofMinutes(1);
+
+    /**
+     * 媒体类型的大小上限, 完整类型优先于主类型通配; 返回-1表示不限制
+     */
+    public long maxSizeOf(String mediaType, boolean binary) {
+        String type = mediaType == null ? "" : mediaType.toLowerCase(Locale.ROOT);
+        DataSize size = find(type);
+        if (size == null && type.indexOf('/') > 0) {
+            size = find(type.substring(0, type.indexOf('/')) + "/*");
+        }
+        if (size == null) {
+            size = binary ? binaryMaxSize : textMaxSize;
+        }
+        return size == null ? -1 : size.toBytes();
+    }
+
+    private DataSize find(String type) {
+        for (Map.Entry<String, DataSize> entry : maxSizes.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(type)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
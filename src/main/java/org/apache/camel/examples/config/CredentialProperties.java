@@ -0,0 +1,74 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 上游认证配置, 按上游主机声明凭证, 由路由在发出请求前附加
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.credentials")
+public class CredentialProperties {
+
+    /**
+     * 令牌在到期前多久开始后台刷新
+     */
+    private Duration refreshBefore = Duration.ofSeconds(60);
+
+    /**
+     * 请求令牌端点的连接与请求超时时间
+     */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * key为上游主机, 可带端口(host:port), 含.或:时需写作[api.internal:8443]
+     */
+    private Map<String, Upstream> hosts = new LinkedHashMap<>();
+
+    public enum Type {
+        /**
+         * OAuth2 client_credentials授权, 令牌缓存到临近过期并在后台刷新
+         */
+        CLIENT_CREDENTIALS,
+        /**
+         * 固定请求头, 例如API Key
+         */
+        STATIC
+    }
+
+    @Data
+    public static class Upstream {
+
+        private Type type = Type.CLIENT_CREDENTIALS;
+
+        /**
+         * 令牌端点, client-credentials使用
+         */
+        private String tokenUri;
+
+        private String clientId;
+
+        private String clientSecret;
+
+        /**
+         * 申请的scope, 多个以空格分隔
+         */
+        private String scope;
+
+        /**
+         * 请求头名称, static使用
+         */
+        private String header = "Authorization";
+
+        /**
+         * 请求头取值, static使用
+         */
+        private String value;
+    }
+}
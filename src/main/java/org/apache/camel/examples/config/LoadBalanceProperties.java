@@ -0,0 +1,59 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 多上游服务器的负载均衡配置, 操作声明了多个servers时生效
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.load-balance")
+public class LoadBalanceProperties {
+
+    /**
+     * 延迟EWMA的时间常数, 越小越快反映最近的延迟变化
+     */
+    private Duration decay = Duration.ofSeconds(10);
+
+    private Outlier outlier = new Outlier();
+
+    private HealthCheck healthCheck = new HealthCheck();
+
+    @Data
+    public static class Outlier {
+
+        /**
+         * 连续失败(5xx或请求异常)多少次后摘除
+         */
+        private int consecutiveFailures = 5;
+
+        /**
+         * 首次摘除时长, 之后每次摘除翻倍
+         */
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        /**
+         * 同一组服务器中最多摘除的比例, 避免故障扩散时无服务器可用
+         */
+        private int maxEjectionPercent = 50;
+    }
+
+    @Data
+    public static class HealthCheck {
+
+        /**
+         * 健康检查路径, 拼接在每个服务器地址之后, 为空表示不主动探测
+         */
+        private String path;
+
+        private Duration interval = Duration.ofSeconds(10);
+
+        private Duration timeout = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,222 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.apache.camel.examples.encoding.ResponseEncoding;
+import org.apache.camel.examples.mapping.ResponseMapping;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OpenAPI工具配置, 声明启动时需要加载为MCP工具的OpenAPI文档
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.openapi")
+public class OpenApiToolsProperties {
+
+    /**
+     * 需要加载的OpenAPI文档列表
+     */
+    private List<Spec> specs = new ArrayList<>();
+
+    /**
+     * 单个文档的默认解析超时时间, 从提交时计算, 包括排队等待线程的时间
+     */
+    private Duration parseTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 并发解析文档的最大线程数
+     */
+    private int parseParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 远程(http/https)文档的拉取与缓存配置
+     */
+    private Remote remote = new Remote();
+
+    /**
+     * 工具调用的默认超时, 可被操作上的x-timeout扩展覆盖
+     */
+    private CallTimeout callTimeout = new CallTimeout();
+
+    /**
+     * 组合工具, 将已加载文档中的多个工具按依赖关系编排为一次调用
+     */
+    private List<Workflow> workflows = new ArrayList<>();
+
+    @Data
+    public static class Spec {
+
+        /**
+         * 文档名称, 仅用于日志, 为空时使用location
+         */
+        private String name;
+
+        /**
+         * 文档位置, 支持http(s)地址, classpath:前缀的类路径资源, file:前缀或普通文件路径
+         */
+        private String location;
+
+        /**
+         * 覆盖文档中servers声明的上游地址
+         */
+        private String baseUrl;
+
+        /**
+         * 工具名前缀, 避免多个文档之间的operationId冲突
+         */
+        private String toolPrefix;
+
+        /**
+         * 解析超时时间, 为空时使用全局parseTimeout
+         */
+        private Duration timeout;
+
+        /**
+         * 按operationId配置的工具级选项
+         */
+        private Map<String, ToolSettings> tools = new LinkedHashMap<>();
+
+        public String displayName() {
+            return name != null && !name.trim().isEmpty() ? name : location;
+        }
+    }
+
+    @Data
+    public static class CallTimeout {
+
+        /**
+         * 等待上游响应数据的超时, 流式响应中为两个分块之间的最长间隔
+         */
+        private Duration read = Duration.ofSeconds(30);
+
+        /**
+         * 整个调用的截止时间, 超时后中止上游请求并释放连接
+         */
+        private Duration total = Duration.ofSeconds(60);
+
+        /**
+         * 执行上游调用的线程数上限, 超出时调用排队等待, 排队时间计入截止时间
+         */
+        private int threads = 64;
+    }
+
+    @Data
+    public static class ToolSettings {
+
+        /**
+         * 响应映射, 构建工具时编译, 见{@link ResponseMapping}
+         */
+        private ResponseMapping mapping;
+
+        /**
+         * 响应输出编码, 同构对象数组可编码为csv/tsv/toon以节省上下文, 默认json
+         */
+        private ResponseEncoding encoding = ResponseEncoding.JSON;
+
+        /**
+         * 流式模式, 适用于SSE或JSON Lines上游, 分块到达时即通过MCP通知转发给客户端
+         */
+        private boolean streaming;
+
+        /**
+         * 工具级限流, 优先于操作上的x-rate-limit扩展
+         */
+        private RateLimitProperties.Limit rateLimit;
+
+        /**
+         * 走直连快速路径, 不经过Camel路由, 也可在操作上以x-fast-path: true声明
+         */
+        private boolean fastPath;
+    }
+
+    @Data
+    public static class Workflow {
+
+        /**
+         * 组合工具名
+         */
+        private String name;
+
+        private String description;
+
+        /**
+         * 整个工作流的截止时间, 超时后未完成的步骤被取消, 返回已完成步骤的结果
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        /**
+         * 组合工具的入参, key为参数名
+         */
+        private Map<String, WorkflowInput> inputs = new LinkedHashMap<>();
+
+        /**
+         * 步骤列表, 依赖关系由参数中的{{step.path}}引用推导, 无依赖的步骤并发执行
+         */
+        private List<WorkflowStep> steps = new ArrayList<>();
+
+        /**
+         * 结果中包含的步骤, 为空时包含全部步骤
+         */
+        private List<String> output = new ArrayList<>();
+    }
+
+    @Data
+    public static class WorkflowInput {
+
+        /**
+         * JSON Schema类型, 默认string
+         */
+        private String type = "string";
+
+        private String description;
+
+        private boolean required = true;
+    }
+
+    @Data
+    public static class WorkflowStep {
+
+        /**
+         * 步骤标识, 供其他步骤引用
+         */
+        private String id;
+
+        /**
+         * 调用的工具名(含tool-prefix)
+         */
+        private String tool;
+
+        /**
+         * 工具参数, 字符串中可以使用{{input.name}}或{{stepId.path}}引用入参和其他步骤的响应
+         */
+        private Map<String, Object> arguments = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class Remote {
+
+        /**
+         * 本地缓存目录, 保存文档内容及其ETag/Last-Modified, 注册中心不可用时从缓存启动
+         */
+        private String cacheDir = Paths.get(System.getProperty("java.io.tmpdir"), "mcp-openapi-cache").toString();
+
+        /**
+         * 拉取文档的连接与请求超时时间
+         */
+        private Duration requestTimeout = Duration.ofSeconds(10);
+
+        /**
+         * 定时条件请求(If-None-Match/If-Modified-Since)重新校验的间隔,
+         * 由@Scheduled读取, 使用ISO-8601格式, 例如PT5M
+         */
+        private Duration refreshInterval = Duration.ofMinutes(5);
+    }
+}
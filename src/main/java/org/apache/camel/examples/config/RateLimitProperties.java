@@ -0,0 +1,67 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 工具调用限流配置, 按上游主机与MCP客户端限流; 按工具限流在mcp.openapi.specs[].tools中配置或通过x-rate-limit声明
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.rate-limit")
+public class RateLimitProperties {
+
+    public enum Mode {
+        /**
+         * 超出限制的调用立即返回429
+         */
+        REJECT,
+        /**
+         * 超出限制时等待令牌, 等待超过maxDelay的调用返回429
+         */
+        DELAY
+    }
+
+    private Mode mode = Mode.REJECT;
+
+    /**
+     * DELAY模式下单次调用的最长等待时间
+     */
+    private Duration maxDelay = Duration.ofMillis(200);
+
+    /**
+     * 每个MCP客户端的限制, 为空表示不限制
+     * <p>
+     * MCP SDK不向工具暴露会话id, 客户端以initialize时上报的名称与版本区分, 同一客户端版本的所有用户共用一个令牌桶
+     */
+    private Limit client;
+
+    /**
+     * 同时跟踪的客户端数上限, 超过时清理令牌已补满的客户端, 仍超过时淘汰最久没有调用的客户端
+     */
+    private int maxClients = 10_000;
+
+    /**
+     * key为上游主机, 可带端口(host:port), 含.或:时需写作[api.internal:8443]
+     */
+    private Map<String, Limit> hosts = new LinkedHashMap<>();
+
+    @Data
+    public static class Limit {
+
+        /**
+         * 每秒产生的令牌数
+         */
+        private double rate;
+
+        /**
+         * 令牌桶容量, 即允许的突发调用数, 为空时等于rate(至少为1)
+         */
+        private Integer burst;
+    }
+}
@@ -0,0 +1,39 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 超大工具结果的分块读取配置, 超过阈值的结果暂存在堆外, 工具只返回第一块与续读游标
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.result-chunks")
+public class ResultChunkProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 响应体超过该大小(UTF-8字节)时分块返回
+     */
+    private DataSize threshold = DataSize.ofKilobytes(64);
+
+    /**
+     * 每块的大小; JSON数组按条目切分, 每块至少一个条目
+     */
+    private DataSize chunkSize = DataSize.ofKilobytes(16);
+
+    /**
+     * 暂存结果的有效期, 从存入时起算
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * 暂存结果占用的堆外内存上限, 超出时淘汰最早存入的结果
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+}
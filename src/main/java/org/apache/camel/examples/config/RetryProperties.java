@@ -0,0 +1,63 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 上游瞬时故障的重试配置, 只对幂等方法或声明了x-idempotent的操作生效
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.retry")
+public class RetryProperties {
+
+    /**
+     * 最多尝试次数, 含首次请求, 1表示不重试
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * 首次重试的退避上限, 之后每次翻倍, 实际等待在0到上限之间随机
+     */
+    private Duration initialBackoff = Duration.ofMillis(100);
+
+    /**
+     * 退避上限
+     */
+    private Duration maxBackoff = Duration.ofSeconds(2);
+
+    /**
+     * 429/503响应中Retry-After超过该值时不再重试, 直接返回响应
+     */
+    private Duration maxRetryAfter = Duration.ofSeconds(10);
+
+    /**
+     * 视为瞬时故障的状态码, 连接失败、读取超时等IO异常总是视为瞬时故障
+     */
+    private Set<Integer> statuses = new LinkedHashSet<>(List.of(429, 502, 503, 504));
+
+    /**
+     * 重试预算, 全局与每个上游主机各一份
+     */
+    private Budget budget = new Budget();
+
+    @Data
+    public static class Budget {
+
+        /**
+         * 每个请求存入的令牌数, 每次重试消耗一个令牌, 0.1表示重试不超过请求量的10%
+         */
+        private double ratio = 0.1;
+
+        /**
+         * 令牌桶容量, 启动时桶是满的, 允许低流量时少量重试
+         */
+        private int capacity = 10;
+    }
+}
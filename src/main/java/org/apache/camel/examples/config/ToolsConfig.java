@@ -2,6 +2,11 @@ package org.apache.camel.examples.config;
 
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.admission.AdmissionController;
+import org.apache.camel.examples.service.OpenApiToolLoader;
+import org.apache.camel.examples.service.ToolRegistry;
+import org.apache.camel.examples.workflow.WorkflowToolService;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
@@ -17,14 +22,34 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * 工具配置类，负责从Spring容器中获取所有工具类并注册为ToolCallbackProvider
+ * 工具配置类，负责从Spring容器中获取所有工具类, 并与配置的OpenAPI文档生成的工具合并注册为ToolCallbackProvider
  */
 @Slf4j
 @Component
 public class ToolsConfig {
+
+    private static final String METHOD_TOOLS_SOURCE = "@Tool";
+
+    private static final String WORKFLOW_TOOLS_SOURCE = "workflows";
+
     @Resource
     private ApplicationContext applicationContext;
 
+    @Resource
+    private OpenApiToolsProperties openApiToolsProperties;
+
+    @Resource
+    private OpenApiToolLoader openApiToolLoader;
+
+    @Resource
+    private ToolRegistry toolRegistry;
+
+    @Resource
+    private WorkflowToolService workflowToolService;
+
+    @Resource
+    private AdmissionController admissionController;
+
     @Bean
     public ToolCallbackProvider toolCallbackProvider() {
         List<Object> toolObjects = new ArrayList<>();
@@ -38,9 +63,30 @@ public class ToolsConfig {
             log.info("- {}", tool.getClass().getSimpleName());
         }
         
-        return MethodToolCallbackProvider.builder()
+        ToolCallback[] methodTools = MethodToolCallbackProvider.builder()
             .toolObjects(toolObjects.toArray())
-            .build();
+            .build()
+            .getToolCallbacks();
+
+        toolRegistry.register(METHOD_TOOLS_SOURCE, List.of(methodTools));
+
+        Map<OpenApiToolsProperties.Spec, List<ToolCallback>> openApiTools = openApiToolLoader.load(openApiToolsProperties);
+        openApiTools.forEach((spec, tools) -> toolRegistry.register(spec.displayName(), tools));
+        log.info("已从 {} 个OpenAPI文档注册 {} 个工具", openApiTools.size(),
+            openApiTools.values().stream().mapToInt(List::size).sum());
+
+        List<ToolCallback> workflowTools = workflowToolService.build(openApiToolsProperties.getWorkflows());
+        if (!workflowTools.isEmpty()) {
+            toolRegistry.register(WORKFLOW_TOOLS_SOURCE, workflowTools);
+            log.info("已注册 {} 个组合工具", workflowTools.size());
+        }
+
+        List<ToolCallback> tools = toolRegistry.getToolCallbacks();
+        if (admissionController != null) {
+            // 只有交给MCP服务的工具经过准入控制, 注册表中的工具供组合工具直接调用
+            tools = tools.stream().map(admissionController::wrap).toList();
+        }
+        return ToolCallbackProvider.from(tools);
     }
     
     private <A extends Annotation> void collectTools(List<Object> toolObjects) {
@@ -0,0 +1,46 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Paths;
+
+/**
+ * 上游流量录制与回放配置, 用于在无法访问上游的环境中复现线上负载
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.traffic")
+public class TrafficProperties {
+
+    public enum Mode {
+        OFF,
+        /**
+         * 把发往上游的请求与原始响应、耗时追加到日志
+         */
+        RECORD,
+        /**
+         * 不请求上游, 从日志中按请求取出录制的响应
+         */
+        REPLAY
+    }
+
+    private Mode mode = Mode.OFF;
+
+    /**
+     * 日志目录, 录制时在已有分段之后新建分段, 回放时读取目录下的全部分段
+     */
+    private String directory = Paths.get(System.getProperty("java.io.tmpdir"), "mcp-traffic").toString();
+
+    /**
+     * 单个分段文件的大小, 写满后切换到下一个分段
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 回放延迟相对录制耗时的倍数, 0表示不等待
+     */
+    private double latencyScale = 1.0;
+}
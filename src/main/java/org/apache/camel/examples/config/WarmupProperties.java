@@ -0,0 +1,38 @@
+package org.apache.camel.examples.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 启动预热配置, 开启后在应用就绪前以合成入参反复调用OpenAPI工具, 上游请求发往进程内的空端点
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 最多轮数, 每轮依次调用每个工具一次
+     */
+    private int maxRounds = 2000;
+
+    /**
+     * 至少轮数, 之后JIT编译时间不再增长即结束
+     */
+    private int minRounds = 200;
+
+    /**
+     * 预热的最长时间, 超时后结束预热, 应用照常就绪
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+
+    /**
+     * 并发调用工具的线程数
+     */
+    private int threads = 2;
+}
@@ -0,0 +1,109 @@
+package org.apache.camel.examples.connection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.DnsResolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 带有限TTL的DNS缓存
+ * <p>
+ * 解析结果缓存ttl时长, {@link #refresh()}由后台定时调用, 在到期前重新解析仍在使用的主机, 调用线程不等待DNS;
+ * 解析失败时在maxStale内继续使用旧结果. 超过10个ttl未使用的主机从缓存移除
+ */
+@Slf4j
+public class CachingDnsResolver implements DnsResolver {
+
+    private static final int IDLE_TTLS = 10;
+
+    private final DnsResolver delegate;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final LongSupplier clock;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public CachingDnsResolver(DnsResolver delegate, Duration ttl, Duration maxStale) {
+        this(delegate, ttl, maxStale, System::nanoTime);
+    }
+
+    CachingDnsResolver(DnsResolver delegate, Duration ttl, Duration maxStale, LongSupplier clock) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.maxStaleNanos = maxStale.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        String key = host.toLowerCase(Locale.ROOT);
+        long now = clock.getAsLong();
+        Entry entry = cache.get(key);
+        if (entry != null && now - entry.resolvedAt < ttlNanos) {
+            entry.lastUsed = now;
+            return entry.addresses.clone();
+        }
+        try {
+            InetAddress[] addresses = delegate.resolve(host);
+            cache.put(key, new Entry(addresses, now));
+            return addresses.clone();
+        } catch (UnknownHostException e) {
+            if (entry != null && now - entry.resolvedAt < ttlNanos + maxStaleNanos) {
+                log.warn("DNS解析失败, 继续使用缓存的地址: {}", host);
+                entry.lastUsed = now;
+                return entry.addresses.clone();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return delegate.resolveCanonicalHostname(host);
+    }
+
+    /**
+     * 重新解析已过半个ttl的主机, 移除长时间未使用的主机
+     */
+    public void refresh() {
+        long now = clock.getAsLong();
+        cache.forEach((host, entry) -> {
+            if (now - entry.lastUsed > ttlNanos * IDLE_TTLS) {
+                cache.remove(host, entry);
+                return;
+            }
+            if (now - entry.resolvedAt < ttlNanos / 2) {
+                return;
+            }
+            try {
+                Entry refreshed = new Entry(delegate.resolve(host), now);
+                refreshed.lastUsed = entry.lastUsed;
+                cache.replace(host, entry, refreshed);
+            } catch (UnknownHostException e) {
+                log.warn("DNS后台刷新失败: {}", host);
+            }
+        });
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private static final class Entry {
+
+        private final InetAddress[] addresses;
+        private final long resolvedAt;
+        private volatile long lastUsed;
+
+        private Entry(InetAddress[] addresses, long resolvedAt) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+            this.lastUsed = resolvedAt;
+        }
+    }
+}
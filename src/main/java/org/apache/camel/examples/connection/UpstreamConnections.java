@@ -0,0 +1,234 @@
+package org.apache.camel.examples.connection;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.component.http.HttpClientConfigurer;
+import org.apache.camel.examples.config.ConnectionProperties;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.RouteInfo;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 上游HTTP连接池, 由HTTP组件的所有端点共享
+ * <p>
+ * 按上游主机应用{@link ConnectionProperties.Profile}, 通过{@link CachingDnsResolver}解析主机,
+ * 复用同一个SSLContext的TLS会话缓存. 工具解析时登记上游服务器, 应用就绪前预先建立连接, 首次调用不再等待DNS、TCP和TLS握手
+ */
+@Slf4j
+@Component
+public class UpstreamConnections implements HttpClientConfigurer, ApplicationRunner {
+
+    private final ConnectionProperties properties;
+    private final CachingDnsResolver dnsResolver;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final Set<HttpRoute> routes = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+
+    @Autowired
+    public UpstreamConnections(ConnectionProperties properties) {
+        this.properties = properties;
+        this.dnsResolver = new CachingDnsResolver(SystemDefaultDnsResolver.INSTANCE,
+            properties.getDns().getTtl(), properties.getDns().getMaxStale());
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setDnsResolver(dnsResolver)
+            .setTlsSocketStrategy(new DefaultClientTlsStrategy(sslContext(properties.getTls())))
+            .setMaxConnTotal(properties.getMaxTotal())
+            .setMaxConnPerRoute(properties.getDefaults().getMaxPerRoute())
+            .setConnectionConfigResolver(route -> connectionConfig(profileOf(route.getTargetHost())))
+            .build();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-connections");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long refresh = Math.max(1, properties.getDns().getTtl().toMillis() / 2);
+        scheduler.scheduleWithFixedDelay(dnsResolver::refresh, refresh, refresh, TimeUnit.MILLISECONDS);
+        long eviction = properties.getEvictionInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(connectionManager::closeExpired, eviction, eviction, TimeUnit.MILLISECONDS);
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * 登记工具使用的上游服务器, 按主机设置连接数上限
+     */
+    public void register(Collection<String> baseUrls) {
+        for (String baseUrl : baseUrls) {
+            HttpRoute route = routeOf(baseUrl);
+            if (route != null && routes.add(route)) {
+                connectionManager.setMaxPerRoute(route, profileOf(route.getTargetHost()).getMaxPerRoute());
+            }
+        }
+    }
+
+    /**
+     * 空闲连接保留时长取上游Keep-Alive响应头与主机配置中较短者
+     */
+    @Override
+    public void configureHttpClient(HttpClientBuilder clientBuilder) {
+        clientBuilder.setKeepAliveStrategy(this::keepAliveDuration);
+    }
+
+    private TimeValue keepAliveDuration(HttpResponse response, HttpContext context) {
+        RouteInfo route = HttpClientContext.castOrCreate(context).getHttpRoute();
+        if (route == null) {
+            return DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        }
+        TimeValue configured = TimeValue.of(profileOf(route.getTargetHost()).getKeepAlive());
+        TimeValue declared = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return TimeValue.isPositive(declared) && declared.compareTo(configured) < 0 ? declared : configured;
+    }
+
+    /**
+     * 在应用就绪前预热连接: 解析DNS, 完成TCP与TLS握手后放回连接池. 预热失败或超时只记录日志, 不影响启动
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.getPrewarm().isEnabled()) {
+            prewarm();
+        }
+    }
+
+    public void prewarm() {
+        if (routes.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Timeout timeout = Timeout.of(properties.getPrewarm().getTimeout());
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (HttpRoute route : routes) {
+            futures.add(CompletableFuture.supplyAsync(() -> open(route, timeout)));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(timeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("连接预热超过 {} ms未完成, 不再等待", timeout.toMilliseconds());
+        } catch (Exception e) {
+            log.warn("连接预热失败", e);
+        }
+        int opened = futures.stream().filter(CompletableFuture::isDone).mapToInt(future -> future.getNow(0)).sum();
+        log.info("连接预热完成, 上游: {}, 连接: {}, 耗时: {} ms", routes.size(), opened,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * 同时持有多个连接再一并放回连接池, 避免后一次租用复用前一次刚建立的连接
+     *
+     * @return 建立的连接数
+     */
+    private int open(HttpRoute route, Timeout timeout) {
+        ConnectionProperties.Profile profile = profileOf(route.getTargetHost());
+        int connections = Math.min(profile.getPrewarmConnections(), profile.getMaxPerRoute());
+        List<ConnectionEndpoint> endpoints = new ArrayList<>();
+        int opened = 0;
+        try {
+            for (int i = 0; i < connections; i++) {
+                ConnectionEndpoint endpoint = connectionManager.lease("prewarm-" + i, route, timeout, null).get(timeout);
+                endpoints.add(endpoint);
+                if (!endpoint.isConnected()) {
+                    connectionManager.connect(endpoint, TimeValue.of(profile.getConnectTimeout()), HttpClientContext.create());
+                    opened++;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("预热连接失败: {}, {}", route.getTargetHost(), e.getMessage());
+        } finally {
+            for (ConnectionEndpoint endpoint : endpoints) {
+                connectionManager.release(endpoint, null, TimeValue.of(profile.getKeepAlive()));
+            }
+        }
+        return opened;
+    }
+
+    ConnectionProperties.Profile profileOf(HttpHost host) {
+        Map<String, ConnectionProperties.Profile> hosts = properties.getHosts();
+        String hostName = host.getHostName().toLowerCase(Locale.ROOT);
+        ConnectionProperties.Profile profile = hosts.get(hostName + ":" + host.getPort());
+        if (profile == null) {
+            profile = hosts.get(hostName);
+        }
+        return profile != null ? profile : properties.getDefaults();
+    }
+
+    static ConnectionConfig connectionConfig(ConnectionProperties.Profile profile) {
+        ConnectionConfig.Builder builder = ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(profile.getConnectTimeout()))
+            .setValidateAfterInactivity(TimeValue.of(profile.getValidateAfterInactivity()));
+        if (profile.getTimeToLive() != null) {
+            builder.setTimeToLive(TimeValue.of(profile.getTimeToLive()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 与HTTP客户端路由规划一致: 端口补全为协议默认端口, 直连不经代理
+     */
+    static HttpRoute routeOf(String baseUrl) {
+        try {
+            URI uri = URI.create(baseUrl);
+            if (uri.getHost() == null || uri.getScheme() == null) {
+                return null;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            boolean secure = "https".equals(scheme);
+            int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+            return new HttpRoute(new HttpHost(scheme, uri.getHost(), port), null, secure);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static SSLContext sslContext(ConnectionProperties.Tls tls) {
+        try {
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, null, null);
+            context.getClientSessionContext().setSessionCacheSize(tls.getSessionCacheSize());
+            context.getClientSessionContext().setSessionTimeout((int) tls.getSessionTimeout().toSeconds());
+            return context;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化TLS上下文失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        connectionManager.close();
+    }
+}
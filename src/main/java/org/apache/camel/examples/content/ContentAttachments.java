@@ -0,0 +1,86 @@
+package org.apache.camel.examples.content;
+
+import org.apache.camel.examples.config.ContentProperties;
+import org.apache.camel.examples.domain.BinaryContent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 等待发送给MCP客户端的二进制内容
+ * <p>
+ * 工具结果经Spring AI转换为MCP结果时只能是文本, 生成的工具把二进制内容登记在这里, 在结果的响应头中写入引用;
+ * MCP传输发送结果时按引用取回内容, 追加为图片或资源内容块
+ */
+@Component
+public class ContentAttachments {
+
+    public static final String HEADER = "X-Content-Attachment";
+
+    private static final Pattern REFERENCE = Pattern.compile("\"" + HEADER + "\"\\s*:\\s*\"([A-Za-z0-9_-]+)\"");
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Attachment> attachments = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    @Autowired
+    public ContentAttachments(ContentProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    ContentAttachments(ContentProperties properties, LongSupplier clock) {
+        this.ttlNanos = properties.getAttachmentTtl().toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * 登记二进制内容, 返回写入响应头的引用
+     *
+     * @param uri 内容的来源地址, 作为资源内容的uri
+     */
+    public String attach(BinaryContent content, String uri) {
+        long now = clock.getAsLong();
+        // 未被取走的内容(例如客户端已断开)在下次登记时清理
+        attachments.values().removeIf(attachment -> now - attachment.expiresAt() > 0);
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        String id = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        attachments.put(id, new Attachment(content, uri, now + ttlNanos));
+        return id;
+    }
+
+    /**
+     * 取走文本结果中引用的全部内容, 同一内容只能取一次
+     */
+    public List<Attachment> take(String text) {
+        if (attachments.isEmpty() || !text.contains(HEADER)) {
+            return List.of();
+        }
+        List<Attachment> taken = new ArrayList<>();
+        Matcher matcher = REFERENCE.matcher(text);
+        while (matcher.find()) {
+            Optional.ofNullable(attachments.remove(matcher.group(1)))
+                .filter(attachment -> clock.getAsLong() - attachment.expiresAt() <= 0)
+                .ifPresent(taken::add);
+        }
+        return taken;
+    }
+
+    public int size() {
+        return attachments.size();
+    }
+
+    public record Attachment(BinaryContent content, String uri, long expiresAt) {
+    }
+}
@@ -0,0 +1,160 @@
+package org.apache.camel.examples.content;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.ContentProperties;
+import org.apache.camel.examples.domain.BinaryContent;
+import org.apache.camel.examples.domain.HttpResponseBean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按Content-Type读取上游响应体, 由Camel路由和直连快速路径共用
+ * <p>
+ * 文本类型按声明的字符集解码(缺省UTF-8); 其他类型视为二进制, 边读边经base64编码器写入缓冲,
+ * 不先解码为字符串, 编码结果按Latin-1直接构造为紧凑字符串; 超过媒体类型大小上限时丢弃内容并返回502
+ */
+@Slf4j
+public class ResponseBodyReader {
+
+    public static final int TOO_LARGE_STATUS = 502;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final Set<String> TEXT_TYPES = Set.of(
+        "application/javascript",
+        "application/x-www-form-urlencoded",
+        "application/yaml",
+        "application/x-yaml",
+        "application/graphql",
+        "application/sql"
+    );
+
+    private final ContentProperties properties;
+
+    public ResponseBodyReader(ContentProperties properties) {
+        this.properties = properties != null ? properties : new ContentProperties();
+    }
+
+    /**
+     * 读取响应体并构造响应, 二进制内容保存在content中, body为内容说明
+     *
+     * @param contentLength 响应声明的长度, 未知时为-1, 只用于预分配缓冲
+     */
+    public HttpResponseBean read(int statusCode, Map<String, Object> headers, String contentType, InputStream body,
+                                 long contentLength) throws IOException {
+        if (body == null) {
+            return new HttpResponseBean(statusCode, headers, null);
+        }
+        String mediaType = mediaTypeOf(contentType);
+        boolean binary = !isText(mediaType);
+        long maxSize = properties.maxSizeOf(mediaType, binary);
+        if (maxSize >= 0 && contentLength > maxSize) {
+            return tooLarge(headers, mediaType, maxSize);
+        }
+
+        if (!binary) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(initialCapacity(contentLength));
+            if (copy(body, buffer, maxSize) < 0) {
+                return tooLarge(headers, mediaType, maxSize);
+            }
+            return new HttpResponseBean(statusCode, headers, buffer.toString(charsetOf(contentType)));
+        }
+
+        // base64每3字节输出4字节
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(
+            initialCapacity(contentLength < 0 ? -1 : (contentLength + 2) / 3 * 4));
+        long size;
+        try (OutputStream encoder = Base64.getEncoder().wrap(encoded)) {
+            size = copy(body, encoder, maxSize);
+        }
+        if (size < 0) {
+            return tooLarge(headers, mediaType, maxSize);
+        }
+        BinaryContent content = new BinaryContent(mediaType, encoded.toString(StandardCharsets.ISO_8859_1), size);
+        return new HttpResponseBean(statusCode, headers, describe(content), content);
+    }
+
+    /**
+     * 文本类型: text/*、以json或xml结尾的类型(含ndjson及+json、+xml后缀), 以及常见的文本格式; 未声明类型时按文本处理
+     */
+    public static boolean isText(String mediaType) {
+        return mediaType.isEmpty()
+            || mediaType.startsWith("text/")
+            || mediaType.endsWith("json")
+            || mediaType.endsWith("xml")
+            || TEXT_TYPES.contains(mediaType);
+    }
+
+    /**
+     * 去掉参数并转为小写的媒体类型, 未声明时为空串
+     */
+    public static String mediaTypeOf(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        int end = contentType.indexOf(';');
+        return (end < 0 ? contentType : contentType.substring(0, end)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Content-Type中声明的字符集, 未声明或不支持时为UTF-8
+     */
+    static Charset charsetOf(String contentType) {
+        if (contentType == null) {
+            return StandardCharsets.UTF_8;
+        }
+        for (String parameter : contentType.split(";")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0 && parameter.substring(0, separator).trim().equalsIgnoreCase("charset")) {
+                String name = parameter.substring(separator + 1).trim().replace("\"", "");
+                try {
+                    return Charset.forName(name);
+                } catch (IllegalArgumentException e) {
+                    log.debug("不支持的字符集 {}, 按UTF-8解码", name);
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 复制输入流, 超过上限时停止并返回-1, 否则返回复制的字节数
+     */
+    private static long copy(InputStream in, OutputStream out, long maxSize) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (maxSize >= 0 && total > maxSize) {
+                return -1;
+            }
+            out.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    private static int initialCapacity(long expected) {
+        return expected <= 0 ? BUFFER_SIZE : (int) Math.min(expected, Integer.MAX_VALUE - 8);
+    }
+
+    private static String describe(BinaryContent content) {
+        return "{\"contentType\":\"" + content.mimeType() + "\",\"size\":" + content.size()
+            + ",\"encoding\":\"base64\"}";
+    }
+
+    private static HttpResponseBean tooLarge(Map<String, Object> headers, String mediaType, long maxSize) {
+        log.warn("上游响应超过 {} 的大小上限 {} 字节, 已丢弃", mediaType.isEmpty() ? "未声明类型" : mediaType, maxSize);
+        return new HttpResponseBean(TOO_LARGE_STATUS, headers,
+            "上游响应超过" + (mediaType.isEmpty() ? "" : mediaType + "的") + "大小上限 " + maxSize + " 字节, 已丢弃");
+    }
+}
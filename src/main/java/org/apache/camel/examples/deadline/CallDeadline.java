@@ -0,0 +1,128 @@
+package org.apache.camel.examples.deadline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 单次工具调用的截止时间与中止信号, 随HttpRequestBean传递到路由, 分页后续页与401重试共享同一实例
+ * <p>
+ * 发出HTTP请求的线程通过{@link #bind}绑定当前调用, {@link DeadlineHttpClientConfigurer}据此把请求注册为中止回调;
+ * 调用超时或被取消时{@link #abort}执行全部回调, 关闭正在使用的连接, 阻塞在读取上的线程随即抛出异常返回
+ */
+@Slf4j
+public final class CallDeadline {
+
+    private static final ThreadLocal<CallDeadline> CURRENT = new ThreadLocal<>();
+
+    public enum Outcome {
+        COMPLETED,
+        TIMED_OUT,
+        CANCELLED
+    }
+
+    private final TimeoutPolicy policy;
+    private final long deadlineNanos;
+    private final AtomicReference<Outcome> outcome = new AtomicReference<>();
+    private final Queue<Runnable> abortHooks = new ConcurrentLinkedQueue<>();
+
+    private CallDeadline(TimeoutPolicy policy) {
+        this.policy = policy;
+        this.deadlineNanos = System.nanoTime() + policy.getTotal().toNanos();
+    }
+
+    public static CallDeadline start(TimeoutPolicy policy) {
+        return new CallDeadline(policy);
+    }
+
+    public TimeoutPolicy getPolicy() {
+        return policy;
+    }
+
+    public long remainingNanos() {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    /**
+     * @return 调用尚未结束时返回null
+     */
+    public Outcome getOutcome() {
+        return outcome.get();
+    }
+
+    public boolean isAborted() {
+        Outcome current = outcome.get();
+        return current == Outcome.TIMED_OUT || current == Outcome.CANCELLED;
+    }
+
+    /**
+     * 注册中止回调, 调用已中止时立即执行
+     */
+    public void onAbort(Runnable hook) {
+        if (outcome.get() == Outcome.COMPLETED) {
+            return;
+        }
+        abortHooks.add(hook);
+        // 与abort并发时, 只有成功移除回调的一方执行它
+        if (isAborted() && abortHooks.remove(hook)) {
+            run(hook);
+        }
+    }
+
+    /**
+     * 中止调用并执行全部中止回调
+     *
+     * @return 调用已结束或已被中止时返回false
+     */
+    public boolean abort(Outcome reason) {
+        if (!outcome.compareAndSet(null, reason)) {
+            return false;
+        }
+        Runnable hook;
+        while ((hook = abortHooks.poll()) != null) {
+            run(hook);
+        }
+        return true;
+    }
+
+    /**
+     * 标记调用正常结束, 此后不再执行中止回调
+     *
+     * @return 调用已被中止时返回false
+     */
+    public boolean complete() {
+        boolean completed = outcome.compareAndSet(null, Outcome.COMPLETED);
+        abortHooks.clear();
+        return completed;
+    }
+
+    /**
+     * 将调用绑定到当前线程, 传入null时解除绑定
+     */
+    public static void bind(CallDeadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    public static CallDeadline current() {
+        return CURRENT.get();
+    }
+
+    private static void run(Runnable hook) {
+        try {
+            hook.run();
+        } catch (RuntimeException e) {
+            log.warn("执行中止回调失败: {}", e.getMessage());
+        }
+    }
+}
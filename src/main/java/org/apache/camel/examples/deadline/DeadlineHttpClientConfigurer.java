@@ -0,0 +1,38 @@
+package org.apache.camel.examples.deadline;
+
+import org.apache.camel.component.http.HttpClientConfigurer;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * 在HTTP组件的执行链最前面登记当前线程绑定的{@link CallDeadline}, 调用中止时立即关闭请求使用的连接
+ * <p>
+ * 响应体读完前连接一直由本次请求持有, 因此中止同样作用于HTTP组件在execute返回后读取响应体的阶段
+ */
+public class DeadlineHttpClientConfigurer implements HttpClientConfigurer {
+
+    static final String INTERCEPTOR_NAME = "mcp-call-deadline";
+
+    @Override
+    public void configureHttpClient(HttpClientBuilder clientBuilder) {
+        clientBuilder.addExecInterceptorFirst(INTERCEPTOR_NAME, DeadlineHttpClientConfigurer::execute);
+    }
+
+    private static ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+        throws IOException, HttpException {
+        CallDeadline deadline = CallDeadline.current();
+        if (deadline != null) {
+            if (deadline.isAborted()) {
+                throw new InterruptedIOException("上游调用已中止: " + deadline.getOutcome());
+            }
+            deadline.onAbort(scope.execRuntime::discardEndpoint);
+        }
+        return chain.proceed(request, scope);
+    }
+}
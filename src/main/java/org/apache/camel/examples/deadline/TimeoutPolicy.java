@@ -0,0 +1,95 @@
+package org.apache.camel.examples.deadline;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 工具调用的超时策略, 由全局配置与OpenAPI操作上的{@code x-timeout}扩展合并而来, 实例不可变
+ * <pre>
+ * x-timeout: 10s           # 只声明总时长
+ * x-timeout:
+ *   read: 10s              # 两次读取之间的最长等待
+ *   total: 15s             # 整个调用, 含分页后续页与401重试
+ * </pre>
+ * 数字按毫秒解析, 字符串支持10s、500ms、PT1M等写法; 未声明的项沿用全局配置.
+ * 连接由所有工具共享的连接池建立, 连接超时按上游主机在{@code mcp.connections}中配置, 不属于工具的超时策略
+ */
+@Slf4j
+@Getter
+public final class TimeoutPolicy {
+
+    public static final String EXTENSION = "x-timeout";
+
+    public static final TimeoutPolicy DEFAULT = of(Duration.ofSeconds(30), Duration.ofSeconds(60));
+
+    private final Duration read;
+    private final Duration total;
+
+    private TimeoutPolicy(Duration read, Duration total) {
+        this.read = read;
+        this.total = total;
+    }
+
+    /**
+     * @throws IllegalArgumentException 如果任一时长不为正数
+     */
+    public static TimeoutPolicy of(Duration read, Duration total) {
+        requirePositive("read", read);
+        requirePositive("total", total);
+        // 单次读取不会超过总时长
+        return new TimeoutPolicy(min(read, total), total);
+    }
+
+    /**
+     * 合并x-timeout扩展
+     *
+     * @return 未声明扩展时返回defaults
+     * @throws IllegalArgumentException 如果扩展的取值不合法
+     */
+    public static TimeoutPolicy fromExtensions(Map<String, Object> extensions, TimeoutPolicy defaults) {
+        Object extension = extensions == null ? null : extensions.get(EXTENSION);
+        if (extension == null) {
+            return defaults;
+        }
+        if (extension instanceof Map<?, ?> map) {
+            if (map.containsKey("connect")) {
+                log.warn("x-timeout中的connect不再生效, 连接超时按上游主机在mcp.connections中配置");
+            }
+            return of(duration(map.get("read"), defaults.read), duration(map.get("total"), defaults.total));
+        }
+        return of(defaults.read, duration(extension, defaults.total));
+    }
+
+    private static Duration duration(Object value, Duration defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number number) {
+            return Duration.ofMillis(number.longValue());
+        }
+        try {
+            return DurationStyle.detectAndParse(value.toString().trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("x-timeout配置不合法: " + value + " 不是合法的时长", e);
+        }
+    }
+
+    private static void requirePositive(String name, Duration value) {
+        if (value == null || value.isZero() || value.isNegative()) {
+            throw new IllegalArgumentException("x-timeout配置不合法: " + name + "必须大于0");
+        }
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    @Override
+    public String toString() {
+        return "read=" + read.toMillis() + "ms, total=" + total.toMillis() + "ms";
+    }
+}
@@ -0,0 +1,15 @@
+package org.apache.camel.examples.domain;
+
+/**
+ * 上游返回的二进制内容, 读取时已编码为base64, 发送给MCP客户端时直接作为图片或资源内容的数据
+ *
+ * @param mimeType 响应声明的媒体类型
+ * @param data     base64编码的内容
+ * @param size     原始字节数
+ */
+public record BinaryContent(String mimeType, String data, long size) {
+
+    public boolean isImage() {
+        return mimeType.startsWith("image/");
+    }
+}
@@ -1,8 +1,12 @@
 package org.apache.camel.examples.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.apache.camel.examples.deadline.CallDeadline;
+import org.apache.camel.examples.streaming.ChunkListener;
 
 import java.util.Map;
 import java.util.Objects;
@@ -19,6 +23,43 @@ public class HttpRequestBean {
     private String body;
     private Map<String, String> queryParams;
     
+    // 工具级处理选项, 仅由生成的工具设置, 不参与HTTP接口的序列化
+    @JsonIgnore
+    private ToolOptions options;
+    
+    // 已序列化的JSON请求体, 优先于body按字节发送, 仅由生成的工具设置
+    @JsonIgnore
+    @ToString.Exclude
+    private byte[] bodyBytes;
+    
+    // 流式工具接收上游分块的监听器, 仅由生成的工具设置
+    @JsonIgnore
+    @ToString.Exclude
+    private ChunkListener chunkListener;
+    
+    // 本次调用的截止时间与中止信号, 仅由生成的工具设置
+    @JsonIgnore
+    @ToString.Exclude
+    private CallDeadline deadline;
+    
+    // 预热调用由进程内空端点返回的响应体, 非空表示预热调用, 不请求上游
+    @JsonIgnore
+    @ToString.Exclude
+    private String warmupResponse;
+    
+    // url中的上游服务器地址(负载均衡选择的服务器), 录制与回放时去掉, 同一请求发往不同服务器时匹配同一条记录
+    @JsonIgnore
+    private String server;
+    
+    public HttpRequestBean(String method, String url, Map<String, String> headers, String body, Map<String, String> queryParams) {
+        this(method, url, headers, body, queryParams, null, null);
+    }
+    
+    public HttpRequestBean(String method, String url, Map<String, String> headers, String body, Map<String, String> queryParams,
+                           ToolOptions options, byte[] bodyBytes) {
+        this(method, url, headers, body, queryParams, options, bodyBytes, null, null, null, null);
+    }
+    
     public String buildFullUrl() {
         if (Objects.isNull(queryParams)) {
             queryParams = new HashMap<>();
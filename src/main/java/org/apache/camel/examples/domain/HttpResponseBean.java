@@ -1,7 +1,9 @@
 package org.apache.camel.examples.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
 
 import java.util.Map;
 import java.util.HashMap;
@@ -12,4 +14,13 @@ public class HttpResponseBean {
     private int statusCode;
     private Map<String, Object> headers = new HashMap<>();
     private String body;
-}
\ No newline at end of file
+    
+    // 二进制响应的内容, 此时body只是内容的说明; 由MCP传输作为图片或资源内容发送, 不参与HTTP接口的序列化
+    @JsonIgnore
+    @ToString.Exclude
+    private BinaryContent content;
+    
+    public HttpResponseBean(int statusCode, Map<String, Object> headers, String body) {
+        this(statusCode, headers, body, null);
+    }
+}
@@ -0,0 +1,71 @@
+package org.apache.camel.examples.domain;
+
+import lombok.Builder;
+import lombok.Value;
+import org.apache.camel.examples.deadline.TimeoutPolicy;
+import org.apache.camel.examples.encoding.ResponseEncoding;
+import org.apache.camel.examples.mapping.ResponseMapper;
+import org.apache.camel.examples.pagination.PaginationDescriptor;
+import org.apache.camel.examples.ratelimit.TokenBucket;
+import org.apache.camel.examples.retry.RetryPolicy;
+import org.apache.camel.examples.validation.ArgumentValidator;
+
+/**
+ * 单个工具在构建时编译好的处理选项, 随HttpRequestBean进入路由, 同一工具的所有调用共享同一实例
+ */
+@Value
+@Builder
+public class ToolOptions {
+
+    public static final ToolOptions NONE = ToolOptions.builder().build();
+
+    /**
+     * 工具名, 用于日志与指标
+     */
+    String toolName;
+
+    /**
+     * 由inputSchema编译的入参校验器, 为空表示不校验
+     */
+    ArgumentValidator argumentValidator;
+
+    /**
+     * 响应映射, 为空表示响应原样返回
+     */
+    ResponseMapper responseMapper;
+
+    /**
+     * 响应输出编码, 为空或JSON表示保持JSON
+     */
+    ResponseEncoding encoding;
+
+    /**
+     * 由x-pagination编译的分页描述, 为空表示只返回单页
+     */
+    PaginationDescriptor pagination;
+
+    /**
+     * 流式模式, 增量读取上游响应并逐块转发给客户端, 最后返回聚合结果
+     */
+    boolean streaming;
+
+    /**
+     * 由全局配置与x-timeout合并的超时策略, 为空表示不限制
+     */
+    TimeoutPolicy timeout;
+
+    /**
+     * 瞬时故障的重试策略, 为空表示不重试(非幂等操作)
+     */
+    RetryPolicy retry;
+
+    /**
+     * 直连快速路径, 不经过Camel路由直接在共享HTTP客户端上执行请求, 分页与流式工具不启用
+     */
+    boolean fastPath;
+
+    /**
+     * 工具级限流的令牌桶, 同一工具的所有调用共享, 为空表示不限流
+     */
+    TokenBucket rateLimit;
+}
@@ -0,0 +1,46 @@
+package org.apache.camel.examples.encoding;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 将工具入参中的请求体直接序列化为UTF-8字节, 交给HTTP组件按字节发送(携带Content-Length)
+ * <p>
+ * 使用共享的ObjectWriter, writeValueAsBytes内部写入Jackson按线程回收的分段缓冲区, 只在最后生成一次字节数组,
+ * 不经过中间String
+ */
+public final class JsonBodyWriter {
+
+    public static final String CONTENT_TYPE = "application/json; charset=UTF-8";
+
+    private static final ObjectWriter WRITER = new ObjectMapper().writer();
+
+    private JsonBodyWriter() {
+    }
+
+    /**
+     * 序列化请求体: 字符串视为已经是JSON文本, 按原样编码(不做trim), 空白字符串视为没有请求体; 其他对象序列化为JSON
+     *
+     * @return 请求体字节, 没有请求体时返回null
+     * @throws IllegalArgumentException 如果对象无法序列化为JSON
+     */
+    public static byte[] write(Object body) {
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (body instanceof String text) {
+            return text.isBlank() ? null : text.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return WRITER.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("请求体无法序列化为JSON", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.apache.camel.examples.encoding;
+
+/**
+ * 工具响应的输出编码
+ */
+public enum ResponseEncoding {
+
+    /**
+     * 原样输出JSON
+     */
+    JSON("application/json"),
+
+    /**
+     * RFC 4180 CSV, 首行为表头
+     */
+    CSV("text/csv"),
+
+    /**
+     * 制表符分隔, 首行为表头, 单元格中的制表符与换行转义为\t、\n
+     */
+    TSV("text/tab-separated-values"),
+
+    /**
+     * TOON表格布局: [行数]{字段,...}: 之后每行一条记录
+     */
+    TOON("text/toon");
+
+    private final String mediaType;
+
+    ResponseEncoding(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,258 @@
+package org.apache.camel.examples.encoding;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * 将同构对象数组编码为"表头 + 行"的紧凑格式, 避免JSON在每一行重复字段名
+ * <p>
+ * 使用Jackson流式解析器对响应体做单次遍历, 不构建JSON树: 第一条记录的字段即表头,
+ * 后续记录缺失的字段输出为空值; 遇到非数组、非对象元素或表头之外的字段时放弃编码, 调用方保留原始JSON
+ */
+public final class TabularEncoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Pattern TOON_UNQUOTED_LITERAL = Pattern.compile("true|false|null|-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private TabularEncoder() {
+    }
+
+    /**
+     * 编码响应体
+     *
+     * @return 编码结果, 响应体不是同构对象数组时返回空
+     */
+    public static Optional<EncodedBody> encode(String json, ResponseEncoding encoding) {
+        if (json == null || json.isEmpty() || encoding == null || encoding == ResponseEncoding.JSON) {
+            return Optional.empty();
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            String encoded = encodeArray(parser, encoding);
+            if (encoded == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new EncodedBody(encoded, utf8Length(json), utf8Length(encoded),
+                estimateTokens(json), estimateTokens(encoded)));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String encodeArray(JsonParser parser, ResponseEncoding encoding) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return null;
+        }
+
+        List<String> header = null;
+        Map<String, Integer> columns = null;
+        StringBuilder rows = new StringBuilder();
+        int rowCount = 0;
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            String[] cells;
+            if (header == null) {
+                // 第一条记录决定表头
+                List<String> keys = new ArrayList<>();
+                List<String> values = new ArrayList<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    keys.add(parser.currentName());
+                    parser.nextToken();
+                    values.add(readCell(parser, encoding));
+                }
+                header = keys;
+                columns = new HashMap<>();
+                for (int i = 0; i < keys.size(); i++) {
+                    columns.put(keys.get(i), i);
+                }
+                cells = values.toArray(new String[0]);
+            } else {
+                cells = new String[header.size()];
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    Integer column = columns.get(parser.currentName());
+                    if (column == null) {
+                        return null;
+                    }
+                    parser.nextToken();
+                    cells[column] = readCell(parser, encoding);
+                }
+            }
+
+            appendRow(rows, cells, encoding);
+            rowCount++;
+        }
+
+        if (header == null || parser.nextToken() != null) {
+            return null;
+        }
+        return assemble(header, rows, rowCount, encoding);
+    }
+
+    private static String readCell(JsonParser parser, ResponseEncoding encoding) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            // 嵌套结构以紧凑JSON文本放入单元格
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+                generator.copyCurrentStructure(parser);
+            }
+            return escape(writer.toString(), encoding, true);
+        }
+        return escape(parser.getText(), encoding, token == JsonToken.VALUE_STRING);
+    }
+
+    private static String escape(String value, ResponseEncoding encoding, boolean textual) {
+        switch (encoding) {
+            case CSV:
+                return escapeCsv(value);
+            case TSV:
+                return escapeTsv(value);
+            case TOON:
+                return textual ? escapeToon(value) : value;
+            default:
+                return value;
+        }
+    }
+
+    private static void appendRow(StringBuilder rows, String[] cells, ResponseEncoding encoding) {
+        if (encoding == ResponseEncoding.TOON) {
+            rows.append("  ");
+        }
+        char delimiter = encoding == ResponseEncoding.TSV ? '\t' : ',';
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                rows.append(delimiter);
+            }
+            if (cells[i] != null) {
+                rows.append(cells[i]);
+            } else if (encoding == ResponseEncoding.TOON) {
+                rows.append("null");
+            }
+        }
+        rows.append('\n');
+    }
+
+    private static String assemble(List<String> header, StringBuilder rows, int rowCount, ResponseEncoding encoding) {
+        StringBuilder result = new StringBuilder(rows.length() + 64);
+        switch (encoding) {
+            case TOON:
+                result.append('[').append(rowCount).append("]{");
+                for (int i = 0; i < header.size(); i++) {
+                    if (i > 0) {
+                        result.append(',');
+                    }
+                    result.append(escapeToon(header.get(i)));
+                }
+                result.append("}:\n");
+                break;
+            case TSV:
+                result.append(String.join("\t", header.stream().map(TabularEncoder::escapeTsv).toList())).append('\n');
+                break;
+            default:
+                result.append(String.join(",", header.stream().map(TabularEncoder::escapeCsv).toList())).append('\n');
+        }
+        // 去掉最后一行的换行
+        result.append(rows, 0, Math.max(0, rows.length() - 1));
+        return result.toString();
+    }
+
+    private static String escapeCsv(String value) {
+        boolean needsQuote = !value.isEmpty() && (value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ');
+        for (int i = 0; i < value.length() && !needsQuote; i++) {
+            char c = value.charAt(i);
+            needsQuote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return needsQuote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private static String escapeTsv(String value) {
+        if (value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0 && value.indexOf('\\') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String escapeToon(String value) {
+        boolean needsQuote = value.isEmpty()
+            || value.charAt(0) == ' '
+            || value.charAt(value.length() - 1) == ' '
+            || TOON_UNQUOTED_LITERAL.matcher(value).matches();
+        for (int i = 0; i < value.length() && !needsQuote; i++) {
+            char c = value.charAt(i);
+            needsQuote = c == ',' || c == '"' || c == ':' || c == '\\' || c == '\n' || c == '\r' || c == '\t'
+                || c == '[' || c == ']' || c == '{' || c == '}';
+        }
+        if (!needsQuote) {
+            return value;
+        }
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")
+            .replace("\r", "\\r").replace("\t", "\\t") + '"';
+    }
+
+    private static int utf8Length(CharSequence text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 粗略估算token数: ASCII约4个字符一个token, 中日韩等宽字符约一个字符一个token
+     */
+    static int estimateTokens(CharSequence text) {
+        int asciiChars = 0;
+        int wideChars = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 0x2E80) {
+                asciiChars++;
+            } else {
+                wideChars++;
+            }
+        }
+        return (asciiChars + 3) / 4 + wideChars;
+    }
+
+    /**
+     * 编码结果及其相对原始JSON的体积
+     */
+    public record EncodedBody(String body, int originalBytes, int encodedBytes, int originalTokens, int encodedTokens) {
+
+        public int savedBytes() {
+            return originalBytes - encodedBytes;
+        }
+
+        public int savedTokens() {
+            return originalTokens - encodedTokens;
+        }
+    }
+}
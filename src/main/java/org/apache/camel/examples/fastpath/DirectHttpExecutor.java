@@ -0,0 +1,253 @@
+package org.apache.camel.examples.fastpath;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.auth.CredentialManager;
+import org.apache.camel.examples.auth.CredentialProvider;
+import org.apache.camel.examples.config.ContentProperties;
+import org.apache.camel.examples.connection.UpstreamConnections;
+import org.apache.camel.examples.content.ResponseBodyReader;
+import org.apache.camel.examples.deadline.CallDeadline;
+import org.apache.camel.examples.deadline.DeadlineHttpClientConfigurer;
+import org.apache.camel.examples.deadline.TimeoutPolicy;
+import org.apache.camel.examples.domain.HttpRequestBean;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.apache.camel.examples.domain.ToolOptions;
+import org.apache.camel.examples.encoding.JsonBodyWriter;
+import org.apache.camel.examples.retry.RetryBudgets;
+import org.apache.camel.examples.retry.UpstreamRetrier;
+import org.apache.camel.examples.retry.UpstreamRetrier.Attempt;
+import org.apache.camel.examples.route.ToolResponseProcessor;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 工具调用的直连快速路径: 不经过ProducerTemplate与direct:httpRequest路由, 不创建Exchange,
+ * 在共享的HTTP客户端上直接执行已构造好的请求
+ * <p>
+ * 保留路由中与单次请求相关的处理: 凭证与401重试、瞬时故障重试与重试预算、截止时间中止、响应映射与编码;
+ * 需要分页或流式读取的工具仍走路由
+ */
+@Slf4j
+@Component
+public class DirectHttpExecutor {
+
+    @Resource
+    private CredentialManager credentialManager;
+
+    @Resource
+    private RetryBudgets retryBudgets;
+
+    @Resource
+    private UpstreamRetrier retrier;
+
+    @Resource
+    private UpstreamConnections upstreamConnections;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Resource
+    private ContentProperties contentProperties;
+
+    private CloseableHttpClient httpClient;
+
+    private ToolResponseProcessor responseProcessor;
+
+    private ResponseBodyReader bodyReader;
+
+    /**
+     * 与Camel HTTP组件一致: 不跟随重定向、不保存Cookie、不自动重试; 使用共享连接池时与路由复用同一批连接
+     */
+    @PostConstruct
+    public void start() {
+        HttpClientBuilder builder = HttpClients.custom()
+            .disableRedirectHandling()
+            .disableCookieManagement()
+            .disableAutomaticRetries();
+        new DeadlineHttpClientConfigurer().configureHttpClient(builder);
+        if (upstreamConnections != null) {
+            builder.setConnectionManager(upstreamConnections.getConnectionManager())
+                .setConnectionManagerShared(true);
+            upstreamConnections.configureHttpClient(builder);
+        }
+        httpClient = builder.build();
+        if (retrier == null) {
+            retrier = new UpstreamRetrier();
+        }
+        responseProcessor = new ToolResponseProcessor(meterRegistry);
+        bodyReader = new ResponseBodyReader(contentProperties);
+    }
+
+    public HttpResponseBean execute(HttpRequestBean request) {
+        ToolOptions options = Optional.ofNullable(request.getOptions()).orElse(ToolOptions.NONE);
+        HttpResponseBean response;
+        if (request.getWarmupResponse() != null) {
+            Map<String, Object> headers = new HashMap<>();
+            headers.put("Content-Type", JsonBodyWriter.CONTENT_TYPE);
+            response = new HttpResponseBean(200, headers, request.getWarmupResponse());
+        } else {
+            // 由DeadlineHttpClientConfigurer在执行链中登记中止回调
+            CallDeadline.bind(request.getDeadline());
+            try {
+                response = send(request, options);
+            } finally {
+                CallDeadline.bind(null);
+            }
+        }
+        responseProcessor.map(options, response);
+        responseProcessor.encode(options, response);
+        return response;
+    }
+
+    private HttpResponseBean send(HttpRequestBean request, ToolOptions options) {
+        URI uri = uriOf(request);
+        Map<String, String> headers = request.getHeaders() == null ? new LinkedHashMap<>() : new LinkedHashMap<>(request.getHeaders());
+        CredentialProvider provider = credentialProviderOf(request.getUrl());
+        Map<String, String> credentials = provider != null ? provider.credentials() : Map.of();
+        if (credentials.keySet().stream().anyMatch(headers::containsKey)) {
+            // 调用方已显式传入同名请求头时以调用方为准
+            provider = null;
+        } else {
+            headers.putAll(credentials);
+        }
+        HttpClientContext context = contextOf(options.getTimeout());
+        if (retryBudgets != null) {
+            retryBudgets.deposit(request.getUrl());
+        }
+
+        UpstreamRetrier.Call call = new UpstreamRetrier.Call(options.getToolName(), request.getUrl(), request.getDeadline(),
+            options.getRetry(), provider, credentials);
+        Attempt<HttpResponseBean> attempt = retrier.execute(call, attempt(request, uri, headers, context),
+            () -> attempt(request, uri, headers, context), headers::putAll, ignored -> { });
+        if (attempt.failure() instanceof IOException failure) {
+            throw new UncheckedIOException("上游请求失败: " + failure.getMessage(), failure);
+        }
+        return attempt.response();
+    }
+
+    private Attempt<HttpResponseBean> attempt(HttpRequestBean request, URI uri, Map<String, String> headers,
+                                              HttpClientContext context) {
+        try {
+            HttpResponseBean response = httpClient.execute(requestOf(request, uri, headers), context, this::toResponse);
+            return Attempt.of(response, response.getStatusCode(), retryAfterOf(response));
+        } catch (IOException e) {
+            log.warn("上游请求失败: {}", e.getMessage());
+            return Attempt.failed(e);
+        }
+    }
+
+    private HttpResponseBean toResponse(ClassicHttpResponse response) throws IOException {
+        Map<String, Object> headers = new LinkedHashMap<>();
+        for (Header header : response.getHeaders()) {
+            headers.merge(header.getName(), header.getValue(), DirectHttpExecutor::appendValue);
+        }
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            return new HttpResponseBean(response.getCode(), headers, "");
+        }
+        try (InputStream body = entity.getContent()) {
+            return bodyReader.read(response.getCode(), headers, entity.getContentType(), body, entity.getContentLength());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object appendValue(Object existing, Object value) {
+        List<Object> values = existing instanceof List<?> list ? (List<Object>) list : new ArrayList<>(List.of(existing));
+        values.add(value);
+        return values;
+    }
+
+    private static ClassicHttpRequest requestOf(HttpRequestBean request, URI uri, Map<String, String> headers) {
+        ClassicRequestBuilder builder = ClassicRequestBuilder.create(request.getMethod()).setUri(uri);
+        headers.forEach(builder::addHeader);
+        if (request.getBodyBytes() != null) {
+            // Content-Type由生成的工具按操作声明放入请求头
+            builder.setEntity(new ByteArrayEntity(request.getBodyBytes(), null));
+        } else if (request.getBody() != null && !request.getBody().isBlank()) {
+            builder.setEntity(new StringEntity(request.getBody(), StandardCharsets.UTF_8));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 查询参数按表单编码, 空格编码为+, 与路由发出的请求一致
+     */
+    private static URI uriOf(HttpRequestBean request) {
+        StringBuilder url = new StringBuilder(request.getUrl());
+        if (request.getQueryParams() != null && !request.getQueryParams().isEmpty()) {
+            char separator = request.getUrl().indexOf('?') < 0 ? '?' : '&';
+            for (Map.Entry<String, String> param : request.getQueryParams().entrySet()) {
+                url.append(separator).append(encode(param.getKey())).append('=').append(encode(param.getValue()));
+                separator = '&';
+            }
+        }
+        try {
+            return new URI(url.toString());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("请求地址不合法: " + request.getUrl(), e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value == null ? "" : value, StandardCharsets.UTF_8);
+    }
+
+    private static HttpClientContext contextOf(TimeoutPolicy timeout) {
+        HttpClientContext context = HttpClientContext.create();
+        if (timeout != null) {
+            context.setRequestConfig(RequestConfig.custom()
+                .setResponseTimeout(Timeout.of(timeout.getRead()))
+                .build());
+        }
+        return context;
+    }
+
+    /**
+     * 按上游主机查找凭证提供者
+     */
+    private CredentialProvider credentialProviderOf(String url) {
+        return credentialManager == null ? null : credentialManager.find(url).orElse(null);
+    }
+
+    private static String retryAfterOf(HttpResponseBean response) {
+        Object value = response.getHeaders() == null ? null : response.getHeaders().get("Retry-After");
+        return value instanceof List<?> values ? String.valueOf(values.get(0)) : (String) value;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+}
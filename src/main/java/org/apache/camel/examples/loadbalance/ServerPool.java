@@ -0,0 +1,123 @@
+package org.apache.camel.examples.loadbalance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.LoadBalanceProperties;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 同一操作声明的一组上游服务器
+ * <p>
+ * 以two random choices选择: 随机取两个可用服务器, 选择延迟EWMA乘以进行中请求数较小的一个;
+ * 连续失败达到阈值的服务器被摘除一段时间(被动异常检测), 健康检查失败的服务器不参与选择.
+ * 所有服务器都不可用时忽略摘除状态随机选择, 不因负载均衡拒绝调用
+ */
+@Slf4j
+public final class ServerPool {
+
+    private final UpstreamServer[] servers;
+    private final long decayNanos;
+    private final LoadBalanceProperties.Outlier outlier;
+    private final Consumer<UpstreamServer> ejectionListener;
+
+    ServerPool(List<String> baseUrls, LoadBalanceProperties properties) {
+        this(baseUrls, properties, server -> { });
+    }
+
+    ServerPool(List<String> baseUrls, LoadBalanceProperties properties, Consumer<UpstreamServer> ejectionListener) {
+        this(baseUrls, UpstreamServer::new, properties, ejectionListener);
+    }
+
+    /**
+     * @param servers 按地址取得服务器, 多个服务器组包含同一地址时共用一个实例, 延迟、摘除与健康状态随之共享
+     */
+    ServerPool(List<String> baseUrls, Function<String, UpstreamServer> servers, LoadBalanceProperties properties,
+               Consumer<UpstreamServer> ejectionListener) {
+        this.servers = baseUrls.stream().map(servers).toArray(UpstreamServer[]::new);
+        this.decayNanos = properties.getDecay().toNanos();
+        this.outlier = properties.getOutlier();
+        this.ejectionListener = ejectionListener;
+    }
+
+    public List<UpstreamServer> getServers() {
+        return List.of(servers);
+    }
+
+    /**
+     * 选择服务器并计入进行中的请求, 调用结束后必须调用{@link #record}
+     */
+    public UpstreamServer acquire() {
+        UpstreamServer server = select(System.nanoTime());
+        server.begin();
+        return server;
+    }
+
+    /**
+     * 记录一次调用的结果
+     *
+     * @param success 收到非5xx响应
+     */
+    public void record(UpstreamServer server, long latencyNanos, boolean success) {
+        server.end();
+        long now = System.nanoTime();
+        server.observe(now, latencyNanos, decayNanos);
+        if (success) {
+            server.recordSuccess();
+            return;
+        }
+        if (server.recordFailure() >= outlier.getConsecutiveFailures() && canEject(server, now)) {
+            long base = outlier.getBaseEjectionTime().toNanos();
+            long duration = Math.min(outlier.getMaxEjectionTime().toNanos(), base << Math.min(server.ejections(), 20));
+            int times = server.eject(now + duration);
+            log.warn("上游服务器 {} 连续失败, 摘除 {} ms (第 {} 次)", server, duration / 1_000_000, times);
+            ejectionListener.accept(server);
+        }
+    }
+
+    /**
+     * 未发出请求(如被限流)时归还选择, 不计入延迟与失败
+     */
+    public void release(UpstreamServer server) {
+        server.end();
+    }
+
+    UpstreamServer select(long now) {
+        if (servers.length == 1) {
+            return servers[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UpstreamServer first = pick(now, random, null);
+        if (first == null) {
+            return servers[random.nextInt(servers.length)];
+        }
+        UpstreamServer second = pick(now, random, first);
+        if (second == null) {
+            return first;
+        }
+        return first.cost() <= second.cost() ? first : second;
+    }
+
+    private UpstreamServer pick(long now, ThreadLocalRandom random, UpstreamServer exclude) {
+        int start = random.nextInt(servers.length);
+        for (int i = 0; i < servers.length; i++) {
+            UpstreamServer candidate = servers[(start + i) % servers.length];
+            if (candidate != exclude && candidate.isAvailable(now)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean canEject(UpstreamServer candidate, long now) {
+        int ejected = 1;
+        for (UpstreamServer server : servers) {
+            if (server != candidate && server.isEjected(now)) {
+                ejected++;
+            }
+        }
+        return ejected * 100 <= servers.length * outlier.getMaxEjectionPercent();
+    }
+}
@@ -0,0 +1,115 @@
+package org.apache.camel.examples.loadbalance;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.LoadBalanceProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按服务器列表共享{@link ServerPool}, 声明相同servers的操作共用负载状态; 同一地址在所有服务器组中是同一个{@link UpstreamServer}.
+ * 配置了健康检查路径时定期探测所有服务器, 每个地址探测一次
+ */
+@Slf4j
+@Component
+public class ServerPools {
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private final LoadBalanceProperties properties;
+    private final Map<List<String>, ServerPool> pools = new ConcurrentHashMap<>();
+    private final Map<String, UpstreamServer> servers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final HttpClient httpClient;
+
+    @Autowired
+    public ServerPools(LoadBalanceProperties properties) {
+        this.properties = properties;
+        LoadBalanceProperties.HealthCheck healthCheck = properties.getHealthCheck();
+        if (healthCheck.getPath() == null || healthCheck.getPath().isBlank()) {
+            this.scheduler = null;
+            this.httpClient = null;
+            return;
+        }
+        this.httpClient = HttpClient.newBuilder().connectTimeout(healthCheck.getTimeout()).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = healthCheck.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::probeAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public ServerPool pool(List<String> baseUrls) {
+        return pools.computeIfAbsent(List.copyOf(baseUrls), urls -> {
+            log.info("上游服务器组: {}", urls);
+            return new ServerPool(urls, this::server, properties, this::recordEjection);
+        });
+    }
+
+    private UpstreamServer server(String baseUrl) {
+        return servers.computeIfAbsent(baseUrl, UpstreamServer::new);
+    }
+
+    private void recordEjection(UpstreamServer server) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder("mcp.upstream.ejections")
+            .tag("server", server.getBaseUrl())
+            .register(meterRegistry)
+            .increment();
+    }
+
+    void probeAll() {
+        servers.values().forEach(this::probe);
+    }
+
+    private void probe(UpstreamServer server) {
+        boolean healthy;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(stripSlash(server.getBaseUrl()) + properties.getHealthCheck().getPath()))
+                .timeout(properties.getHealthCheck().getTimeout())
+                .GET()
+                .build();
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            healthy = status >= 200 && status < 300;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            healthy = false;
+        }
+        if (healthy != server.isHealthy()) {
+            log.warn("上游服务器 {} 健康检查{}", server, healthy ? "恢复" : "失败, 暂停分配请求");
+        }
+        server.setHealthy(healthy);
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
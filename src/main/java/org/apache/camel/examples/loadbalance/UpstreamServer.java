@@ -0,0 +1,119 @@
+package org.apache.camel.examples.loadbalance;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个上游服务器的负载状态: 进行中的请求数、按时间衰减的延迟EWMA、连续失败次数与摘除状态
+ * 所有字段无锁更新, 选择服务器时只读取
+ */
+public final class UpstreamServer {
+
+    private final String baseUrl;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicLong lastSample = new AtomicLong(System.nanoTime());
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger ejections = new AtomicInteger();
+    private volatile long ejectedUntil;
+    private volatile boolean ejected;
+    private volatile boolean healthy = true;
+
+    UpstreamServer(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * 选择代价: 延迟EWMA乘以进行中的请求数, 尚无样本的服务器代价为0, 优先获得流量
+     */
+    double cost() {
+        return ewma() * (inflight.get() + 1);
+    }
+
+    double ewma() {
+        return Double.longBitsToDouble(ewmaBits.get());
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+
+    boolean isAvailable(long now) {
+        return healthy && (!ejected || now - ejectedUntil >= 0);
+    }
+
+    boolean isEjected(long now) {
+        return ejected && now - ejectedUntil < 0;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    void begin() {
+        inflight.incrementAndGet();
+    }
+
+    void end() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * 按距上次样本的时间衰减旧值: weight = exp(-elapsed / decay)
+     */
+    void observe(long now, long latencyNanos, long decayNanos) {
+        long previous = lastSample.getAndSet(now);
+        double weight = Math.exp(-(double) Math.max(0, now - previous) / decayNanos);
+        while (true) {
+            long current = ewmaBits.get();
+            double value = Double.longBitsToDouble(current);
+            double updated = value == 0 ? latencyNanos : value * weight + latencyNanos * (1 - weight);
+            if (ewmaBits.compareAndSet(current, Double.doubleToRawLongBits(updated))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return 连续失败次数
+     */
+    int recordFailure() {
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (ejected && !isEjected(System.nanoTime())) {
+            // 摘除期满后恢复正常, 下次摘除从基础时长重新计算
+            ejected = false;
+            ejections.set(0);
+        }
+    }
+
+    /**
+     * @return 本次摘除的倍数, 1表示首次摘除
+     */
+    int eject(long until) {
+        ejectedUntil = until;
+        ejected = true;
+        consecutiveFailures.set(0);
+        return ejections.incrementAndGet();
+    }
+
+    int ejections() {
+        return ejections.get();
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    @Override
+    public String toString() {
+        return baseUrl;
+    }
+}
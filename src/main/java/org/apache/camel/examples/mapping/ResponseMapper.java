@@ -0,0 +1,197 @@
+package org.apache.camel.examples.mapping;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的响应映射, 由{@link ResponseMapping}编译而来
+ * 所有路径、映射表、常量在编译时预处理完毕, 实例不可变, 可在多个线程之间共享
+ */
+public final class ResponseMapper {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+
+    private final JsonPointer root;
+    private final String flattenSeparator;
+    private final List<FieldSelector> selectors;
+    private final Map<String, Map<String, JsonNode>> lookups;
+    private final Map<String, String> renames;
+    private final Map<String, JsonNode> constants;
+
+    private ResponseMapper(JsonPointer root, String flattenSeparator, List<FieldSelector> selectors,
+                           Map<String, Map<String, JsonNode>> lookups, Map<String, String> renames,
+                           Map<String, JsonNode> constants) {
+        this.root = root;
+        this.flattenSeparator = flattenSeparator;
+        this.selectors = selectors;
+        this.lookups = lookups;
+        this.renames = renames;
+        this.constants = constants;
+    }
+
+    /**
+     * 编译映射定义
+     *
+     * @throws IllegalArgumentException 如果root不是合法的JSON Pointer
+     */
+    public static ResponseMapper compile(ResponseMapping mapping) {
+        JsonPointer root = mapping.getRoot() == null || mapping.getRoot().trim().isEmpty()
+            ? JsonPointer.empty()
+            : JsonPointer.compile(mapping.getRoot().trim());
+
+        String separator = mapping.isFlatten() ? mapping.getFlattenSeparator() : null;
+
+        List<FieldSelector> selectors = new ArrayList<>();
+        if (mapping.getSelect() != null) {
+            mapping.getSelect().forEach(path -> selectors.add(new FieldSelector(path)));
+        }
+
+        Map<String, Map<String, JsonNode>> lookups = new HashMap<>();
+        if (mapping.getLookups() != null) {
+            mapping.getLookups().forEach((field, table) -> {
+                Map<String, JsonNode> compiled = new HashMap<>();
+                table.forEach((from, to) -> compiled.put(from, TextNode.valueOf(to)));
+                lookups.put(field, Map.copyOf(compiled));
+            });
+        }
+
+        Map<String, JsonNode> constants = new LinkedHashMap<>();
+        if (mapping.getConstants() != null) {
+            mapping.getConstants().forEach((field, value) -> constants.put(field, TextNode.valueOf(value)));
+        }
+
+        return new ResponseMapper(root, separator, List.copyOf(selectors), Map.copyOf(lookups),
+            mapping.getRename() == null ? Map.of() : Map.copyOf(mapping.getRename()),
+            Collections.unmodifiableMap(constants));
+    }
+
+    /**
+     * 映射JSON文本, 非JSON内容原样返回
+     */
+    public String map(String body) {
+        if (body == null || body.isEmpty()) {
+            return body;
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(map(OBJECT_MAPPER.readTree(body)));
+        } catch (JsonProcessingException e) {
+            return body;
+        }
+    }
+
+    public JsonNode map(JsonNode node) {
+        JsonNode target = node.at(root);
+        if (target.isMissingNode()) {
+            return NODE_FACTORY.nullNode();
+        }
+        if (target.isArray()) {
+            ArrayNode result = NODE_FACTORY.arrayNode(target.size());
+            for (JsonNode element : target) {
+                result.add(element.isObject() ? mapRecord((ObjectNode) element) : element);
+            }
+            return result;
+        }
+        if (target.isObject()) {
+            return mapRecord((ObjectNode) target);
+        }
+        return target;
+    }
+
+    private ObjectNode mapRecord(ObjectNode record) {
+        ObjectNode source = flattenSeparator != null ? flatten(record) : record;
+        ObjectNode result = NODE_FACTORY.objectNode();
+
+        if (selectors.isEmpty()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = source.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                emit(result, field.getKey(), field.getValue());
+            }
+        } else {
+            for (FieldSelector selector : selectors) {
+                JsonNode value = selector.extract(source);
+                if (!value.isMissingNode()) {
+                    emit(result, selector.path, value);
+                }
+            }
+        }
+
+        constants.forEach(result::set);
+        return result;
+    }
+
+    private void emit(ObjectNode result, String field, JsonNode value) {
+        Map<String, JsonNode> table = lookups.get(field);
+        if (table != null && value.isValueNode()) {
+            value = table.getOrDefault(value.asText(), value);
+        }
+        result.set(renames.getOrDefault(field, field), value);
+    }
+
+    private ObjectNode flatten(ObjectNode record) {
+        ObjectNode result = NODE_FACTORY.objectNode();
+        flattenInto(result, null, record);
+        return result;
+    }
+
+    private void flattenInto(ObjectNode result, String prefix, ObjectNode node) {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String key = prefix == null ? field.getKey() : prefix + flattenSeparator + field.getKey();
+            if (field.getValue().isObject()) {
+                flattenInto(result, key, (ObjectNode) field.getValue());
+            } else {
+                result.set(key, field.getValue());
+            }
+        }
+    }
+
+    /**
+     * 预拆分的字段路径, 优先按完整路径匹配(展开后的字段名), 否则逐级查找嵌套字段
+     */
+    private static final class FieldSelector {
+
+        private static final Pattern DOT = Pattern.compile("\\.");
+
+        private final String path;
+        private final String[] segments;
+
+        private FieldSelector(String path) {
+            this.path = path;
+            this.segments = DOT.split(path);
+        }
+
+        private JsonNode extract(ObjectNode source) {
+            JsonNode direct = source.get(path);
+            if (direct != null) {
+                return direct;
+            }
+            JsonNode current = source;
+            for (String segment : segments) {
+                current = current.path(segment);
+                if (current.isMissingNode()) {
+                    return MissingNode.getInstance();
+                }
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.apache.camel.examples.mapping;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 响应映射DSL, 在application.yml中按operationId声明, 构建工具时编译为{@link ResponseMapper}
+ * <p>
+ * 处理顺序: root定位 → flatten展开 → select选择字段 → lookups值映射 → rename重命名 → constants追加常量;
+ * 定位到的节点是数组时, 对每个元素对象分别处理
+ * <pre>
+ * mapping:
+ *   root: /data/items
+ *   flatten: true
+ *   select: [id, owner.name, status]
+ *   lookups:
+ *     status: { "0": 正常, "1": 已停用 }
+ *   rename:
+ *     owner.name: 负责人
+ *   constants:
+ *     来源: 订单系统
+ * </pre>
+ */
+@Data
+public class ResponseMapping {
+
+    /**
+     * JSON Pointer, 指定从响应中的哪个节点开始映射, 为空表示整个响应
+     */
+    private String root;
+
+    /**
+     * 是否将嵌套对象展开为以分隔符连接的字段名, 数组保持不变
+     */
+    private boolean flatten;
+
+    /**
+     * 展开嵌套对象时使用的分隔符
+     */
+    private String flattenSeparator = ".";
+
+    /**
+     * 需要保留的字段, 嵌套字段用.连接, 为空表示保留全部字段
+     */
+    private List<String> select = new ArrayList<>();
+
+    /**
+     * 字段重命名, key为原字段名(或select中的路径)
+     */
+    private Map<String, String> rename = new LinkedHashMap<>();
+
+    /**
+     * 追加到每条记录中的常量字段
+     */
+    private Map<String, String> constants = new LinkedHashMap<>();
+
+    /**
+     * 值映射表, key为原字段名, value为 原值 → 映射值, 未命中时保留原值
+     */
+    private Map<String, Map<String, String>> lookups = new LinkedHashMap<>();
+}
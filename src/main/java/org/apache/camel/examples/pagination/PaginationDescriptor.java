@@ -0,0 +1,152 @@
+package org.apache.camel.examples.pagination;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 操作级分页描述, 由OpenAPI操作上的{@code x-pagination}扩展编译而来, 实例不可变, 同一工具的所有调用共享
+ * <pre>
+ * x-pagination:
+ *   style: offset          # offset | page | cursor | link
+ *   items: /data           # 响应中数组的JSON Pointer, 省略表示根数组
+ *   limitParam: limit
+ *   offsetParam: offset
+ *   total: /meta/total     # 可选, 总条数
+ *   pageSize: 100          # 请求未携带limitParam时补充
+ *   prefetch: 4            # offset/page并发预取的页数
+ *   maxItems: 1000
+ *   maxBytes: 1048576
+ *   maxPages: 50
+ * </pre>
+ */
+@Getter
+public final class PaginationDescriptor {
+
+    public static final String EXTENSION = "x-pagination";
+
+    public enum Style {
+        /**
+         * offset/limit, 下一页偏移量可预测, 支持并发预取
+         */
+        OFFSET,
+        /**
+         * 页码, 下一页页码可预测, 支持并发预取
+         */
+        PAGE,
+        /**
+         * 游标, 下一页游标从上一页响应中读取, 顺序获取
+         */
+        CURSOR,
+        /**
+         * RFC 8288 Link响应头中的rel="next", 顺序获取
+         */
+        LINK
+    }
+
+    private final Style style;
+    private final JsonPointer items;
+    private final String offsetParam;
+    private final String limitParam;
+    private final String pageParam;
+    private final String cursorParam;
+    private final JsonPointer nextCursor;
+    private final JsonPointer total;
+    private final int startPage;
+    private final Integer pageSize;
+    private final int prefetch;
+    private final int maxItems;
+    private final long maxBytes;
+    private final int maxPages;
+
+    private PaginationDescriptor(Map<?, ?> extension) {
+        this.style = parseStyle(extension.get("style"));
+        this.items = pointer(extension.get("items"));
+        this.offsetParam = text(extension.get("offsetParam"), "offset");
+        this.limitParam = text(extension.get("limitParam"), "limit");
+        this.pageParam = text(extension.get("pageParam"), "page");
+        this.cursorParam = text(extension.get("cursorParam"), "cursor");
+        this.nextCursor = pointer(extension.get("nextCursor"));
+        this.total = extension.get("total") == null ? null : pointer(extension.get("total"));
+        this.startPage = number(extension.get("startPage"), 1, 0);
+        this.pageSize = extension.get("pageSize") == null ? null : number(extension.get("pageSize"), 0, 1);
+        this.prefetch = number(extension.get("prefetch"), 4, 1);
+        this.maxItems = number(extension.get("maxItems"), 1000, 1);
+        this.maxBytes = number(extension.get("maxBytes"), 1024 * 1024, 1);
+        this.maxPages = number(extension.get("maxPages"), 50, 1);
+
+        if (style == Style.CURSOR && extension.get("nextCursor") == null) {
+            throw new IllegalArgumentException("x-pagination配置不合法: cursor分页需要声明nextCursor");
+        }
+    }
+
+    /**
+     * 编译x-pagination扩展
+     *
+     * @return 未声明扩展时返回null
+     * @throws IllegalArgumentException 如果扩展的取值不合法
+     */
+    public static PaginationDescriptor fromExtensions(Map<String, Object> extensions) {
+        Object extension = extensions == null ? null : extensions.get(EXTENSION);
+        if (extension == null) {
+            return null;
+        }
+        if (!(extension instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("x-pagination配置不合法: 应为对象");
+        }
+        return new PaginationDescriptor(map);
+    }
+
+    /**
+     * 为首个请求补充每页条数, 调用方已指定时不覆盖
+     */
+    public void applyDefaults(Map<String, String> queryParams) {
+        if (pageSize != null && (style == Style.OFFSET || style == Style.PAGE)) {
+            queryParams.putIfAbsent(limitParam, String.valueOf(pageSize));
+        }
+    }
+
+    private static Style parseStyle(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("x-pagination配置不合法: 缺少style");
+        }
+        try {
+            return Style.valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("x-pagination配置不合法: 不支持的style " + value, e);
+        }
+    }
+
+    private static JsonPointer pointer(Object value) {
+        if (value == null || value.toString().isBlank()) {
+            return JsonPointer.empty();
+        }
+        try {
+            return JsonPointer.compile(value.toString().trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("x-pagination配置不合法: " + value + " 不是合法的JSON Pointer", e);
+        }
+    }
+
+    private static String text(Object value, String defaultValue) {
+        return value == null || value.toString().isBlank() ? defaultValue : value.toString().trim();
+    }
+
+    private static int number(Object value, int defaultValue, int min) {
+        if (value == null) {
+            return defaultValue;
+        }
+        int parsed;
+        try {
+            parsed = value instanceof Number n ? n.intValue() : Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("x-pagination配置不合法: " + value + " 不是整数", e);
+        }
+        if (parsed < min) {
+            throw new IllegalArgumentException("x-pagination配置不合法: " + value + " 不能小于 " + min);
+        }
+        return parsed;
+    }
+}
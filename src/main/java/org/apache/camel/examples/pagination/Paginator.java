@@ -0,0 +1,471 @@
+package org.apache.camel.examples.pagination;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.domain.HttpRequestBean;
+import org.apache.camel.examples.domain.HttpResponseBean;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 按{@link PaginationDescriptor}获取后续页, 将各页的数组按顺序合并为一个响应
+ * <ul>
+ *     <li>offset/page: 下一页参数可预测, 保持prefetch个请求并发进行, 按页序消费</li>
+ *     <li>cursor/link: 下一页参数来自上一页响应, 顺序获取</li>
+ * </ul>
+ * 每页的数组元素在消费时即写入合并缓冲区, 不保留已消费页的JSON树; 达到条数、字节数或页数上限时停止,
+ * 未消费的预取请求被取消, 继续获取所需的参数写入{@link #NEXT_HEADER}
+ */
+@Slf4j
+public final class Paginator {
+
+    public static final String PAGES_HEADER = "X-Pagination-Pages";
+    public static final String ITEMS_HEADER = "X-Pagination-Items";
+    public static final String TRUNCATED_HEADER = "X-Pagination-Truncated";
+    public static final String NEXT_HEADER = "X-Pagination-Next";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Pattern LINK = Pattern.compile("<([^>]*)>([^<]*)");
+    private static final Pattern REL = Pattern.compile("rel\\s*=\\s*\"?([^\";]*)\"?");
+    private static final String URL_PARAM = "url";
+    // HttpRequestBean.buildFullUrl追加的camel参数, 复制请求时去掉
+    private static final String CAMEL_PARAM = "throwExceptionOnFailure";
+
+    private final PaginationDescriptor descriptor;
+    private final Function<HttpRequestBean, HttpResponseBean> fetcher;
+    private final Executor executor;
+
+    /**
+     * @param fetcher  获取单页, 不再分页
+     * @param executor 执行预取请求
+     */
+    public Paginator(PaginationDescriptor descriptor, Function<HttpRequestBean, HttpResponseBean> fetcher, Executor executor) {
+        this.descriptor = descriptor;
+        this.fetcher = fetcher;
+        this.executor = executor;
+    }
+
+    /**
+     * 从首页开始获取后续页并合并
+     *
+     * @return 合并后的响应; 首页不包含数组时原样返回首页
+     */
+    public HttpResponseBean collect(HttpRequestBean first, HttpResponseBean firstResponse) {
+        Page firstPage = parse(firstResponse);
+        if (firstPage == null) {
+            log.debug("响应中未找到分页数组 {}, 不再获取后续页", descriptor.getItems());
+            return firstResponse;
+        }
+
+        Merger merger = new Merger();
+        switch (descriptor.getStyle()) {
+            case OFFSET:
+            case PAGE:
+                collectPredictable(first, firstPage, merger);
+                break;
+            default:
+                collectSequential(first, firstPage, merger);
+                break;
+        }
+        return merger.toResponse(firstResponse, firstPage);
+    }
+
+    private void collectPredictable(HttpRequestBean first, Page firstPage, Merger merger) {
+        Map<String, String> query = queryOf(first);
+        boolean offsetStyle = descriptor.getStyle() == PaginationDescriptor.Style.OFFSET;
+        long start = offsetStyle
+            ? parseLong(query.get(descriptor.getOffsetParam()), 0)
+            : parseLong(query.get(descriptor.getPageParam()), descriptor.getStartPage());
+        long pageSize = parseLong(query.get(descriptor.getLimitParam()), firstPage.items().size());
+        // 首页之前已跳过的条数, 用于与total比较
+        long skipped = offsetStyle ? start : (start - descriptor.getStartPage()) * pageSize;
+        Long total = firstPage.total(descriptor.getTotal());
+
+        if (!merger.add(firstPage, resumeAt(offsetStyle, start, pageSize, 0, firstPage))) {
+            return;
+        }
+        if (pageSize <= 0 || firstPage.items().size() < pageSize) {
+            return;
+        }
+
+        Deque<CompletableFuture<Page>> window = new ArrayDeque<>();
+        long nextIndex = 1;
+        long consumedIndex = 0;
+        try {
+            while (true) {
+                if (merger.isFull()) {
+                    merger.stop("max-items");
+                    return;
+                }
+                while (window.size() < descriptor.getPrefetch() && nextIndex < descriptor.getMaxPages()
+                    && !beyondTotal(total, skipped + nextIndex * pageSize)) {
+                    long index = nextIndex++;
+                    HttpRequestBean request = pageRequest(first, offsetStyle
+                        ? Map.of(descriptor.getOffsetParam(), String.valueOf(start + index * pageSize))
+                        : Map.of(descriptor.getPageParam(), String.valueOf(start + index)));
+                    window.add(CompletableFuture.supplyAsync(() -> fetch(request), executor));
+                }
+                if (window.isEmpty()) {
+                    if (!beyondTotal(total, skipped + nextIndex * pageSize)) {
+                        merger.stop("max-pages");
+                    }
+                    return;
+                }
+
+                Page page = join(window.poll());
+                if (page == null) {
+                    merger.stop("upstream-error");
+                    return;
+                }
+                consumedIndex++;
+                if (!merger.add(page, resumeAt(offsetStyle, start, pageSize, consumedIndex, page))) {
+                    return;
+                }
+                if (page.items().size() < pageSize) {
+                    return;
+                }
+            }
+        } finally {
+            // 丢弃超出末页或上限的预取结果
+            window.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private void collectSequential(HttpRequestBean first, Page firstPage, Merger merger) {
+        boolean cursorStyle = descriptor.getStyle() == PaginationDescriptor.Style.CURSOR;
+        Map<String, String> self;
+        if (cursorStyle) {
+            String cursor = queryOf(first).get(descriptor.getCursorParam());
+            self = cursor == null ? Collections.emptyMap() : Map.of(descriptor.getCursorParam(), cursor);
+        } else {
+            self = Map.of(URL_PARAM, first.getUrl());
+        }
+
+        Page page = firstPage;
+        while (true) {
+            String next = cursorStyle ? page.text(descriptor.getNextCursor()) : resolve(first, page.link());
+            Map<String, String> nextParams = next == null
+                ? Collections.emptyMap()
+                : Map.of(cursorStyle ? descriptor.getCursorParam() : URL_PARAM, next);
+            Map<String, String> current = self;
+            int size = page.items().size();
+            if (!merger.add(page, index -> index < size ? current : nextParams)) {
+                return;
+            }
+            if (next == null) {
+                return;
+            }
+            if (merger.isFull()) {
+                merger.stop("max-items");
+                return;
+            }
+            if (merger.pages >= descriptor.getMaxPages()) {
+                merger.stop("max-pages");
+                return;
+            }
+
+            HttpRequestBean request = cursorStyle
+                ? pageRequest(first, nextParams)
+                : linkRequest(first, next);
+            Page nextPage = fetch(request);
+            if (nextPage == null) {
+                merger.stop("upstream-error");
+                return;
+            }
+            self = nextParams;
+            page = nextPage;
+        }
+    }
+
+    /**
+     * 在第index页的第i个元素处截断时, 继续获取所需的参数
+     */
+    private IntFunction<Map<String, String>> resumeAt(boolean offsetStyle, long start, long pageSize, long index, Page page) {
+        return i -> {
+            if (offsetStyle) {
+                return Map.of(descriptor.getOffsetParam(), String.valueOf(start + index * pageSize + i));
+            }
+            // 页码无法定位到页内, 截断在页内时从该页重新获取
+            long pageNumber = start + index + (i < page.items().size() ? 0 : 1);
+            return Map.of(descriptor.getPageParam(), String.valueOf(pageNumber));
+        };
+    }
+
+    private Page fetch(HttpRequestBean request) {
+        try {
+            return parse(fetcher.apply(request));
+        } catch (RuntimeException e) {
+            log.warn("获取分页失败: {}", request.getUrl(), e);
+            return null;
+        }
+    }
+
+    private static Page join(CompletableFuture<Page> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            log.warn("获取分页失败", e.getCause());
+            return null;
+        }
+    }
+
+    private Page parse(HttpResponseBean response) {
+        if (response == null || response.getStatusCode() < 200 || response.getStatusCode() >= 300
+            || response.getBody() == null) {
+            return null;
+        }
+        JsonNode root;
+        try {
+            root = OBJECT_MAPPER.readTree(response.getBody());
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+        JsonNode items = root == null ? null : root.at(descriptor.getItems());
+        return items instanceof ArrayNode array ? new Page(root, array, response) : null;
+    }
+
+    private static HttpRequestBean pageRequest(HttpRequestBean first, Map<String, String> overrides) {
+        Map<String, String> query = queryOf(first);
+        query.putAll(overrides);
+        return copy(first, first.getUrl(), query);
+    }
+
+    /**
+     * Link中的地址可能带查询参数, 拆分后交给buildFullUrl重新拼接
+     */
+    private static HttpRequestBean linkRequest(HttpRequestBean first, String link) {
+        int queryStart = link.indexOf('?');
+        Map<String, String> query = new LinkedHashMap<>();
+        if (queryStart >= 0) {
+            for (String pair : link.substring(queryStart + 1).split("&")) {
+                if (!pair.isEmpty()) {
+                    int eq = pair.indexOf('=');
+                    query.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+                }
+            }
+        }
+        return copy(first, queryStart < 0 ? link : link.substring(0, queryStart), query);
+    }
+
+    private static HttpRequestBean copy(HttpRequestBean first, String url, Map<String, String> query) {
+        Map<String, String> headers = first.getHeaders() == null ? new HashMap<>() : new HashMap<>(first.getHeaders());
+        HttpRequestBean page = new HttpRequestBean(first.getMethod(), url, headers, first.getBody(), query,
+            first.getOptions(), first.getBodyBytes());
+        // 后续页计入同一调用的截止时间
+        page.setDeadline(first.getDeadline());
+        page.setWarmupResponse(first.getWarmupResponse());
+        page.setServer(first.getServer());
+        return page;
+    }
+
+    private static Map<String, String> queryOf(HttpRequestBean request) {
+        Map<String, String> query = request.getQueryParams() == null
+            ? new LinkedHashMap<>()
+            : new LinkedHashMap<>(request.getQueryParams());
+        query.remove(CAMEL_PARAM);
+        return query;
+    }
+
+    /**
+     * Link中的相对地址按原始请求地址解析
+     */
+    private static String resolve(HttpRequestBean first, String link) {
+        if (link == null) {
+            return null;
+        }
+        try {
+            return URI.create(first.getUrl()).resolve(link).toString();
+        } catch (IllegalArgumentException e) {
+            log.warn("Link响应头中的地址不合法: {}", link);
+            return null;
+        }
+    }
+
+    private static boolean beyondTotal(Long total, long offset) {
+        return total != null && offset >= total;
+    }
+
+    private static long parseLong(String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private record Page(JsonNode root, ArrayNode items, HttpResponseBean response) {
+
+        private Long total(JsonPointer pointer) {
+            JsonNode node = pointer == null ? null : root.at(pointer);
+            return node != null && node.canConvertToLong() ? node.asLong() : null;
+        }
+
+        private String text(JsonPointer pointer) {
+            JsonNode node = root.at(pointer);
+            return node.isValueNode() && !node.asText().isEmpty() ? node.asText() : null;
+        }
+
+        private String link() {
+            if (response.getHeaders() == null) {
+                return null;
+            }
+            for (Map.Entry<String, Object> header : response.getHeaders().entrySet()) {
+                if (!"Link".equalsIgnoreCase(header.getKey()) || header.getValue() == null) {
+                    continue;
+                }
+                Object value = header.getValue();
+                String text = value instanceof Collection<?> values
+                    ? String.join(",", values.stream().map(String::valueOf).toList())
+                    : value.toString();
+                Matcher matcher = LINK.matcher(text);
+                while (matcher.find()) {
+                    Matcher rel = REL.matcher(matcher.group(2));
+                    if (rel.find() && Set.of(rel.group(1).trim().split("\\s+")).contains("next")) {
+                        return matcher.group(1).trim();
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 按页序合并数组元素, 元素序列化后直接追加到缓冲区
+     */
+    private final class Merger {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private int pages;
+        private int items;
+        private String truncated;
+        private Map<String, String> next;
+        private Map<String, String> lastResume = Collections.emptyMap();
+
+        private Merger() {
+            out.write('[');
+        }
+
+        /**
+         * @return false表示已达到条数或字节数上限
+         */
+        private boolean add(Page page, IntFunction<Map<String, String>> resumeAt) {
+            ArrayNode array = page.items();
+            pages++;
+            for (int i = 0; i < array.size(); i++) {
+                if (items >= descriptor.getMaxItems()) {
+                    truncate("max-items", resumeAt.apply(i));
+                    return false;
+                }
+                byte[] item = serialize(array.get(i));
+                // 预留分隔符与结尾的]
+                if (out.size() + item.length + 2L > descriptor.getMaxBytes()) {
+                    truncate("max-bytes", resumeAt.apply(i));
+                    return false;
+                }
+                if (items > 0) {
+                    out.write(',');
+                }
+                out.writeBytes(item);
+                items++;
+            }
+            lastResume = resumeAt.apply(array.size());
+            return true;
+        }
+
+        private boolean isFull() {
+            return items >= descriptor.getMaxItems();
+        }
+
+        /**
+         * 在页边界停止
+         */
+        private void stop(String reason) {
+            truncate(reason, lastResume);
+        }
+
+        private void truncate(String reason, Map<String, String> resume) {
+            truncated = reason;
+            next = resume;
+            log.info("分页合并停止: {}, 已获取 {} 页, 合并 {} 条", reason, pages, items);
+        }
+
+        private HttpResponseBean toResponse(HttpResponseBean firstResponse, Page firstPage) {
+            out.write(']');
+            String merged = out.toString(StandardCharsets.UTF_8);
+
+            String body;
+            JsonPointer pointer = descriptor.getItems();
+            if (pointer.matches()) {
+                body = merged;
+            } else {
+                JsonNode parent = firstPage.root().at(pointer.head());
+                JsonNode raw = JsonNodeFactory.instance.rawValueNode(new RawValue(merged));
+                if (parent instanceof ObjectNode object) {
+                    object.set(pointer.last().getMatchingProperty(), raw);
+                } else {
+                    ((ArrayNode) parent).set(pointer.last().getMatchingIndex(), raw);
+                }
+                body = firstPage.root().toString();
+            }
+
+            Map<String, Object> headers = new HashMap<>();
+            if (firstResponse.getHeaders() != null) {
+                firstResponse.getHeaders().forEach((name, value) -> {
+                    if (!"Content-Length".equalsIgnoreCase(name) && !"Link".equalsIgnoreCase(name)) {
+                        headers.put(name, value);
+                    }
+                });
+            }
+            headers.put(PAGES_HEADER, String.valueOf(pages));
+            headers.put(ITEMS_HEADER, String.valueOf(items));
+            if (truncated != null) {
+                headers.put(TRUNCATED_HEADER, truncated);
+                headers.put(NEXT_HEADER, serialize(next));
+            }
+            return new HttpResponseBean(firstResponse.getStatusCode(), headers, body);
+        }
+    }
+
+    private static byte[] serialize(JsonNode node) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("分页元素无法序列化", e);
+        }
+    }
+
+    private static String serialize(Map<String, String> params) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(params);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("分页参数无法序列化", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.apache.camel.examples.ratelimit;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 令牌桶限制, 实例不可变
+ * <pre>
+ * x-rate-limit:
+ *   rate: 5        # 每秒产生的令牌数, 可以是小数, 0.5表示每2秒一次
+ *   burst: 10      # 令牌桶容量, 省略时等于rate(至少为1)
+ * </pre>
+ */
+@Getter
+public final class RateLimit {
+
+    public static final String EXTENSION = "x-rate-limit";
+
+    private final double rate;
+    private final int burst;
+
+    private RateLimit(double rate, int burst) {
+        this.rate = rate;
+        this.burst = burst;
+    }
+
+    /**
+     * @throws IllegalArgumentException 如果rate不为正数或burst小于1
+     */
+    public static RateLimit of(double rate, Integer burst) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("限流配置不合法: rate必须大于0");
+        }
+        int capacity = burst != null ? burst : (int) Math.max(1, Math.ceil(rate));
+        if (capacity < 1) {
+            throw new IllegalArgumentException("限流配置不合法: burst必须大于0");
+        }
+        return new RateLimit(rate, capacity);
+    }
+
+    /**
+     * 编译x-rate-limit扩展
+     *
+     * @return 未声明扩展时返回null
+     * @throws IllegalArgumentException 如果扩展的取值不合法
+     */
+    public static RateLimit fromExtensions(Map<String, Object> extensions) {
+        Object extension = extensions == null ? null : extensions.get(EXTENSION);
+        if (extension == null) {
+            return null;
+        }
+        if (!(extension instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("x-rate-limit配置不合法: 应为对象");
+        }
+        try {
+            Object burst = map.get("burst");
+            return of(Double.parseDouble(String.valueOf(map.get("rate"))),
+                burst == null ? null : Integer.valueOf(burst.toString().trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("x-rate-limit配置不合法: " + extension, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return rate + "/s, burst=" + burst;
+    }
+}
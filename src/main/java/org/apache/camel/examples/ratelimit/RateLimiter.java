@@ -0,0 +1,169 @@
+package org.apache.camel.examples.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按工具、上游主机、MCP客户端三个范围限流, 一次调用需要三个范围都有令牌
+ * <p>
+ * 工具的令牌桶随工具选项编译, 主机的令牌桶在启动时按配置创建, 客户端的令牌桶按需创建;
+ * 任一范围不足时归还已预留的令牌. 调用路径上只有哈希查找与每个范围一次CAS
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    public static final String SCOPE_TOOL = "tool";
+    public static final String SCOPE_HOST = "host";
+    public static final String SCOPE_CLIENT = "client";
+
+    private final long maxWait;
+    private final RateLimit clientLimit;
+    private final int maxClients;
+    private final Map<String, TokenBucket> hosts = new HashMap<>();
+    private final Map<String, TokenBucket> clients = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties) {
+        this.maxWait = properties.getMode() == RateLimitProperties.Mode.DELAY ? properties.getMaxDelay().toNanos() : 0;
+        this.clientLimit = properties.getClient() == null ? null : toRateLimit(properties.getClient());
+        this.maxClients = properties.getMaxClients();
+        properties.getHosts().forEach((host, limit) -> {
+            hosts.put(host.toLowerCase(Locale.ROOT), new TokenBucket(toRateLimit(limit)));
+            log.info("上游 {} 限流: {}", host, limit);
+        });
+    }
+
+    public static RateLimit toRateLimit(RateLimitProperties.Limit limit) {
+        return RateLimit.of(limit.getRate(), limit.getBurst());
+    }
+
+    /**
+     * 为一次调用获取令牌
+     *
+     * @param tool    工具的令牌桶, 为空表示工具不限流
+     * @param url     上游地址
+     * @param client  MCP客户端标识(名称/版本), 为空表示不是经由MCP会话的调用
+     */
+    public Decision acquire(TokenBucket tool, String url, String client) {
+        long now = System.nanoTime();
+        long toolWait = reserve(tool, now);
+        if (toolWait < 0) {
+            return Decision.rejected(SCOPE_TOOL, tool.waitNanos(now));
+        }
+
+        TokenBucket host = hosts.isEmpty() ? null : hostBucket(url);
+        long hostWait = reserve(host, now);
+        if (hostWait < 0) {
+            cancel(tool);
+            return Decision.rejected(SCOPE_HOST, host.waitNanos(now));
+        }
+
+        TokenBucket clientBucket = clientLimit == null || client == null ? null : clientBucket(client, now);
+        long clientWait = reserve(clientBucket, now);
+        if (clientWait < 0) {
+            cancel(tool);
+            cancel(host);
+            return Decision.rejected(SCOPE_CLIENT, clientBucket.waitNanos(now));
+        }
+        return Decision.allowed(Math.max(toolWait, Math.max(hostWait, clientWait)));
+    }
+
+    int trackedClients() {
+        return clients.size();
+    }
+
+    private long reserve(TokenBucket bucket, long now) {
+        return bucket == null ? 0 : bucket.reserve(now, maxWait);
+    }
+
+    private static void cancel(TokenBucket bucket) {
+        if (bucket != null) {
+            bucket.cancel();
+        }
+    }
+
+    private TokenBucket clientBucket(String client, long now) {
+        TokenBucket bucket = clients.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (clients.size() >= maxClients) {
+            // 令牌已补满的客户端与新客户端等价, 可以直接丢弃
+            clients.values().removeIf(candidate -> candidate.isFull(now));
+            if (clients.size() >= maxClients) {
+                // 没有补满的客户端时淘汰离补满最近的一个, 即最久没有调用的客户端, 保证跟踪的客户端数有上限
+                clients.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().refillNanos(now)))
+                    .ifPresent(entry -> clients.remove(entry.getKey(), entry.getValue()));
+            }
+        }
+        return clients.computeIfAbsent(client, key -> new TokenBucket(clientLimit, now));
+    }
+
+    private TokenBucket hostBucket(String url) {
+        String authority = authorityOf(url);
+        if (authority == null) {
+            return null;
+        }
+        TokenBucket bucket = hosts.get(authority);
+        int colon = authority.lastIndexOf(':');
+        if (bucket == null && colon > 0 && authority.indexOf(']') < colon) {
+            bucket = hosts.get(authority.substring(0, colon));
+        }
+        return bucket;
+    }
+
+    /**
+     * 不经过URI解析, 直接截取scheme://与路径之间的host[:port]
+     */
+    static String authorityOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        int start = url.indexOf("://");
+        if (start < 0) {
+            return null;
+        }
+        start += 3;
+        int end = start;
+        while (end < url.length()) {
+            char c = url.charAt(end);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            end++;
+        }
+        int at = url.lastIndexOf('@', end - 1);
+        if (at >= start) {
+            start = at + 1;
+        }
+        return end > start ? url.substring(start, end).toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * @param delayNanos      允许时需要先等待的纳秒数
+     * @param scope           拒绝时超出限制的范围
+     * @param retryAfterNanos 拒绝时距离下一个令牌可用的纳秒数
+     */
+    public record Decision(boolean allowed, long delayNanos, String scope, long retryAfterNanos) {
+
+        private static final Decision IMMEDIATE = new Decision(true, 0, null, 0);
+
+        static Decision allowed(long delayNanos) {
+            return delayNanos == 0 ? IMMEDIATE : new Decision(true, delayNanos, null, 0);
+        }
+
+        static Decision rejected(String scope, long retryAfterNanos) {
+            return new Decision(false, 0, scope, retryAfterNanos);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.apache.camel.examples.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶, 以GCRA(理论到达时间)实现, 状态只有一个AtomicLong, 每次获取一次CAS
+ * <p>
+ * 每个令牌对应interval纳秒, 理论到达时间领先当前时间不超过tolerance时允许调用;
+ * 与"按时间补充令牌"的实现等价, 但不需要加锁同时更新余额与补充时间
+ */
+public final class TokenBucket {
+
+    private final RateLimit limit;
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(RateLimit limit) {
+        this(limit, System.nanoTime());
+    }
+
+    /**
+     * @param now 创建时间, 在调用路径上创建时传入本次调用的时间, 避免第一个令牌被判定为尚未产生
+     */
+    public TokenBucket(RateLimit limit, long now) {
+        this.limit = limit;
+        this.interval = Math.max(1, Math.round(1_000_000_000L / limit.getRate()));
+        this.tolerance = interval * (limit.getBurst() - 1);
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    public RateLimit getLimit() {
+        return limit;
+    }
+
+    /**
+     * 预留一个令牌
+     *
+     * @param now     当前时间, System.nanoTime()
+     * @param maxWait 最多愿意等待的纳秒数, 0表示不等待
+     * @return 需要等待的纳秒数, 0表示立即可用; 需要等待超过maxWait时返回-1且不预留
+     */
+    public long reserve(long now, long maxWait) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long wait = current - tolerance - now;
+            if (wait > maxWait) {
+                return -1;
+            }
+            long start = current - now > 0 ? current : now;
+            if (theoreticalArrival.compareAndSet(current, start + interval)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * 归还一个已预留但未使用的令牌
+     */
+    public void cancel() {
+        theoreticalArrival.addAndGet(-interval);
+    }
+
+    /**
+     * @return 下一个令牌可用前需要等待的纳秒数
+     */
+    public long waitNanos(long now) {
+        return Math.max(0, theoreticalArrival.get() - tolerance - now);
+    }
+
+    /**
+     * @return 令牌已补满, 丢弃该桶与重新创建等价
+     */
+    public boolean isFull(long now) {
+        return now - theoreticalArrival.get() >= 0;
+    }
+
+    /**
+     * @return 距离令牌补满的纳秒数, 已补满时不大于0
+     */
+    public long refillNanos(long now) {
+        return theoreticalArrival.get() - now;
+    }
+}
@@ -0,0 +1,69 @@
+package org.apache.camel.examples.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 重试预算令牌桶, 每个请求存入ratio个令牌, 每次重试取出一个令牌, 余额不超过capacity
+ * <p>
+ * 上游持续故障时重试量被限制在请求量的ratio倍以内, 重试不会放大故障; 令牌以千分之一为单位计数, 无锁更新
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * @throws IllegalArgumentException 如果ratio为负数或capacity小于1
+     */
+    public RetryBudget(double ratio, int capacity) {
+        if (ratio < 0 || capacity < 1) {
+            throw new IllegalArgumentException("重试预算配置不合法: ratio=" + ratio + ", capacity=" + capacity);
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = capacity * SCALE;
+        this.balance = new AtomicLong(this.capacity);
+    }
+
+    /**
+     * 记录一个请求, 存入令牌
+     */
+    public void deposit() {
+        if (deposit > 0) {
+            balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+        }
+    }
+
+    /**
+     * 取出一个重试令牌
+     *
+     * @return 余额不足一个令牌时返回false
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还一个未使用的重试令牌
+     */
+    public void release() {
+        balance.accumulateAndGet(SCALE, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    /**
+     * @return 当前可用的重试次数
+     */
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,79 @@
+package org.apache.camel.examples.retry;
+
+import org.apache.camel.examples.config.RetryProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 全局与按上游主机的重试预算, 一次重试需要同时从两份预算中各取出一个令牌
+ * 全局预算限制所有上游同时故障时的总重试量, 主机预算避免单个故障上游耗尽全局预算
+ */
+@Component
+public class RetryBudgets {
+
+    private final RetryProperties.Budget properties;
+    private final RetryBudget global;
+    private final Map<String, RetryBudget> hosts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RetryBudgets(RetryProperties properties) {
+        this.properties = properties.getBudget();
+        this.global = newBudget();
+    }
+
+    /**
+     * 记录一个发往url的请求
+     */
+    public void deposit(String url) {
+        global.deposit();
+        String host = hostOf(url);
+        if (host != null) {
+            hosts.computeIfAbsent(host, key -> newBudget()).deposit();
+        }
+    }
+
+    /**
+     * 为发往url的一次重试取出令牌
+     *
+     * @return 任一预算不足时返回false, 已取出的令牌会被归还
+     */
+    public boolean tryAcquire(String url) {
+        String host = hostOf(url);
+        RetryBudget hostBudget = host == null ? null : hosts.computeIfAbsent(host, key -> newBudget());
+        if (hostBudget != null && !hostBudget.tryAcquire()) {
+            return false;
+        }
+        if (!global.tryAcquire()) {
+            if (hostBudget != null) {
+                hostBudget.release();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private RetryBudget newBudget() {
+        return new RetryBudget(properties.getRatio(), properties.getCapacity());
+    }
+
+    private static String hostOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null) {
+                return null;
+            }
+            String host = uri.getHost().toLowerCase(Locale.ROOT);
+            return uri.getPort() == -1 ? host : host + ":" + uri.getPort();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
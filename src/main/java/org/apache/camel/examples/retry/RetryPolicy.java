@@ -0,0 +1,118 @@
+package org.apache.camel.examples.retry;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 工具级重试策略, 实例不可变, 同一工具的所有调用共享
+ * <p>
+ * GET、HEAD、OPTIONS、PUT、DELETE、TRACE默认可重试; POST、PATCH需要在操作上声明{@code x-idempotent: true},
+ * 声明{@code x-idempotent: false}的操作不重试
+ */
+@Getter
+public final class RetryPolicy {
+
+    public static final String EXTENSION = "x-idempotent";
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE");
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration maxRetryAfter;
+    private final Set<Integer> statuses;
+
+    private RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, Duration maxRetryAfter, Set<Integer> statuses) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxRetryAfter = maxRetryAfter;
+        this.statuses = Set.copyOf(statuses);
+    }
+
+    public static RetryPolicy of(int maxAttempts, Duration initialBackoff, Duration maxBackoff, Duration maxRetryAfter, Set<Integer> statuses) {
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, maxRetryAfter, statuses);
+    }
+
+    /**
+     * 按HTTP方法与x-idempotent扩展决定操作是否重试
+     *
+     * @return 不重试时返回null
+     */
+    public static RetryPolicy forOperation(String method, Map<String, Object> extensions, RetryPolicy defaults) {
+        if (defaults == null || defaults.maxAttempts <= 1) {
+            return null;
+        }
+        Object idempotent = extensions == null ? null : extensions.get(EXTENSION);
+        if (idempotent != null) {
+            return Boolean.parseBoolean(idempotent.toString().trim()) ? defaults : null;
+        }
+        return IDEMPOTENT_METHODS.contains(method.toUpperCase(Locale.ROOT)) ? defaults : null;
+    }
+
+    /**
+     * @param statusCode 响应状态码, 请求异常时为null
+     * @param failure    请求异常, 收到响应时为null
+     */
+    public boolean isRetryable(Integer statusCode, Throwable failure) {
+        if (failure != null) {
+            return causedByIo(failure);
+        }
+        return statusCode != null && statuses.contains(statusCode);
+    }
+
+    /**
+     * 第retry次重试前的等待时间, 指数退避并在0到上限之间随机(full jitter); Retry-After优先
+     *
+     * @param retryAfter 响应中的Retry-After, 没有时为null
+     * @return Retry-After超过maxRetryAfter时返回null, 表示不重试
+     */
+    public Duration backoff(int retry, Duration retryAfter) {
+        if (retryAfter != null) {
+            return retryAfter.compareTo(maxRetryAfter) > 0 ? null : retryAfter;
+        }
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(retry - 1, 30));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    /**
+     * 解析Retry-After, 支持秒数与HTTP日期
+     *
+     * @return 无法解析时返回null
+     */
+    public static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(text)));
+        } catch (NumberFormatException e) {
+            // 不是秒数时按HTTP日期解析
+        }
+        try {
+            Duration delay = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(text, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static boolean causedByIo(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
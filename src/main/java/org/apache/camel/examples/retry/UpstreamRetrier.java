@@ -0,0 +1,142 @@
+package org.apache.camel.examples.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.auth.CredentialProvider;
+import org.apache.camel.examples.deadline.CallDeadline;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 上游调用的重试规则, 由路由与直连快速路径共用
+ * <p>
+ * 401时使本次凭证失效, 用新凭证重发一次; 之后按工具的重试策略重试可重试的状态码与IO异常:
+ * 429/503响应的Retry-After优先于随机指数退避, 每次重试需要从全局与上游主机的重试预算中各取出一个令牌,
+ * 预算耗尽、剩余截止时间不足或调用已中止时停止重试, 返回最后一次的结果
+ */
+@Slf4j
+@Component
+public class UpstreamRetrier {
+
+    @Resource
+    private RetryBudgets retryBudgets;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * @param call        本次调用
+     * @param first       第一次请求的结果
+     * @param resend      按当前的请求头重新发送
+     * @param credentials 401后以刷新的凭证替换请求中的凭证
+     * @param discard     丢弃不再使用的结果, 关闭未读取的响应体以归还连接
+     * @return 最后一次请求的结果
+     */
+    public <T> Attempt<T> execute(Call call, Attempt<T> first, Supplier<Attempt<T>> resend,
+                                  Consumer<Map<String, String>> credentials, Consumer<Attempt<T>> discard) {
+        Attempt<T> attempt = first;
+        if (call.provider() != null && attempt.isStatus(401)) {
+            call.provider().invalidate(call.credentials());
+            Map<String, String> refreshed = call.provider().credentials();
+            log.info("上游返回401, 刷新凭证后重试: {}", call.url());
+            // 后续的瞬时故障重试同样使用新凭证
+            credentials.accept(refreshed);
+            discard.accept(attempt);
+            attempt = resend.get();
+        }
+        return call.policy() == null ? attempt : retry(call, attempt, resend, discard);
+    }
+
+    private <T> Attempt<T> retry(Call call, Attempt<T> attempt, Supplier<Attempt<T>> resend, Consumer<Attempt<T>> discard) {
+        RetryPolicy policy = call.policy();
+        CallDeadline deadline = call.deadline();
+        for (int retry = 1; retry < policy.getMaxAttempts(); retry++) {
+            Integer statusCode = attempt.statusCode();
+            if (!policy.isRetryable(statusCode, attempt.failure())) {
+                return attempt;
+            }
+            Duration retryAfter = attempt.isStatus(429) || attempt.isStatus(503)
+                ? RetryPolicy.parseRetryAfter(attempt.retryAfter())
+                : null;
+            Duration backoff = policy.backoff(retry, retryAfter);
+            if (backoff == null) {
+                recordRetry(call.toolName(), "retry-after-too-long");
+                return attempt;
+            }
+            if (deadline != null && (deadline.isAborted() || deadline.remainingNanos() <= backoff.toNanos())) {
+                recordRetry(call.toolName(), "deadline");
+                return attempt;
+            }
+            if (retryBudgets != null && !retryBudgets.tryAcquire(call.url())) {
+                log.warn("工具 {} 重试预算已耗尽, 不再重试: {}", call.toolName(), call.url());
+                recordRetry(call.toolName(), "budget-exhausted");
+                return attempt;
+            }
+
+            log.info("工具 {} 上游{}, {} ms后第 {} 次重试", call.toolName(),
+                attempt.failure() != null ? "请求失败: " + attempt.failure().getMessage() : "返回 " + statusCode,
+                backoff.toMillis(), retry);
+            recordRetry(call.toolName(), "retried");
+            discard.accept(attempt);
+            try {
+                Thread.sleep(backoff.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return attempt;
+            }
+            attempt = resend.get();
+        }
+        return attempt;
+    }
+
+    private void recordRetry(String toolName, String result) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder("mcp.upstream.retries")
+            .tags("tool", toolName != null ? toolName : "unknown", "result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * @param toolName    工具名, 用于日志与指标
+     * @param url         上游地址, 用于按主机取重试预算
+     * @param deadline    调用的截止时间, 为空表示不限制
+     * @param policy      瞬时故障重试策略, 为空表示不重试
+     * @param provider    本次请求使用的凭证提供者, 为空表示不做401重试
+     * @param credentials 本次请求附加的凭证
+     */
+    public record Call(String toolName, String url, CallDeadline deadline, RetryPolicy policy,
+                       CredentialProvider provider, Map<String, String> credentials) {
+    }
+
+    /**
+     * 一次请求的结果: 上游响应及其状态码, 或请求失败的异常
+     *
+     * @param response   响应, 由调用方决定类型
+     * @param statusCode 响应状态码, 请求失败时为空
+     * @param retryAfter Retry-After响应头
+     * @param failure    请求失败的异常
+     */
+    public record Attempt<T>(T response, Integer statusCode, String retryAfter, Exception failure) {
+
+        public static <T> Attempt<T> of(T response, Integer statusCode, String retryAfter) {
+            return new Attempt<>(response, statusCode, retryAfter, null);
+        }
+
+        public static <T> Attempt<T> failed(Exception failure) {
+            return new Attempt<>(null, null, null, failure);
+        }
+
+        boolean isStatus(int status) {
+            return failure == null && statusCode != null && statusCode == status;
+        }
+    }
+}
@@ -1,17 +1,51 @@
 package org.apache.camel.examples.route;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.Exchange;
+import org.apache.camel.LoggingLevel;
+import org.apache.camel.Message;
+import org.apache.camel.ProducerTemplate;
 import org.springframework.stereotype.Component;
+import org.apache.camel.examples.auth.CredentialManager;
+import org.apache.camel.examples.auth.CredentialProvider;
+import org.apache.camel.component.http.HttpComponent;
+import org.apache.camel.examples.config.ContentProperties;
+import org.apache.camel.examples.connection.UpstreamConnections;
+import org.apache.camel.examples.content.ResponseBodyReader;
+import org.apache.camel.examples.deadline.CallDeadline;
+import org.apache.camel.examples.deadline.DeadlineHttpClientConfigurer;
+import org.apache.camel.examples.deadline.TimeoutPolicy;
 import org.apache.camel.examples.domain.HttpRequestBean;
 import org.apache.camel.examples.domain.HttpResponseBean;
+import org.apache.camel.examples.domain.ToolOptions;
+import org.apache.camel.examples.encoding.JsonBodyWriter;
+import org.apache.camel.examples.pagination.Paginator;
+import org.apache.camel.examples.retry.RetryBudgets;
+import org.apache.camel.examples.retry.UpstreamRetrier;
+import org.apache.camel.examples.retry.UpstreamRetrier.Attempt;
+import org.apache.camel.examples.streaming.ChunkListener;
+import org.apache.camel.examples.streaming.StreamingResponseReader;
+import org.apache.camel.examples.traffic.TrafficRecord;
+import org.apache.camel.examples.traffic.TrafficRecorder;
+import org.apache.camel.util.IOHelper;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Component
 public class HttpRequestRoute extends RouteBuilder {
     
@@ -23,42 +57,439 @@ public class HttpRequestRoute extends RouteBuilder {
         "accept"
     );
     
+    // 交换属性, 保存生成工具的处理选项, 供响应阶段使用
+    public static final String TOOL_OPTIONS = "CamelMcpToolOptions";
+    
+    // 交换属性, 保存本次请求使用的凭证提供者、附加的凭证和请求快照, 供401后重试使用
+    public static final String CREDENTIAL_PROVIDER = "CamelMcpCredentialProvider";
+    public static final String CREDENTIALS = "CamelMcpCredentials";
+    public static final String REQUEST_SNAPSHOT = "CamelMcpRequestSnapshot";
+    
+    // 交换属性, 保存原始请求, 供自动分页构造后续页请求
+    public static final String HTTP_REQUEST = "CamelMcpHttpRequest";
+    
+    // 预热调用的上游端点, 在进程内返回合成响应
+    public static final String WARMUP_ENDPOINT = "direct:warmupUpstream";
+    
+    // 回放模式的上游端点, 从流量日志中返回录制的响应
+    public static final String REPLAY_ENDPOINT = "direct:replayUpstream";
+    
+    // 交换属性, 录制模式下保存请求开始的时间
+    public static final String REQUEST_START = "CamelMcpRequestStart";
+    
+    @Resource
+    private MeterRegistry meterRegistry;
+    
+    @Resource
+    private CredentialManager credentialManager;
+    
+    @Resource
+    private RetryBudgets retryBudgets;
+    
+    @Resource
+    private UpstreamRetrier retrier;
+    
+    @Resource
+    private UpstreamConnections upstreamConnections;
+    
+    @Resource
+    private TrafficRecorder trafficRecorder;
+    
+    @Resource
+    private ContentProperties contentProperties;
+    
+    private ProducerTemplate internalTemplate;
+    
+    private ExecutorService prefetchExecutor;
+    
+    private ToolResponseProcessor responseProcessor;
+    
+    private ResponseBodyReader bodyReader;
+    
     @Override
     public void configure() {
+        internalTemplate = getContext().createProducerTemplate();
+        responseProcessor = new ToolResponseProcessor(meterRegistry);
+        bodyReader = new ResponseBodyReader(contentProperties);
+        if (retrier == null) {
+            retrier = new UpstreamRetrier();
+        }
+        prefetchExecutor = getContext().getExecutorServiceManager().newCachedThreadPool(this, "PaginationPrefetch");
+        // 调用超时或被取消时由执行链中止正在进行的上游请求
+        DeadlineHttpClientConfigurer deadlineConfigurer = new DeadlineHttpClientConfigurer();
+        for (String scheme : new String[] {"http", "https"}) {
+            HttpComponent component = getContext().getComponent(scheme, HttpComponent.class);
+            if (upstreamConnections != null) {
+                // 查询参数不同的请求对应不同端点, 共享连接池使它们复用同一上游的连接和预热的连接
+                component.setClientConnectionManager(upstreamConnections.getConnectionManager());
+            }
+            component.setHttpClientConfigurer(clientBuilder -> {
+                // 重试只由retryFailures按工具的重试策略与预算执行, 关闭HTTP客户端自带的503/429与IO异常重试
+                clientBuilder.disableAutomaticRetries();
+                deadlineConfigurer.configureHttpClient(clientBuilder);
+                if (upstreamConnections != null) {
+                    upstreamConnections.configureHttpClient(clientBuilder);
+                }
+            });
+        }
+        
         from("direct:httpRequest")
             .routeId("dynamicHttpRequest")
-            .log("收到HTTP请求: ${body}")
             .process(this::processHttpRequest)
-            .recipientList(header("HTTP_ENDPOINT"))
-            .log("HTTP请求完成，响应: ${body}")
+            .doTry()
+                .process(this::bindDeadline)
+                .recipientList(header("HTTP_ENDPOINT")).end()
+            .doCatch(IOException.class)
+                // 连接失败、读取超时等交给retryFailures判断是否重试, 不重试时重新抛出
+                .log(LoggingLevel.WARN, "上游请求失败: ${exception.message}")
+            .doFinally()
+                .process(exchange -> CallDeadline.bind(null))
+            .end()
+            .process(this::retryFailures)
+            .process(this::readStreamingResponse)
+            // 只记录状态码与长度, 不把响应体转换为字符串
+            .log(LoggingLevel.DEBUG, "HTTP请求完成, 状态码: ${header.CamelHttpResponseCode}, Content-Length: ${header[Content-Length]}")
+            .process(this::processHttpResponse)
+            .process(this::paginate)
+            .process(this::mapResponse)
+            .process(this::encodeResponse);
+        
+        // 自动分页的后续页, 只请求单页, 映射与编码在合并后统一处理
+        from("direct:httpPage")
+            .routeId("paginatedHttpRequest")
+            .process(this::processHttpRequest)
+            .doTry()
+                .process(this::bindDeadline)
+                .recipientList(header("HTTP_ENDPOINT")).end()
+            .doCatch(IOException.class)
+                .log(LoggingLevel.WARN, "上游请求失败: ${exception.message}")
+            .doFinally()
+                .process(exchange -> CallDeadline.bind(null))
+            .end()
+            .process(this::retryFailures)
+            .process(this::readStreamingResponse)
             .process(this::processHttpResponse);
+        
+        from(WARMUP_ENDPOINT)
+            .routeId("warmupUpstream")
+            .process(this::respondToWarmup);
+        
+        from(REPLAY_ENDPOINT)
+            .routeId("replayUpstream")
+            .process(this::respondFromRecording);
     }
     
     private void processHttpRequest(Exchange exchange) {
         HttpRequestBean request = exchange.getIn().getBody(HttpRequestBean.class);
+        exchange.setProperty(TOOL_OPTIONS, options(request));
+        exchange.setProperty(HTTP_REQUEST, request);
 
         exchange.getIn().setHeader(Exchange.HTTP_METHOD, request.getMethod());
-        exchange.getIn().setHeader("HTTP_ENDPOINT", request.buildFullUrl());
+        exchange.getIn().setHeader("HTTP_ENDPOINT", upstreamEndpoint(request));
         Optional.ofNullable(request.getHeaders())
             .orElse(new HashMap<>())
             .forEach((k, v) -> exchange.getIn().setHeader(k, v));
 
-        String body = request.getBody();
-        exchange.getIn().setBody(body != null && !body.trim().isEmpty() ? body : "");
+        if (request.getBodyBytes() != null) {
+            // 已序列化的请求体按字节发送, HTTP组件据此设置Content-Length; Content-Type由生成的工具按操作声明放入请求头
+            exchange.getIn().setBody(request.getBodyBytes());
+        } else {
+            String body = request.getBody();
+            exchange.getIn().setBody(body != null && !body.isBlank() ? body : "");
+        }
+        
+        if (request.getWarmupResponse() != null) {
+            // 预热调用不获取凭证、不计入重试预算
+            return;
+        }
+        if (trafficRecorder != null && trafficRecorder.isRecording()) {
+            exchange.setProperty(REQUEST_START, System.nanoTime());
+        }
+        if (trafficRecorder == null || !trafficRecorder.isReplaying()) {
+            // 回放时不请求上游, 也不获取凭证
+            applyCredentials(exchange, request.getUrl());
+        }
+        // 401重试与瞬时故障重试都从请求快照重新发送
+        if (exchange.getProperty(CREDENTIAL_PROVIDER) != null || options(request).getRetry() != null) {
+            exchange.setProperty(REQUEST_SNAPSHOT, exchange.getIn().copy());
+        }
+        if (retryBudgets != null) {
+            retryBudgets.deposit(request.getUrl());
+        }
+    }
+    
+    /**
+     * 发出请求的是当前线程, 由DeadlineHttpClientConfigurer登记中止回调; 请求结束后在doFinally中解除绑定,
+     * 失败时也不把截止时间留在线程池的线程上
+     */
+    private void bindDeadline(Exchange exchange) {
+        HttpRequestBean request = exchange.getProperty(HTTP_REQUEST, HttpRequestBean.class);
+        CallDeadline.bind(request != null ? request.getDeadline() : null);
+    }
+    
+    private String upstreamEndpoint(HttpRequestBean request) {
+        if (request.getWarmupResponse() != null) {
+            return WARMUP_ENDPOINT;
+        }
+        if (trafficRecorder != null && trafficRecorder.isReplaying()) {
+            return REPLAY_ENDPOINT;
+        }
+        return endpointUri(request);
+    }
+    
+    /**
+     * 按录制耗时乘以延迟倍数等待后返回录制的响应, 等待不超过调用的剩余截止时间; 录制时请求失败的, 同样以IO异常失败
+     */
+    private void respondFromRecording(Exchange exchange) throws IOException, InterruptedException {
+        HttpRequestBean request = exchange.getProperty(HTTP_REQUEST, HttpRequestBean.class);
+        Optional<TrafficRecord> recorded = trafficRecorder.replay(request);
+        if (recorded.isEmpty()) {
+            exchange.getMessage().setHeader(Exchange.HTTP_RESPONSE_CODE, 502);
+            exchange.getMessage().setBody("回放日志中没有匹配的请求: " + request.getMethod() + " " + request.getUrl());
+            return;
+        }
+        
+        TrafficRecord record = recorded.get();
+        long delay = trafficRecorder.replayDelayNanos(record);
+        CallDeadline deadline = request.getDeadline();
+        if (deadline != null) {
+            delay = Math.min(delay, Math.max(0, deadline.remainingNanos()));
+        }
+        TimeUnit.NANOSECONDS.sleep(delay);
+        
+        if (record.status() == TrafficRecord.FAILED) {
+            throw new IOException(new String(record.responseBody(), StandardCharsets.UTF_8));
+        }
+        Message message = exchange.getMessage();
+        record.headers().forEach(message::setHeader);
+        String contentType = message.getHeader(Exchange.CONTENT_TYPE, String.class);
+        String charset = contentType != null ? IOHelper.getCharsetNameFromContentType(contentType) : null;
+        if (charset != null) {
+            exchange.setProperty(Exchange.CHARSET_NAME, charset);
+        }
+        message.setHeader(Exchange.HTTP_RESPONSE_CODE, record.status());
+        message.setBody(record.responseBody());
+    }
+    
+    /**
+     * 录制模式下追加本次上游调用: 最终的原始响应(含重试)或失败原因, 耗时从发出请求算起
+     * <p>
+     * 响应体读为字节后放回消息, 流式工具以字节流放回, 后续处理不受影响; 凭证请求头和Camel内部头不录制
+     */
+    private void recordTraffic(Exchange exchange, Exception failure) {
+        Long start = exchange.getProperty(REQUEST_START, Long.class);
+        HttpRequestBean request = exchange.getProperty(HTTP_REQUEST, HttpRequestBean.class);
+        if (start == null || request == null || trafficRecorder == null) {
+            return;
+        }
+        long latency = System.nanoTime() - start;
+        long startMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(latency);
+        if (failure != null) {
+            String reason = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+            trafficRecorder.record(request, startMillis, latency, TrafficRecord.FAILED, Map.of(),
+                reason.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        
+        Message message = exchange.getIn();
+        boolean stream = message.getBody() instanceof InputStream;
+        byte[] body = message.getBody(byte[].class);
+        message.setBody(stream && body != null ? new ByteArrayInputStream(body) : body);
+        
+        Map<?, ?> credentials = exchange.getProperty(CREDENTIALS, Map.class);
+        Map<String, String> headers = new LinkedHashMap<>();
+        message.getHeaders().forEach((name, value) -> {
+            if (value != null && isHttpResponseHeader(name) && !name.startsWith("Camel") && !"HTTP_ENDPOINT".equals(name)
+                && (credentials == null || !credentials.containsKey(name))) {
+                headers.put(name, value.toString());
+            }
+        });
+        Integer statusCode = message.getHeader(Exchange.HTTP_RESPONSE_CODE, Integer.class);
+        trafficRecorder.record(request, startMillis, latency, statusCode != null ? statusCode : 0, headers, body);
     }
     
-    private void processHttpResponse(Exchange exchange) {
+    private void respondToWarmup(Exchange exchange) {
+        HttpRequestBean request = exchange.getProperty(HTTP_REQUEST, HttpRequestBean.class);
+        exchange.getMessage().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+        exchange.getMessage().setHeader(Exchange.CONTENT_TYPE, JsonBodyWriter.CONTENT_TYPE);
+        exchange.getMessage().setBody(request.getWarmupResponse());
+    }
+    
+    /**
+     * 按上游主机附加凭证, 调用方已显式传入同名请求头时以调用方为准
+     */
+    private void applyCredentials(Exchange exchange, String url) {
+        if (credentialManager == null) {
+            return;
+        }
+        Optional<CredentialProvider> provider = credentialManager.find(url);
+        if (provider.isEmpty()) {
+            return;
+        }
+        
+        Map<String, String> credentials = provider.get().credentials();
+        if (credentials.keySet().stream().anyMatch(name -> exchange.getIn().getHeader(name) != null)) {
+            return;
+        }
+        credentials.forEach((name, value) -> exchange.getIn().setHeader(name, value));
+        exchange.setProperty(CREDENTIAL_PROVIDER, provider.get());
+        exchange.setProperty(CREDENTIALS, credentials);
+    }
+    
+    /**
+     * 按{@link UpstreamRetrier}的规则处理401与瞬时故障, 重发都从请求快照发出; 录制模式下记录最终的结果
+     * <p>
+     * 连接失败、读取超时等IO异常由路由捕获后交给这里判断是否重试, 不重试时重新抛出
+     */
+    @SuppressWarnings("unchecked")
+    private void retryFailures(Exchange exchange) {
+        Exception failure = exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Exception.class);
+        exchange.removeProperty(Exchange.EXCEPTION_CAUGHT);
+        Message snapshot = exchange.getProperty(REQUEST_SNAPSHOT, Message.class);
+        HttpRequestBean request = exchange.getProperty(HTTP_REQUEST, HttpRequestBean.class);
+        // 录制的是重试之后的最终结果, 回放时不再重试; 重发的交换也没有HTTP_REQUEST属性, 无法匹配录制的记录
+        boolean replaying = trafficRecorder != null && trafficRecorder.isReplaying();
+        if (snapshot != null && request != null && !replaying) {
+            ToolOptions options = exchange.getProperty(TOOL_OPTIONS, ToolOptions.NONE, ToolOptions.class);
+            UpstreamRetrier.Call call = new UpstreamRetrier.Call(options.getToolName(), request.getUrl(), request.getDeadline(),
+                options.getRetry(), exchange.getProperty(CREDENTIAL_PROVIDER, CredentialProvider.class),
+                exchange.getProperty(CREDENTIALS, Map.class));
+            Attempt<Message> first = failure != null ? Attempt.failed(failure) : attemptOf(exchange.getIn());
+            Attempt<Message> last = retrier.execute(call, first, () -> resend(snapshot, request.getDeadline()), credentials -> {
+                credentials.forEach(snapshot::setHeader);
+                exchange.setProperty(CREDENTIALS, credentials);
+            }, attempt -> discardBody(attempt.response()));
+            failure = last.failure();
+            if (failure == null && last.response() != exchange.getIn()) {
+                exchange.getIn().copyFrom(last.response());
+            }
+        }
+        recordTraffic(exchange, failure);
+        if (failure != null) {
+            exchange.setException(failure);
+        }
+    }
+    
+    private Attempt<Message> resend(Message snapshot, CallDeadline deadline) {
+        CallDeadline.bind(deadline);
+        try {
+            Exchange retried = internalTemplate.send(snapshot.getHeader("HTTP_ENDPOINT", String.class),
+                attempt -> attempt.getIn().copyFrom(snapshot));
+            return retried.getException() != null ? Attempt.failed(retried.getException()) : attemptOf(retried.getMessage());
+        } finally {
+            CallDeadline.bind(null);
+        }
+    }
+    
+    private static Attempt<Message> attemptOf(Message message) {
+        return Attempt.of(message, message.getHeader(Exchange.HTTP_RESPONSE_CODE, Integer.class),
+            message.getHeader("Retry-After", String.class));
+    }
+    
+    /**
+     * 关闭未读取的流式响应体, 释放其占用的连接
+     */
+    private static void discardBody(Message message) {
+        if (message != null && message.getBody() instanceof InputStream stream) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                log.debug("关闭响应流失败: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void processHttpResponse(Exchange exchange) throws IOException {
         Integer statusCode = exchange.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE, Integer.class);
-        String responseBody = exchange.getIn().getBody(String.class);
         Map<String, Object> responseHeaders = exchange.getIn().getHeaders()
             .entrySet().stream()
             .filter(entry -> isHttpResponseHeader(entry.getKey()))
             .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-        HttpResponseBean response = new HttpResponseBean(statusCode, responseHeaders, responseBody);
+        Object body = exchange.getIn().getBody();
+        HttpResponseBean response;
+        if (body == null || body instanceof String) {
+            // 流式工具聚合后的结果与预热响应已是字符串
+            response = new HttpResponseBean(statusCode, responseHeaders, (String) body);
+        } else {
+            // 按Content-Type读取: 文本按声明的字符集解码, 二进制编码为base64, 不经过默认字符集转换
+            response = bodyReader.read(statusCode, responseHeaders,
+                exchange.getIn().getHeader(Exchange.CONTENT_TYPE, String.class),
+                exchange.getIn().getBody(InputStream.class), -1);
+        }
         exchange.getIn().setBody(response);
     }
     
+    /**
+     * 流式工具逐块读取上游响应并转发给请求携带的监听器, 读完后以聚合结果替换响应体
+     */
+    private void readStreamingResponse(Exchange exchange) throws IOException {
+        ToolOptions options = exchange.getProperty(TOOL_OPTIONS, ToolOptions.NONE, ToolOptions.class);
+        Object body = exchange.getIn().getBody();
+        if (!options.isStreaming() || !(body instanceof InputStream stream)) {
+            return;
+        }
+        
+        Integer statusCode = exchange.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE, Integer.class);
+        HttpRequestBean request = exchange.getProperty(HTTP_REQUEST, HttpRequestBean.class);
+        // 错误响应不转发, 原样读取
+        ChunkListener listener = statusCode != null && statusCode >= 200 && statusCode < 300 && request != null
+            ? request.getChunkListener()
+            : null;
+        long start = System.nanoTime();
+        String aggregated = StreamingResponseReader.read(stream,
+            exchange.getIn().getHeader(Exchange.CONTENT_TYPE, String.class), listener);
+        exchange.getIn().setBody(aggregated);
+        log.debug("工具 {} 流式响应读取完成, 耗时 {} ms", options.getToolName(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+    
+    /**
+     * 按工具声明的x-pagination获取后续页, 合并为一个响应后再做映射和编码
+     */
+    private void paginate(Exchange exchange) {
+        ToolOptions options = exchange.getProperty(TOOL_OPTIONS, ToolOptions.NONE, ToolOptions.class);
+        HttpResponseBean response = exchange.getIn().getBody(HttpResponseBean.class);
+        if (options.getPagination() == null || !ToolResponseProcessor.isSuccessful(response)) {
+            return;
+        }
+        
+        HttpRequestBean request = exchange.getProperty(HTTP_REQUEST, HttpRequestBean.class);
+        Paginator paginator = new Paginator(options.getPagination(),
+            page -> internalTemplate.requestBody("direct:httpPage", page, HttpResponseBean.class),
+            prefetchExecutor);
+        exchange.getIn().setBody(paginator.collect(request, response));
+    }
+    
+    private void mapResponse(Exchange exchange) {
+        responseProcessor.map(exchange.getProperty(TOOL_OPTIONS, ToolOptions.NONE, ToolOptions.class),
+            exchange.getIn().getBody(HttpResponseBean.class));
+    }
+    
+    private void encodeResponse(Exchange exchange) {
+        responseProcessor.encode(exchange.getProperty(TOOL_OPTIONS, ToolOptions.NONE, ToolOptions.class),
+            exchange.getIn().getBody(HttpResponseBean.class));
+    }
+    
+    private static String endpointUri(HttpRequestBean request) {
+        StringBuilder uri = new StringBuilder(request.buildFullUrl());
+        TimeoutPolicy timeout = options(request).getTimeout();
+        if (timeout != null) {
+            // 固定取配置值, 同一工具的调用复用同一端点; 总时长由CallDeadline中止请求保证.
+            // 连接由共享连接池建立, 连接超时取主机配置, 端点上的connectTimeout不生效
+            uri.append("&responseTimeout=").append(timeout.getRead().toMillis());
+        }
+        if (options(request).isStreaming()) {
+            // 流式工具关闭流缓存, 响应体以原始InputStream交给readStreamingResponse增量读取
+            uri.append("&disableStreamCache=true");
+        }
+        return uri.toString();
+    }
+    
+    private static ToolOptions options(HttpRequestBean request) {
+        return Optional.ofNullable(request.getOptions()).orElse(ToolOptions.NONE);
+    }
+    
     private boolean isHttpResponseHeader(String headerName) {
         return !CAMEL_HEADER_BUT_NOT_HTTP.contains(headerName);
     }
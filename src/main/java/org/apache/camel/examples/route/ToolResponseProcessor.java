@@ -0,0 +1,77 @@
+package org.apache.camel.examples.route;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.apache.camel.examples.domain.ToolOptions;
+import org.apache.camel.examples.encoding.ResponseEncoding;
+import org.apache.camel.examples.encoding.TabularEncoder;
+
+/**
+ * 工具响应的映射与编码, 由Camel路由和直连快速路径共用
+ */
+@Slf4j
+public class ToolResponseProcessor {
+
+    private final MeterRegistry meterRegistry;
+
+    public ToolResponseProcessor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 按工具配置的响应映射处理响应体, 映射在构建工具时已编译, 这里只执行; 二进制响应不映射
+     */
+    public void map(ToolOptions options, HttpResponseBean response) {
+        if (options.getResponseMapper() == null || !isSuccessful(response) || response.getContent() != null) {
+            return;
+        }
+
+        response.setBody(options.getResponseMapper().map(response.getBody()));
+    }
+
+    /**
+     * 按工具配置的输出编码将同构对象数组改写为表格形式, 不满足条件时保留JSON
+     */
+    public void encode(ToolOptions options, HttpResponseBean response) {
+        ResponseEncoding encoding = options.getEncoding();
+        if (encoding == null || encoding == ResponseEncoding.JSON || !isSuccessful(response) || response.getContent() != null) {
+            return;
+        }
+
+        TabularEncoder.encode(response.getBody(), encoding).ifPresent(encoded -> {
+            response.setBody(encoded.body());
+            if (response.getHeaders() != null) {
+                response.getHeaders().keySet().removeIf(Exchange.CONTENT_TYPE::equalsIgnoreCase);
+                response.getHeaders().put(Exchange.CONTENT_TYPE, encoding.getMediaType());
+            }
+            recordSavings(options.getToolName(), encoding, encoded);
+        });
+    }
+
+    public static boolean isSuccessful(HttpResponseBean response) {
+        return response.getStatusCode() >= 200 && response.getStatusCode() < 300;
+    }
+
+    private void recordSavings(String toolName, ResponseEncoding encoding, TabularEncoder.EncodedBody encoded) {
+        log.debug("工具 {} 响应编码为 {}: {} -> {} 字节, 约节省 {} token",
+            toolName, encoding, encoded.originalBytes(), encoded.encodedBytes(), encoded.savedTokens());
+        if (meterRegistry == null) {
+            return;
+        }
+        String tool = toolName != null ? toolName : "unknown";
+        String format = encoding.name().toLowerCase();
+        DistributionSummary.builder("mcp.response.encoding.saved.bytes")
+            .baseUnit("bytes")
+            .tags("tool", tool, "encoding", format)
+            .register(meterRegistry)
+            .record(encoded.savedBytes());
+        DistributionSummary.builder("mcp.response.encoding.saved.tokens")
+            .baseUnit("tokens")
+            .tags("tool", tool, "encoding", format)
+            .register(meterRegistry)
+            .record(encoded.savedTokens());
+    }
+}
@@ -25,6 +25,17 @@ public final class JsonSchemaGenerator {
      * 为OpenAPI操作生成JSON Schema
      */
     public static String generateForOpenApiOperation(Operation operation, String path) {
+        return generateSchema(operation, path).toPrettyString();
+    }
+
+    /**
+     * 为OpenAPI操作生成紧凑格式(无缩进与换行)的JSON Schema, 用于工具定义与工具列表
+     */
+    public static String generateCompactForOpenApiOperation(Operation operation, String path) {
+        return generateSchema(operation, path).toString();
+    }
+
+    private static ObjectNode generateSchema(Operation operation, String path) {
         ObjectNode schema = OBJECT_MAPPER.createObjectNode();
         schema.put("type", "object");
 
@@ -58,7 +69,7 @@ public final class JsonSchemaGenerator {
             }
         }
 
-        return schema.toPrettyString();
+        return schema;
     }
 
     private static void extractPathParameters(Operation operation, String path, ObjectNode properties, ArrayNode required) {
@@ -109,37 +120,52 @@ public final class JsonSchemaGenerator {
         return jsonSchema;
     }
 
+    /**
+     * 请求体schema: 只有application/json声明为对象时生成对象schema; 其他JSON类型只保留type,
+     * 非JSON请求体(text/plain、XML等)或未声明schema时不约束类型, 由工具按原样发送
+     */
     private static ObjectNode createRequestBodySchema(RequestBody requestBody) {
+        ObjectNode bodySchema = OBJECT_MAPPER.createObjectNode();
         Content content = requestBody.getContent();
-        if (content != null && content.get("application/json") != null) {
-            Schema<?> schema = content.get("application/json").getSchema();
-            if (schema != null) {
-                ObjectNode bodySchema = OBJECT_MAPPER.createObjectNode();
-                bodySchema.put("type", "object");
-                if (schema.getProperties() != null && !schema.getProperties().isEmpty()) {
-                    ObjectNode properties = bodySchema.putObject("properties");
-                    schema.getProperties().forEach((name, propSchema) -> {
-                        ObjectNode propJsonSchema = OBJECT_MAPPER.createObjectNode();
-                        if (propSchema.getType() != null) {
-                            propJsonSchema.put("type", propSchema.getType());
-                        }
-                        if (propSchema.getDescription() != null) {
-                            propJsonSchema.put("description", propSchema.getDescription());
-                        }
-                        properties.set(name, propJsonSchema);
-                    });
-                }
-                if (schema.getRequired() != null && !schema.getRequired().isEmpty()) {
-                    ArrayNode required = bodySchema.putArray("required");
-                    schema.getRequired().forEach(required::add);
-                }
-                return bodySchema;
+        Schema<?> schema = content != null && content.get("application/json") != null
+            ? content.get("application/json").getSchema()
+            : null;
+        if (schema == null) {
+            if (content != null && !content.isEmpty()) {
+                bodySchema.put("description", "请求体, 按" + content.keySet().iterator().next() + "原样发送");
+            }
+            return bodySchema;
+        }
+        
+        boolean hasProperties = schema.getProperties() != null && !schema.getProperties().isEmpty();
+        if (!"object".equals(schema.getType()) && !(schema.getType() == null && hasProperties)) {
+            if (schema.getType() != null) {
+                bodySchema.put("type", schema.getType());
             }
+            if (schema.getDescription() != null) {
+                bodySchema.put("description", schema.getDescription());
+            }
+            return bodySchema;
         }
         
-        // 默认返回简单的对象schema
-        ObjectNode defaultSchema = OBJECT_MAPPER.createObjectNode();
-        defaultSchema.put("type", "object");
-        return defaultSchema;
+        bodySchema.put("type", "object");
+        if (hasProperties) {
+            ObjectNode properties = bodySchema.putObject("properties");
+            schema.getProperties().forEach((name, propSchema) -> {
+                ObjectNode propJsonSchema = OBJECT_MAPPER.createObjectNode();
+                if (propSchema.getType() != null) {
+                    propJsonSchema.put("type", propSchema.getType());
+                }
+                if (propSchema.getDescription() != null) {
+                    propJsonSchema.put("description", propSchema.getDescription());
+                }
+                properties.set(name, propJsonSchema);
+            });
+        }
+        if (schema.getRequired() != null && !schema.getRequired().isEmpty()) {
+            ArrayNode required = bodySchema.putArray("required");
+            schema.getRequired().forEach(required::add);
+        }
+        return bodySchema;
     }
 }
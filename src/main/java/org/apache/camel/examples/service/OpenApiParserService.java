@@ -3,9 +3,14 @@ package org.apache.camel.examples.service;
 import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.parser.core.models.ParseOptions;
 import io.swagger.v3.oas.models.OpenAPI;
+import jakarta.annotation.Resource;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
@@ -16,6 +21,82 @@ import java.nio.file.Paths;
 @Service
 public class OpenApiParserService {
     
+    private static final String CLASSPATH_PREFIX = "classpath:";
+    private static final String FILE_PREFIX = "file:";
+    
+    @Resource
+    private RemoteSpecCache remoteSpecCache;
+    
+    /**
+     * 判断文档位置是否为远程http(s)地址
+     */
+    public static boolean isRemoteLocation(String location) {
+        if (location == null) {
+            return false;
+        }
+        String trimmed = location.trim().toLowerCase();
+        return trimmed.startsWith("http://") || trimmed.startsWith("https://");
+    }
+    
+    /**
+     * 从资源位置加载OpenAPI文档
+     * 
+     * @param location 文档位置, 支持http(s)地址, classpath:前缀的类路径资源, file:前缀或普通文件路径
+     * @return 解析后的OpenAPI对象
+     * @throws IOException 如果文档读取失败
+     * @throws IllegalArgumentException 如果文档位置为空
+     */
+    public OpenAPI parseFromLocation(String location) throws IOException {
+        if (location == null || location.trim().isEmpty()) {
+            throw new IllegalArgumentException("文档位置不能为空");
+        }
+        
+        String trimmed = location.trim();
+        if (isRemoteLocation(trimmed)) {
+            return parseFromUrl(trimmed);
+        }
+        if (trimmed.startsWith(CLASSPATH_PREFIX)) {
+            return parseFromClasspath(trimmed.substring(CLASSPATH_PREFIX.length()));
+        }
+        if (trimmed.startsWith(FILE_PREFIX)) {
+            trimmed = trimmed.substring(FILE_PREFIX.length());
+        }
+        return parseFromFile(trimmed);
+    }
+    
+    /**
+     * 从http(s)地址加载OpenAPI文档
+     * 经由本地磁盘缓存拉取, 文档未变化时只发起一次条件请求, 远程不可用时使用缓存内容
+     * 
+     * @param url 文档地址
+     * @return 解析后的OpenAPI对象
+     * @throws IOException 如果远程不可用且没有本地缓存
+     */
+    public OpenAPI parseFromUrl(String url) throws IOException {
+        if (url == null || url.trim().isEmpty()) {
+            throw new IllegalArgumentException("文档地址不能为空");
+        }
+        
+        return parseFromString(remoteSpecCache.fetch(url.trim()).content());
+    }
+    
+    /**
+     * 从类路径资源加载OpenAPI文档
+     * 
+     * @param resourcePath 类路径资源路径
+     * @return 解析后的OpenAPI对象
+     * @throws IOException 如果资源不存在或读取失败
+     */
+    public OpenAPI parseFromClasspath(String resourcePath) throws IOException {
+        ClassPathResource resource = new ClassPathResource(resourcePath);
+        if (!resource.exists()) {
+            throw new FileNotFoundException("类路径资源不存在: " + resourcePath);
+        }
+        
+        try (InputStream in = resource.getInputStream()) {
+            return parseFromString(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
     
     /**
      * 从文件路径加载OpenAPI文档
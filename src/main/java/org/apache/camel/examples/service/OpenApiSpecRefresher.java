@@ -0,0 +1,70 @@
+package org.apache.camel.examples.service;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 定时重新校验远程OpenAPI文档
+ * 通过条件请求判断文档是否变化, 只有拿到新内容(200)时才重新解析并替换对应的工具, 304不做任何解析
+ */
+@Slf4j
+@Component
+public class OpenApiSpecRefresher {
+
+    @Resource
+    private OpenApiToolsProperties openApiToolsProperties;
+
+    @Resource
+    private RemoteSpecCache remoteSpecCache;
+
+    @Resource
+    private OpenApiParserService openApiParserService;
+
+    @Resource
+    private ToolParserService toolParserService;
+
+    @Resource
+    private ToolRegistry toolRegistry;
+
+    @Scheduled(initialDelayString = "${mcp.openapi.remote.refresh-interval:PT5M}",
+        fixedDelayString = "${mcp.openapi.remote.refresh-interval:PT5M}")
+    public void refreshAll() {
+        for (OpenApiToolsProperties.Spec spec : openApiToolsProperties.getSpecs()) {
+            if (!OpenApiParserService.isRemoteLocation(spec.getLocation())) {
+                continue;
+            }
+            try {
+                refresh(spec);
+            } catch (Exception e) {
+                log.warn("刷新OpenAPI文档 {} 失败, 继续使用当前工具", spec.displayName(), e);
+            }
+        }
+    }
+
+    /**
+     * 重新校验单个远程文档
+     *
+     * @return true表示文档有变化并已重新注册工具
+     */
+    public boolean refresh(OpenApiToolsProperties.Spec spec) throws IOException {
+        RemoteSpecCache.FetchResult result = remoteSpecCache.fetch(spec.getLocation().trim());
+        if (!result.modified()) {
+            return false;
+        }
+
+        OpenAPI openAPI = openApiParserService.parseFromString(result.content());
+        List<ToolCallback> tools = new ArrayList<>(toolParserService.parse(openAPI, spec));
+        toolRegistry.register(spec.displayName(), tools);
+        log.info("OpenAPI文档 {} 已变化, 重新注册 {} 个工具", spec.displayName(), tools.size());
+        return true;
+    }
+}
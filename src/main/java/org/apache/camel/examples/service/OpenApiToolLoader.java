@@ -0,0 +1,113 @@
+package org.apache.camel.examples.service;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按配置并发加载多个OpenAPI文档并生成工具
+ * 每个文档独立计时、独立失败, 单个文档解析失败或超时不影响其他文档.
+ * 超时从提交时开始计算, 包括排队等待线程的时间, 排在卡住的解析之后的文档同样按时超时跳过;
+ * 加载结束时中断仍在解析的线程, 不响应中断的解析线程被放弃, 作为守护线程在解析结束后退出
+ */
+@Slf4j
+@Service
+public class OpenApiToolLoader {
+
+    @Resource
+    private OpenApiParserService openApiParserService;
+
+    @Resource
+    private ToolParserService toolParserService;
+
+    /**
+     * 并发加载全部文档
+     *
+     * @return 按配置顺序排列的文档及其工具, 加载失败的文档对应空列表
+     */
+    public Map<OpenApiToolsProperties.Spec, List<ToolCallback>> load(OpenApiToolsProperties properties) {
+        Map<OpenApiToolsProperties.Spec, List<ToolCallback>> toolsBySpec = new LinkedHashMap<>();
+        List<OpenApiToolsProperties.Spec> specs = properties.getSpecs();
+        if (specs == null || specs.isEmpty()) {
+            return toolsBySpec;
+        }
+
+        int parallelism = Math.max(1, Math.min(properties.getParseParallelism(), specs.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, loaderThreadFactory());
+        try {
+            Map<OpenApiToolsProperties.Spec, CompletableFuture<List<ToolCallback>>> futures = new LinkedHashMap<>();
+            specs.forEach(spec -> futures.put(spec, loadAsync(spec, timeoutOf(spec, properties), executor)));
+
+            futures.forEach((spec, future) -> toolsBySpec.put(spec, future.join()));
+            return toolsBySpec;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<List<ToolCallback>> loadAsync(OpenApiToolsProperties.Spec spec, Duration timeout, ExecutorService executor) {
+        CompletableFuture<List<ToolCallback>> future = new CompletableFuture<List<ToolCallback>>()
+            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        executor.execute(() -> {
+            if (future.isDone()) {
+                // 排队期间已超时
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                List<ToolCallback> toolCallbacks = loadSpec(spec);
+                log.info("OpenAPI文档 {} 加载完成, 工具数: {}, 耗时: {} ms",
+                    spec.displayName(), toolCallbacks.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                future.complete(toolCallbacks);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future.exceptionally(e -> {
+            log.error("OpenAPI文档 {} 加载失败, 已跳过", spec.displayName(), e);
+            return new ArrayList<>();
+        });
+    }
+
+    /**
+     * 同步加载单个文档
+     */
+    public List<ToolCallback> loadSpec(OpenApiToolsProperties.Spec spec) {
+        try {
+            OpenAPI openAPI = openApiParserService.parseFromLocation(spec.getLocation());
+            return new ArrayList<>(toolParserService.parse(openAPI, spec));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Duration timeoutOf(OpenApiToolsProperties.Spec spec, OpenApiToolsProperties properties) {
+        return spec.getTimeout() != null ? spec.getTimeout() : properties.getParseTimeout();
+    }
+
+    private static ThreadFactory loaderThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "openapi-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
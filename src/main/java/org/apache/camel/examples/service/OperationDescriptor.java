@@ -0,0 +1,202 @@
+package org.apache.camel.examples.service;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import org.apache.camel.examples.encoding.JsonBodyWriter;
+import org.apache.camel.examples.warmup.SyntheticValues;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 生成的工具调用时需要的操作信息, 构建工具时从swagger模型中提取, 之后不再引用Operation
+ * <p>
+ * 工具只持有该描述与共享的inputSchema字符串, 解析出的OpenAPI模型(示例、响应、扩展等)在构建完成后即可回收;
+ * 方法、路径、服务器与参数名统一intern, 大量操作之间共享同一个实例
+ */
+final class OperationDescriptor {
+
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{([^{}/]+)}");
+    private static final String[] NONE = new String[0];
+
+    private final String method;
+    private final String path;
+    private final List<String> baseUrls;
+    private final String[] pathParams;
+    private final String[] headerParams;
+    private final String[] queryParams;
+    private final boolean hasBody;
+    private final String bodyMediaType;
+    private final String warmupResponse;
+
+    private OperationDescriptor(String method, String path, List<String> baseUrls, String[] pathParams,
+                                String[] headerParams, String[] queryParams, boolean hasBody, String bodyMediaType,
+                                String warmupResponse) {
+        this.method = method;
+        this.path = path;
+        this.baseUrls = baseUrls;
+        this.pathParams = pathParams;
+        this.headerParams = headerParams;
+        this.queryParams = queryParams;
+        this.hasBody = hasBody;
+        this.bodyMediaType = bodyMediaType;
+        this.warmupResponse = warmupResponse;
+    }
+
+    /**
+     * @param warmup 是否需要预热, 需要时按操作第一个2xx响应的JSON schema预先合成预热响应体
+     */
+    static OperationDescriptor of(Operation operation, String method, String path, List<String> baseUrls, boolean warmup) {
+        List<String> servers = new ArrayList<>(baseUrls.size());
+        baseUrls.forEach(url -> servers.add(url.intern()));
+        return new OperationDescriptor(method.intern(), path.intern(), List.copyOf(servers),
+            pathVariables(path), parameterNames(operation, "header"), parameterNames(operation, "query"),
+            operation.getRequestBody() != null, bodyMediaType(operation.getRequestBody()),
+            warmup ? synthesizeResponse(operation) : null);
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    List<String> getBaseUrls() {
+        return baseUrls;
+    }
+
+    boolean hasBody() {
+        return hasBody;
+    }
+
+    /**
+     * 请求体的Content-Type: 优先取操作声明的媒体类型; 由对象序列化而来的请求体总是JSON, 声明的不是JSON类型时按JSON发送;
+     * 字符串请求体按原样发送, 操作未声明媒体类型时不设置
+     */
+    String contentTypeOf(Object body) {
+        boolean serialized = !(body instanceof String) && !(body instanceof byte[]);
+        if (bodyMediaType != null && (!serialized || isJson(bodyMediaType))) {
+            return bodyMediaType;
+        }
+        return serialized ? JsonBodyWriter.CONTENT_TYPE : null;
+    }
+
+    /**
+     * 预热响应体, 构建时未开启预热则为{}
+     */
+    String getWarmupResponse() {
+        return warmupResponse != null ? warmupResponse : "{}";
+    }
+
+    /**
+     * 用入参替换路径变量, 拼接到服务器地址之后
+     */
+    String buildUrl(String baseUrl, Map<String, Object> params) {
+        String fullPath = path;
+        for (String name : pathParams) {
+            Object value = params.get(name);
+            if (value != null) {
+                fullPath = fullPath.replace("{" + name + "}", value.toString());
+            }
+        }
+        return baseUrl + fullPath;
+    }
+
+    Map<String, String> bindHeaders(Map<String, Object> params, Map<String, String> target) {
+        return bind(headerParams, params, target);
+    }
+
+    Map<String, String> bindQuery(Map<String, Object> params, Map<String, String> target) {
+        return bind(queryParams, params, target);
+    }
+
+    private static Map<String, String> bind(String[] names, Map<String, Object> params, Map<String, String> target) {
+        for (String name : names) {
+            Object value = params.get(name);
+            if (value != null) {
+                target.put(name, value.toString());
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 声明了多个媒体类型时优先JSON; 通配类型与multipart(需要边界参数)不作为Content-Type, 文本类型补充UTF-8字符集
+     */
+    private static String bodyMediaType(RequestBody requestBody) {
+        if (requestBody == null || requestBody.getContent() == null || requestBody.getContent().isEmpty()) {
+            return null;
+        }
+        String mediaType = requestBody.getContent().keySet().stream()
+            .filter(OperationDescriptor::isJson)
+            .findFirst()
+            .orElse(requestBody.getContent().keySet().iterator().next());
+        String lower = mediaType.toLowerCase(Locale.ROOT);
+        if (lower.contains("*") || lower.startsWith("multipart/")) {
+            return null;
+        }
+        if ("application/json".equals(lower)) {
+            return JsonBodyWriter.CONTENT_TYPE;
+        }
+        boolean text = lower.startsWith("text/") || lower.endsWith("json") || lower.endsWith("xml")
+            || lower.equals("application/x-www-form-urlencoded");
+        return (text && !lower.contains(";") ? mediaType + "; charset=UTF-8" : mediaType).intern();
+    }
+
+    private static boolean isJson(String mediaType) {
+        String lower = mediaType.toLowerCase(Locale.ROOT);
+        int end = lower.indexOf(';');
+        return (end < 0 ? lower : lower.substring(0, end)).trim().endsWith("json");
+    }
+
+    private static String[] pathVariables(String path) {
+        List<String> names = new ArrayList<>();
+        Matcher matcher = PATH_VARIABLE.matcher(path);
+        while (matcher.find()) {
+            String name = matcher.group(1).intern();
+            if (!names.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names.isEmpty() ? NONE : names.toArray(NONE);
+    }
+
+    private static String[] parameterNames(Operation operation, String in) {
+        if (operation.getParameters() == null) {
+            return NONE;
+        }
+        List<String> names = new ArrayList<>();
+        for (Parameter param : operation.getParameters()) {
+            if (in.equals(param.getIn()) && param.getName() != null && !names.contains(param.getName())) {
+                names.add(param.getName().intern());
+            }
+        }
+        return names.isEmpty() ? NONE : names.toArray(NONE);
+    }
+
+    /**
+     * 按操作第一个2xx响应的JSON schema合成预热响应体, 使响应映射与编码走到与真实响应相同的路径
+     */
+    private static String synthesizeResponse(Operation operation) {
+        if (operation.getResponses() == null) {
+            return null;
+        }
+        for (Map.Entry<String, ApiResponse> response : operation.getResponses().entrySet()) {
+            if (!response.getKey().startsWith("2") || response.getValue().getContent() == null) {
+                continue;
+            }
+            for (Map.Entry<String, MediaType> media : response.getValue().getContent().entrySet()) {
+                if (media.getKey().contains("json") && media.getValue().getSchema() != null) {
+                    return SyntheticValues.generate(Json.mapper().valueToTree(media.getValue().getSchema())).toString();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,173 @@
+package org.apache.camel.examples.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Properties;
+
+/**
+ * 远程OpenAPI文档的本地磁盘缓存
+ * 每个地址在缓存目录下保存文档内容(.spec)与校验信息(.properties, 包含ETag/Last-Modified),
+ * 拉取时携带条件请求头, 304时直接复用缓存内容; 远程不可用时退化为缓存内容
+ */
+@Slf4j
+@Service
+public class RemoteSpecCache {
+
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String URL = "url";
+
+    private final Path cacheDir;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+
+    @Autowired
+    public RemoteSpecCache(OpenApiToolsProperties properties) {
+        this(Paths.get(properties.getRemote().getCacheDir()), properties.getRemote().getRequestTimeout());
+    }
+
+    public RemoteSpecCache(Path cacheDir, Duration requestTimeout) {
+        this.cacheDir = cacheDir;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(requestTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    /**
+     * 拉取远程文档
+     *
+     * @param url 文档地址
+     * @return 文档内容, modified为false表示内容与缓存一致(304或远程不可用), 调用方无需重新解析
+     * @throws IOException 远程不可用且没有缓存时抛出
+     */
+    public FetchResult fetch(String url) throws IOException {
+        CachedSpec cached = readCache(url);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+            .timeout(requestTimeout)
+            .GET();
+        if (cached != null && cached.etag() != null) {
+            builder.header("If-None-Match", cached.etag());
+        }
+        if (cached != null && cached.lastModified() != null) {
+            builder.header("If-Modified-Since", cached.lastModified());
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            return fallbackToCache(url, cached, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("拉取OpenAPI文档被中断: " + url);
+        }
+
+        int statusCode = response.statusCode();
+        if (statusCode == 304 && cached != null) {
+            log.debug("OpenAPI文档未变化(304): {}", url);
+            return new FetchResult(cached.content(), false);
+        }
+        if (statusCode == 200) {
+            String content = new String(response.body(), StandardCharsets.UTF_8);
+            String etag = response.headers().firstValue("ETag").orElse(null);
+            String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+            writeCache(url, content, etag, lastModified);
+            // 未携带校验头的注册中心每次都返回200, 内容一致时同样视为未变化
+            boolean modified = cached == null || !cached.content().equals(content);
+            return new FetchResult(content, modified);
+        }
+        return fallbackToCache(url, cached, "响应状态码: " + statusCode);
+    }
+
+    private FetchResult fallbackToCache(String url, CachedSpec cached, String reason) throws IOException {
+        if (cached == null) {
+            throw new IOException("拉取OpenAPI文档失败且无本地缓存: " + url + ", " + reason);
+        }
+        log.warn("拉取OpenAPI文档失败, 使用本地缓存: {}, {}", url, reason);
+        return new FetchResult(cached.content(), false);
+    }
+
+    private CachedSpec readCache(String url) throws IOException {
+        Path contentFile = contentFile(url);
+        Path metadataFile = metadataFile(url);
+        if (!Files.exists(contentFile) || !Files.exists(metadataFile)) {
+            return null;
+        }
+
+        Properties metadata = new Properties();
+        try (InputStream in = Files.newInputStream(metadataFile)) {
+            metadata.load(in);
+        }
+        return new CachedSpec(Files.readString(contentFile, StandardCharsets.UTF_8),
+            metadata.getProperty(ETAG), metadata.getProperty(LAST_MODIFIED));
+    }
+
+    private void writeCache(String url, String content, String etag, String lastModified) throws IOException {
+        Files.createDirectories(cacheDir);
+
+        Properties metadata = new Properties();
+        metadata.setProperty(URL, url);
+        if (etag != null) {
+            metadata.setProperty(ETAG, etag);
+        }
+        if (lastModified != null) {
+            metadata.setProperty(LAST_MODIFIED, lastModified);
+        }
+
+        // 先写临时文件再原子替换, 避免进程中途退出留下半个文件
+        Path contentTemp = Files.createTempFile(cacheDir, "spec", ".tmp");
+        Files.writeString(contentTemp, content, StandardCharsets.UTF_8);
+        Path metadataTemp = Files.createTempFile(cacheDir, "meta", ".tmp");
+        try (OutputStream out = Files.newOutputStream(metadataTemp)) {
+            metadata.store(out, null);
+        }
+        Files.move(contentTemp, contentFile(url), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(metadataTemp, metadataFile(url), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    Path contentFile(String url) {
+        return cacheDir.resolve(cacheKey(url) + ".spec");
+    }
+
+    private Path metadataFile(String url) {
+        return cacheDir.resolve(cacheKey(url) + ".properties");
+    }
+
+    private static String cacheKey(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record FetchResult(String content, boolean modified) {
+    }
+
+    private record CachedSpec(String content, String etag, String lastModified) {
+    }
+}
@@ -0,0 +1,239 @@
+package org.apache.camel.examples.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.CatalogProperties;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * 预先序列化的工具列表, 结构与MCP的tools/list结果一致
+ * 每个注册表版本只序列化一次, 结果为紧凑格式的只读字节; 注册表变更后首次访问时重建, 未变更的工具复用上一版本的紧凑Schema
+ */
+@Slf4j
+@Service
+public class ToolCatalog {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String EMPTY_SCHEMA = "{\"type\":\"object\"}";
+
+    private final CatalogProperties properties;
+
+    @Resource
+    private ToolRegistry toolRegistry;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public ToolCatalog(CatalogProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 当前注册表版本的工具列表
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.version == toolRegistry.getVersion()) {
+            return current;
+        }
+        synchronized (this) {
+            // 先读版本再读工具, 版本号不会新于内容, 并发变更时最多多重建一次
+            long version = toolRegistry.getVersion();
+            current = snapshot;
+            if (current == null || current.version != version) {
+                current = build(version, toolRegistry.getToolCallbacks(), current);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * 按游标取一页, 游标为空时返回第一页
+     *
+     * @throws IllegalArgumentException 游标无效, 或游标所属的版本已不是当前版本
+     */
+    public Page page(String cursor) {
+        Snapshot current = snapshot();
+        int index = cursor == null || cursor.isEmpty() ? 0 : current.decode(cursor);
+        return new Page(current.pages.get(index).asReadOnlyBuffer(), current.etag);
+    }
+
+    private Snapshot build(long version, List<ToolCallback> tools, Snapshot previous) {
+        long start = System.nanoTime();
+        Map<ToolCallback, String> reusable = previous == null ? Map.of() : previous.schemas;
+        Map<ToolCallback, String> schemas = new IdentityHashMap<>(tools.size());
+        for (ToolCallback tool : tools) {
+            String schema = reusable.get(tool);
+            schemas.put(tool, schema != null ? schema : compact(tool.getToolDefinition()));
+        }
+
+        int pageSize = Math.max(1, properties.getPageSize());
+        int pageCount = Math.max(1, (tools.size() + pageSize - 1) / pageSize);
+        List<ByteBuffer> pages = new ArrayList<>(pageCount);
+        CRC32 checksum = new CRC32();
+        for (int i = 0; i < pageCount; i++) {
+            List<ToolCallback> slice = tools.subList(i * pageSize, Math.min(tools.size(), (i + 1) * pageSize));
+            String nextCursor = i + 1 < pageCount ? encode(version, i + 1) : null;
+            byte[] bytes = write(slice, schemas, nextCursor);
+            checksum.update(bytes);
+            pages.add(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+        }
+        String full = pageCount == 1
+            ? StandardCharsets.UTF_8.decode(pages.get(0).duplicate()).toString()
+            : new String(write(tools, schemas, null), StandardCharsets.UTF_8);
+
+        Set<String> names = new LinkedHashSet<>();
+        tools.forEach(tool -> names.add(tool.getToolDefinition().name()));
+        String etag = "\"" + version + "-" + Long.toHexString(checksum.getValue()) + "\"";
+
+        log.debug("工具列表已序列化, 版本: {}, 工具数: {}, 页数: {}, 耗时: {}ms",
+            version, tools.size(), pageCount, (System.nanoTime() - start) / 1_000_000);
+        return new Snapshot(version, etag, names, schemas, pages, full);
+    }
+
+    private static byte[] write(List<ToolCallback> tools, Map<ToolCallback, String> schemas, String nextCursor) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(tools.size() * 512);
+        try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("tools");
+            for (ToolCallback tool : tools) {
+                ToolDefinition definition = tool.getToolDefinition();
+                generator.writeStartObject();
+                generator.writeStringField("name", definition.name());
+                if (definition.description() != null) {
+                    generator.writeStringField("description", definition.description());
+                }
+                generator.writeFieldName("inputSchema");
+                generator.writeRawValue(schemas.get(tool));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            if (nextCursor != null) {
+                generator.writeStringField("nextCursor", nextCursor);
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 工具定义中的Schema可能来自不同来源且带缩进, 统一重新输出为紧凑格式
+     */
+    private static String compact(ToolDefinition definition) {
+        String schema = definition.inputSchema();
+        if (schema == null || schema.isBlank()) {
+            return EMPTY_SCHEMA;
+        }
+        try {
+            return OBJECT_MAPPER.readTree(schema).toString();
+        } catch (JsonProcessingException e) {
+            log.warn("工具 {} 的入参Schema不是合法JSON, 工具列表中以空Schema代替: {}", definition.name(), e.getMessage());
+            return EMPTY_SCHEMA;
+        }
+    }
+
+    private static String encode(long version, int index) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((version + ":" + index).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 某个注册表版本的工具列表
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final String etag;
+        private final Set<String> names;
+        private final Map<ToolCallback, String> schemas;
+        private final List<ByteBuffer> pages;
+        private final String full;
+
+        private Snapshot(long version, String etag, Set<String> names, Map<ToolCallback, String> schemas,
+                         List<ByteBuffer> pages, String full) {
+            this.version = version;
+            this.etag = etag;
+            this.names = Set.copyOf(names);
+            this.schemas = schemas;
+            this.pages = List.copyOf(pages);
+            this.full = full;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * 带引号的强ETag, 由注册表版本和内容校验和组成
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        public Set<String> getNames() {
+            return names;
+        }
+
+        public int getPageCount() {
+            return pages.size();
+        }
+
+        /**
+         * 不分页的完整工具列表JSON
+         */
+        public String getFullJson() {
+            return full;
+        }
+
+        private int decode(String cursor) {
+            String decoded;
+            try {
+                decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("无效的游标: " + cursor);
+            }
+            int separator = decoded.indexOf(':');
+            try {
+                if (separator > 0 && Long.parseLong(decoded.substring(0, separator)) == version) {
+                    int index = Integer.parseInt(decoded.substring(separator + 1));
+                    if (index >= 0 && index < pages.size()) {
+                        return index;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("无效的游标: " + cursor);
+            }
+            throw new IllegalArgumentException("游标已失效, 工具列表已变更, 请从第一页重新获取");
+        }
+    }
+
+    /**
+     * 一页工具列表, body为只读缓冲区, 可直接写出
+     */
+    public record Page(ByteBuffer body, String etag) {
+    }
+}
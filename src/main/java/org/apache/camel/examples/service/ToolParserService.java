@@ -1,106 +1,223 @@
 package org.apache.camel.examples.service;
 
+import java.io.InterruptedIOException;
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import org.apache.camel.ProducerTemplate;
+import org.apache.camel.examples.chunking.ResultChunker;
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.apache.camel.examples.config.RateLimitProperties;
+import org.apache.camel.examples.config.RetryProperties;
+import org.apache.camel.examples.config.WarmupProperties;
+import org.apache.camel.examples.connection.UpstreamConnections;
+import org.apache.camel.examples.content.ContentAttachments;
+import org.apache.camel.examples.deadline.CallDeadline;
+import org.apache.camel.examples.deadline.TimeoutPolicy;
 import org.apache.camel.examples.domain.HttpRequestBean;
 import org.apache.camel.examples.domain.HttpResponseBean;
+import org.apache.camel.examples.domain.ToolOptions;
+import org.apache.camel.examples.encoding.JsonBodyWriter;
+import org.apache.camel.examples.fastpath.DirectHttpExecutor;
+import org.apache.camel.examples.loadbalance.ServerPool;
+import org.apache.camel.examples.loadbalance.ServerPools;
+import org.apache.camel.examples.loadbalance.UpstreamServer;
+import org.apache.camel.examples.mapping.ResponseMapper;
+import org.apache.camel.examples.pagination.PaginationDescriptor;
+import org.apache.camel.examples.ratelimit.RateLimit;
+import org.apache.camel.examples.ratelimit.RateLimiter;
+import org.apache.camel.examples.ratelimit.TokenBucket;
+import org.apache.camel.examples.retry.RetryPolicy;
+import org.apache.camel.examples.streaming.ChunkListener;
+import org.apache.camel.examples.streaming.McpChunkListener;
+import org.apache.camel.examples.traffic.TrafficRecorder;
+import org.apache.camel.examples.validation.ArgumentValidator;
+import org.apache.camel.examples.warmup.WarmupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
 import org.springframework.ai.tool.function.FunctionToolCallback;
 import org.springframework.stereotype.Service;
 
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
-import io.swagger.v3.oas.models.parameters.Parameter;
-import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.servers.Server;
+import io.swagger.v3.oas.models.servers.ServerVariable;
 
+@Slf4j
 @Service
 public class ToolParserService {
     
     @Resource
     private ProducerTemplate producerTemplate;
     
+    @Resource
+    private OpenApiToolsProperties openApiToolsProperties;
+    
+    @Resource
+    private MeterRegistry meterRegistry;
+    
+    @Resource
+    private RetryProperties retryProperties;
+    
+    @Resource
+    private RateLimiter rateLimiter;
+    
+    @Resource
+    private ServerPools serverPools;
+    
+    @Resource
+    private UpstreamConnections upstreamConnections;
+    
+    @Resource
+    private DirectHttpExecutor directHttpExecutor;
+    
+    @Resource
+    private WarmupProperties warmupProperties;
+    
+    @Resource
+    private TrafficRecorder trafficRecorder;
+    
+    @Resource
+    private ResultChunker resultChunker;
+    
+    @Resource
+    private ContentAttachments contentAttachments;
+    
+    /**
+     * 执行上游调用的线程, 工具线程只等待结果, 超时或被中断时中止调用并立即返回.
+     * 线程数不超过call-timeout.threads, 超出的调用排队, 排队时间计入截止时间; 空闲线程超时回收
+     */
+    private final ThreadPoolExecutor callExecutor = newCallExecutor(new OpenApiToolsProperties.CallTimeout().getThreads());
+    
     public List<FunctionToolCallback<Map<String, Object>, HttpResponseBean>> parse(OpenAPI openAPI) {
+        return parse(openAPI, new OpenApiToolsProperties.Spec());
+    }
+
+    /**
+     * 按文档配置解析工具, 配置中的baseUrl覆盖文档servers, toolPrefix追加在工具名之前
+     * <p>
+     * 未配置baseUrl时, 操作级servers优先于路径级servers, 路径级优先于文档级; 声明了多个服务器的操作按负载在服务器之间分配调用
+     */
+    public List<FunctionToolCallback<Map<String, Object>, HttpResponseBean>> parse(OpenAPI openAPI, OpenApiToolsProperties.Spec spec) {
         List<FunctionToolCallback<Map<String, Object>, HttpResponseBean>> callbacks = new ArrayList<>();
         
         if (openAPI == null || openAPI.getPaths() == null) {
             return callbacks;
         }
         
-        String baseUrl = getBaseUrl(openAPI);
+        List<String> servers = isBlank(spec.getBaseUrl()) ? getServerUrls(openAPI.getServers(), List.of("http://localhost:8080")) : List.of(spec.getBaseUrl());
         return openAPI.getPaths()
             .entrySet()
             .stream()
-            .map(pathEntry -> doParse(pathEntry, baseUrl))
+            .map(pathEntry -> doParse(pathEntry, servers, spec))
             .flatMap(Collection::stream)
             .collect(Collectors.toList());
     }
 
     // TODO: 不优雅, 遍历 io.swagger.v3.oas.models.HttpMethod 然后追加
-    protected List<FunctionToolCallback<Map<String, Object>, HttpResponseBean>> doParse(Map.Entry<String, PathItem> pathEntry, String baseUrl) {
+    protected List<FunctionToolCallback<Map<String, Object>, HttpResponseBean>> doParse(Map.Entry<String, PathItem> pathEntry, List<String> servers, OpenApiToolsProperties.Spec spec) {
         String path = pathEntry.getKey();
         PathItem pathItem = pathEntry.getValue();
+        List<String> baseUrls = isBlank(spec.getBaseUrl()) ? getServerUrls(pathItem.getServers(), servers) : servers;
 
         List<FunctionToolCallback<Map<String, Object>, HttpResponseBean>> callbacks = new ArrayList<>();
 
         // 处理GET操作
         if (pathItem.getGet() != null) {
-            callbacks.add(createFunctionToolCallback(pathItem.getGet(), "GET", path, baseUrl));
+            callbacks.add(createFunctionToolCallback(pathItem.getGet(), "GET", path, baseUrls, spec));
         }
 
         // 处理POST操作
         if (pathItem.getPost() != null) {
-            callbacks.add(createFunctionToolCallback(pathItem.getPost(), "POST", path, baseUrl));
+            callbacks.add(createFunctionToolCallback(pathItem.getPost(), "POST", path, baseUrls, spec));
         }
 
         // 处理PUT操作
         if (pathItem.getPut() != null) {
-            callbacks.add(createFunctionToolCallback(pathItem.getPut(), "PUT", path, baseUrl));
+            callbacks.add(createFunctionToolCallback(pathItem.getPut(), "PUT", path, baseUrls, spec));
         }
 
         // 处理DELETE操作
         if (pathItem.getDelete() != null) {
-            callbacks.add(createFunctionToolCallback(pathItem.getDelete(), "DELETE", path, baseUrl));
+            callbacks.add(createFunctionToolCallback(pathItem.getDelete(), "DELETE", path, baseUrls, spec));
         }
 
         // 处理PATCH操作
         if (pathItem.getPatch() != null) {
-            callbacks.add(createFunctionToolCallback(pathItem.getPatch(), "PATCH", path, baseUrl));
+            callbacks.add(createFunctionToolCallback(pathItem.getPatch(), "PATCH", path, baseUrls, spec));
         }
         
         // HEAD 操作
         if (pathItem.getHead() != null) {
-            callbacks.add(createFunctionToolCallback(pathItem.getHead(), "HEAD", path, baseUrl));
+            callbacks.add(createFunctionToolCallback(pathItem.getHead(), "HEAD", path, baseUrls, spec));
         }
         
         // TRACE
         if (pathItem.getTrace() != null) {
-            callbacks.add(createFunctionToolCallback(pathItem.getTrace(), "TRACE", path, baseUrl));
+            callbacks.add(createFunctionToolCallback(pathItem.getTrace(), "TRACE", path, baseUrls, spec));
         }
         
         // OPTIONS 操作
         if (pathItem.getOptions() != null) {
-            callbacks.add(createFunctionToolCallback(pathItem.getOptions(), "OPTIONS", path, baseUrl));
+            callbacks.add(createFunctionToolCallback(pathItem.getOptions(), "OPTIONS", path, baseUrls, spec));
         }
         
         return callbacks;
     }
 
-    private String getBaseUrl(OpenAPI openAPI) {
-        if (openAPI.getServers() != null && !openAPI.getServers().isEmpty()) {
-            return openAPI.getServers().get(0).getUrl();
+    /**
+     * 解析servers声明, 服务器变量取默认值; 未声明时沿用上一级的服务器
+     */
+    private List<String> getServerUrls(List<Server> servers, List<String> inherited) {
+        if (servers == null || servers.isEmpty()) {
+            return inherited;
         }
-        return "http://localhost:8080";
+        List<String> urls = new ArrayList<>();
+        for (Server server : servers) {
+            String url = server.getUrl();
+            if (isBlank(url)) {
+                continue;
+            }
+            if (server.getVariables() != null) {
+                for (Map.Entry<String, ServerVariable> variable : server.getVariables().entrySet()) {
+                    if (variable.getValue() != null && variable.getValue().getDefault() != null) {
+                        url = url.replace("{" + variable.getKey() + "}", variable.getValue().getDefault());
+                    }
+                }
+            }
+            if (!urls.contains(url)) {
+                urls.add(url);
+            }
+        }
+        return urls.isEmpty() ? inherited : urls;
     }
     
-    private FunctionToolCallback<Map<String, Object>, HttpResponseBean> createFunctionToolCallback(Operation operation, String method, String path, String baseUrl) {
+    private FunctionToolCallback<Map<String, Object>, HttpResponseBean> createFunctionToolCallback(Operation operation, String method, String path, List<String> servers, OpenApiToolsProperties.Spec spec) {
         String operationId = operation.getOperationId();
         if (operationId == null || operationId.trim().isEmpty()) {
             operationId = method.toLowerCase() + path.replaceAll("[^a-zA-Z0-9]", "");
         }
+        String toolName = (isBlank(spec.getToolPrefix()) ? "" : spec.getToolPrefix()) + operationId;
+        
+        // 生成inputSchema, 同时编译为该工具的入参校验器
+        String inputSchema = JsonSchemaGenerator.generateCompactForOpenApiOperation(operation, path);
+        ToolOptions options = buildToolOptions(toolName, method, inputSchema, spec.getTools().get(operationId), operation);
         
         String description = operation.getSummary();
         if (description == null || description.trim().isEmpty()) {
@@ -111,105 +228,384 @@ public class ToolParserService {
         }
         
         // 创建HTTP请求处理函数
-        Function<Map<String, Object>, HttpResponseBean> httpRequestFunction = createHttpRequestFunction(method, path, baseUrl, operation);
+        List<String> baseUrls = isBlank(spec.getBaseUrl()) ? getServerUrls(operation.getServers(), servers) : servers;
+        OperationDescriptor descriptor = OperationDescriptor.of(operation, method, path, baseUrls, warmupEnabled());
+        BiFunction<Map<String, Object>, ToolContext, HttpResponseBean> httpRequestFunction = createHttpRequestFunction(descriptor, options);
         
-        // 生成inputSchema
-        String inputSchema = JsonSchemaGenerator.generateForOpenApiOperation(operation, path);
-        
-        return FunctionToolCallback.builder(operationId, httpRequestFunction)
+        return FunctionToolCallback.builder(toolName, httpRequestFunction)
                 .description(description)
                 .inputType(Map.class)
                 .inputSchema(inputSchema)
                 .build();
     }
     
-    private Function<Map<String, Object>, HttpResponseBean> createHttpRequestFunction(String method, String path, String baseUrl, Operation operation) {
-        return (params) -> {
-            // 构建完整URL
-            String fullUrl = buildFullUrl(baseUrl, path, params);
+    /**
+     * 编译工具级选项, 每个工具只编译一次, 所有调用共享
+     */
+    private ToolOptions buildToolOptions(String toolName, String method, String inputSchema, OpenApiToolsProperties.ToolSettings settings, Operation operation) {
+        ArgumentValidator argumentValidator = ArgumentValidator.compile(inputSchema);
+        PaginationDescriptor pagination = PaginationDescriptor.fromExtensions(operation.getExtensions());
+        TimeoutPolicy timeout = TimeoutPolicy.fromExtensions(operation.getExtensions(), defaultTimeout());
+        RetryPolicy retry = RetryPolicy.forOperation(method, operation.getExtensions(), defaultRetry());
+        RateLimit rateLimit = settings != null && settings.getRateLimit() != null
+            ? RateLimiter.toRateLimit(settings.getRateLimit())
+            : RateLimit.fromExtensions(operation.getExtensions());
+        TokenBucket rateLimitBucket = rateLimit != null ? new TokenBucket(rateLimit) : null;
+        boolean fastPath = fastPath(toolName, settings, operation, pagination);
+        if (settings == null) {
+            return ToolOptions.builder()
+                .toolName(toolName)
+                .argumentValidator(argumentValidator)
+                .pagination(pagination)
+                .timeout(timeout)
+                .retry(retry)
+                .rateLimit(rateLimitBucket)
+                .fastPath(fastPath)
+                .build();
+        }
+        
+        return ToolOptions.builder()
+            .toolName(toolName)
+            .argumentValidator(argumentValidator)
+            .pagination(pagination)
+            .timeout(timeout)
+            .retry(retry)
+            .rateLimit(rateLimitBucket)
+            .responseMapper(settings.getMapping() != null ? ResponseMapper.compile(settings.getMapping()) : null)
+            .encoding(settings.getEncoding())
+            .streaming(settings.isStreaming())
+            .fastPath(fastPath)
+            .build();
+    }
+    
+    /**
+     * 工具配置或x-fast-path声明走直连快速路径; 分页与流式依赖路由, 这类工具仍走路由
+     */
+    private boolean fastPath(String toolName, OpenApiToolsProperties.ToolSettings settings, Operation operation, PaginationDescriptor pagination) {
+        Object extension = operation.getExtensions() == null ? null : operation.getExtensions().get("x-fast-path");
+        if (extension != null && !(extension instanceof Boolean) && !"true".equals(extension) && !"false".equals(extension)) {
+            throw new IllegalArgumentException("x-fast-path配置不合法: " + extension);
+        }
+        boolean requested = (settings != null && settings.isFastPath()) || (extension != null && Boolean.parseBoolean(extension.toString()));
+        if (!requested) {
+            return false;
+        }
+        if (pagination != null || settings != null && settings.isStreaming()) {
+            log.warn("工具 {} 使用了分页或流式响应, 不启用快速路径", toolName);
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * 生成的函数只捕获操作描述与工具选项, 不引用swagger模型
+     */
+    private BiFunction<Map<String, Object>, ToolContext, HttpResponseBean> createHttpRequestFunction(OperationDescriptor descriptor, ToolOptions options) {
+        List<String> baseUrls = descriptor.getBaseUrls();
+        ServerPool pool = baseUrls.size() > 1 && serverPools != null ? serverPools.pool(baseUrls) : null;
+        if (upstreamConnections != null) {
+            upstreamConnections.register(baseUrls);
+        }
+        return (params, toolContext) -> {
+            // 在内存中校验入参, 不合法的调用直接返回错误, 不再请求上游
+            HttpResponseBean rejected = validateArguments(params, options);
+            if (rejected != null) {
+                return rejected;
+            }
             
-            // 提取参数
-            Map<String, String> headers = extractHeaders(params, operation);
-            Map<String, String> queryParams = extractQueryParams(params, operation);
-            String body = extractRequestBody(params, operation);
+            // 预热调用不限流、不参与负载均衡, 上游请求由进程内空端点应答
+            if (WarmupService.isWarmup(toolContext)) {
+                String fullUrl = descriptor.buildUrl(baseUrls.get(0), params);
+                return send(descriptor, baseUrls.get(0), fullUrl, params, toolContext, options, descriptor.getWarmupResponse());
+            }
             
-            // 创建HTTP请求Bean
-            HttpRequestBean requestBean = new HttpRequestBean(method, fullUrl, headers, body, queryParams);
+            // 选择上游服务器并构建完整URL
+            UpstreamServer server = pool != null ? pool.acquire() : null;
+            String baseUrl = server != null ? server.getBaseUrl() : baseUrls.get(0);
+            String fullUrl = descriptor.buildUrl(baseUrl, params);
             
-            // 发送请求
-            return producerTemplate.requestBody("direct:httpRequest", requestBean, HttpResponseBean.class);
+            // 限流, 超出限制的调用不再请求上游
+            HttpResponseBean limited = acquirePermit(fullUrl, toolContext, options);
+            if (limited != null) {
+                if (server != null) {
+                    pool.release(server);
+                }
+                return limited;
+            }
+            if (server == null) {
+                return send(descriptor, baseUrl, fullUrl, params, toolContext, options, null);
+            }
+            
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                HttpResponseBean response = send(descriptor, baseUrl, fullUrl, params, toolContext, options, null);
+                success = response == null || response.getStatusCode() < 500;
+                return response;
+            } finally {
+                pool.record(server, System.nanoTime() - start, success);
+            }
         };
     }
     
-    private String buildFullUrl(String baseUrl, String path, Map<String, Object> params) {
-        String fullPath = path;
+    private HttpResponseBean send(OperationDescriptor descriptor, String baseUrl, String fullUrl, Map<String, Object> params,
+                                  ToolContext toolContext, ToolOptions options, String warmupResponse) {
+        // 按参数绑定表提取header与query参数
+        Map<String, String> headers = descriptor.bindHeaders(params, new HashMap<>());
+        Map<String, String> queryParams = descriptor.bindQuery(params, new HashMap<>());
+        if (options.getPagination() != null) {
+            options.getPagination().applyDefaults(queryParams);
+        }
+        // 字符串按原样发送, 对象直接序列化为JSON字节; Content-Type按操作声明的请求体媒体类型, 调用方显式传入的优先
+        Object bodyParam = descriptor.hasBody() ? params.get("body") : null;
+        byte[] body = JsonBodyWriter.write(bodyParam);
+        String contentType = body != null ? descriptor.contentTypeOf(bodyParam) : null;
+        if (contentType != null && headers.keySet().stream().noneMatch("Content-Type"::equalsIgnoreCase)) {
+            headers.put("Content-Type", contentType);
+        }
         
-        // 替换路径参数
-        for (Map.Entry<String, Object> entry : params.entrySet()) {
-            String paramName = entry.getKey();
-            Object paramValue = entry.getValue();
-            
-            if (paramValue != null && fullPath.contains("{" + paramName + "}")) {
-                fullPath = fullPath.replace("{" + paramName + "}", paramValue.toString());
-            }
+        // 创建HTTP请求Bean
+        HttpRequestBean requestBean = new HttpRequestBean(descriptor.getMethod(), fullUrl, headers, null, queryParams, options, body);
+        requestBean.setWarmupResponse(warmupResponse);
+        requestBean.setServer(baseUrl);
+        if (options.isStreaming()) {
+            requestBean.setChunkListener(chunkListener(toolContext, options));
         }
         
-        return baseUrl + fullPath;
+        // 发送请求
+        HttpResponseBean response;
+        if (options.getTimeout() == null) {
+            response = execute(requestBean, options);
+        } else {
+            CallDeadline deadline = CallDeadline.start(options.getTimeout());
+            requestBean.setDeadline(deadline);
+            response = requestWithDeadline(requestBean, deadline, options);
+        }
+        return prepareForClient(response, toolContext, options, fullUrl);
     }
     
-    private Map<String, String> extractHeaders(Map<String, Object> params, Operation operation) {
-        Map<String, String> headers = new HashMap<>();
-        
-        // 从参数中提取header参数
-        if (operation.getParameters() != null) {
-            for (Parameter param : operation.getParameters()) {
-                if ("header".equals(param.getIn()) && params.containsKey(param.getName())) {
-                    Object value = params.get(param.getName());
-                    if (value != null) {
-                        headers.put(param.getName(), value.toString());
-                    }
-                }
+    /**
+     * 返回给MCP客户端的结果: 二进制内容登记为附件, 由MCP传输作为图片或资源内容发送;
+     * 超大结果只返回第一块, 其余通过read_result_chunk读取. 组合工具等进程内调用需要完整结果, 不做处理
+     */
+    private HttpResponseBean prepareForClient(HttpResponseBean response, ToolContext toolContext, ToolOptions options,
+                                              String url) {
+        if (toolContext == null || toolContext.getContext() == null || McpToolUtils.getMcpExchange(toolContext).isEmpty()) {
+            return response;
+        }
+        if (contentAttachments != null && response.getContent() != null) {
+            Map<String, Object> headers = response.getHeaders() == null ? new HashMap<>() : new HashMap<>(response.getHeaders());
+            headers.put(ContentAttachments.HEADER, contentAttachments.attach(response.getContent(), url));
+            response.setHeaders(headers);
+        }
+        return resultChunker == null ? response : resultChunker.chunk(options.getToolName(), response);
+    }
+    
+    private HttpResponseBean execute(HttpRequestBean requestBean, ToolOptions options) {
+        // 流量录制与回放在路由中进行, 此时快速路径的工具也走路由
+        if (options.isFastPath() && directHttpExecutor != null && (trafficRecorder == null || !trafficRecorder.isActive())) {
+            return directHttpExecutor.execute(requestBean);
+        }
+        return producerTemplate.requestBody("direct:httpRequest", requestBean, HttpResponseBean.class);
+    }
+    
+    /**
+     * 在截止时间内等待上游调用结果
+     * <p>
+     * 超时, 或MCP客户端断开请求导致工具线程被中断时, 中止上游调用: 关闭正在使用的连接, 未发出的分页请求不再发出
+     */
+    private HttpResponseBean requestWithDeadline(HttpRequestBean requestBean, CallDeadline deadline, ToolOptions options) {
+        Future<HttpResponseBean> call = callExecutor.submit(() -> execute(requestBean, options));
+        try {
+            HttpResponseBean response = call.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+            deadline.complete();
+            return response;
+        } catch (TimeoutException e) {
+            abort(deadline, CallDeadline.Outcome.TIMED_OUT, options);
+            // 仍在排队的调用不再执行
+            call.cancel(false);
+            return new HttpResponseBean(504, new HashMap<>(),
+                "调用超时: 超过 " + deadline.getPolicy().getTotal().toMillis() + " ms未完成");
+        } catch (InterruptedException e) {
+            abort(deadline, CallDeadline.Outcome.CANCELLED, options);
+            call.cancel(false);
+            Thread.currentThread().interrupt();
+            return new HttpResponseBean(499, new HashMap<>(), "调用已取消");
+        } catch (ExecutionException e) {
+            InterruptedIOException timeout = timeoutCause(e.getCause());
+            if (timeout != null) {
+                // 连接或读取超时
+                abort(deadline, CallDeadline.Outcome.TIMED_OUT, options);
+                return new HttpResponseBean(504, new HashMap<>(), "调用超时: " + timeout.getMessage());
+            }
+            deadline.complete();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
         }
-        
-        return headers;
     }
     
-    private Map<String, String> extractQueryParams(Map<String, Object> params, Operation operation) {
-        Map<String, String> queryParams = new HashMap<>();
-        
-        // 从参数中提取query参数
-        if (operation.getParameters() != null) {
-            for (Parameter param : operation.getParameters()) {
-                if ("query".equals(param.getIn()) && params.containsKey(param.getName())) {
-                    Object value = params.get(param.getName());
-                    if (value != null) {
-                        queryParams.put(param.getName(), value.toString());
-                    }
+    private void abort(CallDeadline deadline, CallDeadline.Outcome reason, ToolOptions options) {
+        if (!deadline.abort(reason)) {
+            return;
+        }
+        String outcome = reason == CallDeadline.Outcome.TIMED_OUT ? "timeout" : "cancelled";
+        log.warn("工具 {} 调用中止: {}, 超时策略 {}", options.getToolName(), outcome, deadline.getPolicy());
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder("mcp.tool.calls.aborted")
+            .tags("tool", options.getToolName() != null ? options.getToolName() : "unknown", "reason", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    private static InterruptedIOException timeoutCause(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException timeout) {
+                return timeout;
+            }
+        }
+        return null;
+    }
+    
+    private boolean warmupEnabled() {
+        return warmupProperties != null && warmupProperties.isEnabled();
+    }
+    
+    private TimeoutPolicy defaultTimeout() {
+        if (openApiToolsProperties == null) {
+            return TimeoutPolicy.DEFAULT;
+        }
+        OpenApiToolsProperties.CallTimeout callTimeout = openApiToolsProperties.getCallTimeout();
+        return TimeoutPolicy.of(callTimeout.getRead(), callTimeout.getTotal());
+    }
+    
+    private RetryPolicy defaultRetry() {
+        RetryProperties properties = retryProperties != null ? retryProperties : new RetryProperties();
+        return RetryPolicy.of(properties.getMaxAttempts(), properties.getInitialBackoff(), properties.getMaxBackoff(),
+            properties.getMaxRetryAfter(), properties.getStatuses());
+    }
+    
+    @PostConstruct
+    public void start() {
+        int threads = Math.max(1, openApiToolsProperties != null ? openApiToolsProperties.getCallTimeout().getThreads() : 1);
+        if (threads > callExecutor.getMaximumPoolSize()) {
+            callExecutor.setMaximumPoolSize(threads);
+            callExecutor.setCorePoolSize(threads);
+        } else {
+            callExecutor.setCorePoolSize(threads);
+            callExecutor.setMaximumPoolSize(threads);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        callExecutor.shutdownNow();
+    }
+    
+    private static ThreadPoolExecutor newCallExecutor(int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), callThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
+    private static ThreadFactory callThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "tool-call-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * 通过MCP服务调用时, ToolContext中带有发起调用的客户端会话
+     */
+    private ChunkListener chunkListener(ToolContext toolContext, ToolOptions options) {
+        if (toolContext == null || toolContext.getContext() == null) {
+            return null;
+        }
+        return McpToolUtils.getMcpExchange(toolContext)
+            .map(exchange -> (ChunkListener) new McpChunkListener(exchange, options.getToolName()))
+            .orElse(null);
+    }
+    
+    /**
+     * 按工具、上游主机、MCP客户端获取令牌, DELAY模式下在当前线程等待
+     *
+     * @return 超出限制时返回429响应, 否则返回null
+     */
+    private HttpResponseBean acquirePermit(String url, ToolContext toolContext, ToolOptions options) {
+        if (rateLimiter == null) {
+            return null;
+        }
+        RateLimiter.Decision decision = rateLimiter.acquire(options.getRateLimit(), url, clientKey(toolContext));
+        if (decision.allowed()) {
+            if (decision.delayNanos() > 0) {
+                recordRateLimit(options, "delayed", null);
+                try {
+                    TimeUnit.NANOSECONDS.sleep(decision.delayNanos());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new HttpResponseBean(499, new HashMap<>(), "调用已取消");
                 }
             }
+            return null;
         }
         
-        return queryParams;
+        log.info("工具 {} 超出{}限流", options.getToolName(), decision.scope());
+        recordRateLimit(options, "rejected", decision.scope());
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("Retry-After", String.valueOf(Math.max(1, (decision.retryAfterNanos() + 999_999_999L) / 1_000_000_000L)));
+        return new HttpResponseBean(429, headers, "调用频率超过限制: " + decision.scope());
     }
     
-    private String extractRequestBody(Map<String, Object> params, Operation operation) {
-        RequestBody requestBody = operation.getRequestBody();
-        if (requestBody == null) {
+    /**
+     * MCP SDK不向工具暴露会话id, 以客户端在initialize时上报的名称与版本区分客户端, 同一客户端版本的所有会话共用
+     */
+    private static String clientKey(ToolContext toolContext) {
+        if (toolContext == null || toolContext.getContext() == null) {
             return null;
         }
-        
-        // 尝试从参数中获取请求体
-        Object bodyParam = params.get("body");
-        if (bodyParam != null) {
-            if (bodyParam instanceof String) {
-                return (String) bodyParam;
-            } else {
-                // 如果是对象，可以转换为JSON字符串
-                return bodyParam.toString();
-            }
+        return McpToolUtils.getMcpExchange(toolContext)
+            .map(exchange -> exchange.getClientInfo())
+            .map(client -> client.name() + "/" + client.version())
+            .orElse(null);
+    }
+    
+    private void recordRateLimit(ToolOptions options, String result, String scope) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder("mcp.tool.calls.rate.limited")
+            .tags("tool", options.getToolName() != null ? options.getToolName() : "unknown",
+                "result", result, "scope", scope != null ? scope : "none")
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    private HttpResponseBean validateArguments(Map<String, Object> params, ToolOptions options) {
+        if (options.getArgumentValidator() == null) {
+            return null;
+        }
+        List<ArgumentValidator.Violation> violations = options.getArgumentValidator().validate(params);
+        if (violations.isEmpty()) {
+            return null;
         }
         
-        return null;
+        log.info("工具 {} 参数校验失败: {}", options.getToolName(), violations);
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        return new HttpResponseBean(400, headers, ArgumentValidator.describe(violations));
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
     }
 }
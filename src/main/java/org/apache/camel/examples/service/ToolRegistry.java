@@ -0,0 +1,123 @@
+package org.apache.camel.examples.service;
+
+import io.modelcontextprotocol.server.McpSyncServer;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.admission.AdmissionController;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 工具注册表, 按来源(@Tool方法、各OpenAPI文档)保存工具
+ * 启动阶段的注册由ToolCallbackProvider交给MCP服务; 应用就绪后的变更(例如远程文档刷新)直接同步到MCP服务并通知客户端
+ */
+@Slf4j
+@Service
+public class ToolRegistry {
+
+    private final Map<String, List<ToolCallback>> toolsBySource = new LinkedHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Map<String, ToolCallback> tools = Map.of();
+    private volatile boolean publishChanges;
+
+    @Resource
+    private ObjectProvider<McpSyncServer> mcpSyncServerProvider;
+
+    @Resource
+    private ObjectProvider<AdmissionController> admissionControllerProvider;
+
+    /**
+     * 注册或替换某个来源的全部工具
+     */
+    public synchronized void register(String source, List<ToolCallback> sourceTools) {
+        Map<String, ToolCallback> previous = tools;
+        toolsBySource.put(source, List.copyOf(sourceTools));
+        tools = merge();
+        version.incrementAndGet();
+
+        if (publishChanges) {
+            publish(previous, tools);
+        }
+    }
+
+    public List<ToolCallback> getToolCallbacks() {
+        return new ArrayList<>(tools.values());
+    }
+
+    /**
+     * 某个来源注册的工具, 包括因重名未生效的工具
+     */
+    public synchronized List<ToolCallback> getToolCallbacks(String source) {
+        return toolsBySource.getOrDefault(source, List.of());
+    }
+
+    /**
+     * 按工具名查找当前生效的工具
+     */
+    public Optional<ToolCallback> find(String name) {
+        return Optional.ofNullable(tools.get(name));
+    }
+
+    /**
+     * 注册表版本, 每次变更递增
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        publishChanges = true;
+    }
+
+    private Map<String, ToolCallback> merge() {
+        Map<String, ToolCallback> merged = new LinkedHashMap<>();
+        toolsBySource.forEach((source, sourceTools) -> {
+            for (ToolCallback tool : sourceTools) {
+                String name = tool.getToolDefinition().name();
+                if (merged.putIfAbsent(name, tool) != null) {
+                    log.warn("工具名重复, 已忽略来源 {} 中的工具: {}, 可通过tool-prefix区分", source, name);
+                }
+            }
+        });
+        return merged;
+    }
+
+    private void publish(Map<String, ToolCallback> previous, Map<String, ToolCallback> current) {
+        McpSyncServer server = mcpSyncServerProvider.getIfAvailable();
+        if (server == null) {
+            return;
+        }
+
+        boolean changed = false;
+        for (Map.Entry<String, ToolCallback> entry : previous.entrySet()) {
+            if (current.get(entry.getKey()) != entry.getValue()) {
+                server.removeTool(entry.getKey());
+                changed = true;
+            }
+        }
+        for (Map.Entry<String, ToolCallback> entry : current.entrySet()) {
+            if (previous.get(entry.getKey()) != entry.getValue()) {
+                AdmissionController admission = admissionControllerProvider == null ? null : admissionControllerProvider.getIfAvailable();
+                ToolCallback tool = admission != null ? admission.wrap(entry.getValue()) : entry.getValue();
+                server.addTool(McpToolUtils.toSyncToolSpecification(tool));
+                changed = true;
+            }
+        }
+        if (changed) {
+            server.notifyToolsListChanged();
+            log.info("MCP工具列表已更新, 当前工具数: {}, 版本: {}", current.size(), version.get());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.apache.camel.examples.streaming;
+
+/**
+ * 接收流式上游响应的分块, 在读取上游的线程上同步调用
+ * 监听器处理得慢时上游读取随之放慢, 由TCP流控把背压传回上游
+ */
+@FunctionalInterface
+public interface ChunkListener {
+
+    /**
+     * @param sequence 从1开始的分块序号
+     * @param chunk    一个SSE事件的data, 或一行JSON Lines
+     */
+    void onChunk(long sequence, String chunk);
+}
@@ -0,0 +1,39 @@
+package org.apache.camel.examples.streaming;
+
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 将上游分块作为MCP通知发给发起调用的客户端
+ * <p>
+ * 当前MCP SDK(0.10.0)的服务端交换对象没有进度通知接口, 也不向工具暴露请求中的progressToken,
+ * 这里使用notifications/message(logger为工具名)转发分块; 发送是同步的, 客户端连接慢时会阻塞上游读取
+ */
+@Slf4j
+public class McpChunkListener implements ChunkListener {
+
+    private final McpSyncServerExchange exchange;
+    private final String toolName;
+    private volatile boolean closed;
+
+    public McpChunkListener(McpSyncServerExchange exchange, String toolName) {
+        this.exchange = exchange;
+        this.toolName = toolName;
+    }
+
+    @Override
+    public void onChunk(long sequence, String chunk) {
+        if (closed) {
+            return;
+        }
+        try {
+            exchange.loggingNotification(new McpSchema.LoggingMessageNotification(
+                McpSchema.LoggingLevel.INFO, toolName, chunk));
+        } catch (RuntimeException e) {
+            // 客户端断开后不再转发, 仍然读完上游以返回最终结果
+            closed = true;
+            log.warn("工具 {} 转发第 {} 个分块失败, 后续分块不再转发", toolName, sequence, e);
+        }
+    }
+}
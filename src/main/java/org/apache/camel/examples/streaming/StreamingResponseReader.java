@@ -0,0 +1,128 @@
+package org.apache.camel.examples.streaming;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 增量读取流式上游响应, 每读到一个完整分块立即交给{@link ChunkListener}, 读完后返回聚合结果
+ * <ul>
+ *     <li>text/event-stream: 按SSE格式解析, 每个事件的data为一个分块, 忽略注释和event/id/retry字段</li>
+ *     <li>其他(JSON Lines、分块传输的文本): 每个非空行为一个分块</li>
+ * </ul>
+ * 所有分块都是合法JSON时聚合为JSON数组, 否则按换行拼接
+ */
+public final class StreamingResponseReader {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Pattern CHARSET = Pattern.compile("charset=\"?([^\";\\s]+)", Pattern.CASE_INSENSITIVE);
+
+    private StreamingResponseReader() {
+    }
+
+    public static String read(InputStream body, String contentType, ChunkListener listener) throws IOException {
+        List<String> chunks = new ArrayList<>();
+        ChunkListener collector = (sequence, chunk) -> {
+            chunks.add(chunk);
+            if (listener != null) {
+                listener.onChunk(sequence, chunk);
+            }
+        };
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, charsetOf(contentType)))) {
+            if (isEventStream(contentType)) {
+                readEvents(reader, collector);
+            } else {
+                readLines(reader, collector);
+            }
+        }
+        return aggregate(chunks);
+    }
+
+    public static boolean isEventStream(String contentType) {
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/event-stream");
+    }
+
+    private static void readEvents(BufferedReader reader, ChunkListener listener) throws IOException {
+        StringBuilder data = null;
+        long sequence = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (data != null) {
+                    listener.onChunk(++sequence, data.toString());
+                    data = null;
+                }
+                continue;
+            }
+            if (!line.startsWith("data")) {
+                continue;
+            }
+            int colon = line.indexOf(':');
+            if (colon != 4 && line.length() != 4) {
+                continue;
+            }
+            String value = colon < 0 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            data = data == null ? new StringBuilder(value) : data.append('\n').append(value);
+        }
+        if (data != null) {
+            listener.onChunk(++sequence, data.toString());
+        }
+    }
+
+    private static void readLines(BufferedReader reader, ChunkListener listener) throws IOException {
+        long sequence = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                listener.onChunk(++sequence, line);
+            }
+        }
+    }
+
+    private static String aggregate(List<String> chunks) {
+        for (String chunk : chunks) {
+            if (!isJson(chunk)) {
+                return String.join("\n", chunks);
+            }
+        }
+        return "[" + String.join(",", chunks) + "]";
+    }
+
+    private static boolean isJson(String chunk) {
+        try {
+            OBJECT_MAPPER.readTree(chunk);
+            return !chunk.isBlank();
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    private static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            Matcher matcher = CHARSET.matcher(contentType);
+            if (matcher.find()) {
+                try {
+                    return Charset.forName(matcher.group(1));
+                } catch (IllegalArgumentException e) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
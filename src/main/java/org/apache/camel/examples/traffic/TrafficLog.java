@@ -0,0 +1,137 @@
+package org.apache.camel.examples.traffic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 分段的内存映射追加日志
+ * <p>
+ * 每个分段是一个预先分配大小的文件, 整体映射到内存, 追加只是一次内存拷贝; 分段写满后刷盘并切换到下一个分段.
+ * 分段以魔数和格式版本开头, 之后每条记录为: 长度(int)、CRC32(int)、{@link TrafficRecord}编码; 长度为0表示分段结束.
+ * 进程异常退出时最后一条记录可能不完整, 读取时按CRC丢弃
+ */
+public final class TrafficLog implements Closeable {
+
+    static final int MAGIC = 0x4D435054;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int RECORD_HEADER_BYTES = 8;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("traffic-(\\d{6})\\.log");
+
+    private final Path directory;
+    private final long segmentSize;
+
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    private long appended;
+
+    /**
+     * 在目录中已有分段之后新建分段, 不覆盖之前录制的流量
+     */
+    public TrafficLog(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        List<Path> existing = segments(directory);
+        this.segmentIndex = existing.isEmpty() ? 0 : indexOf(existing.get(existing.size() - 1)) + 1;
+        roll(0);
+    }
+
+    /**
+     * 追加一条记录, 编码与校验和在锁外计算
+     *
+     * @return 日志已关闭时返回false
+     */
+    public boolean append(TrafficRecord record) throws IOException {
+        byte[] payload = record.encode();
+        CRC32 checksum = new CRC32();
+        checksum.update(payload);
+        int crc = (int) checksum.getValue();
+
+        synchronized (this) {
+            if (segment == null) {
+                return false;
+            }
+            if (segment.remaining() < RECORD_HEADER_BYTES + payload.length) {
+                seal();
+                segmentIndex++;
+                roll(payload.length);
+            }
+            segment.putInt(payload.length).putInt(crc).put(payload);
+            appended++;
+            return true;
+        }
+    }
+
+    public synchronized long getAppended() {
+        return appended;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (segment != null) {
+            seal();
+            segment = null;
+        }
+    }
+
+    /**
+     * 目录下的全部分段, 按序号排序
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                .filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                .toList());
+            segments.sort((a, b) -> Integer.compare(indexOf(a), indexOf(b)));
+            return segments;
+        }
+    }
+
+    private static int indexOf(Path segment) {
+        Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("不是流量日志分段: " + segment);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    /**
+     * 新建分段; 单条记录超过分段大小时, 该分段按记录大小分配
+     */
+    private void roll(int payloadBytes) throws IOException {
+        long size = Math.max(segmentSize, HEADER_BYTES + RECORD_HEADER_BYTES + payloadBytes + 4L);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("流量日志分段过大: " + size);
+        }
+        Path file = directory.resolve(String.format("traffic-%06d.log", segmentIndex));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 映射在通道关闭后仍然有效
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        segment.putInt(MAGIC).putInt(VERSION);
+    }
+
+    private void seal() {
+        if (segment.remaining() >= 4) {
+            segment.putInt(0);
+        }
+        segment.force();
+    }
+}
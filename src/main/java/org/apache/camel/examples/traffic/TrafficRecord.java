@@ -0,0 +1,167 @@
+package org.apache.camel.examples.traffic;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 一次上游调用: 规范化的请求、原始响应与耗时
+ * <p>
+ * status为负数表示请求失败(连接失败、读取超时等), responseBody为异常信息
+ *
+ * @param timestamp    请求开始的时间, epoch毫秒
+ * @param latencyNanos 从发出请求到取得响应(含重试)的耗时
+ * @param url          规范化的URL: 去掉上游服务器地址, 查询参数按名称排序
+ */
+public record TrafficRecord(long timestamp, long latencyNanos, String tool, String method, String url, byte[] requestBody,
+                            int status, Map<String, String> headers, byte[] responseBody) {
+
+    public static final int FAILED = -1;
+
+    // Camel内置参数, 不属于上游请求
+    private static final String CAMEL_PARAMETER = "throwExceptionOnFailure";
+
+    /**
+     * 查询参数按名称排序拼接在URL之后, 参数顺序不同的同一请求得到同一个URL
+     */
+    public static String canonicalUrl(String url, Map<String, String> queryParams) {
+        if (queryParams == null || queryParams.isEmpty()) {
+            return url;
+        }
+        StringBuilder canonical = new StringBuilder(url);
+        char separator = url.indexOf('?') < 0 ? '?' : '&';
+        for (Map.Entry<String, String> param : new TreeMap<>(queryParams).entrySet()) {
+            if (CAMEL_PARAMETER.equals(param.getKey())) {
+                continue;
+            }
+            canonical.append(separator).append(param.getKey()).append('=').append(param.getValue());
+            separator = '&';
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * 去掉url开头的上游服务器地址, 负载均衡把同一请求发往不同服务器时得到同一个URL; 不以server开头时原样返回
+     */
+    public static String relativeUrl(String url, String server) {
+        if (url == null || server == null || server.isEmpty() || !url.startsWith(server)) {
+            return url;
+        }
+        String path = url.substring(server.length());
+        return path.startsWith("/") ? path : "/" + path;
+    }
+
+    /**
+     * 回放时匹配请求的键: 工具名、方法、规范化URL与请求体摘要; 请求头(包括凭证)不参与匹配.
+     * URL已去掉服务器地址, 工具名区分不同上游的同一路径
+     */
+    public static String key(String tool, String method, String url, byte[] requestBody) {
+        String key = (tool != null ? tool + ' ' : "") + method + ' ' + url;
+        if (requestBody == null || requestBody.length == 0) {
+            return key;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(requestBody);
+            return key + ' ' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String key() {
+        return key(tool, method, url, requestBody);
+    }
+
+    byte[] encode() {
+        byte[] toolBytes = utf8(tool);
+        byte[] methodBytes = utf8(method);
+        byte[] urlBytes = utf8(url);
+        byte[][] headerBytes = new byte[headers.size() * 2][];
+        int index = 0;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            headerBytes[index++] = utf8(header.getKey());
+            headerBytes[index++] = utf8(header.getValue());
+        }
+
+        int size = 8 + 8 + 4 + sizeOf(toolBytes) + sizeOf(methodBytes) + sizeOf(urlBytes) + sizeOf(requestBody)
+            + 4 + sizeOf(responseBody);
+        for (byte[] value : headerBytes) {
+            size += sizeOf(value);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(timestamp).putLong(latencyNanos).putInt(status);
+        put(buffer, toolBytes);
+        put(buffer, methodBytes);
+        put(buffer, urlBytes);
+        put(buffer, requestBody);
+        buffer.putInt(headers.size());
+        for (byte[] value : headerBytes) {
+            put(buffer, value);
+        }
+        put(buffer, responseBody);
+        return buffer.array();
+    }
+
+    static TrafficRecord decode(ByteBuffer buffer) {
+        long timestamp = buffer.getLong();
+        long latencyNanos = buffer.getLong();
+        int status = buffer.getInt();
+        String tool = string(buffer);
+        String method = string(buffer);
+        String url = string(buffer);
+        byte[] requestBody = bytes(buffer);
+        int headerCount = buffer.getInt();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(string(buffer), string(buffer));
+        }
+        return new TrafficRecord(timestamp, latencyNanos, tool, method, url, requestBody, status, headers, bytes(buffer));
+    }
+
+    /**
+     * 只解码匹配键, 建立回放索引时不复制响应体
+     */
+    static String decodeKey(ByteBuffer buffer) {
+        buffer.position(buffer.position() + 8 + 8 + 4);
+        String tool = string(buffer);
+        String method = string(buffer);
+        String url = string(buffer);
+        return key(tool, method, url, bytes(buffer));
+    }
+
+    private static void put(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(value.length).put(value);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] value = bytes(buffer);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    private static int sizeOf(byte[] value) {
+        return 4 + (value != null ? value.length : 0);
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+}
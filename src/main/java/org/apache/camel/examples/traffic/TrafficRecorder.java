@@ -0,0 +1,153 @@
+package org.apache.camel.examples.traffic;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.TrafficProperties;
+import org.apache.camel.examples.domain.HttpRequestBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 按配置录制或回放上游流量, 由dynamicHttpRequest与paginatedHttpRequest路由调用
+ * <p>
+ * 录制时追加请求、原始响应与耗时; 回放时按工具、方法、去掉服务器地址的规范化URL与请求体匹配录制的响应,
+ * 按录制耗时乘以latencyScale延迟返回
+ */
+@Slf4j
+@Component
+public class TrafficRecorder {
+
+    private final TrafficProperties properties;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private volatile TrafficLog trafficLog;
+    private volatile TrafficReplay replay;
+
+    @Autowired
+    public TrafficRecorder(TrafficProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        switch (properties.getMode()) {
+            case RECORD -> {
+                trafficLog = new TrafficLog(Paths.get(properties.getDirectory()), properties.getSegmentSize().toBytes());
+                log.warn("上游流量录制已开启, 请求与响应(不含凭证)写入: {}", properties.getDirectory());
+            }
+            case REPLAY -> {
+                replay = TrafficReplay.load(Paths.get(properties.getDirectory()));
+                log.warn("上游流量回放已开启, 不再请求上游, 延迟倍数: {}", properties.getLatencyScale());
+            }
+            default -> {
+            }
+        }
+    }
+
+    public boolean isRecording() {
+        return trafficLog != null;
+    }
+
+    public boolean isReplaying() {
+        return replay != null;
+    }
+
+    /**
+     * 录制与回放都需要经过路由, 快速路径的工具此时也走路由
+     */
+    public boolean isActive() {
+        return isRecording() || isReplaying();
+    }
+
+    /**
+     * 追加一次上游调用, 写入失败只记录日志, 不影响调用本身
+     */
+    public void record(HttpRequestBean request, long startMillis, long latencyNanos, int status,
+                       Map<String, String> headers, byte[] responseBody) {
+        TrafficLog current = trafficLog;
+        if (current == null) {
+            return;
+        }
+        TrafficRecord record = new TrafficRecord(startMillis, latencyNanos, toolName(request), request.getMethod(),
+            urlOf(request), requestBody(request), status, headers, responseBody);
+        try {
+            current.append(record);
+            count("recorded");
+        } catch (IOException | RuntimeException e) {
+            log.warn("写入流量日志失败: {}", e.getMessage());
+            count("record-failed");
+        }
+    }
+
+    /**
+     * 取出与请求匹配的下一条录制记录
+     */
+    public Optional<TrafficRecord> replay(HttpRequestBean request) {
+        TrafficReplay current = replay;
+        if (current == null) {
+            return Optional.empty();
+        }
+        String key = TrafficRecord.key(toolName(request), request.getMethod(), urlOf(request), requestBody(request));
+        Optional<TrafficRecord> record = current.next(key);
+        if (record.isEmpty()) {
+            log.info("回放日志中没有匹配的请求: {}", key);
+        }
+        count(record.isPresent() ? "replayed" : "replay-miss");
+        return record;
+    }
+
+    /**
+     * 回放一条记录前应等待的时间
+     */
+    public long replayDelayNanos(TrafficRecord record) {
+        return (long) (record.latencyNanos() * Math.max(0, properties.getLatencyScale()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        TrafficLog current = trafficLog;
+        trafficLog = null;
+        if (current != null) {
+            current.close();
+            log.info("流量日志已关闭, 本次录制 {} 条", current.getAppended());
+        }
+    }
+
+    private static String urlOf(HttpRequestBean request) {
+        return TrafficRecord.canonicalUrl(TrafficRecord.relativeUrl(request.getUrl(), request.getServer()), request.getQueryParams());
+    }
+
+    private static byte[] requestBody(HttpRequestBean request) {
+        if (request.getBodyBytes() != null) {
+            return request.getBodyBytes();
+        }
+        String body = request.getBody();
+        return body != null && !body.isBlank() ? body.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String toolName(HttpRequestBean request) {
+        return request.getOptions() != null ? request.getOptions().getToolName() : null;
+    }
+
+    private void count(String result) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder("mcp.traffic")
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+}
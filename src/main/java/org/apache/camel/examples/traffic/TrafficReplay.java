@@ -0,0 +1,128 @@
+package org.apache.camel.examples.traffic;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * 流量日志的回放索引
+ * <p>
+ * 分段以只读方式映射, 索引只保存每条记录所在的分段与偏移, 响应体在回放时才从映射中解码.
+ * 同一请求录制了多次时按录制顺序依次返回, 取完后从头循环
+ */
+@Slf4j
+public final class TrafficReplay {
+
+    private final List<MappedByteBuffer> segments;
+    private final Map<String, Positions> index;
+    private final int size;
+
+    private TrafficReplay(List<MappedByteBuffer> segments, Map<String, Positions> index, int size) {
+        this.segments = segments;
+        this.index = index;
+        this.size = size;
+    }
+
+    public static TrafficReplay load(Path directory) throws IOException {
+        List<MappedByteBuffer> segments = new ArrayList<>();
+        Map<String, Positions> index = new HashMap<>();
+        int size = 0;
+        for (Path file : TrafficLog.segments(directory)) {
+            MappedByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (segment.limit() < TrafficLog.HEADER_BYTES || segment.getInt(0) != TrafficLog.MAGIC
+                || segment.getInt(4) != TrafficLog.VERSION) {
+                log.warn("跳过无法识别的流量日志分段: {}", file);
+                continue;
+            }
+            int segmentIndex = segments.size();
+            segments.add(segment);
+            size += indexSegment(file, segment, segmentIndex, index);
+        }
+        log.info("已加载流量日志: {}, 分段数: {}, 记录数: {}, 不同请求数: {}", directory, segments.size(), size, index.size());
+        return new TrafficReplay(List.copyOf(segments), index, size);
+    }
+
+    /**
+     * 取出与请求匹配的下一条录制记录
+     */
+    public Optional<TrafficRecord> next(String key) {
+        Positions positions = index.get(key);
+        if (positions == null) {
+            return Optional.empty();
+        }
+        long position = positions.next();
+        ByteBuffer buffer = segments.get((int) (position >>> 32)).duplicate();
+        buffer.position((int) position + TrafficLog.RECORD_HEADER_BYTES);
+        return Optional.of(TrafficRecord.decode(buffer));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int indexSegment(Path file, MappedByteBuffer segment, int segmentIndex, Map<String, Positions> index) {
+        ByteBuffer buffer = segment.duplicate();
+        int position = TrafficLog.HEADER_BYTES;
+        int count = 0;
+        while (position + TrafficLog.RECORD_HEADER_BYTES <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length <= 0) {
+                break;
+            }
+            int start = position + TrafficLog.RECORD_HEADER_BYTES;
+            if (length > buffer.limit() - start) {
+                log.warn("流量日志分段 {} 在偏移 {} 处记录不完整, 忽略之后的内容", file, position);
+                break;
+            }
+            ByteBuffer payload = buffer.duplicate().position(start).limit(start + length);
+            CRC32 checksum = new CRC32();
+            checksum.update(payload.duplicate());
+            if ((int) checksum.getValue() != buffer.getInt(position + 4)) {
+                log.warn("流量日志分段 {} 在偏移 {} 处校验失败, 忽略之后的内容", file, position);
+                break;
+            }
+            index.computeIfAbsent(TrafficRecord.decodeKey(payload), key -> new Positions())
+                .add(((long) segmentIndex << 32) | position);
+            position = start + length;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 同一请求的全部记录位置, 高32位为分段序号, 低32位为分段内偏移
+     */
+    private static final class Positions {
+
+        private long[] positions = new long[1];
+        private int count;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        void add(long position) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+        }
+
+        long next() {
+            return positions[Math.floorMod(cursor.getAndIncrement(), count)];
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package org.apache.camel.examples.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的工具入参校验器, 由工具的inputSchema编译而来, 每个工具编译一次, 所有调用共享
+ * <p>
+ * 支持JsonSchemaGenerator生成的关键字: type、enum、required、properties、items,
+ * 以及 minimum、maximum、minLength、maxLength、pattern.
+ * 与查询参数的传递方式保持一致, 字符串形式的数字和布尔值视为合法, JSON字符串形式的对象会解析后再校验
+ */
+public final class ArgumentValidator {
+
+    public static final ArgumentValidator NONE = new ArgumentValidator(null);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Object>> LIST_TYPE = new TypeReference<>() {
+    };
+
+    private final CompiledSchema root;
+
+    private ArgumentValidator(CompiledSchema root) {
+        this.root = root;
+    }
+
+    /**
+     * 编译JSON Schema
+     *
+     * @throws IllegalArgumentException 如果schema不是合法的JSON
+     */
+    public static ArgumentValidator compile(String schema) {
+        try {
+            return compile(OBJECT_MAPPER.readTree(schema));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("inputSchema不是合法的JSON", e);
+        }
+    }
+
+    public static ArgumentValidator compile(JsonNode schema) {
+        return new ArgumentValidator(CompiledSchema.compile(schema));
+    }
+
+    /**
+     * 校验工具入参
+     *
+     * @return 违反约束的条目, 为空表示校验通过
+     */
+    public List<Violation> validate(Map<String, Object> arguments) {
+        if (root == null) {
+            return Collections.emptyList();
+        }
+        List<Violation> violations = new ArrayList<>();
+        root.validate(arguments == null ? Collections.emptyMap() : arguments, "", violations);
+        return violations;
+    }
+
+    /**
+     * 将校验结果转换为返回给模型的JSON
+     */
+    public static String describe(List<Violation> violations) {
+        ObjectNode result = OBJECT_MAPPER.createObjectNode();
+        result.put("error", "参数校验失败, 未调用上游接口");
+        ArrayNode items = result.putArray("violations");
+        violations.forEach(violation -> items.addObject()
+            .put("path", violation.path())
+            .put("message", violation.message()));
+        return result.toString();
+    }
+
+    /**
+     * 单条校验错误
+     *
+     * @param path    参数路径, 如 body.owner.name、tags[0]
+     * @param message 错误说明
+     */
+    public record Violation(String path, String message) {
+    }
+
+    private enum Type {
+        STRING, INTEGER, NUMBER, BOOLEAN, OBJECT, ARRAY, ANY;
+
+        private static Type of(String name) {
+            if (name == null) {
+                return ANY;
+            }
+            switch (name) {
+                case "string":
+                    return STRING;
+                case "integer":
+                    return INTEGER;
+                case "number":
+                    return NUMBER;
+                case "boolean":
+                    return BOOLEAN;
+                case "object":
+                    return OBJECT;
+                case "array":
+                    return ARRAY;
+                default:
+                    return ANY;
+            }
+        }
+    }
+
+    /**
+     * 预处理后的schema节点, 校验时不再访问JSON树
+     */
+    private static final class CompiledSchema {
+
+        private static final Object INVALID = new Object();
+
+        private final Type type;
+        private final String typeName;
+        private final Set<String> enumValues;
+        private final BigDecimal minimum;
+        private final BigDecimal maximum;
+        private final Integer minLength;
+        private final Integer maxLength;
+        private final Pattern pattern;
+        private final List<String> required;
+        private final Map<String, CompiledSchema> properties;
+        private final CompiledSchema items;
+
+        private CompiledSchema(JsonNode schema) {
+            this.typeName = schema.path("type").isTextual() ? schema.get("type").asText() : null;
+            this.type = Type.of(typeName);
+
+            Set<String> enums = new LinkedHashSet<>();
+            schema.path("enum").forEach(value -> enums.add(value.asText()));
+            this.enumValues = enums.isEmpty() ? null : Collections.unmodifiableSet(enums);
+
+            this.minimum = schema.path("minimum").isNumber() ? schema.get("minimum").decimalValue() : null;
+            this.maximum = schema.path("maximum").isNumber() ? schema.get("maximum").decimalValue() : null;
+            this.minLength = schema.path("minLength").isInt() ? schema.get("minLength").asInt() : null;
+            this.maxLength = schema.path("maxLength").isInt() ? schema.get("maxLength").asInt() : null;
+            this.pattern = schema.path("pattern").isTextual() ? Pattern.compile(schema.get("pattern").asText()) : null;
+
+            List<String> requiredNames = new ArrayList<>();
+            schema.path("required").forEach(name -> requiredNames.add(name.asText()));
+            this.required = List.copyOf(requiredNames);
+
+            Map<String, CompiledSchema> compiledProperties = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = schema.path("properties").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                compiledProperties.put(field.getKey(), new CompiledSchema(field.getValue()));
+            }
+            this.properties = Collections.unmodifiableMap(compiledProperties);
+            this.items = schema.path("items").isObject() ? new CompiledSchema(schema.get("items")) : null;
+        }
+
+        private static CompiledSchema compile(JsonNode schema) {
+            return schema == null || !schema.isObject() ? null : new CompiledSchema(schema);
+        }
+
+        private void validate(Object value, String path, List<Violation> violations) {
+            Object normalized = normalize(value);
+            if (normalized == INVALID) {
+                violations.add(new Violation(path, "类型应为" + typeName));
+                return;
+            }
+
+            if (enumValues != null && !enumValues.contains(String.valueOf(normalized))) {
+                violations.add(new Violation(path, "取值应为以下之一: " + enumValues));
+            }
+            if (normalized instanceof BigDecimal number) {
+                if (minimum != null && number.compareTo(minimum) < 0) {
+                    violations.add(new Violation(path, "不能小于 " + minimum.toPlainString()));
+                }
+                if (maximum != null && number.compareTo(maximum) > 0) {
+                    violations.add(new Violation(path, "不能大于 " + maximum.toPlainString()));
+                }
+            }
+            if (normalized instanceof String text) {
+                validateText(text, path, violations);
+            }
+            if (normalized instanceof Map<?, ?> map) {
+                validateObject(map, path, violations);
+            }
+            if (normalized instanceof Collection<?> collection && items != null) {
+                int index = 0;
+                for (Object item : collection) {
+                    if (item != null) {
+                        items.validate(item, path + "[" + index + "]", violations);
+                    }
+                    index++;
+                }
+            }
+        }
+
+        private void validateText(String text, String path, List<Violation> violations) {
+            int length = text.codePointCount(0, text.length());
+            if (minLength != null && length < minLength) {
+                violations.add(new Violation(path, "长度不能小于 " + minLength));
+            }
+            if (maxLength != null && length > maxLength) {
+                violations.add(new Violation(path, "长度不能大于 " + maxLength));
+            }
+            if (pattern != null && !pattern.matcher(text).find()) {
+                violations.add(new Violation(path, "格式应匹配 " + pattern.pattern()));
+            }
+        }
+
+        private void validateObject(Map<?, ?> map, String path, List<Violation> violations) {
+            for (String name : required) {
+                if (map.get(name) == null) {
+                    violations.add(new Violation(child(path, name), "缺少必填参数"));
+                }
+            }
+            for (Map.Entry<String, CompiledSchema> property : properties.entrySet()) {
+                Object propertyValue = map.get(property.getKey());
+                if (propertyValue != null) {
+                    property.getValue().validate(propertyValue, child(path, property.getKey()), violations);
+                }
+            }
+        }
+
+        /**
+         * 按声明的类型规整取值: 数字统一为BigDecimal, JSON字符串形式的对象、数组解析为Map、List; 类型不符时返回INVALID
+         */
+        private Object normalize(Object value) {
+            switch (type) {
+                case STRING:
+                    return value instanceof Map || value instanceof Collection ? INVALID : String.valueOf(value);
+                case INTEGER: {
+                    BigDecimal number = toNumber(value);
+                    return number == null || number.stripTrailingZeros().scale() > 0 ? INVALID : number;
+                }
+                case NUMBER: {
+                    BigDecimal number = toNumber(value);
+                    return number == null ? INVALID : number;
+                }
+                case BOOLEAN:
+                    if (value instanceof Boolean) {
+                        return value;
+                    }
+                    return "true".equals(value) || "false".equals(value) ? Boolean.valueOf((String) value) : INVALID;
+                case OBJECT:
+                    if (value instanceof Map) {
+                        return value;
+                    }
+                    return value instanceof String text ? parseObject(text) : INVALID;
+                case ARRAY:
+                    if (value instanceof Collection) {
+                        return value;
+                    }
+                    return value instanceof String text ? parseArray(text) : INVALID;
+                default:
+                    return value;
+            }
+        }
+
+        private static BigDecimal toNumber(Object value) {
+            if (value instanceof Boolean || value instanceof Map || value instanceof Collection) {
+                return null;
+            }
+            try {
+                return value instanceof BigDecimal decimal ? decimal : new BigDecimal(String.valueOf(value).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Object parseObject(String text) {
+            try {
+                Map<String, Object> parsed = OBJECT_MAPPER.readValue(text, MAP_TYPE);
+                return parsed == null ? INVALID : parsed;
+            } catch (JsonProcessingException e) {
+                return INVALID;
+            }
+        }
+
+        private static Object parseArray(String text) {
+            try {
+                List<Object> parsed = OBJECT_MAPPER.readValue(text, LIST_TYPE);
+                return parsed == null ? INVALID : parsed;
+            } catch (JsonProcessingException e) {
+                return INVALID;
+            }
+        }
+
+        private static String child(String path, String name) {
+            return path.isEmpty() ? name : path + "." + name;
+        }
+    }
+}
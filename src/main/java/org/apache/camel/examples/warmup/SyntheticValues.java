@@ -0,0 +1,140 @@
+package org.apache.camel.examples.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 按JSON Schema生成满足约束的合成值, 用于预热时构造工具入参和上游响应
+ * <p>
+ * 依次取example、default、enum首项, 否则按type与format生成; 对象生成全部属性, 数组生成一个元素
+ */
+public final class SyntheticValues {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final int MAX_DEPTH = 8;
+
+    private SyntheticValues() {
+    }
+
+    /**
+     * 按工具的inputSchema生成入参
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> arguments(String inputSchema) {
+        try {
+            JsonNode value = generate(OBJECT_MAPPER.readTree(inputSchema));
+            return value.isObject() ? OBJECT_MAPPER.convertValue(value, Map.class) : Map.of();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("inputSchema不是合法JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    public static JsonNode generate(JsonNode schema) {
+        return generate(schema, 0);
+    }
+
+    private static JsonNode generate(JsonNode schema, int depth) {
+        if (schema == null || !schema.isObject() || depth > MAX_DEPTH) {
+            return NODES.nullNode();
+        }
+        if (schema.hasNonNull("example")) {
+            return schema.get("example");
+        }
+        if (schema.hasNonNull("default")) {
+            return schema.get("default");
+        }
+        JsonNode enumValues = schema.get("enum");
+        if (enumValues != null && enumValues.isArray() && !enumValues.isEmpty()) {
+            return enumValues.get(0);
+        }
+
+        switch (typeOf(schema)) {
+            case "object":
+                ObjectNode object = NODES.objectNode();
+                JsonNode properties = schema.get("properties");
+                if (properties != null && properties.isObject()) {
+                    Iterator<Map.Entry<String, JsonNode>> fields = properties.fields();
+                    while (fields.hasNext()) {
+                        Map.Entry<String, JsonNode> field = fields.next();
+                        object.set(field.getKey(), generate(field.getValue(), depth + 1));
+                    }
+                }
+                return object;
+            case "array":
+                ArrayNode array = NODES.arrayNode();
+                array.add(generate(schema.get("items"), depth + 1));
+                return array;
+            case "integer":
+                long integer = (long) Math.ceil(number(schema, 1));
+                return integer == (int) integer ? NODES.numberNode((int) integer) : NODES.numberNode(integer);
+            case "number":
+                return NODES.numberNode(number(schema, 1.5));
+            case "boolean":
+                return NODES.booleanNode(true);
+            case "null":
+                return NODES.nullNode();
+            default:
+                return NODES.textNode(string(schema));
+        }
+    }
+
+    private static String typeOf(JsonNode schema) {
+        JsonNode type = schema.get("type");
+        if (type != null && type.isTextual()) {
+            return type.asText();
+        }
+        // OpenAPI 3.1允许type为数组, 取第一个非null类型
+        if (type != null && type.isArray()) {
+            for (JsonNode candidate : type) {
+                if (!"null".equals(candidate.asText())) {
+                    return candidate.asText();
+                }
+            }
+        }
+        if (schema.has("properties")) {
+            return "object";
+        }
+        if (schema.has("items")) {
+            return "array";
+        }
+        return "string";
+    }
+
+    private static double number(JsonNode schema, double preferred) {
+        double value = preferred;
+        if (schema.path("maximum").isNumber()) {
+            value = Math.min(value, schema.get("maximum").asDouble());
+        }
+        if (schema.path("minimum").isNumber()) {
+            value = Math.max(value, schema.get("minimum").asDouble());
+        }
+        return value;
+    }
+
+    private static String string(JsonNode schema) {
+        String value = switch (schema.path("format").asText("")) {
+            case "date" -> "2024-01-01";
+            case "date-time" -> "2024-01-01T00:00:00Z";
+            case "uuid" -> "00000000-0000-0000-0000-000000000000";
+            case "email" -> "warmup@example.com";
+            case "uri", "url" -> "http://example.com";
+            case "ipv4" -> "127.0.0.1";
+            default -> "warmup";
+        };
+        int minLength = schema.path("minLength").asInt(0);
+        StringBuilder padded = new StringBuilder(value);
+        while (padded.length() < minLength) {
+            padded.append('x');
+        }
+        int maxLength = schema.path("maxLength").asInt(Integer.MAX_VALUE);
+        return padded.length() > maxLength ? padded.substring(0, maxLength) : padded.toString();
+    }
+}
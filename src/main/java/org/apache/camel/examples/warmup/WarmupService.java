@@ -0,0 +1,190 @@
+package org.apache.camel.examples.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.apache.camel.examples.config.WarmupProperties;
+import org.apache.camel.examples.service.ToolRegistry;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 启动预热: 在应用就绪(readiness)前以合成入参反复调用每个OpenAPI工具, 让入参绑定、校验、请求构造、
+ * 响应映射与编码的代码路径在接收真实流量前完成JIT编译
+ * <p>
+ * 预热调用在工具上下文中带{@link #WARMUP_CONTEXT_KEY}标记, 生成的工具据此跳过限流、负载均衡与凭证,
+ * 上游请求发往进程内的空端点, 返回按响应schema合成的响应体. 组合工具和@Tool方法会产生真实调用, 不参与预热
+ */
+@Slf4j
+@Service
+public class WarmupService implements ApplicationRunner {
+
+    public static final String WARMUP_CONTEXT_KEY = "mcp.warmup";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * 每多少轮检查一次JIT编译时间
+     */
+    private static final int CHECK_EVERY_ROUNDS = 50;
+
+    @Resource
+    private WarmupProperties warmupProperties;
+
+    @Resource
+    private OpenApiToolsProperties openApiToolsProperties;
+
+    @Resource
+    private ToolRegistry toolRegistry;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    public static boolean isWarmup(ToolContext toolContext) {
+        return toolContext != null && toolContext.getContext() != null
+            && Boolean.TRUE.equals(toolContext.getContext().get(WARMUP_CONTEXT_KEY));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (warmupProperties.isEnabled()) {
+            warmup();
+        }
+    }
+
+    /**
+     * @return 完成的轮数
+     */
+    public int warmup() {
+        List<WarmupCall> calls = prepare();
+        if (calls.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + warmupProperties.getTimeout().toNanos();
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean monitorCompilation = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        long compilationTime = monitorCompilation ? compilation.getTotalCompilationTime() : 0;
+        int threads = Math.max(1, warmupProperties.getThreads());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, warmupThreadFactory());
+        AtomicInteger failures = new AtomicInteger();
+        int rounds = 0;
+        String reason = "max-rounds";
+        try {
+            while (rounds < warmupProperties.getMaxRounds()) {
+                if (System.nanoTime() - deadline >= 0) {
+                    reason = "timeout";
+                    break;
+                }
+                runRound(calls, executor, threads, failures);
+                rounds++;
+                if (monitorCompilation && rounds >= warmupProperties.getMinRounds() && rounds % CHECK_EVERY_ROUNDS == 0) {
+                    long current = compilation.getTotalCompilationTime();
+                    if (current == compilationTime) {
+                        reason = "compiled";
+                        break;
+                    }
+                    compilationTime = current;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reason = "interrupted";
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        if (meterRegistry != null) {
+            Timer.builder("mcp.warmup.duration")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .record(elapsed);
+        }
+        log.info("预热完成, 工具数: {}, 轮数: {}, 结束原因: {}, 失败调用: {}, 耗时: {} ms",
+            calls.size(), rounds, reason, failures.get(), elapsed.toMillis());
+        return rounds;
+    }
+
+    private List<WarmupCall> prepare() {
+        ToolContext toolContext = new ToolContext(Map.of(WARMUP_CONTEXT_KEY, true));
+        List<WarmupCall> calls = new ArrayList<>();
+        for (OpenApiToolsProperties.Spec spec : openApiToolsProperties.getSpecs()) {
+            for (ToolCallback tool : toolRegistry.getToolCallbacks(spec.displayName())) {
+                try {
+                    String input = OBJECT_MAPPER.writeValueAsString(
+                        SyntheticValues.arguments(tool.getToolDefinition().inputSchema()));
+                    calls.add(new WarmupCall(tool, input, toolContext));
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    log.warn("工具 {} 无法生成预热入参, 已跳过: {}", tool.getToolDefinition().name(), e.getMessage());
+                }
+            }
+        }
+        return calls;
+    }
+
+    private static void runRound(List<WarmupCall> calls, ExecutorService executor, int threads, AtomicInteger failures)
+        throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                for (int i = offset; i < calls.size(); i += threads) {
+                    if (!calls.get(i).call()) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failures.incrementAndGet();
+            }
+        }
+    }
+
+    private static ThreadFactory warmupThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "tool-warmup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record WarmupCall(ToolCallback tool, String input, ToolContext toolContext) {
+
+        boolean call() {
+            try {
+                tool.call(input, toolContext);
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+    }
+}
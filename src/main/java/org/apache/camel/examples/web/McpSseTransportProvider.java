@@ -0,0 +1,150 @@
+package org.apache.camel.examples.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import io.modelcontextprotocol.server.transport.WebFluxSseServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import org.apache.camel.examples.content.ContentAttachments;
+import org.apache.camel.examples.domain.BinaryContent;
+import org.apache.camel.examples.service.ToolCatalog;
+import org.springframework.ai.mcp.server.autoconfigure.McpServerProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MCP的SSE传输, 替代自动配置中的同名Bean, 在发送响应时改写两类结果:
+ * <ul>
+ *   <li>MCP SDK的tools/list处理器不可替换, 这里把其中的工具列表换成ToolCatalog预先序列化好的JSON, 原样写出而不再逐个序列化Schema</li>
+ *   <li>Spring AI只把工具结果转换为文本内容, 这里按结果中的附件引用取回二进制内容, 追加为图片或资源内容块</li>
+ * </ul>
+ */
+@Component
+public class McpSseTransportProvider extends WebFluxSseServerTransportProvider {
+
+    private final ToolCatalog toolCatalog;
+
+    private final ContentAttachments contentAttachments;
+
+    @Autowired
+    public McpSseTransportProvider(ObjectProvider<ObjectMapper> objectMapper, McpServerProperties serverProperties,
+                                   ToolCatalog toolCatalog, ContentAttachments contentAttachments) {
+        super(objectMapper.getIfAvailable(ObjectMapper::new), serverProperties.getBaseUrl(),
+            serverProperties.getSseMessageEndpoint(), serverProperties.getSseEndpoint());
+        this.toolCatalog = toolCatalog;
+        this.contentAttachments = contentAttachments;
+    }
+
+    @Override
+    public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+        super.setSessionFactory(transport -> sessionFactory.create(new RewritingTransport(transport)));
+    }
+
+    /**
+     * SDK返回的工具列表与当前版本的工具集合一致时, 替换为预先序列化的结果
+     */
+    private Object replaceToolList(McpSchema.ListToolsResult result) {
+        ToolCatalog.Snapshot snapshot = toolCatalog.snapshot();
+        if (result.nextCursor() != null || result.tools().size() != snapshot.getNames().size()) {
+            return result;
+        }
+        Set<String> names = new HashSet<>();
+        result.tools().forEach(tool -> names.add(tool.name()));
+        if (!names.equals(snapshot.getNames())) {
+            // MCP服务的工具正在同步, 本次照常序列化
+            return result;
+        }
+        return new RawJson(snapshot.getFullJson());
+    }
+
+    /**
+     * 工具结果中引用了二进制内容时, 在文本内容之后追加: 图片作为图片内容, 其他类型作为以请求地址为uri的资源内容
+     */
+    private McpSchema.CallToolResult attachContent(McpSchema.CallToolResult result) {
+        List<McpSchema.Content> contents = null;
+        for (McpSchema.Content content : result.content()) {
+            if (!(content instanceof McpSchema.TextContent text) || text.text() == null) {
+                continue;
+            }
+            for (ContentAttachments.Attachment attachment : contentAttachments.take(text.text())) {
+                if (contents == null) {
+                    contents = new ArrayList<>(result.content());
+                }
+                BinaryContent binary = attachment.content();
+                contents.add(binary.isImage()
+                    ? new McpSchema.ImageContent(null, null, binary.data(), binary.mimeType())
+                    : new McpSchema.EmbeddedResource(null, null,
+                        new McpSchema.BlobResourceContents(attachment.uri(), binary.mimeType(), binary.data())));
+            }
+        }
+        return contents == null ? result : new McpSchema.CallToolResult(contents, result.isError());
+    }
+
+    private class RewritingTransport implements McpServerTransport {
+
+        private final McpServerTransport delegate;
+
+        RewritingTransport(McpServerTransport delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<Void> sendMessage(McpSchema.JSONRPCMessage message) {
+            if (message instanceof McpSchema.JSONRPCResponse response
+                && response.result() instanceof McpSchema.ListToolsResult result) {
+                message = new McpSchema.JSONRPCResponse(response.jsonrpc(), response.id(),
+                    replaceToolList(result), response.error());
+            } else if (message instanceof McpSchema.JSONRPCResponse response
+                && response.result() instanceof McpSchema.CallToolResult result) {
+                message = new McpSchema.JSONRPCResponse(response.jsonrpc(), response.id(),
+                    attachContent(result), response.error());
+            }
+            return delegate.sendMessage(message);
+        }
+
+        @Override
+        public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+            return delegate.unmarshalFrom(data, typeRef);
+        }
+
+        @Override
+        public Mono<Void> closeGracefully() {
+            return delegate.closeGracefully();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+
+    /**
+     * 已序列化的JSON, 由ObjectMapper原样写出
+     */
+    private record RawJson(String json) implements JsonSerializable {
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeRawValue(json);
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+            serialize(generator, serializers);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.apache.camel.examples.web;
+
+import org.apache.camel.examples.service.ToolCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 分页读取预先序列化的工具列表, 响应带ETag, If-None-Match命中时返回304
+ */
+@RestController
+public class ToolCatalogController {
+
+    @Autowired
+    ToolCatalog toolCatalog;
+
+    @GetMapping(value = "/mcp/tools", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ByteBuffer> listTools(@RequestParam(required = false) String cursor) {
+        ToolCatalog.Page page;
+        try {
+            page = toolCatalog.page(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return ResponseEntity.ok()
+            .eTag(page.etag())
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(page.body());
+    }
+}
@@ -0,0 +1,425 @@
+package org.apache.camel.examples.workflow;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.springframework.ai.tool.ToolCallback;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的组合工具, 由{@link OpenApiToolsProperties.Workflow}编译而来
+ * <p>
+ * 步骤之间的依赖由参数中的{@code {{stepId.path}}}引用推导, 编译时完成拓扑排序和环检测.
+ * 执行时每个步骤在其依赖全部完成后立即提交, 互不依赖的分支并发执行, 总耗时取决于关键路径;
+ * 超过截止时间后未开始的步骤不再执行, 执行中的步骤线程被中断, 其上游调用随之中止, 已完成步骤的结果照常返回
+ */
+@Slf4j
+public final class CompiledWorkflow {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Pattern REFERENCE = Pattern.compile("\\{\\{\\s*([^}\\s]+)\\s*}}");
+    private static final String INPUT = "input";
+
+    private final String name;
+    private final String description;
+    private final Duration timeout;
+    private final String inputSchema;
+    // 拓扑序, 用于提交步骤
+    private final List<Step> steps;
+    // 声明顺序, 用于组装结果
+    private final List<String> stepIds;
+    private final Set<String> output;
+
+    private CompiledWorkflow(String name, String description, Duration timeout, String inputSchema,
+                             List<Step> steps, List<String> stepIds, Set<String> output) {
+        this.name = name;
+        this.description = description;
+        this.timeout = timeout;
+        this.inputSchema = inputSchema;
+        this.steps = steps;
+        this.stepIds = stepIds;
+        this.output = output;
+    }
+
+    /**
+     * 编译组合工具定义
+     *
+     * @throws IllegalArgumentException 如果引用了未声明的步骤, 或步骤之间存在循环依赖
+     */
+    public static CompiledWorkflow compile(OpenApiToolsProperties.Workflow workflow) {
+        if (isBlank(workflow.getName())) {
+            throw new IllegalArgumentException("组合工具缺少name");
+        }
+        if (workflow.getSteps() == null || workflow.getSteps().isEmpty()) {
+            throw new IllegalArgumentException("组合工具 " + workflow.getName() + " 没有声明步骤");
+        }
+
+        Map<String, Step> declared = new LinkedHashMap<>();
+        for (OpenApiToolsProperties.WorkflowStep step : workflow.getSteps()) {
+            if (isBlank(step.getId()) || isBlank(step.getTool())) {
+                throw new IllegalArgumentException("组合工具 " + workflow.getName() + " 的步骤缺少id或tool");
+            }
+            if (INPUT.equals(step.getId()) || declared.containsKey(step.getId())) {
+                throw new IllegalArgumentException("组合工具 " + workflow.getName() + " 的步骤id重复或为保留字: " + step.getId());
+            }
+            Set<String> sources = new LinkedHashSet<>();
+            Value arguments = Value.compile(step.getArguments() == null ? Map.of() : step.getArguments(), sources);
+            sources.forEach(source -> {
+                if (INPUT.equals(source)) {
+                    return;
+                }
+                if (workflow.getSteps().stream().noneMatch(other -> source.equals(other.getId()))) {
+                    throw new IllegalArgumentException("步骤 " + step.getId() + " 引用了未声明的步骤: " + source);
+                }
+            });
+            sources.remove(INPUT);
+            declared.put(step.getId(), new Step(step.getId(), step.getTool(), arguments, Set.copyOf(sources)));
+        }
+
+        Set<String> output = new LinkedHashSet<>(workflow.getOutput() == null ? List.of() : workflow.getOutput());
+        output.stream().filter(id -> !declared.containsKey(id)).findFirst().ifPresent(id -> {
+            throw new IllegalArgumentException("output中引用了未声明的步骤: " + id);
+        });
+
+        String description = isBlank(workflow.getDescription())
+            ? "组合调用 " + String.join(", ", declared.values().stream().map(Step::tool).toList())
+            : workflow.getDescription();
+        return new CompiledWorkflow(workflow.getName(), description, workflow.getTimeout(),
+            inputSchema(workflow.getInputs()), sort(workflow.getName(), declared), List.copyOf(declared.keySet()), output);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getInputSchema() {
+        return inputSchema;
+    }
+
+    /**
+     * 执行工作流
+     *
+     * @param tools    按工具名查找当前生效的工具, 步骤通过工具调用进入direct:httpRequest
+     * @param executor 执行步骤
+     */
+    public HttpResponseBean execute(Map<String, Object> input, Function<String, Optional<ToolCallback>> tools, Executor executor) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        JsonNode inputNode = OBJECT_MAPPER.valueToTree(input == null ? Map.of() : input);
+
+        Map<String, CompletableFuture<StepResult>> futures = new LinkedHashMap<>();
+        // 执行中的步骤线程, CompletableFuture.cancel不会中断线程, 超时时需要逐个中断
+        Map<String, Thread> running = new ConcurrentHashMap<>();
+        for (Step step : steps) {
+            // 依赖在拓扑序中先于当前步骤创建, 复制一份交给步骤线程, 避免与这里的写入并发
+            Map<String, CompletableFuture<StepResult>> dependencies = new LinkedHashMap<>();
+            step.dependencies().forEach(dependency -> dependencies.put(dependency, futures.get(dependency)));
+            futures.put(step.id(), CompletableFuture.allOf(dependencies.values().toArray(CompletableFuture[]::new))
+                .thenApplyAsync(ignored -> runInterruptibly(step, inputNode, dependencies, tools, running), executor));
+        }
+
+        boolean timedOut = false;
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timedOut = true;
+            cancel(futures, running);
+            log.warn("组合工具 {} 超过截止时间 {} ms", name, timeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(futures, running);
+            timedOut = true;
+        } catch (ExecutionException e) {
+            // 单个步骤的异常已在run中转换为失败结果, 这里不会出现
+            log.error("组合工具 {} 执行异常", name, e.getCause());
+        }
+        return assemble(futures, timedOut);
+    }
+
+    /**
+     * 未开始的步骤不再执行; 执行中的步骤中断其线程, 工具调用据此中止上游请求并关闭连接
+     */
+    private static void cancel(Map<String, CompletableFuture<StepResult>> futures, Map<String, Thread> running) {
+        futures.values().forEach(future -> future.cancel(true));
+        running.keySet().forEach(id -> running.computeIfPresent(id, (ignored, thread) -> {
+            thread.interrupt();
+            return thread;
+        }));
+    }
+
+    private StepResult runInterruptibly(Step step, JsonNode input, Map<String, CompletableFuture<StepResult>> dependencies,
+                                        Function<String, Optional<ToolCallback>> tools, Map<String, Thread> running) {
+        running.put(step.id(), Thread.currentThread());
+        try {
+            return run(step, input, dependencies, tools);
+        } finally {
+            // 移除与中断在同一个key上串行, 移除之后不会再被中断; 清除残留的中断状态, 避免影响线程池执行的下一个任务
+            running.remove(step.id());
+            Thread.interrupted();
+        }
+    }
+
+    private StepResult run(Step step, JsonNode input, Map<String, CompletableFuture<StepResult>> dependencies,
+                           Function<String, Optional<ToolCallback>> tools) {
+        Map<String, JsonNode> context = new HashMap<>();
+        context.put(INPUT, input);
+        for (Map.Entry<String, CompletableFuture<StepResult>> dependency : dependencies.entrySet()) {
+            StepResult result = dependency.getValue().join();
+            if (!result.isSuccessful()) {
+                return StepResult.failed(0, "依赖的步骤 " + dependency.getKey() + " 未成功, 已跳过");
+            }
+            context.put(dependency.getKey(), result.body());
+        }
+
+        Optional<ToolCallback> tool = tools.apply(step.tool());
+        if (tool.isEmpty()) {
+            return StepResult.failed(0, "工具不存在: " + step.tool());
+        }
+        try {
+            String arguments = OBJECT_MAPPER.writeValueAsString(step.arguments().resolve(context));
+            return StepResult.of(OBJECT_MAPPER.readTree(tool.get().call(arguments)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("组合工具 {} 的步骤 {} 调用失败", name, step.id(), e);
+            return StepResult.failed(0, "调用失败: " + e.getMessage());
+        }
+    }
+
+    private HttpResponseBean assemble(Map<String, CompletableFuture<StepResult>> futures, boolean timedOut) {
+        ObjectNode body = OBJECT_MAPPER.createObjectNode();
+        boolean failed = false;
+        for (String id : stepIds) {
+            CompletableFuture<StepResult> future = futures.get(id);
+            StepResult result = future.isDone() && !future.isCompletedExceptionally()
+                ? future.join()
+                : StepResult.failed(0, "超过截止时间, 已取消");
+            failed |= !result.isSuccessful();
+            if (output.isEmpty() || output.contains(id)) {
+                body.set(id, result.isSuccessful() ? result.body() : result.describe());
+            }
+        }
+
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        int statusCode = timedOut ? 504 : failed ? 502 : 200;
+        return new HttpResponseBean(statusCode, headers, body.toString());
+    }
+
+    /**
+     * 按依赖关系拓扑排序, 同一层内保持声明顺序
+     */
+    private static List<Step> sort(String name, Map<String, Step> declared) {
+        Map<String, Integer> pending = new LinkedHashMap<>();
+        declared.values().forEach(step -> pending.put(step.id(), step.dependencies().size()));
+
+        List<Step> sorted = new ArrayList<>();
+        Deque<String> ready = new ArrayDeque<>();
+        pending.forEach((id, count) -> {
+            if (count == 0) {
+                ready.add(id);
+            }
+        });
+        while (!ready.isEmpty()) {
+            Step step = declared.get(ready.poll());
+            sorted.add(step);
+            for (Step other : declared.values()) {
+                if (other.dependencies().contains(step.id()) && pending.merge(other.id(), -1, Integer::sum) == 0) {
+                    ready.add(other.id());
+                }
+            }
+        }
+        if (sorted.size() != declared.size()) {
+            throw new IllegalArgumentException("组合工具 " + name + " 的步骤之间存在循环依赖");
+        }
+        return List.copyOf(sorted);
+    }
+
+    private static String inputSchema(Map<String, OpenApiToolsProperties.WorkflowInput> inputs) {
+        ObjectNode schema = OBJECT_MAPPER.createObjectNode();
+        schema.put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        List<String> required = new ArrayList<>();
+        if (inputs != null) {
+            inputs.forEach((inputName, input) -> {
+                ObjectNode property = properties.putObject(inputName);
+                property.put("type", input.getType());
+                if (!isBlank(input.getDescription())) {
+                    property.put("description", input.getDescription());
+                }
+                if (input.isRequired()) {
+                    required.add(inputName);
+                }
+            });
+        }
+        if (!required.isEmpty()) {
+            required.forEach(schema.putArray("required")::add);
+        }
+        return schema.toString();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private record Step(String id, String tool, Value arguments, Set<String> dependencies) {
+    }
+
+    /**
+     * 单个步骤的结果, body为上游响应体解析后的JSON, 不是JSON时保留为字符串
+     */
+    private record StepResult(int statusCode, JsonNode body, String error) {
+
+        private static StepResult of(JsonNode response) {
+            int statusCode = response.path("statusCode").asInt();
+            JsonNode bodyNode = response.path("body");
+            if (!bodyNode.isTextual()) {
+                return new StepResult(statusCode, bodyNode.isMissingNode() ? null : bodyNode, null);
+            }
+            try {
+                return new StepResult(statusCode, OBJECT_MAPPER.readTree(bodyNode.asText()), null);
+            } catch (JsonProcessingException e) {
+                return new StepResult(statusCode, bodyNode, null);
+            }
+        }
+
+        private static StepResult failed(int statusCode, String error) {
+            return new StepResult(statusCode, null, error);
+        }
+
+        private boolean isSuccessful() {
+            return error == null && statusCode >= 200 && statusCode < 300;
+        }
+
+        private JsonNode describe() {
+            ObjectNode node = OBJECT_MAPPER.createObjectNode();
+            node.put("error", error != null ? error : "上游返回状态码 " + statusCode);
+            if (statusCode > 0) {
+                node.put("statusCode", statusCode);
+            }
+            if (body != null) {
+                node.set("body", body);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * 编译后的参数值, 引用在编译时解析为数据来源和JSON Pointer
+     */
+    private interface Value {
+
+        Object resolve(Map<String, JsonNode> context);
+
+        @SuppressWarnings("unchecked")
+        static Value compile(Object raw, Set<String> sources) {
+            if (raw instanceof Map<?, ?> map) {
+                Map<String, Value> values = new LinkedHashMap<>();
+                map.forEach((key, value) -> values.put(String.valueOf(key), compile(value, sources)));
+                return context -> {
+                    Map<String, Object> resolved = new LinkedHashMap<>();
+                    values.forEach((key, value) -> {
+                        Object result = value.resolve(context);
+                        if (result != null) {
+                            resolved.put(key, result);
+                        }
+                    });
+                    return resolved;
+                };
+            }
+            if (raw instanceof Collection<?> collection) {
+                List<Value> values = collection.stream().map(value -> compile(value, sources)).toList();
+                return context -> values.stream().map(value -> value.resolve(context)).toList();
+            }
+            if (!(raw instanceof String text)) {
+                return context -> raw;
+            }
+
+            Matcher matcher = REFERENCE.matcher(text);
+            List<Object> parts = new ArrayList<>();
+            int last = 0;
+            while (matcher.find()) {
+                if (matcher.start() > last) {
+                    parts.add(text.substring(last, matcher.start()));
+                }
+                Reference reference = Reference.parse(matcher.group(1));
+                sources.add(reference.source());
+                parts.add(reference);
+                last = matcher.end();
+            }
+            if (parts.isEmpty()) {
+                return context -> text;
+            }
+            if (last < text.length()) {
+                parts.add(text.substring(last));
+            }
+            if (parts.size() == 1 && parts.get(0) instanceof Reference reference) {
+                // 整个值是一个引用时保留原始类型
+                return context -> {
+                    JsonNode node = reference.lookup(context);
+                    return node == null ? null : OBJECT_MAPPER.convertValue(node, Object.class);
+                };
+            }
+            return context -> {
+                StringBuilder builder = new StringBuilder();
+                for (Object part : parts) {
+                    if (part instanceof Reference reference) {
+                        JsonNode node = reference.lookup(context);
+                        builder.append(node == null ? "" : node.isValueNode() ? node.asText() : node.toString());
+                    } else {
+                        builder.append(part);
+                    }
+                }
+                return builder.toString();
+            };
+        }
+    }
+
+    /**
+     * {{source.a.b[0]}}形式的引用, source为input或步骤id
+     */
+    private record Reference(String source, JsonPointer pointer) {
+
+        private static Reference parse(String expression) {
+            String normalized = expression.replaceAll("\\[(\\d+)]", ".$1");
+            int dot = normalized.indexOf('.');
+            String source = dot < 0 ? normalized : normalized.substring(0, dot);
+            String path = dot < 0 ? "" : "/" + normalized.substring(dot + 1).replace("~", "~0").replace("/", "~1").replace('.', '/');
+            return new Reference(source, JsonPointer.compile(path));
+        }
+
+        private JsonNode lookup(Map<String, JsonNode> context) {
+            JsonNode root = context.get(source);
+            JsonNode node = root == null ? null : root.at(pointer);
+            return node == null || node.isMissingNode() || node.isNull() ? null : node;
+        }
+    }
+}
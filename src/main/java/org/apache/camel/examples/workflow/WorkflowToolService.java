@@ -0,0 +1,75 @@
+package org.apache.camel.examples.workflow;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.apache.camel.examples.service.ToolRegistry;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 将配置的组合工具编译为MCP工具
+ * 步骤执行时从{@link ToolRegistry}查找工具, 远程文档刷新后的工具对组合工具同样生效
+ */
+@Slf4j
+@Service
+public class WorkflowToolService {
+
+    @Resource
+    private ToolRegistry toolRegistry;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(stepThreadFactory());
+
+    /**
+     * 编译全部组合工具, 定义不合法的组合工具记录错误后跳过
+     */
+    public List<ToolCallback> build(List<OpenApiToolsProperties.Workflow> workflows) {
+        List<ToolCallback> callbacks = new ArrayList<>();
+        if (workflows == null) {
+            return callbacks;
+        }
+        for (OpenApiToolsProperties.Workflow workflow : workflows) {
+            try {
+                callbacks.add(toToolCallback(CompiledWorkflow.compile(workflow)));
+            } catch (IllegalArgumentException e) {
+                log.error("组合工具 {} 定义不合法, 已跳过: {}", workflow.getName(), e.getMessage());
+            }
+        }
+        return callbacks;
+    }
+
+    private ToolCallback toToolCallback(CompiledWorkflow workflow) {
+        Function<Map<String, Object>, HttpResponseBean> function = input -> workflow.execute(input, toolRegistry::find, executor);
+        return FunctionToolCallback.builder(workflow.getName(), function)
+            .description(workflow.getDescription())
+            .inputType(Map.class)
+            .inputSchema(workflow.getInputSchema())
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory stepThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "workflow-step-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package org.apache.camel.examples.admission;
+
+import org.apache.camel.examples.config.AdmissionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControllerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldAdmitHigherPriorityClassFirst() throws Exception {
+        AdmissionController controller = new AdmissionController(properties(1));
+        AdmissionController.Decision running = controller.admit("getOrder", null);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> batch = admitAsync(controller, "exportOrders", null, order);
+        awaitQueued(controller, 1);
+        CompletableFuture<Void> interactive = admitAsync(controller, "getOrder", null, order);
+        awaitQueued(controller, 2);
+        running.permit().close();
+
+        CompletableFuture.allOf(batch, interactive).get(5, TimeUnit.SECONDS);
+        assertThat(order).containsExactly("getOrder", "exportOrders");
+    }
+
+    @Test
+    void shouldClassifyByClientName() {
+        AdmissionProperties properties = properties(1);
+        AdmissionProperties.Rule rule = new AdmissionProperties.Rule();
+        rule.setClient("nightly-*");
+        rule.setPriorityClass("batch");
+        properties.getRules().add(rule);
+        AdmissionController controller = new AdmissionController(properties);
+
+        AdmissionController.Decision nightly = controller.admit("getOrder", "nightly-report/1.2");
+        nightly.permit().close();
+        AdmissionController.Decision desktop = controller.admit("getOrder", "desktop-agent/0.9");
+        desktop.permit().close();
+
+        assertThat(nightly.priorityClass()).isEqualTo("batch");
+        assertThat(desktop.priorityClass()).isEqualTo("interactive");
+    }
+
+    @Test
+    void shouldDropCallsThatWaitPastTheirQueueDeadline() throws Exception {
+        AdmissionController controller = new AdmissionController(properties(1));
+        AdmissionController.Decision running = controller.admit("getOrder", null);
+
+        long start = System.nanoTime();
+        AdmissionController.Decision expired = controller.admit("getOrder", null);
+
+        assertThat(expired.admitted()).isFalse();
+        assertThat(expired.reason()).isEqualTo(AdmissionController.REJECT_EXPIRED);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(200).toNanos());
+        assertThat(controller.queued()).isZero();
+        running.permit().close();
+    }
+
+    @Test
+    void shouldRejectCallsThatCannotMeetTheirDeadline() throws Exception {
+        AdmissionController controller = new AdmissionController(properties(1));
+        AdmissionController.Decision slow = controller.admit("getOrder", null);
+        Thread.sleep(300);
+        slow.permit().close();
+        AdmissionController.Decision running = controller.admit("getOrder", null);
+
+        // 平均执行时间约300ms, 排队期限200ms的调用入队前即被拒绝
+        long start = System.nanoTime();
+        AdmissionController.Decision rejected = controller.admit("getOrder", null);
+
+        assertThat(rejected.reason()).isEqualTo(AdmissionController.REJECT_DEADLINE);
+        assertThat(System.nanoTime() - start).isLessThan(Duration.ofMillis(100).toNanos());
+        assertThat(rejected.retryAfterNanos()).isPositive();
+        running.permit().close();
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        AdmissionProperties properties = properties(1);
+        properties.getClasses().get("batch").setQueueCapacity(1);
+        AdmissionController controller = new AdmissionController(properties);
+        AdmissionController.Decision running = controller.admit("getOrder", null);
+        CompletableFuture<Void> queued = admitAsync(controller, "exportOrders", null, new CopyOnWriteArrayList<>());
+        awaitQueued(controller, 1);
+
+        assertThat(controller.admit("exportOrders", null).reason()).isEqualTo(AdmissionController.REJECT_QUEUE_FULL);
+
+        running.permit().close();
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldShedSheddableClassesWhileQueueingDelayStaysAboveTarget() throws Exception {
+        AdmissionController controller = new AdmissionController(properties(1));
+        AdmissionController.Decision running = controller.admit("getOrder", null);
+        CompletableFuture<AdmissionController.Decision> queued =
+            CompletableFuture.supplyAsync(() -> controller.admit("getOrder", null), executor);
+        awaitQueued(controller, 1);
+        Thread.sleep(50);
+        running.permit().close();
+        AdmissionController.Decision next = queued.get(5, TimeUnit.SECONDS);
+
+        assertThat(next.admitted()).isTrue();
+        assertThat(controller.isOverloaded()).isTrue();
+        assertThat(controller.admit("exportOrders", null).reason()).isEqualTo(AdmissionController.REJECT_OVERLOADED);
+        next.permit().close();
+
+        // 不再排队即判定恢复
+        AdmissionController.Decision recovered = controller.admit("exportOrders", null);
+        assertThat(recovered.admitted()).isTrue();
+        assertThat(controller.isOverloaded()).isFalse();
+        recovered.permit().close();
+    }
+
+    private CompletableFuture<Void> admitAsync(AdmissionController controller, String tool, String client, List<String> order) {
+        return CompletableFuture.runAsync(() -> {
+            AdmissionController.Decision decision = controller.admit(tool, client);
+            assertThat(decision.admitted()).isTrue();
+            order.add(tool);
+            decision.permit().close();
+        }, executor);
+    }
+
+    private static void awaitQueued(AdmissionController controller, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (controller.queued() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(controller.queued()).isEqualTo(expected);
+    }
+
+    private static AdmissionProperties properties(int maxConcurrent) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setMaxConcurrent(maxConcurrent);
+        properties.setTargetDelay(Duration.ofMillis(20));
+        properties.setInterval(Duration.ZERO);
+        properties.getClasses().get("interactive").setQueueTimeout(Duration.ofMillis(200));
+        properties.getClasses().get("batch").setQueueTimeout(Duration.ofSeconds(5));
+        AdmissionProperties.Rule rule = new AdmissionProperties.Rule();
+        rule.setTool("export*");
+        rule.setPriorityClass("batch");
+        properties.getRules().add(rule);
+        return properties;
+    }
+}
@@ -0,0 +1,171 @@
+package org.apache.camel.examples.auth;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClientCredentialsProviderTest {
+
+    private HttpServer server;
+    private ScheduledExecutorService scheduler;
+    private final AtomicInteger issued = new AtomicInteger();
+    private final AtomicReference<String> lastAuthorization = new AtomicReference<>();
+    private final AtomicReference<String> lastForm = new AtomicReference<>();
+    private volatile int status = 200;
+    private volatile long expiresIn = 3600;
+    private volatile long delayMillis = 0;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/token", exchange -> {
+            lastAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            lastForm.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            sleep(delayMillis);
+            byte[] body = status == 200
+                ? ("{\"access_token\":\"token-" + issued.incrementAndGet() + "\",\"expires_in\":" + expiresIn + "}")
+                    .getBytes(StandardCharsets.UTF_8)
+                : "{\"error\":\"server_error\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void shouldCacheTokenUntilRefreshWindow() {
+        ClientCredentialsProvider provider = provider(Duration.ofSeconds(60), "orders.read");
+
+        Map<String, String> first = provider.credentials();
+        Map<String, String> second = provider.credentials();
+
+        assertThat(first).containsEntry("Authorization", "Bearer token-1");
+        assertThat(second).isEqualTo(first);
+        assertThat(issued.get()).isEqualTo(1);
+        assertThat(lastForm.get()).isEqualTo("grant_type=client_credentials&scope=orders.read");
+        assertThat(lastAuthorization.get()).isEqualTo("Basic "
+            + Base64.getEncoder().encodeToString("client:secret".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldIssueSingleRequestForConcurrentCallers() throws Exception {
+        delayMillis = 200;
+        ClientCredentialsProvider provider = provider(Duration.ofSeconds(60), null);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Map<String, String>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return provider.credentials();
+                }));
+            }
+            start.countDown();
+            for (Future<Map<String, String>> result : results) {
+                assertThat(result.get()).containsEntry("Authorization", "Bearer token-1");
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(issued.get()).isEqualTo(1);
+        assertThat(lastForm.get()).isEqualTo("grant_type=client_credentials");
+    }
+
+    @Test
+    void shouldRefreshInBackgroundBeforeExpiry() throws Exception {
+        // 有效期2秒, 不足两倍refreshBefore, 在有效期过半时刷新
+        expiresIn = 2;
+        ClientCredentialsProvider provider = provider(Duration.ofSeconds(60), null);
+
+        assertThat(provider.credentials()).containsEntry("Authorization", "Bearer token-1");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (issued.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        // 等待刷新结果写入缓存
+        Thread.sleep(200);
+
+        assertThat(issued.get()).isGreaterThanOrEqualTo(2);
+        assertThat(provider.credentials().get("Authorization")).isNotEqualTo("Bearer token-1");
+    }
+
+    @Test
+    void shouldFetchNewTokenAfterInvalidate() {
+        ClientCredentialsProvider provider = provider(Duration.ofSeconds(60), null);
+        Map<String, String> rejected = provider.credentials();
+
+        provider.invalidate(rejected);
+        Map<String, String> renewed = provider.credentials();
+        // 已被替换的令牌再次被拒绝时不会重复刷新
+        provider.invalidate(rejected);
+
+        assertThat(renewed).containsEntry("Authorization", "Bearer token-2");
+        assertThat(provider.credentials()).isEqualTo(renewed);
+        assertThat(issued.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFailWhenTokenEndpointReturnsError() {
+        status = 500;
+        ClientCredentialsProvider provider = provider(Duration.ofSeconds(60), null);
+
+        assertThatThrownBy(provider::credentials)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("获取访问令牌失败");
+
+        status = 200;
+        assertThat(provider.credentials()).containsEntry("Authorization", "Bearer token-1");
+    }
+
+    private ClientCredentialsProvider provider(Duration refreshBefore, String scope) {
+        URI tokenUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/token");
+        return new ClientCredentialsProvider(tokenUri, "client", "secret", scope, refreshBefore,
+            Duration.ofSeconds(5), HttpClient.newHttpClient(), scheduler);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.apache.camel.examples.auth;
+
+import org.apache.camel.examples.config.CredentialProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CredentialManagerTest {
+
+    private CredentialManager credentialManager;
+
+    @BeforeEach
+    void setUp() {
+        CredentialProperties properties = new CredentialProperties();
+        CredentialProperties.Upstream apiKey = new CredentialProperties.Upstream();
+        apiKey.setType(CredentialProperties.Type.STATIC);
+        apiKey.setHeader("X-Api-Key");
+        apiKey.setValue("key-1");
+        properties.getHosts().put("api.example.com", apiKey);
+
+        CredentialProperties.Upstream admin = new CredentialProperties.Upstream();
+        admin.setType(CredentialProperties.Type.STATIC);
+        admin.setValue("Bearer admin");
+        properties.getHosts().put("api.example.com:8443", admin);
+
+        credentialManager = new CredentialManager(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        credentialManager.shutdown();
+    }
+
+    @Test
+    void shouldPreferHostAndPortOverHost() {
+        assertThat(credentialManager.find("https://api.example.com:8443/orders"))
+            .map(CredentialProvider::credentials)
+            .contains(Map.of("Authorization", "Bearer admin"));
+        assertThat(credentialManager.find("https://API.example.com/orders?page=1"))
+            .map(CredentialProvider::credentials)
+            .contains(Map.of("X-Api-Key", "key-1"));
+    }
+
+    @Test
+    void shouldReturnEmptyForUnknownOrInvalidUrl() {
+        assertThat(credentialManager.find("https://other.example.com/orders")).isEmpty();
+        assertThat(credentialManager.find("not a url")).isEmpty();
+        assertThat(credentialManager.find(null)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectClientCredentialsWithoutTokenUri() {
+        CredentialProperties properties = new CredentialProperties();
+        properties.getHosts().put("api.example.com", new CredentialProperties.Upstream());
+
+        assertThatThrownBy(() -> new CredentialManager(properties))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("token-uri");
+    }
+}
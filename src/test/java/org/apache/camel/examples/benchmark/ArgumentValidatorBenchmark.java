@@ -0,0 +1,93 @@
+package org.apache.camel.examples.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.camel.examples.service.JsonSchemaGenerator;
+import org.apache.camel.examples.service.OpenApiParserService;
+import org.apache.camel.examples.validation.ArgumentValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 入参校验的单次开销, 与同机回环上最便宜的一次上游HTTP调用对比
+ * mvn -Pbenchmark -DskipTests verify -Djmh.include=ArgumentValidatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArgumentValidatorBenchmark {
+
+    private ArgumentValidator validator;
+    private Map<String, Object> arguments;
+    private HttpServer upstream;
+    private HttpClient httpClient;
+    private HttpRequest upstreamRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        String content = new ClassPathResource("path-var.json").getContentAsString(StandardCharsets.UTF_8);
+        OpenAPI openAPI = new OpenApiParserService().parseFromString(content);
+        Map.Entry<String, io.swagger.v3.oas.models.PathItem> path = openAPI.getPaths().entrySet().iterator().next();
+        validator = ArgumentValidator.compile(
+            JsonSchemaGenerator.generateForOpenApiOperation(path.getValue().getPost(), path.getKey()));
+        arguments = Map.of(
+            "instance", "paas-test-dump-log-0",
+            "end", "1755668477398",
+            "body", Map.of(
+                "projectId", "project-dc23000004",
+                "serviceName", "paas-test-dump-log",
+                "serviceVersion", "v20250718172350789",
+                "tags", List.of("a", "b")));
+
+        byte[] response = "{\"status\":0}".getBytes(StandardCharsets.UTF_8);
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        upstream.start();
+        httpClient = HttpClient.newHttpClient();
+        upstreamRequest = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + upstream.getAddress().getPort() + "/")).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Benchmark
+    public List<ArgumentValidator.Violation> validate() {
+        return validator.validate(arguments);
+    }
+
+    @Benchmark
+    public int loopbackUpstreamCall() throws Exception {
+        return httpClient.send(upstreamRequest, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+}
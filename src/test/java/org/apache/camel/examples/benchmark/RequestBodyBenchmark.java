@@ -0,0 +1,79 @@
+package org.apache.camel.examples.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.examples.encoding.JsonBodyWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求体序列化的耗时与分配, 需配合 -prof gc 查看 gc.alloc.rate.norm
+ * 对比: 原先的 toString()+trim() 再编码为字节, 先序列化为String再编码, 直接序列化为字节
+ * mvn -Pbenchmark -DskipTests verify -Djmh.include=RequestBodyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBodyBenchmark {
+
+    /**
+     * 请求体的近似JSON字节数: 1KB、100KB、5MB
+     */
+    @Param({"1024", "102400", "5242880"})
+    public int bodySize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Map<String, Object> body;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<Map<String, Object>> items = new ArrayList<>();
+        body = new LinkedHashMap<>();
+        body.put("projectId", "project-dc23000004");
+        body.put("items", items);
+        int i = 0;
+        while (objectMapper.writeValueAsBytes(body).length < bodySize) {
+            // 按批次追加, 避免大请求体在准备阶段反复整体序列化
+            for (int batch = Math.max(1, items.size() / 4); batch > 0; batch--, i++) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("id", i);
+                item.put("serviceName", "paas-test-dump-log-" + i);
+                item.put("enabled", i % 2 == 0);
+                items.add(item);
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] legacyToString() {
+        return body.toString().trim().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] jsonStringThenBytes() throws Exception {
+        return objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] directBytes() {
+        return JsonBodyWriter.write(body);
+    }
+}
@@ -0,0 +1,77 @@
+package org.apache.camel.examples.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.camel.examples.mapping.ResponseMapper;
+import org.apache.camel.examples.mapping.ResponseMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应映射的单次调用开销, 对比预编译映射与"每次调用重新编译"的解释执行方式
+ * mvn -Pbenchmark -DskipTests verify -Djmh.include=ResponseMapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMapperBenchmark {
+
+    @Param({"100", "10000"})
+    public int records;
+
+    private ResponseMapping mapping;
+    private ResponseMapper mapper;
+    private String body;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapping = new ResponseMapping();
+        mapping.setRoot("/data/items");
+        mapping.setFlatten(true);
+        mapping.setSelect(List.of("id", "owner.name", "status", "metrics.cpu"));
+        mapping.setRename(Map.of("owner.name", "负责人", "metrics.cpu", "cpu"));
+        mapping.setLookups(Map.of("status", Map.of("0", "正常", "1", "已停用")));
+        mapping.setConstants(Map.of("来源", "订单系统"));
+        mapper = ResponseMapper.compile(mapping);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode items = root.putObject("data").putArray("items");
+        for (int i = 0; i < records; i++) {
+            ObjectNode item = items.addObject();
+            item.put("id", i);
+            item.put("status", String.valueOf(i % 2));
+            item.put("description", "record description that should be trimmed " + i);
+            item.putObject("owner").put("name", "owner-" + i).put("email", "owner-" + i + "@example.com");
+            item.putObject("metrics").put("cpu", i * 0.5).put("memory", i * 1024);
+        }
+        body = objectMapper.writeValueAsString(root);
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return mapper.map(body);
+    }
+
+    @Benchmark
+    public String compilePerCall() {
+        return ResponseMapper.compile(mapping).map(body);
+    }
+}
@@ -0,0 +1,115 @@
+package org.apache.camel.examples.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.camel.CamelContext;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.examples.domain.HttpRequestBean;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.apache.camel.examples.domain.ToolOptions;
+import org.apache.camel.examples.fastpath.DirectHttpExecutor;
+import org.apache.camel.examples.route.HttpRequestRoute;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单次工具调用经Camel路由与直连快速路径的开销对比
+ * <ul>
+ *     <li>camelRoute/fastPath: 请求同机回环上的上游, 包含一次真实HTTP往返</li>
+ *     <li>camelRouteInProcess/fastPathInProcess: 上游由进程内空端点应答, 只剩调用路径本身的开销</li>
+ * </ul>
+ * 需配合 -prof gc 查看每次调用的分配
+ * mvn -Pbenchmark -DskipTests verify -Djmh.include=ToolCallPathBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolCallPathBenchmark {
+
+    private static final String RESPONSE = "{\"id\":\"o-1\",\"status\":\"PAID\",\"amount\":42}";
+
+    private final ToolOptions options = ToolOptions.builder().toolName("getOrder").build();
+    private HttpServer upstream;
+    private String url;
+    private CamelContext camelContext;
+    private ProducerTemplate producerTemplate;
+    private DirectHttpExecutor directHttpExecutor;
+
+    @Setup
+    public void setUp() throws Exception {
+        byte[] response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        upstream.start();
+        url = "http://127.0.0.1:" + upstream.getAddress().getPort() + "/orders/o-1";
+
+        camelContext = new DefaultCamelContext();
+        camelContext.addRoutes(new HttpRequestRoute());
+        camelContext.start();
+        producerTemplate = camelContext.createProducerTemplate();
+
+        directHttpExecutor = new DirectHttpExecutor();
+        directHttpExecutor.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        directHttpExecutor.shutdown();
+        camelContext.stop();
+        upstream.stop(0);
+    }
+
+    @Benchmark
+    public HttpResponseBean camelRoute() {
+        return producerTemplate.requestBody("direct:httpRequest", request(null), HttpResponseBean.class);
+    }
+
+    @Benchmark
+    public HttpResponseBean fastPath() {
+        return directHttpExecutor.execute(request(null));
+    }
+
+    @Benchmark
+    public HttpResponseBean camelRouteInProcess() {
+        return producerTemplate.requestBody("direct:httpRequest", request(RESPONSE), HttpResponseBean.class);
+    }
+
+    @Benchmark
+    public HttpResponseBean fastPathInProcess() {
+        return directHttpExecutor.execute(request(RESPONSE));
+    }
+
+    private HttpRequestBean request(String inProcessResponse) {
+        Map<String, String> query = new HashMap<>();
+        query.put("expand", "items");
+        HttpRequestBean request = new HttpRequestBean("GET", url, new HashMap<>(Map.of("Accept", "application/json")), null, query,
+            options, null);
+        request.setWarmupResponse(inProcessResponse);
+        return request;
+    }
+}
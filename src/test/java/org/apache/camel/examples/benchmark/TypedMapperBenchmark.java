@@ -0,0 +1,77 @@
+package org.apache.camel.examples.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.camel.examples.codegen.orders.ListOrdersMapper;
+import org.apache.camel.examples.codegen.orders.ListOrdersResponseItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读取上游响应的开销, 对比编译期生成的流式映射与通用Map/JSON树绑定
+ * 生成类来自TypedMapperGeneratorTest上声明的typed-orders.yaml
+ * mvn -Pbenchmark -DskipTests verify -Djmh.include=TypedMapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypedMapperBenchmark {
+
+    private static final TypeReference<List<Map<String, Object>>> LIST_OF_MAPS = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000"})
+    public int records;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String body;
+
+    @Setup
+    public void setUp() throws Exception {
+        ArrayNode orders = objectMapper.createArrayNode();
+        for (int i = 0; i < records; i++) {
+            ObjectNode order = orders.addObject();
+            order.put("id", i);
+            order.put("amount", i * 1.5);
+            order.put("paid", i % 2 == 0);
+            order.putArray("tags").add("tag-" + (i % 7)).add("vip");
+            order.putObject("owner").put("name", "owner-" + i);
+            order.putObject("extra").put("note", "n" + i);
+        }
+        body = objectMapper.writeValueAsString(orders);
+    }
+
+    @Benchmark
+    public List<ListOrdersResponseItem> generatedMapper() throws Exception {
+        return ListOrdersMapper.readResponse(body);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> genericMaps() throws Exception {
+        return objectMapper.readValue(body, LIST_OF_MAPS);
+    }
+
+    @Benchmark
+    public JsonNode jsonTree() throws Exception {
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,130 @@
+package org.apache.camel.examples.chunking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.examples.config.ResultChunkProperties;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultChunkerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong now = new AtomicLong();
+
+    private final ResultChunkProperties properties = properties();
+    private final ResultStore store = new ResultStore(Duration.ofMinutes(1).toNanos(), 64 * 1024, now::get);
+    private final ResultChunker chunker = new ResultChunker(properties, store);
+
+    @Test
+    void shouldReturnSmallResultsUnchanged() {
+        HttpResponseBean response = response("{\"id\":1}");
+
+        assertThat(chunker.chunk("getOrder", response)).isSameAs(response);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void shouldSplitJsonArraysIntoValidItemChunks() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            body.append(i == 0 ? "" : ", ").append("{\"id\":").append(i).append(",\"name\":\"条目").append(i).append("\"}");
+        }
+        body.append(']');
+
+        HttpResponseBean first = chunker.chunk("listItems", response(body.toString()));
+
+        assertThat(first.getStatusCode()).isEqualTo(200);
+        assertThat(first.getHeaders()).containsEntry("Content-Type", "application/json");
+        assertThat((String) first.getHeaders().get(ResultChunker.RANGE_HEADER)).startsWith("items 0-").endsWith("/200");
+        List<JsonNode> items = new ArrayList<>();
+        HttpResponseBean chunk = first;
+        while (true) {
+            JsonNode page = objectMapper.readTree(chunk.getBody());
+            assertThat(page.isArray()).isTrue();
+            assertThat(chunk.getBody().getBytes(java.nio.charset.StandardCharsets.UTF_8).length).isLessThanOrEqualTo(256 + 2);
+            page.forEach(items::add);
+            Object cursor = chunk.getHeaders().get(ResultChunker.CURSOR_HEADER);
+            if (cursor == null) {
+                break;
+            }
+            chunk = chunker.readResultChunk(cursor.toString(), null, null);
+        }
+        assertThat(items).hasSize(200);
+        assertThat(items.get(199).get("name").asText()).isEqualTo("条目199");
+
+        String cursor = first.getHeaders().get(ResultChunker.CURSOR_HEADER).toString();
+        HttpResponseBean range = chunker.readResultChunk(cursor, 10, 3);
+        assertThat(objectMapper.readTree(range.getBody())).extracting(node -> node.get("id").asInt()).containsExactly(10, 11, 12);
+        assertThat(range.getHeaders()).containsEntry(ResultChunker.RANGE_HEADER, "items 10-12/200");
+    }
+
+    @Test
+    void shouldSplitTextOnCharacterBoundaries() {
+        String text = "超大的非JSON结果, 按字节切分但不切开多字节字符. ".repeat(40);
+
+        HttpResponseBean chunk = chunker.chunk("getReport", response(text));
+        StringBuilder restored = new StringBuilder();
+        while (true) {
+            restored.append(chunk.getBody());
+            Object cursor = chunk.getHeaders().get(ResultChunker.CURSOR_HEADER);
+            if (cursor == null) {
+                break;
+            }
+            chunk = chunker.readResultChunk(cursor.toString(), null, null);
+        }
+
+        assertThat(restored.toString()).isEqualTo(text);
+    }
+
+    @Test
+    void shouldExpireResultsAfterTtl() {
+        HttpResponseBean first = chunker.chunk("getReport", response("x".repeat(4096)));
+        String cursor = first.getHeaders().get(ResultChunker.CURSOR_HEADER).toString();
+
+        assertThat(chunker.readResultChunk(cursor, null, null).getStatusCode()).isEqualTo(200);
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertThat(chunker.readResultChunk(cursor, null, null).getStatusCode()).isEqualTo(410);
+        assertThat(store.getStoredBytes()).isZero();
+    }
+
+    @Test
+    void shouldEvictOldestResultsWhenFull() {
+        HttpResponseBean oldest = chunker.chunk("getReport", response("a".repeat(40 * 1024)));
+        chunker.chunk("getReport", response("b".repeat(40 * 1024)));
+
+        String cursor = oldest.getHeaders().get(ResultChunker.CURSOR_HEADER).toString();
+        assertThat(chunker.readResultChunk(cursor, null, null).getStatusCode()).isEqualTo(410);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.getStoredBytes()).isEqualTo(40 * 1024);
+    }
+
+    @Test
+    void shouldRejectInvalidCursors() {
+        assertThat(chunker.readResultChunk("no-separator", null, null).getStatusCode()).isEqualTo(400);
+        assertThat(chunker.readResultChunk("unknown:0", null, null).getStatusCode()).isEqualTo(410);
+    }
+
+    private static HttpResponseBean response(String body) {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        return new HttpResponseBean(200, headers, body);
+    }
+
+    private static ResultChunkProperties properties() {
+        ResultChunkProperties properties = new ResultChunkProperties();
+        properties.setThreshold(DataSize.ofBytes(1024));
+        properties.setChunkSize(DataSize.ofBytes(256));
+        return properties;
+    }
+}
@@ -0,0 +1,99 @@
+package org.apache.camel.examples.codegen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.camel.examples.codegen.orders.CreateOrderMapper;
+import org.apache.camel.examples.codegen.orders.GetOrderMapper;
+import org.apache.camel.examples.codegen.orders.ListOrdersMapper;
+import org.apache.camel.examples.codegen.orders.ListOrdersRequest;
+import org.apache.camel.examples.codegen.orders.ListOrdersResponseItem;
+import org.apache.camel.examples.domain.HttpRequestBean;
+import org.apache.camel.examples.service.OpenApiParserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 类型化映射代码生成的测试, 本类上的注解在test-compile时生成org.apache.camel.examples.codegen.orders下的类
+ */
+@GenerateTypedMappers(spec = "typed-orders.yaml", packageName = "org.apache.camel.examples.codegen.orders")
+class TypedMapperGeneratorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldGenerateRecordsAndMapperPerOperation() throws Exception {
+        String content = new ClassPathResource("typed-orders.yaml").getContentAsString(StandardCharsets.UTF_8);
+        OpenAPI openAPI = new OpenApiParserService().parseFromString(content);
+
+        Map<String, String> sources = new TypedMapperGenerator("com.example").generate(openAPI);
+
+        assertThat(sources).containsKeys("ListOrdersMapper", "ListOrdersRequest", "ListOrdersResponseItem",
+            "ListOrdersResponseItemOwner", "CreateOrderBody", "GetOrderResponse");
+        assertThat(sources.get("ListOrdersMapper"))
+            .contains("public static List<ListOrdersResponseItem> readResponse(String json)")
+            .doesNotContain("ObjectMapper", "java.lang.reflect");
+    }
+
+    @Test
+    void shouldBuildHttpRequestFromToolArguments() {
+        ListOrdersRequest request = ListOrdersMapper.fromArguments(Map.of("status", "PAID", "limit", "20", "X-Tenant-Id", "t1"));
+
+        HttpRequestBean bean = ListOrdersMapper.toHttpRequest("http://orders.local", request);
+
+        assertThat(request.limit()).isEqualTo(20);
+        assertThat(bean.getMethod()).isEqualTo("GET");
+        assertThat(bean.getUrl()).isEqualTo("http://orders.local/orders");
+        assertThat(bean.getQueryParams()).containsExactlyInAnyOrderEntriesOf(Map.of("status", "PAID", "limit", "20"));
+        assertThat(bean.getHeaders()).containsExactlyEntriesOf(Map.of("X-Tenant-Id", "t1"));
+        assertThat(bean.getBody()).isNull();
+    }
+
+    @Test
+    void shouldExpandPathParameters() {
+        HttpRequestBean bean = GetOrderMapper.toHttpRequest("http://orders.local",
+            GetOrderMapper.fromArguments(Map.of("orderId", 42)));
+
+        assertThat(bean.getUrl()).isEqualTo("http://orders.local/orders/42");
+    }
+
+    @Test
+    void shouldWriteTypedRequestBody() throws Exception {
+        Map<String, Object> body = Map.of(
+            "id", 1,
+            "amount", 9.5,
+            "tags", List.of("a", "b"),
+            "owner", Map.of("name", "张三"),
+            "extra", Map.of("k", 1));
+
+        HttpRequestBean bean = CreateOrderMapper.toHttpRequest("http://orders.local",
+            CreateOrderMapper.fromArguments(Map.of("body", body)));
+
+        assertThat(bean.getMethod()).isEqualTo("POST");
+        assertThat(objectMapper.readTree(bean.getBody())).isEqualTo(objectMapper.readTree(
+            "{\"id\":1,\"amount\":9.5,\"tags\":[\"a\",\"b\"],\"owner\":{\"name\":\"张三\"},\"extra\":{\"k\":1}}"));
+    }
+
+    @Test
+    void shouldReadResponseWithoutBindingThroughMaps() throws Exception {
+        List<ListOrdersResponseItem> orders = ListOrdersMapper.readResponse(
+            "[{\"id\":1,\"amount\":9.5,\"paid\":true,\"tags\":[\"a\"],\"owner\":{\"name\":\"n\"},"
+                + "\"extra\":{\"x\":[1,2]},\"unknown\":{\"deep\":1}},{\"id\":\"2\",\"paid\":null}]");
+
+        assertThat(orders).hasSize(2);
+        ListOrdersResponseItem first = orders.get(0);
+        assertThat(first.id()).isEqualTo(1L);
+        assertThat(first.amount()).isEqualTo(9.5);
+        assertThat(first.paid()).isTrue();
+        assertThat(first.tags()).containsExactly("a");
+        assertThat(first.owner().name()).isEqualTo("n");
+        assertThat(first.extra()).isEqualTo("{\"x\":[1,2]}");
+        assertThat(orders.get(1).id()).isEqualTo(2L);
+        assertThat(orders.get(1).paid()).isNull();
+    }
+}
@@ -0,0 +1,95 @@
+package org.apache.camel.examples.connection;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingDnsResolverTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private volatile String address = "10.0.0.1";
+    private volatile boolean failing;
+
+    private final DnsResolver delegate = new DnsResolver() {
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            lookups.incrementAndGet();
+            if (failing) {
+                throw new UnknownHostException(host);
+            }
+            return new InetAddress[] {InetAddress.getByName(address)};
+        }
+
+        @Override
+        public String resolveCanonicalHostname(String host) {
+            return host;
+        }
+    };
+
+    private final CachingDnsResolver resolver = new CachingDnsResolver(delegate,
+        Duration.ofSeconds(30), Duration.ofMinutes(5), now::get);
+
+    @Test
+    void shouldCacheWithinTtl() throws Exception {
+        resolver.resolve("api.internal");
+        now.addAndGet(29 * SECOND);
+        InetAddress[] addresses = resolver.resolve("API.internal");
+
+        assertThat(lookups).hasValue(1);
+        assertThat(addresses[0].getHostAddress()).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void shouldResolveAgainAfterTtl() throws Exception {
+        resolver.resolve("api.internal");
+        address = "10.0.0.2";
+        now.addAndGet(31 * SECOND);
+
+        assertThat(resolver.resolve("api.internal")[0].getHostAddress()).isEqualTo("10.0.0.2");
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    void shouldRefreshInBackgroundBeforeExpiry() throws Exception {
+        resolver.resolve("api.internal");
+        address = "10.0.0.2";
+        now.addAndGet(16 * SECOND);
+        resolver.refresh();
+        now.addAndGet(20 * SECOND);
+
+        assertThat(resolver.resolve("api.internal")[0].getHostAddress()).isEqualTo("10.0.0.2");
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    void shouldServeStaleAddressesWhenResolutionFails() throws Exception {
+        resolver.resolve("api.internal");
+        failing = true;
+        now.addAndGet(60 * SECOND);
+
+        assertThat(resolver.resolve("api.internal")[0].getHostAddress()).isEqualTo("10.0.0.1");
+
+        now.addAndGet(5 * 60 * SECOND);
+        assertThatThrownBy(() -> resolver.resolve("api.internal")).isInstanceOf(UnknownHostException.class);
+    }
+
+    @Test
+    void shouldDropHostsNotUsedForLong() throws Exception {
+        resolver.resolve("api.internal");
+        now.addAndGet(301 * SECOND);
+        resolver.refresh();
+
+        assertThat(resolver.size()).isZero();
+    }
+}
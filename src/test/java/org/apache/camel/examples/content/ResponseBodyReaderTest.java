@@ -0,0 +1,95 @@
+package org.apache.camel.examples.content;
+
+import org.apache.camel.examples.config.ContentProperties;
+import org.apache.camel.examples.domain.BinaryContent;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBodyReaderTest {
+
+    private final ContentProperties properties = new ContentProperties();
+    private final ResponseBodyReader reader = new ResponseBodyReader(properties);
+
+    @Test
+    void shouldDecodeTextWithDeclaredCharset() throws Exception {
+        String text = "订单: 已发货";
+
+        HttpResponseBean gbk = read("text/plain; charset=\"GBK\"", text.getBytes(Charset.forName("GBK")));
+        HttpResponseBean json = read("application/problem+json", text.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(gbk.getBody()).isEqualTo(text);
+        assertThat(gbk.getContent()).isNull();
+        assertThat(json.getBody()).isEqualTo(text);
+        assertThat(json.getContent()).isNull();
+    }
+
+    @Test
+    void shouldEncodeBinaryBodiesAsBase64WithoutDecoding() throws Exception {
+        byte[] png = new byte[100_001];
+        new Random(7).nextBytes(png);
+
+        HttpResponseBean response = read("image/png", png);
+
+        BinaryContent content = response.getContent();
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(content.mimeType()).isEqualTo("image/png");
+        assertThat(content.isImage()).isTrue();
+        assertThat(content.size()).isEqualTo(png.length);
+        assertThat(Base64.getDecoder().decode(content.data())).isEqualTo(png);
+        assertThat(response.getBody()).contains("\"size\":100001");
+    }
+
+    @Test
+    void shouldApplySizeLimitsByMediaType() throws Exception {
+        properties.getMaxSizes().put("image/*", DataSize.ofBytes(1000));
+        properties.getMaxSizes().put("image/svg+xml", DataSize.ofBytes(10));
+        properties.setTextMaxSize(DataSize.ofBytes(20));
+
+        assertThat(read("image/png", new byte[1000]).getContent()).isNotNull();
+        assertThat(read("image/png", new byte[1001]).getStatusCode()).isEqualTo(ResponseBodyReader.TOO_LARGE_STATUS);
+        assertThat(read("image/svg+xml", new byte[11]).getStatusCode()).isEqualTo(ResponseBodyReader.TOO_LARGE_STATUS);
+        assertThat(read("application/pdf", new byte[5000]).getContent()).isNotNull();
+        assertThat(read("application/json", new byte[21]).getStatusCode()).isEqualTo(ResponseBodyReader.TOO_LARGE_STATUS);
+        assertThat(read(null, "{}".getBytes(StandardCharsets.UTF_8)).getBody()).isEqualTo("{}");
+    }
+
+    @Test
+    void shouldHandOutAttachmentsOnceWithinTtl() {
+        AtomicLong now = new AtomicLong();
+        properties.setAttachmentTtl(Duration.ofSeconds(1));
+        ContentAttachments attachments = new ContentAttachments(properties, now::get);
+        BinaryContent content = new BinaryContent("application/pdf", "JVBERi0=", 5);
+
+        String id = attachments.attach(content, "https://api.internal/reports/1");
+        String text = "{\"statusCode\":200,\"headers\":{\"" + ContentAttachments.HEADER + "\":\"" + id + "\"}}";
+        List<ContentAttachments.Attachment> taken = attachments.take(text);
+
+        assertThat(taken).singleElement().satisfies(attachment -> {
+            assertThat(attachment.content()).isSameAs(content);
+            assertThat(attachment.uri()).isEqualTo("https://api.internal/reports/1");
+        });
+        assertThat(attachments.take(text)).isEmpty();
+
+        String expired = attachments.attach(content, "https://api.internal/reports/2");
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(attachments.take("{\"" + ContentAttachments.HEADER + "\": \"" + expired + "\"}")).isEmpty();
+        assertThat(attachments.size()).isZero();
+    }
+
+    private HttpResponseBean read(String contentType, byte[] body) throws Exception {
+        return reader.read(200, new HashMap<>(), contentType, new ByteArrayInputStream(body), -1);
+    }
+}
@@ -0,0 +1,138 @@
+package org.apache.camel.examples.deadline;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CallDeadlineTest {
+
+    private static final TimeoutPolicy DEFAULTS = TimeoutPolicy.of(Duration.ofSeconds(30), Duration.ofSeconds(60));
+
+    @Test
+    void shouldRunAbortHooksOnceAndIgnoreLaterOutcomes() {
+        CallDeadline deadline = CallDeadline.start(DEFAULTS);
+        List<String> aborted = new CopyOnWriteArrayList<>();
+        deadline.onAbort(() -> aborted.add("connection"));
+        deadline.onAbort(() -> aborted.add("page"));
+
+        assertThat(deadline.abort(CallDeadline.Outcome.TIMED_OUT)).isTrue();
+        assertThat(deadline.abort(CallDeadline.Outcome.CANCELLED)).isFalse();
+        assertThat(deadline.complete()).isFalse();
+
+        assertThat(aborted).containsExactly("connection", "page");
+        assertThat(deadline.getOutcome()).isEqualTo(CallDeadline.Outcome.TIMED_OUT);
+        assertThat(deadline.isAborted()).isTrue();
+    }
+
+    @Test
+    void shouldRunHookImmediatelyWhenAlreadyAborted() {
+        CallDeadline deadline = CallDeadline.start(DEFAULTS);
+        deadline.abort(CallDeadline.Outcome.CANCELLED);
+        List<String> aborted = new CopyOnWriteArrayList<>();
+
+        deadline.onAbort(() -> aborted.add("late"));
+
+        assertThat(aborted).containsExactly("late");
+    }
+
+    @Test
+    void shouldNotRunHooksAfterCompletion() {
+        CallDeadline deadline = CallDeadline.start(DEFAULTS);
+        List<String> aborted = new CopyOnWriteArrayList<>();
+        deadline.onAbort(() -> aborted.add("connection"));
+
+        assertThat(deadline.complete()).isTrue();
+        assertThat(deadline.abort(CallDeadline.Outcome.TIMED_OUT)).isFalse();
+        deadline.onAbort(() -> aborted.add("late"));
+
+        assertThat(aborted).isEmpty();
+        assertThat(deadline.isAborted()).isFalse();
+    }
+
+    @Test
+    void shouldAbortBlockedUpstreamRead() throws Exception {
+        CallDeadline deadline = CallDeadline.start(DEFAULTS);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/slow", exchange -> {
+            // 请求已发出, 客户端阻塞在读取响应上时中止调用
+            deadline.abort(CallDeadline.Outcome.TIMED_OUT);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        upstream.start();
+        // 与路由和直连快速路径一致, 重试不由HTTP客户端执行
+        HttpClientBuilder builder = HttpClients.custom().disableAutomaticRetries();
+        new DeadlineHttpClientConfigurer().configureHttpClient(builder);
+
+        long start = System.nanoTime();
+        try (CloseableHttpClient client = builder.build()) {
+            CallDeadline.bind(deadline);
+            String url = "http://127.0.0.1:" + upstream.getAddress().getPort() + "/slow";
+            assertThatThrownBy(() -> client.execute(new HttpGet(url), response -> response.getCode()))
+                .isInstanceOf(IOException.class);
+        } finally {
+            CallDeadline.bind(null);
+            release.countDown();
+            upstream.stop(0);
+        }
+        // 中止时关闭连接, 阻塞在读取上的请求随即返回, 不等上游响应
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(5);
+    }
+
+    @Test
+    void shouldTrackRemainingTime() throws InterruptedException {
+        CallDeadline deadline = CallDeadline.start(TimeoutPolicy.of(Duration.ofMillis(50), Duration.ofMillis(100)));
+
+        assertThat(deadline.remainingMillis()).isBetween(1L, 100L);
+        Thread.sleep(150);
+        assertThat(deadline.remainingNanos()).isZero();
+    }
+
+    @Test
+    void shouldMergeTimeoutExtension() {
+        assertThat(TimeoutPolicy.fromExtensions(null, DEFAULTS)).isSameAs(DEFAULTS);
+
+        TimeoutPolicy totalOnly = TimeoutPolicy.fromExtensions(Map.of(TimeoutPolicy.EXTENSION, "10s"), DEFAULTS);
+        // 读取超时不超过总时长
+        assertThat(totalOnly.getRead()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(totalOnly.getTotal()).isEqualTo(Duration.ofSeconds(10));
+
+        TimeoutPolicy detailed = TimeoutPolicy.fromExtensions(Map.of(TimeoutPolicy.EXTENSION,
+            Map.of("connect", 500, "read", "2s")), DEFAULTS);
+        // connect由连接池按主机配置, 忽略
+        assertThat(detailed.toString()).doesNotContain("connect");
+        assertThat(detailed.getRead()).isEqualTo(Duration.ofSeconds(2));
+        assertThat(detailed.getTotal()).isEqualTo(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void shouldRejectInvalidTimeoutExtension() {
+        assertThatThrownBy(() -> TimeoutPolicy.fromExtensions(Map.of(TimeoutPolicy.EXTENSION, "soon"), DEFAULTS))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("x-timeout配置不合法");
+        assertThatThrownBy(() -> TimeoutPolicy.fromExtensions(Map.of(TimeoutPolicy.EXTENSION, Map.of("total", 0)), DEFAULTS))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("total");
+    }
+}
@@ -0,0 +1,37 @@
+package org.apache.camel.examples.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonBodyWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldSerializeObjectsAsJsonBytes() throws Exception {
+        byte[] bytes = JsonBodyWriter.write(Map.of("name", "张三", "tags", List.of(1, 2)));
+
+        assertThat(objectMapper.readTree(bytes)).isEqualTo(objectMapper.readTree("{\"name\":\"张三\",\"tags\":[1,2]}"));
+    }
+
+    @Test
+    void shouldSendStringBodiesVerbatim() {
+        String body = "  {\"a\": 1}\n";
+
+        assertThat(JsonBodyWriter.write(body)).isEqualTo(body.getBytes(StandardCharsets.UTF_8));
+        assertThat(JsonBodyWriter.write("  \n")).isNull();
+        assertThat(JsonBodyWriter.write(null)).isNull();
+    }
+
+    @Test
+    void shouldRejectBodiesThatCannotBeSerialized() {
+        assertThrows(IllegalArgumentException.class, () -> JsonBodyWriter.write(new Object()));
+    }
+}
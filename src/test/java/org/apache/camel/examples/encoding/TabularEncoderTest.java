@@ -0,0 +1,61 @@
+package org.apache.camel.examples.encoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TabularEncoderTest {
+
+    @Test
+    void shouldEncodeCsvWithEscapingAndMissingFields() {
+        String json = "[{\"id\":1,\"name\":\"a,b\",\"tags\":[\"x\"]},{\"id\":2,\"name\":null}]";
+
+        TabularEncoder.EncodedBody encoded = TabularEncoder.encode(json, ResponseEncoding.CSV).orElseThrow();
+
+        assertThat(encoded.body()).isEqualTo("id,name,tags\n1,\"a,b\",\"[\"\"x\"\"]\"\n2,,");
+    }
+
+    @Test
+    void shouldEncodeTsvEscapingControlCharacters() {
+        String json = "[{\"a\":\"x\\ty\",\"b\":1}]";
+
+        TabularEncoder.EncodedBody encoded = TabularEncoder.encode(json, ResponseEncoding.TSV).orElseThrow();
+
+        assertThat(encoded.body()).isEqualTo("a\tb\nx\\ty\t1");
+    }
+
+    @Test
+    void shouldEncodeToonWithLengthHeaderAndQuotedLiterals() {
+        String json = "[{\"id\":1,\"name\":\"Alice\",\"active\":true},{\"id\":2,\"name\":\"true\",\"active\":false}]";
+
+        TabularEncoder.EncodedBody encoded = TabularEncoder.encode(json, ResponseEncoding.TOON).orElseThrow();
+
+        assertThat(encoded.body()).isEqualTo("[2]{id,name,active}:\n  1,Alice,true\n  2,\"true\",false");
+    }
+
+    @Test
+    void shouldFallBackForNonTabularBodies() {
+        assertThat(TabularEncoder.encode("{\"a\":1}", ResponseEncoding.CSV)).isEmpty();
+        assertThat(TabularEncoder.encode("[1,2]", ResponseEncoding.CSV)).isEmpty();
+        assertThat(TabularEncoder.encode("[]", ResponseEncoding.CSV)).isEmpty();
+        assertThat(TabularEncoder.encode("[{\"a\":1},{\"b\":2}]", ResponseEncoding.CSV)).isEmpty();
+        assertThat(TabularEncoder.encode("not json", ResponseEncoding.CSV)).isEmpty();
+        assertThat(TabularEncoder.encode("[{\"a\":1}]", ResponseEncoding.JSON)).isEmpty();
+    }
+
+    @Test
+    void shouldReportBytesAndTokensSaved() {
+        String json = IntStream.range(0, 100)
+            .mapToObj(i -> "{\"orderId\":" + i + ",\"customerName\":\"customer-" + i + "\",\"status\":\"PAID\"}")
+            .collect(Collectors.joining(",", "[", "]"));
+
+        TabularEncoder.EncodedBody encoded = TabularEncoder.encode(json, ResponseEncoding.TOON).orElseThrow();
+
+        assertThat(encoded.originalBytes()).isEqualTo(json.length());
+        assertThat(encoded.savedBytes()).isGreaterThan(json.length() / 2);
+        assertThat(encoded.savedTokens()).isPositive();
+    }
+}
@@ -0,0 +1,121 @@
+package org.apache.camel.examples.fastpath;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.camel.examples.domain.HttpRequestBean;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.apache.camel.examples.domain.ToolOptions;
+import org.apache.camel.examples.encoding.ResponseEncoding;
+import org.apache.camel.examples.retry.RetryPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DirectHttpExecutorTest {
+
+    private HttpServer upstream;
+    private String baseUrl;
+    private final DirectHttpExecutor executor = new DirectHttpExecutor();
+    private final AtomicReference<String> lastQuery = new AtomicReference<>();
+    private final AtomicReference<String> lastHeader = new AtomicReference<>();
+    private final AtomicReference<String> lastBody = new AtomicReference<>();
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/orders", exchange -> {
+            lastQuery.set(exchange.getRequestURI().getRawQuery());
+            lastHeader.set(exchange.getRequestHeaders().getFirst("X-Trace"));
+            lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            respond(exchange, 200, "[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\"}]");
+        });
+        upstream.createContext("/flaky", exchange -> {
+            if (flakyCalls.incrementAndGet() == 1) {
+                respond(exchange, 503, "busy");
+            } else {
+                respond(exchange, 200, "{\"ok\":true}");
+            }
+        });
+        upstream.start();
+        baseUrl = "http://127.0.0.1:" + upstream.getAddress().getPort();
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        executor.shutdown();
+        upstream.stop(0);
+    }
+
+    @Test
+    void shouldSendRequestWithoutCamelRoute() {
+        Map<String, String> query = new HashMap<>();
+        query.put("q", "a b&c");
+        HttpRequestBean request = new HttpRequestBean("POST", baseUrl + "/orders", Map.of("X-Trace", "t-1"), null, query,
+            ToolOptions.builder().toolName("listOrders").build(), "{\"x\":1}".getBytes(StandardCharsets.UTF_8));
+
+        HttpResponseBean response = executor.execute(request);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getBody()).startsWith("[{\"id\":1");
+        assertThat(response.getHeaders()).containsValue("application/json");
+        assertThat(lastQuery.get()).isEqualTo("q=a+b%26c");
+        assertThat(lastHeader.get()).isEqualTo("t-1");
+        assertThat(lastBody.get()).isEqualTo("{\"x\":1}");
+    }
+
+    @Test
+    void shouldEncodeResponseLikeTheRoute() {
+        HttpRequestBean request = new HttpRequestBean("GET", baseUrl + "/orders", new HashMap<>(), null, new HashMap<>(),
+            ToolOptions.builder().toolName("listOrders").encoding(ResponseEncoding.CSV).build(), null);
+
+        HttpResponseBean response = executor.execute(request);
+
+        assertThat(response.getBody()).isEqualTo("id,name\n1,a\n2,b");
+        assertThat(response.getHeaders()).containsEntry("Content-Type", ResponseEncoding.CSV.getMediaType());
+    }
+
+    @Test
+    void shouldRetryTransientFailures() {
+        RetryPolicy retry = RetryPolicy.of(3, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(1), Set.of(503));
+        HttpRequestBean request = new HttpRequestBean("GET", baseUrl + "/flaky", new HashMap<>(), null, new HashMap<>(),
+            ToolOptions.builder().toolName("flaky").retry(retry).build(), null);
+
+        HttpResponseBean response = executor.execute(request);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(flakyCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldAnswerWarmupCallsInProcess() {
+        HttpRequestBean request = new HttpRequestBean("GET", "http://unreachable.invalid/orders", new HashMap<>(), null, new HashMap<>(),
+            ToolOptions.builder().toolName("listOrders").build(), null);
+        request.setWarmupResponse("{\"id\":1}");
+
+        assertThat(executor.execute(request).getBody()).isEqualTo("{\"id\":1}");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.apache.camel.examples.loadbalance;
+
+import org.apache.camel.examples.config.LoadBalanceProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerPoolTest {
+
+    @Test
+    void shouldPreferLowerLatencyServer() {
+        ServerPool pool = new ServerPool(List.of("http://a", "http://b"), new LoadBalanceProperties());
+        UpstreamServer a = pool.getServers().get(0);
+        UpstreamServer b = pool.getServers().get(1);
+        pool.record(begin(a), 5_000_000, true);
+        pool.record(begin(b), 50_000_000, true);
+
+        Map<String, Integer> selected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            selected.merge(pool.select(System.nanoTime()).getBaseUrl(), 1, Integer::sum);
+        }
+
+        assertThat(selected).containsOnlyKeys("http://a");
+    }
+
+    @Test
+    void shouldShareServersAcrossPools() {
+        ServerPools pools = new ServerPools(new LoadBalanceProperties());
+        ServerPool orders = pools.pool(List.of("http://a", "http://b"));
+        ServerPool reports = pools.pool(List.of("http://b", "http://c"));
+
+        assertThat(reports.getServers().get(0)).isSameAs(orders.getServers().get(1));
+        orders.getServers().get(1).setHealthy(false);
+        assertThat(reports.getServers().get(0).isHealthy()).isFalse();
+    }
+
+    @Test
+    void shouldPreferServerWithFewerInflightRequests() {
+        ServerPool pool = new ServerPool(List.of("http://a", "http://b"), new LoadBalanceProperties());
+        UpstreamServer a = pool.getServers().get(0);
+        UpstreamServer b = pool.getServers().get(1);
+        pool.record(begin(a), 10_000_000, true);
+        pool.record(begin(b), 10_000_000, true);
+        for (int i = 0; i < 5; i++) {
+            a.begin();
+        }
+
+        assertThat(pool.select(System.nanoTime())).isSameAs(b);
+    }
+
+    @Test
+    void shouldEjectServerAfterConsecutiveFailuresAndRestoreAfterEjectionTime() {
+        LoadBalanceProperties properties = new LoadBalanceProperties();
+        properties.getOutlier().setConsecutiveFailures(3);
+        properties.getOutlier().setBaseEjectionTime(Duration.ofMillis(100));
+        ServerPool pool = new ServerPool(List.of("http://a", "http://b"), properties);
+        UpstreamServer a = pool.getServers().get(0);
+
+        for (int i = 0; i < 3; i++) {
+            pool.record(begin(a), 1_000_000, false);
+        }
+
+        long now = System.nanoTime();
+        assertThat(a.isEjected(now)).isTrue();
+        for (int i = 0; i < 100; i++) {
+            assertThat(pool.select(now).getBaseUrl()).isEqualTo("http://b");
+        }
+        assertThat(a.isAvailable(now + Duration.ofMillis(100).toNanos())).isTrue();
+    }
+
+    @Test
+    void shouldDoubleEjectionTimeOnRepeatedEjection() {
+        LoadBalanceProperties properties = new LoadBalanceProperties();
+        properties.getOutlier().setConsecutiveFailures(1);
+        properties.getOutlier().setBaseEjectionTime(Duration.ofSeconds(1));
+        ServerPool pool = new ServerPool(List.of("http://a", "http://b"), properties);
+        UpstreamServer a = pool.getServers().get(0);
+
+        pool.record(begin(a), 1_000_000, false);
+        pool.record(begin(a), 1_000_000, false);
+
+        long now = System.nanoTime();
+        assertThat(a.ejections()).isEqualTo(2);
+        assertThat(a.isEjected(now + Duration.ofMillis(1500).toNanos())).isTrue();
+        assertThat(a.isEjected(now + Duration.ofMillis(2100).toNanos())).isFalse();
+    }
+
+    @Test
+    void shouldNotEjectBeyondMaxEjectionPercent() {
+        LoadBalanceProperties properties = new LoadBalanceProperties();
+        properties.getOutlier().setConsecutiveFailures(1);
+        ServerPool pool = new ServerPool(List.of("http://a", "http://b"), properties);
+        UpstreamServer a = pool.getServers().get(0);
+        UpstreamServer b = pool.getServers().get(1);
+
+        pool.record(begin(a), 1_000_000, false);
+        pool.record(begin(b), 1_000_000, false);
+
+        long now = System.nanoTime();
+        assertThat(a.isEjected(now)).isTrue();
+        assertThat(b.isEjected(now)).isFalse();
+    }
+
+    @Test
+    void shouldStillSelectWhenNoServerIsAvailable() {
+        ServerPool pool = new ServerPool(List.of("http://a", "http://b"), new LoadBalanceProperties());
+        pool.getServers().forEach(server -> server.setHealthy(false));
+
+        assertThat(pool.select(System.nanoTime()).getBaseUrl()).isIn("http://a", "http://b");
+    }
+
+    private static UpstreamServer begin(UpstreamServer server) {
+        server.begin();
+        return server;
+    }
+}
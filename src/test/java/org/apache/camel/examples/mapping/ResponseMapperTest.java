@@ -0,0 +1,73 @@
+package org.apache.camel.examples.mapping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseMapperTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldSelectRenameAndInjectConstants() throws Exception {
+        ResponseMapping mapping = new ResponseMapping();
+        mapping.setSelect(List.of("id", "owner.name"));
+        mapping.setRename(Map.of("owner.name", "负责人"));
+        mapping.setConstants(Map.of("来源", "订单系统"));
+
+        String result = ResponseMapper.compile(mapping)
+            .map("{\"id\":1,\"secret\":\"x\",\"owner\":{\"name\":\"张三\",\"email\":\"a@b.c\"}}");
+
+        assertThat(objectMapper.readTree(result)).isEqualTo(objectMapper.readTree(
+            "{\"id\":1,\"负责人\":\"张三\",\"来源\":\"订单系统\"}"));
+    }
+
+    @Test
+    void shouldMapEachRecordUnderRoot() throws Exception {
+        ResponseMapping mapping = new ResponseMapping();
+        mapping.setRoot("/data/items");
+        mapping.setSelect(List.of("id", "status"));
+        mapping.setLookups(Map.of("status", Map.of("0", "正常", "1", "已停用")));
+
+        String result = ResponseMapper.compile(mapping)
+            .map("{\"data\":{\"items\":[{\"id\":1,\"status\":0,\"x\":1},{\"id\":2,\"status\":1},{\"id\":3,\"status\":9}]}}");
+
+        assertThat(objectMapper.readTree(result)).isEqualTo(objectMapper.readTree(
+            "[{\"id\":1,\"status\":\"正常\"},{\"id\":2,\"status\":\"已停用\"},{\"id\":3,\"status\":9}]"));
+    }
+
+    @Test
+    void shouldFlattenNestedObjects() throws Exception {
+        ResponseMapping mapping = new ResponseMapping();
+        mapping.setFlatten(true);
+        mapping.setFlattenSeparator("_");
+
+        JsonNode result = objectMapper.readTree(ResponseMapper.compile(mapping)
+            .map("{\"a\":{\"b\":{\"c\":1},\"d\":[1,2]},\"e\":\"f\"}"));
+
+        assertThat(result).isEqualTo(objectMapper.readTree("{\"a_b_c\":1,\"a_d\":[1,2],\"e\":\"f\"}"));
+    }
+
+    @Test
+    void shouldReturnNonJsonBodyUnchanged() {
+        ResponseMapper mapper = ResponseMapper.compile(new ResponseMapping());
+
+        assertThat(mapper.map("plain text")).isEqualTo("plain text");
+        assertThat(mapper.map("")).isEmpty();
+    }
+
+    @Test
+    void shouldBeReusableAcrossCalls() {
+        ResponseMapping mapping = new ResponseMapping();
+        mapping.setSelect(List.of("id"));
+        ResponseMapper mapper = ResponseMapper.compile(mapping);
+
+        assertThat(mapper.map("{\"id\":1,\"x\":2}")).isEqualTo("{\"id\":1}");
+        assertThat(mapper.map("{\"id\":2,\"x\":3}")).isEqualTo("{\"id\":2}");
+    }
+}
@@ -0,0 +1,189 @@
+package org.apache.camel.examples.pagination;
+
+import org.apache.camel.examples.domain.HttpRequestBean;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaginatorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final List<String> fetched = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldMergeOffsetPagesInOrderWithPrefetch() {
+        Paginator paginator = new Paginator(descriptor(Map.of("style", "offset", "prefetch", 3)), request -> {
+            int offset = Integer.parseInt(request.getQueryParams().get("offset"));
+            fetched.add(request.getQueryParams().get("offset"));
+            return ok(items(offset, 10, 35));
+        }, executor);
+
+        HttpResponseBean response = paginator.collect(request(Map.of("limit", "10")), ok(items(0, 10, 35)));
+
+        assertThat(response.getBody()).isEqualTo(items(0, 35, 35));
+        assertThat(response.getHeaders())
+            .containsEntry(Paginator.PAGES_HEADER, "4")
+            .containsEntry(Paginator.ITEMS_HEADER, "35")
+            .doesNotContainKey(Paginator.TRUNCATED_HEADER);
+        assertThat(fetched).contains("10", "20", "30");
+    }
+
+    @Test
+    void shouldStopAtTotalAndKeepEnvelope() {
+        Paginator paginator = new Paginator(descriptor(Map.of(
+            "style", "page", "limitParam", "per_page", "items", "/data", "total", "/meta/total", "prefetch", 8)), request -> {
+            int page = Integer.parseInt(request.getQueryParams().get("page"));
+            fetched.add(request.getQueryParams().get("page"));
+            return ok(envelope(items((page - 1) * 10, 10, 30), 30));
+        }, executor);
+
+        HttpResponseBean response = paginator.collect(request(Map.of("per_page", "10")), ok(envelope(items(0, 10, 30), 30)));
+
+        assertThat(response.getBody()).isEqualTo(envelope(items(0, 30, 30), 30));
+        assertThat(fetched).containsExactlyInAnyOrder("2", "3");
+    }
+
+    @Test
+    void shouldTruncateAtMaxItemsAndReportNextOffset() {
+        Paginator paginator = new Paginator(descriptor(Map.of("style", "offset", "maxItems", 25)), request -> {
+            int offset = Integer.parseInt(request.getQueryParams().get("offset"));
+            return ok(items(offset, 10, 100));
+        }, executor);
+
+        HttpResponseBean response = paginator.collect(request(Map.of("limit", "10")), ok(items(0, 10, 100)));
+
+        assertThat(response.getBody()).isEqualTo(items(0, 25, 100));
+        assertThat(response.getHeaders())
+            .containsEntry(Paginator.TRUNCATED_HEADER, "max-items")
+            .containsEntry(Paginator.NEXT_HEADER, "{\"offset\":\"25\"}");
+    }
+
+    @Test
+    void shouldTruncateAtMaxBytes() {
+        Paginator paginator = new Paginator(descriptor(Map.of("style", "offset", "maxBytes", 50)),
+            request -> ok(items(10, 10, 100)), executor);
+
+        HttpResponseBean response = paginator.collect(request(Map.of("limit", "10")), ok(items(0, 10, 100)));
+
+        assertThat(response.getBody().length()).isLessThanOrEqualTo(50);
+        assertThat(response.getBody()).isEqualTo(items(0, 5, 100));
+        assertThat(response.getHeaders()).containsEntry(Paginator.TRUNCATED_HEADER, "max-bytes");
+    }
+
+    @Test
+    void shouldFollowCursorUntilMaxPages() {
+        Paginator paginator = new Paginator(descriptor(Map.of(
+            "style", "cursor", "items", "/items", "nextCursor", "/next", "maxPages", 3)), request -> {
+            int cursor = Integer.parseInt(request.getQueryParams().get("cursor"));
+            return ok(cursorPage(cursor));
+        }, executor);
+
+        HttpResponseBean response = paginator.collect(request(Map.of()), ok(cursorPage(0)));
+
+        assertThat(response.getBody()).startsWith("{\"items\":" + items(0, 6, 100));
+        assertThat(response.getHeaders())
+            .containsEntry(Paginator.TRUNCATED_HEADER, "max-pages")
+            .containsEntry(Paginator.NEXT_HEADER, "{\"cursor\":\"6\"}");
+    }
+
+    @Test
+    void shouldFollowRelativeLinkHeader() {
+        Paginator paginator = new Paginator(descriptor(Map.of("style", "link")), request -> {
+            fetched.add(request.getUrl() + "?" + request.getQueryParams());
+            int page = Integer.parseInt(request.getQueryParams().get("p"));
+            Map<String, Object> headers = new HashMap<>();
+            if (page < 2) {
+                headers.put("link", "</items?p=" + (page + 1) + ">; rel=\"next\", </items?p=0>; rel=\"first\"");
+            }
+            return new HttpResponseBean(200, headers, items(page * 2, 2, 100));
+        }, executor);
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("Link", "<http://localhost/items?p=1>; rel=\"next\"");
+
+        HttpResponseBean response = paginator.collect(request(Map.of()), new HttpResponseBean(200, headers, items(0, 2, 100)));
+
+        assertThat(response.getBody()).isEqualTo(items(0, 6, 100));
+        assertThat(fetched).containsExactly("http://localhost/items?{p=1}", "http://localhost/items?{p=2}");
+        assertThat(response.getHeaders()).doesNotContainKey("Link");
+    }
+
+    @Test
+    void shouldKeepMergedPagesWhenUpstreamFails() {
+        Paginator paginator = new Paginator(descriptor(Map.of("style", "offset", "prefetch", 1)), request -> {
+            int offset = Integer.parseInt(request.getQueryParams().get("offset"));
+            return offset == 20 ? new HttpResponseBean(500, new HashMap<>(), "error") : ok(items(offset, 10, 100));
+        }, executor);
+
+        HttpResponseBean response = paginator.collect(request(Map.of("limit", "10")), ok(items(0, 10, 100)));
+
+        assertThat(response.getBody()).isEqualTo(items(0, 20, 100));
+        assertThat(response.getHeaders())
+            .containsEntry(Paginator.TRUNCATED_HEADER, "upstream-error")
+            .containsEntry(Paginator.NEXT_HEADER, "{\"offset\":\"20\"}");
+    }
+
+    @Test
+    void shouldReturnFirstResponseWhenItemsAreMissing() {
+        Paginator paginator = new Paginator(descriptor(Map.of("style", "offset", "items", "/data")),
+            request -> ok("[]"), executor);
+        HttpResponseBean first = ok("{\"message\":\"not a list\"}");
+
+        assertThat(paginator.collect(request(Map.of()), first)).isSameAs(first);
+    }
+
+    @Test
+    void shouldRejectInvalidDescriptor() {
+        assertThat(PaginationDescriptor.fromExtensions(null)).isNull();
+        assertThatThrownBy(() -> descriptor(Map.of("style", "unknown")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("不支持的style");
+        assertThatThrownBy(() -> descriptor(Map.of("style", "cursor")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("nextCursor");
+        assertThatThrownBy(() -> descriptor(Map.of("style", "offset", "prefetch", 0)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PaginationDescriptor descriptor(Map<String, Object> extension) {
+        return PaginationDescriptor.fromExtensions(Map.of(PaginationDescriptor.EXTENSION, extension));
+    }
+
+    private static HttpRequestBean request(Map<String, String> queryParams) {
+        return new HttpRequestBean("GET", "http://localhost/items", new HashMap<>(), null, new HashMap<>(queryParams));
+    }
+
+    private static HttpResponseBean ok(String body) {
+        return new HttpResponseBean(200, new HashMap<>(), body);
+    }
+
+    private static String items(int from, int count, int total) {
+        return IntStream.range(from, Math.min(from + count, total))
+            .mapToObj(i -> "{\"id\":" + i + "}")
+            .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String envelope(String items, int total) {
+        return "{\"data\":" + items + ",\"meta\":{\"total\":" + total + "}}";
+    }
+
+    private static String cursorPage(int cursor) {
+        return "{\"items\":" + items(cursor, 2, 100) + ",\"next\":\"" + (cursor + 2) + "\"}";
+    }
+}
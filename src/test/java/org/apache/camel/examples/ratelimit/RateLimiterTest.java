@@ -0,0 +1,161 @@
+package org.apache.camel.examples.ratelimit;
+
+import org.apache.camel.examples.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldAllowBurstThenRefillAtRate() {
+        TokenBucket bucket = new TokenBucket(RateLimit.of(10, 3));
+        long now = System.nanoTime();
+
+        assertThat(bucket.reserve(now, 0)).isZero();
+        assertThat(bucket.reserve(now, 0)).isZero();
+        assertThat(bucket.reserve(now, 0)).isZero();
+        assertThat(bucket.reserve(now, 0)).isEqualTo(-1);
+        assertThat(bucket.waitNanos(now)).isEqualTo(SECOND / 10);
+
+        // 100ms后补充一个令牌
+        assertThat(bucket.reserve(now + SECOND / 10, 0)).isZero();
+        assertThat(bucket.reserve(now + SECOND / 10, 0)).isEqualTo(-1);
+        assertThat(bucket.isFull(now + SECOND)).isTrue();
+    }
+
+    @Test
+    void shouldReserveFutureTokenWithinMaxWait() {
+        TokenBucket bucket = new TokenBucket(RateLimit.of(10, 1));
+        long now = System.nanoTime();
+
+        assertThat(bucket.reserve(now, SECOND)).isZero();
+        assertThat(bucket.reserve(now, SECOND)).isEqualTo(SECOND / 10);
+        assertThat(bucket.reserve(now, SECOND)).isEqualTo(2 * SECOND / 10);
+        assertThat(bucket.reserve(now, SECOND / 10)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldNotOverdrawUnderContention() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(RateLimit.of(0.001, 100));
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> {
+                if (bucket.reserve(System.nanoTime(), 0) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(allowed.get()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldLimitEachScopeAndReturnReservedTokensOnRejection() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setClient(limit(0.001, 2));
+        properties.setHosts(Map.of("api.internal", limit(0.001, 3)));
+        RateLimiter limiter = new RateLimiter(properties);
+        TokenBucket tool = new TokenBucket(RateLimit.of(0.001, 10));
+
+        assertThat(limiter.acquire(tool, "https://api.internal/orders", "agent/1.0").allowed()).isTrue();
+        assertThat(limiter.acquire(tool, "https://api.internal/orders", "agent/1.0").allowed()).isTrue();
+        RateLimiter.Decision client = limiter.acquire(tool, "https://api.internal/orders", "agent/1.0");
+        assertThat(client.allowed()).isFalse();
+        assertThat(client.scope()).isEqualTo(RateLimiter.SCOPE_CLIENT);
+
+        // 另一个客户端, 主机只剩1个令牌
+        assertThat(limiter.acquire(tool, "https://API.internal:443/orders?x=1", "other/1.0").allowed()).isTrue();
+        RateLimiter.Decision host = limiter.acquire(tool, "https://api.internal/orders", "third/1.0");
+        assertThat(host.allowed()).isFalse();
+        assertThat(host.scope()).isEqualTo(RateLimiter.SCOPE_HOST);
+        assertThat(host.retryAfterNanos()).isPositive();
+
+        // 被拒绝的调用归还了工具令牌: 10 - 3次成功 = 7
+        for (int i = 0; i < 7; i++) {
+            assertThat(tool.reserve(System.nanoTime(), 0)).isZero();
+        }
+        assertThat(tool.reserve(System.nanoTime(), 0)).isEqualTo(-1);
+
+        // 其他主机、非MCP调用不受主机与客户端限制
+        assertThat(limiter.acquire(null, "https://other.internal/orders", null).allowed()).isTrue();
+    }
+
+    @Test
+    void shouldDelayInsteadOfRejectingInDelayMode() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMode(RateLimitProperties.Mode.DELAY);
+        properties.setMaxDelay(Duration.ofMillis(500));
+        RateLimiter limiter = new RateLimiter(properties);
+        TokenBucket tool = new TokenBucket(RateLimit.of(10, 1));
+
+        assertThat(limiter.acquire(tool, "http://a/x", null).delayNanos()).isZero();
+        RateLimiter.Decision delayed = limiter.acquire(tool, "http://a/x", null);
+        assertThat(delayed.allowed()).isTrue();
+        assertThat(delayed.delayNanos()).isBetween(SECOND / 20, SECOND / 10);
+    }
+
+    @Test
+    void shouldEvictRefilledClientsWhenFull() throws InterruptedException {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setClient(limit(1000, 1));
+        properties.setMaxClients(2);
+        RateLimiter limiter = new RateLimiter(properties);
+
+        limiter.acquire(null, "http://a/x", "s1");
+        limiter.acquire(null, "http://a/x", "s2");
+        Thread.sleep(5);
+        limiter.acquire(null, "http://a/x", "s3");
+
+        assertThat(limiter.trackedClients()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedClientWhenNoneRefilled() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setClient(limit(0.001, 1));
+        properties.setMaxClients(2);
+        RateLimiter limiter = new RateLimiter(properties);
+
+        limiter.acquire(null, "http://a/x", "s1");
+        limiter.acquire(null, "http://a/x", "s2");
+        assertThat(limiter.acquire(null, "http://a/x", "s3").allowed()).isTrue();
+
+        assertThat(limiter.trackedClients()).isEqualTo(2);
+        // 新客户端的令牌桶照常生效
+        assertThat(limiter.acquire(null, "http://a/x", "s3").allowed()).isFalse();
+    }
+
+    @Test
+    void shouldParseExtensionAndAuthority() {
+        assertThat(RateLimit.fromExtensions(null)).isNull();
+        RateLimit limit = RateLimit.fromExtensions(Map.of(RateLimit.EXTENSION, Map.of("rate", 2.5)));
+        assertThat(limit.getRate()).isEqualTo(2.5);
+        assertThat(limit.getBurst()).isEqualTo(3);
+        assertThatThrownBy(() -> RateLimit.fromExtensions(Map.of(RateLimit.EXTENSION, Map.of("rate", 0))))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(RateLimiter.authorityOf("https://user@Api.Internal:8443/a?b")).isEqualTo("api.internal:8443");
+        assertThat(RateLimiter.authorityOf("http://host")).isEqualTo("host");
+        assertThat(RateLimiter.authorityOf("not a url")).isNull();
+    }
+
+    private static RateLimitProperties.Limit limit(double rate, int burst) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setRate(rate);
+        limit.setBurst(burst);
+        return limit;
+    }
+}
@@ -0,0 +1,84 @@
+package org.apache.camel.examples.retry;
+
+import org.apache.camel.examples.config.RetryProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryBudgetTest {
+
+    @Test
+    void shouldLimitRetriesToRatioOfRequests() {
+        RetryBudget budget = new RetryBudget(0.1, 5);
+        int retries = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.deposit();
+            if (budget.tryAcquire()) {
+                retries++;
+            }
+        }
+        // 初始的5个令牌 + 1000个请求存入的100个令牌, 余额不足一个令牌的部分不可用
+        assertThat(retries).isBetween(100, 105);
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shouldCapBalanceAtCapacity() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        assertThat(budget.available()).isEqualTo(2.0);
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+        budget.release();
+        assertThat(budget.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldNotOverdrawUnderContention() throws InterruptedException {
+        RetryBudget budget = new RetryBudget(0, 50);
+        AtomicInteger acquired = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                if (budget.tryAcquire()) {
+                    acquired.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(acquired.get()).isEqualTo(50);
+    }
+
+    @Test
+    void shouldRequireBothHostAndGlobalBudget() {
+        RetryProperties properties = new RetryProperties();
+        properties.getBudget().setRatio(0);
+        properties.getBudget().setCapacity(3);
+        RetryBudgets budgets = new RetryBudgets(properties);
+
+        // 单个主机最多消耗自己的3个令牌
+        assertThat(budgets.tryAcquire("http://a.internal/x")).isTrue();
+        assertThat(budgets.tryAcquire("http://a.internal/y")).isTrue();
+        assertThat(budgets.tryAcquire("http://a.internal/z")).isTrue();
+        assertThat(budgets.tryAcquire("http://a.internal/x")).isFalse();
+        // 全局只剩0个令牌, 其他主机的预算也不可用, 且不会被扣减
+        assertThat(budgets.tryAcquire("http://b.internal/x")).isFalse();
+        assertThat(budgets.tryAcquire("http://b.internal:8080/x")).isFalse();
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThatThrownBy(() -> new RetryBudget(-0.1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RetryBudget(0.1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,62 @@
+package org.apache.camel.examples.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryPolicyTest {
+
+    private static final RetryPolicy DEFAULTS = RetryPolicy.of(3, Duration.ofMillis(100), Duration.ofMillis(300),
+        Duration.ofSeconds(10), Set.of(429, 502, 503, 504));
+
+    @Test
+    void shouldRetryOnlyIdempotentOrMarkedOperations() {
+        assertThat(RetryPolicy.forOperation("GET", null, DEFAULTS)).isSameAs(DEFAULTS);
+        assertThat(RetryPolicy.forOperation("delete", Map.of(), DEFAULTS)).isSameAs(DEFAULTS);
+        assertThat(RetryPolicy.forOperation("POST", null, DEFAULTS)).isNull();
+        assertThat(RetryPolicy.forOperation("POST", Map.of(RetryPolicy.EXTENSION, true), DEFAULTS)).isSameAs(DEFAULTS);
+        assertThat(RetryPolicy.forOperation("PUT", Map.of(RetryPolicy.EXTENSION, "false"), DEFAULTS)).isNull();
+        assertThat(RetryPolicy.forOperation("GET", null, RetryPolicy.of(1, Duration.ZERO, Duration.ZERO, Duration.ZERO, Set.of())))
+            .isNull();
+    }
+
+    @Test
+    void shouldClassifyTransientFailures() {
+        assertThat(DEFAULTS.isRetryable(503, null)).isTrue();
+        assertThat(DEFAULTS.isRetryable(500, null)).isFalse();
+        assertThat(DEFAULTS.isRetryable(null, null)).isFalse();
+        assertThat(DEFAULTS.isRetryable(null, new RuntimeException(new ConnectException("Connection refused")))).isTrue();
+        assertThat(DEFAULTS.isRetryable(null, new IllegalStateException("bad request"))).isFalse();
+    }
+
+    @Test
+    void shouldBackOffExponentiallyWithJitterUpToMax() {
+        for (int i = 0; i < 200; i++) {
+            assertThat(DEFAULTS.backoff(1, null).toMillis()).isBetween(0L, 100L);
+            assertThat(DEFAULTS.backoff(2, null).toMillis()).isBetween(0L, 200L);
+            assertThat(DEFAULTS.backoff(10, null).toMillis()).isBetween(0L, 300L);
+        }
+    }
+
+    @Test
+    void shouldHonourRetryAfter() {
+        assertThat(DEFAULTS.backoff(1, Duration.ofSeconds(2))).isEqualTo(Duration.ofSeconds(2));
+        assertThat(DEFAULTS.backoff(1, Duration.ofSeconds(30))).isNull();
+
+        assertThat(RetryPolicy.parseRetryAfter("3")).isEqualTo(Duration.ofSeconds(3));
+        assertThat(RetryPolicy.parseRetryAfter("soon")).isNull();
+        assertThat(RetryPolicy.parseRetryAfter(null)).isNull();
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(5));
+        assertThat(RetryPolicy.parseRetryAfter(date)).isBetween(Duration.ofSeconds(3), Duration.ofSeconds(5));
+        String past = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().minusSeconds(5));
+        assertThat(RetryPolicy.parseRetryAfter(past)).isZero();
+    }
+}
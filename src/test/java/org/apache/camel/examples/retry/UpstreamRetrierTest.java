@@ -0,0 +1,79 @@
+package org.apache.camel.examples.retry;
+
+import org.apache.camel.examples.auth.CredentialProvider;
+import org.apache.camel.examples.retry.UpstreamRetrier.Attempt;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UpstreamRetrierTest {
+
+    private static final RetryPolicy POLICY = RetryPolicy.of(3, Duration.ofMillis(1), Duration.ofMillis(5),
+        Duration.ofSeconds(10), Set.of(429, 502, 503, 504));
+
+    private final UpstreamRetrier retrier = new UpstreamRetrier();
+
+    @Test
+    void shouldRefreshCredentialsOnUnauthorizedThenRetryTransientFailures() {
+        CredentialProvider provider = mock(CredentialProvider.class);
+        Map<String, String> rejected = Map.of("Authorization", "Bearer old");
+        when(provider.credentials()).thenReturn(Map.of("Authorization", "Bearer new"));
+        Deque<Attempt<String>> responses = new ArrayDeque<>(List.of(
+            Attempt.of("busy", 503, "0"),
+            Attempt.of("ok", 200, null)));
+        Map<String, String> headers = new HashMap<>(rejected);
+        List<String> discarded = new ArrayList<>();
+
+        Attempt<String> result = retrier.execute(
+            new UpstreamRetrier.Call("getOrder", "http://api/orders", null, POLICY, provider, rejected),
+            Attempt.of("denied", 401, null), responses::poll, headers::putAll,
+            attempt -> discarded.add(attempt.response()));
+
+        assertThat(result.response()).isEqualTo("ok");
+        verify(provider).invalidate(rejected);
+        assertThat(headers).containsEntry("Authorization", "Bearer new");
+        // 每次重发前丢弃上一次的结果
+        assertThat(discarded).containsExactly("denied", "busy");
+    }
+
+    @Test
+    void shouldReturnLastAttemptWhenAttemptsAreExhausted() {
+        IOException refused = new ConnectException("Connection refused");
+        List<Attempt<String>> sent = new ArrayList<>();
+
+        Attempt<String> result = retrier.execute(
+            new UpstreamRetrier.Call("getOrder", "http://api/orders", null, POLICY, null, null),
+            Attempt.failed(refused), () -> {
+                Attempt<String> attempt = Attempt.failed(refused);
+                sent.add(attempt);
+                return attempt;
+            }, credentials -> { }, attempt -> { });
+
+        assertThat(sent).hasSize(2);
+        assertThat(result.failure()).isSameAs(refused);
+    }
+
+    @Test
+    void shouldNotRetryWithoutPolicyOrProvider() {
+        Attempt<String> first = Attempt.of("busy", 503, null);
+
+        Attempt<String> result = retrier.execute(new UpstreamRetrier.Call("getOrder", "http://api/orders", null, null, null, null),
+            first, () -> { throw new AssertionError("不应重发"); }, credentials -> { }, attempt -> { });
+
+        assertThat(result).isSameAs(first);
+    }
+}
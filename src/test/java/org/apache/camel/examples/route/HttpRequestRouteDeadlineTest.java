@@ -0,0 +1,51 @@
+package org.apache.camel.examples.route;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.examples.deadline.CallDeadline;
+import org.apache.camel.examples.deadline.TimeoutPolicy;
+import org.apache.camel.examples.domain.HttpRequestBean;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.apache.camel.examples.domain.ToolOptions;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 路由发出上游请求时绑定调用的截止时间
+ */
+class HttpRequestRouteDeadlineTest {
+
+    @Test
+    void shouldUnbindDeadlineWhenUpstreamRequestFails() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        CamelContext camelContext = new DefaultCamelContext();
+        camelContext.addRoutes(new HttpRequestRoute());
+        camelContext.start();
+        try {
+            HttpRequestBean request = new HttpRequestBean("GET", "http://127.0.0.1:" + port + "/orders", new HashMap<>(), null,
+                new HashMap<>(), ToolOptions.builder().toolName("listOrders").build(), null);
+            request.setDeadline(CallDeadline.start(TimeoutPolicy.of(Duration.ofSeconds(5), Duration.ofSeconds(5))));
+            ProducerTemplate template = camelContext.createProducerTemplate();
+
+            assertThatThrownBy(() -> template.requestBody("direct:httpRequest", request, HttpResponseBean.class))
+                .isInstanceOf(CamelExecutionException.class)
+                .hasRootCauseInstanceOf(ConnectException.class);
+            // 失败的调用不把截止时间留在发出请求的线程上
+            assertThat(CallDeadline.current()).isNull();
+        } finally {
+            camelContext.stop();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.apache.camel.examples.route;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.examples.config.TrafficProperties;
+import org.apache.camel.examples.domain.HttpRequestBean;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.apache.camel.examples.domain.ToolOptions;
+import org.apache.camel.examples.retry.RetryPolicy;
+import org.apache.camel.examples.retry.UpstreamRetrier;
+import org.apache.camel.examples.traffic.TrafficRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 经过路由录制上游流量后回放
+ */
+class HttpRequestRouteTrafficTest {
+
+    private static final ToolOptions OPTIONS = ToolOptions.builder()
+        .toolName("getStatus")
+        .retry(RetryPolicy.of(3, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(10), Set.of(503)))
+        .build();
+
+    @TempDir
+    Path directory;
+
+    private HttpServer upstream;
+    private String baseUrl;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/status", exchange -> {
+            upstreamCalls.incrementAndGet();
+            byte[] body = "busy".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.getResponseHeaders().add("Retry-After", "0");
+            exchange.sendResponseHeaders(503, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+        baseUrl = "http://127.0.0.1:" + upstream.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void shouldReplayRecordedServiceUnavailableWithoutRetrying() throws Exception {
+        HttpResponseBean recorded = call(TrafficProperties.Mode.RECORD, baseUrl);
+        assertThat(recorded.getStatusCode()).isEqualTo(503);
+        // 录制时按重试策略请求了3次, 录制最终结果
+        assertThat(upstreamCalls.get()).isEqualTo(3);
+
+        // 回放时负载均衡选择了另一台服务器, 去掉服务器地址后仍匹配录制的记录
+        HttpResponseBean replayed = call(TrafficProperties.Mode.REPLAY, "http://replica.invalid:8080");
+
+        assertThat(replayed.getStatusCode()).isEqualTo(503);
+        assertThat(replayed.getBody()).isEqualTo("busy");
+        assertThat(upstreamCalls.get()).isEqualTo(3);
+    }
+
+    private HttpResponseBean call(TrafficProperties.Mode mode, String server) throws Exception {
+        TrafficProperties properties = new TrafficProperties();
+        properties.setMode(mode);
+        properties.setDirectory(directory.toString());
+        properties.setLatencyScale(0);
+        TrafficRecorder recorder = new TrafficRecorder(properties);
+        recorder.start();
+
+        HttpRequestRoute route = new HttpRequestRoute();
+        ReflectionTestUtils.setField(route, "trafficRecorder", recorder);
+        ReflectionTestUtils.setField(route, "retrier", new UpstreamRetrier());
+        CamelContext camelContext = new DefaultCamelContext();
+        camelContext.addRoutes(route);
+        camelContext.start();
+        try {
+            HttpRequestBean request = new HttpRequestBean("GET", server + "/status", new HashMap<>(), null, new HashMap<>(),
+                OPTIONS, null);
+            request.setServer(server);
+            return camelContext.createProducerTemplate().requestBody("direct:httpRequest", request, HttpResponseBean.class);
+        } finally {
+            camelContext.stop();
+            recorder.stop();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
+import org.apache.camel.examples.validation.ArgumentValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -11,6 +12,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -229,4 +232,42 @@ class JsonSchemaGeneratorTest {
         
         assertThat(actualSchema).isEqualTo(expectedSchema);
     }
+
+    @Test
+    void shouldNotConstrainNonObjectBodiesToObjects() throws Exception {
+        OpenAPI openAPI = openApiParserService.parseFromString("""
+            openapi: 3.0.0
+            info: {title: bodies, version: "1"}
+            paths:
+              /notes:
+                post:
+                  requestBody:
+                    content:
+                      text/plain:
+                        schema: {type: string}
+                  responses: {"200": {description: ok}}
+              /tags:
+                post:
+                  requestBody:
+                    content:
+                      application/json:
+                        schema:
+                          type: array
+                          items: {type: string}
+                  responses: {"200": {description: ok}}
+            """);
+        String textSchema = JsonSchemaGenerator.generateForOpenApiOperation(openAPI.getPaths().get("/notes").getPost(), "/notes");
+        String arraySchema = JsonSchemaGenerator.generateForOpenApiOperation(openAPI.getPaths().get("/tags").getPost(), "/tags");
+        
+        assertThat(objectMapper.readTree(textSchema).at("/properties/body").has("type")).isFalse();
+        assertThat(objectMapper.readTree(arraySchema).at("/properties/body/type").asText()).isEqualTo("array");
+        
+        // 字符串与数组请求体不再因类型为object被拒绝
+        assertThat(ArgumentValidator.compile(textSchema).validate(Map.of("body", "<note>hello</note>"))).isEmpty();
+        assertThat(ArgumentValidator.compile(arraySchema).validate(Map.of("body", List.of("a", "b")))).isEmpty();
+        assertThat(ArgumentValidator.compile(arraySchema).validate(Map.of("body", "[\"a\",\"b\"]"))).isEmpty();
+        assertThat(ArgumentValidator.compile(arraySchema).validate(Map.of("body", "plain text")))
+            .extracting(ArgumentValidator.Violation::message)
+            .containsExactly("类型应为array");
+    }
 }
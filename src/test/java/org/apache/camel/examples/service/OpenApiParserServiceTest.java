@@ -129,6 +129,39 @@ public class OpenApiParserServiceTest {
         assertThat(openAPI.getPaths()).containsKey("/test");
     }
     
+    @Test
+    public void testParseFromLocation_Classpath() throws IOException {
+        OpenAPI openAPI = openApiParserService.parseFromLocation("classpath:sample-openapi.yaml");
+        
+        assertThat(openAPI).isNotNull();
+        assertThat(openAPI.getInfo().getTitle()).isEqualTo("HTTPBin Test API");
+    }
+    
+    @Test
+    public void testParseFromLocation_FilePrefix() throws IOException {
+        String content = """
+            openapi: 3.0.0
+            info:
+              title: Location API
+              version: 1.0.0
+            paths: {}
+            """;
+        
+        Path file = tempDir.resolve("location-api.yaml");
+        Files.write(file, content.getBytes());
+        
+        assertThat(openApiParserService.parseFromLocation("file:" + file).getInfo().getTitle()).isEqualTo("Location API");
+        assertThat(openApiParserService.parseFromLocation(file.toString()).getInfo().getTitle()).isEqualTo("Location API");
+    }
+    
+    @Test
+    public void testParseFromLocation_MissingClasspathResource() {
+        assertThrows(
+            IOException.class,
+            () -> openApiParserService.parseFromLocation("classpath:not-exists.yaml")
+        );
+    }
+    
     @Test
     public void testParseFromFile_NullPath() {
         IllegalArgumentException exception = assertThrows(
@@ -0,0 +1,133 @@
+package org.apache.camel.examples.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * OpenApiSpecRefresher的单元测试, 验证只有文档变化时才重新解析
+ */
+class OpenApiSpecRefresherTest {
+
+    private static final String SPEC_TEMPLATE = """
+        openapi: 3.0.0
+        info:
+          title: Remote API
+          version: 1.0.0
+        servers:
+          - url: http://upstream.local
+        paths:
+          /%s:
+            get:
+              operationId: %s
+              responses:
+                '200':
+                  description: OK
+        """;
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    private volatile String operation = "listOrders";
+
+    private OpenApiToolsProperties.Spec spec;
+    private OpenApiParserService openApiParserService;
+    private ToolParserService toolParserService;
+    private ToolRegistry toolRegistry;
+    private OpenApiSpecRefresher refresher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/openapi.yaml", this::serveSpec);
+        server.start();
+
+        spec = new OpenApiToolsProperties.Spec();
+        spec.setName("orders");
+        spec.setLocation("http://127.0.0.1:" + server.getAddress().getPort() + "/openapi.yaml");
+
+        RemoteSpecCache remoteSpecCache = new RemoteSpecCache(cacheDir, Duration.ofSeconds(2));
+        openApiParserService = spy(new OpenApiParserService());
+        inject(openApiParserService, OpenApiParserService.class, "remoteSpecCache", remoteSpecCache);
+        toolParserService = spy(new ToolParserService());
+        toolRegistry = new ToolRegistry();
+
+        refresher = new OpenApiSpecRefresher();
+        inject(refresher, OpenApiSpecRefresher.class, "remoteSpecCache", remoteSpecCache);
+        inject(refresher, OpenApiSpecRefresher.class, "openApiParserService", openApiParserService);
+        inject(refresher, OpenApiSpecRefresher.class, "toolParserService", toolParserService);
+        inject(refresher, OpenApiSpecRefresher.class, "toolRegistry", toolRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldNotReparseWhenSpecIsUnchanged() throws Exception {
+        // 启动时的首次加载
+        openApiParserService.parseFromLocation(spec.getLocation());
+
+        assertThat(refresher.refresh(spec)).isFalse();
+        assertThat(refresher.refresh(spec)).isFalse();
+
+        verify(openApiParserService, times(1)).parseFromString(any());
+        verify(toolParserService, times(0)).parse(any(), any());
+        assertThat(toolRegistry.getVersion()).isZero();
+    }
+
+    @Test
+    void shouldReparseAndReplaceToolsWhenSpecChanges() throws Exception {
+        assertThat(refresher.refresh(spec)).isTrue();
+        assertThat(toolRegistry.getToolCallbacks()).extracting(tool -> tool.getToolDefinition().name())
+            .containsExactly("listOrders");
+
+        operation = "listInvoices";
+        assertThat(refresher.refresh(spec)).isTrue();
+
+        assertThat(toolRegistry.getToolCallbacks()).extracting(tool -> tool.getToolDefinition().name())
+            .containsExactly("listInvoices");
+        assertThat(toolRegistry.getVersion()).isEqualTo(2);
+    }
+
+    private void serveSpec(HttpExchange exchange) throws IOException {
+        String etag = "\"" + operation + "\"";
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = SPEC_TEMPLATE.formatted(operation, operation).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void inject(Object target, Class<?> type, String fieldName, Object value) throws Exception {
+        java.lang.reflect.Field field = type.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
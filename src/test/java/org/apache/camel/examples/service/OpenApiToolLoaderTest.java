@@ -0,0 +1,158 @@
+package org.apache.camel.examples.service;
+
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.apache.camel.examples.domain.HttpRequestBean;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.tool.ToolCallback;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OpenApiToolLoaderTest {
+
+    @Mock
+    private ProducerTemplate producerTemplate;
+
+    private OpenApiParserService openApiParserService;
+    private OpenApiToolLoader openApiToolLoader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        openApiParserService = spy(new OpenApiParserService());
+        ToolParserService toolParserService = new ToolParserService();
+        inject(toolParserService, "producerTemplate", producerTemplate);
+
+        openApiToolLoader = new OpenApiToolLoader();
+        inject(openApiToolLoader, "openApiParserService", openApiParserService);
+        inject(openApiToolLoader, "toolParserService", toolParserService);
+    }
+
+    @Test
+    void shouldLoadMultipleSpecsWithPrefixes() {
+        OpenApiToolsProperties properties = new OpenApiToolsProperties();
+        properties.getSpecs().add(spec("classpath:sample-openapi.yaml", "httpbin_", null));
+        properties.getSpecs().add(spec("classpath:path-var.json", "apm_", null));
+
+        List<ToolCallback> tools = loadAll(properties);
+
+        assertThat(tools).extracting(tool -> tool.getToolDefinition().name())
+            .contains("httpbin_getJson", "httpbin_getHeaders", "httpbin_simpleGet")
+            .anyMatch(name -> name.startsWith("apm_"));
+    }
+
+    @Test
+    void shouldApplyBaseUrlOverride() {
+        OpenApiToolsProperties properties = new OpenApiToolsProperties();
+        properties.getSpecs().add(spec("classpath:sample-openapi.yaml", null, "http://internal-gateway:9000"));
+        when(producerTemplate.requestBody(eq("direct:httpRequest"), any(HttpRequestBean.class), eq(HttpResponseBean.class)))
+            .thenReturn(new HttpResponseBean(200, new HashMap<>(), "{}"));
+
+        ToolCallback simpleGet = loadAll(properties).stream()
+            .filter(tool -> tool.getToolDefinition().name().equals("simpleGet"))
+            .findFirst()
+            .orElseThrow();
+        simpleGet.call("{\"test_param\": \"value\"}");
+
+        ArgumentCaptor<HttpRequestBean> captor = ArgumentCaptor.forClass(HttpRequestBean.class);
+        verify(producerTemplate).requestBody(eq("direct:httpRequest"), captor.capture(), eq(HttpResponseBean.class));
+        assertThat(captor.getValue().getUrl()).isEqualTo("http://internal-gateway:9000/get");
+    }
+
+    @Test
+    void shouldIsolateFailingSpecs() {
+        OpenApiToolsProperties properties = new OpenApiToolsProperties();
+        properties.getSpecs().add(spec("classpath:sample-openapi.yaml", null, null));
+        properties.getSpecs().add(spec("classpath:not-exists.yaml", null, null));
+        properties.getSpecs().add(spec("/non/existent/file.yaml", null, null));
+
+        Map<OpenApiToolsProperties.Spec, List<ToolCallback>> toolsBySpec = openApiToolLoader.load(properties);
+
+        assertThat(toolsBySpec).hasSize(3);
+        assertThat(toolsBySpec.get(properties.getSpecs().get(0))).hasSize(3);
+        assertThat(toolsBySpec.get(properties.getSpecs().get(1))).isEmpty();
+        assertThat(toolsBySpec.get(properties.getSpecs().get(2))).isEmpty();
+    }
+
+    @Test
+    void shouldSkipSpecThatExceedsTimeout() throws Exception {
+        lenient().doAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return invocation.callRealMethod();
+        }).when(openApiParserService).parseFromLocation("classpath:path-var.json");
+
+        OpenApiToolsProperties properties = new OpenApiToolsProperties();
+        properties.getSpecs().add(spec("classpath:sample-openapi.yaml", null, null));
+        OpenApiToolsProperties.Spec slowSpec = spec("classpath:path-var.json", null, null);
+        slowSpec.setTimeout(Duration.ofMillis(200));
+        properties.getSpecs().add(slowSpec);
+
+        long start = System.nanoTime();
+        List<ToolCallback> tools = loadAll(properties);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(tools).hasSize(3);
+    }
+
+    @Test
+    void shouldTimeOutSpecsQueuedBehindHungParse() throws Exception {
+        // 不响应中断的解析
+        lenient().doAnswer(invocation -> {
+            long end = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+            return invocation.callRealMethod();
+        }).when(openApiParserService).parseFromLocation("classpath:path-var.json");
+
+        OpenApiToolsProperties properties = new OpenApiToolsProperties();
+        properties.setParseParallelism(1);
+        properties.setParseTimeout(Duration.ofMillis(300));
+        properties.getSpecs().add(spec("classpath:path-var.json", null, null));
+        properties.getSpecs().add(spec("classpath:sample-openapi.yaml", null, null));
+
+        long start = System.nanoTime();
+        Map<OpenApiToolsProperties.Spec, List<ToolCallback>> toolsBySpec = openApiToolLoader.load(properties);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        assertThat(toolsBySpec.values()).allMatch(List::isEmpty);
+    }
+
+    private List<ToolCallback> loadAll(OpenApiToolsProperties properties) {
+        return openApiToolLoader.load(properties).values().stream()
+            .flatMap(List::stream)
+            .toList();
+    }
+
+    private static OpenApiToolsProperties.Spec spec(String location, String toolPrefix, String baseUrl) {
+        OpenApiToolsProperties.Spec spec = new OpenApiToolsProperties.Spec();
+        spec.setLocation(location);
+        spec.setToolPrefix(toolPrefix);
+        spec.setBaseUrl(baseUrl);
+        return spec;
+    }
+
+    private static void inject(Object target, String fieldName, Object value) throws Exception {
+        java.lang.reflect.Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,146 @@
+package org.apache.camel.examples.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * RemoteSpecCache的单元测试, 使用本地桩服务模拟OpenAPI注册中心
+ */
+class RemoteSpecCacheTest {
+
+    private static final String SPEC_V1 = """
+        openapi: 3.0.0
+        info:
+          title: Remote API
+          version: 1.0.0
+        paths: {}
+        """;
+
+    private static final String SPEC_V2 = SPEC_V1.replace("1.0.0", "2.0.0");
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    private String url;
+    private volatile String spec = SPEC_V1;
+    private volatile String etag = "\"v1\"";
+    private final List<Integer> responseCodes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/openapi.yaml", this::serveSpec);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/openapi.yaml";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldDownloadAndCacheSpecOnFirstFetch() throws IOException {
+        RemoteSpecCache cache = new RemoteSpecCache(cacheDir, Duration.ofSeconds(2));
+
+        RemoteSpecCache.FetchResult result = cache.fetch(url);
+
+        assertThat(result.modified()).isTrue();
+        assertThat(result.content()).isEqualTo(SPEC_V1);
+        assertThat(responseCodes).containsExactly(200);
+        assertThat(Files.readString(cache.contentFile(url))).isEqualTo(SPEC_V1);
+    }
+
+    @Test
+    void shouldRevalidateWithConditionalGet() throws IOException {
+        RemoteSpecCache cache = new RemoteSpecCache(cacheDir, Duration.ofSeconds(2));
+        cache.fetch(url);
+
+        RemoteSpecCache.FetchResult result = cache.fetch(url);
+
+        assertThat(result.modified()).isFalse();
+        assertThat(result.content()).isEqualTo(SPEC_V1);
+        assertThat(responseCodes).containsExactly(200, 304);
+    }
+
+    @Test
+    void shouldReportModifiedWhenSpecChanges() throws IOException {
+        RemoteSpecCache cache = new RemoteSpecCache(cacheDir, Duration.ofSeconds(2));
+        cache.fetch(url);
+
+        spec = SPEC_V2;
+        etag = "\"v2\"";
+        RemoteSpecCache.FetchResult result = cache.fetch(url);
+
+        assertThat(result.modified()).isTrue();
+        assertThat(result.content()).isEqualTo(SPEC_V2);
+        assertThat(responseCodes).containsExactly(200, 200);
+    }
+
+    @Test
+    void shouldFallBackToCacheWhenRegistryIsDown() throws IOException {
+        new RemoteSpecCache(cacheDir, Duration.ofSeconds(2)).fetch(url);
+        server.stop(0);
+
+        // 模拟重启后注册中心不可用
+        RemoteSpecCache.FetchResult result = new RemoteSpecCache(cacheDir, Duration.ofSeconds(2)).fetch(url);
+
+        assertThat(result.modified()).isFalse();
+        assertThat(result.content()).isEqualTo(SPEC_V1);
+    }
+
+    @Test
+    void shouldFailWhenRegistryIsDownWithoutCache() {
+        server.stop(0);
+        RemoteSpecCache cache = new RemoteSpecCache(cacheDir, Duration.ofSeconds(2));
+
+        assertThrows(IOException.class, () -> cache.fetch(url));
+    }
+
+    @Test
+    void shouldParseRemoteSpecThroughParserService() throws Exception {
+        OpenApiParserService parserService = new OpenApiParserService();
+        java.lang.reflect.Field field = OpenApiParserService.class.getDeclaredField("remoteSpecCache");
+        field.setAccessible(true);
+        field.set(parserService, new RemoteSpecCache(cacheDir, Duration.ofSeconds(2)));
+
+        assertThat(parserService.parseFromLocation(url).getInfo().getTitle()).isEqualTo("Remote API");
+    }
+
+    private void serveSpec(HttpExchange exchange) throws IOException {
+        String currentEtag = etag;
+        if (currentEtag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            responseCodes.add(304);
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = spec.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("ETag", currentEtag);
+        exchange.getResponseHeaders().add("Content-Type", "application/yaml");
+        responseCodes.add(200);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
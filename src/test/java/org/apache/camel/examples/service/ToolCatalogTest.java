@@ -0,0 +1,95 @@
+package org.apache.camel.examples.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.examples.config.CatalogProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ToolCatalogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ToolRegistry toolRegistry;
+    private ToolCatalog toolCatalog;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CatalogProperties properties = new CatalogProperties();
+        properties.setPageSize(2);
+        toolRegistry = new ToolRegistry();
+        toolCatalog = new ToolCatalog(properties);
+        java.lang.reflect.Field field = ToolCatalog.class.getDeclaredField("toolRegistry");
+        field.setAccessible(true);
+        field.set(toolCatalog, toolRegistry);
+    }
+
+    @Test
+    void shouldSerializeCompactSchemasOncePerVersion() throws Exception {
+        toolRegistry.register("spec", List.of(tool("a", "{\n  \"type\" : \"object\"\n}"), tool("b", "{}")));
+
+        ToolCatalog.Snapshot first = toolCatalog.snapshot();
+
+        assertThat(toolCatalog.snapshot()).isSameAs(first);
+        assertThat(first.getFullJson()).isEqualTo(
+            "{\"tools\":[{\"name\":\"a\",\"description\":\"tool a\",\"inputSchema\":{\"type\":\"object\"}},"
+                + "{\"name\":\"b\",\"description\":\"tool b\",\"inputSchema\":{}}]}");
+        assertThat(objectMapper.readTree(first.getFullJson()).get("tools")).hasSize(2);
+    }
+
+    @Test
+    void shouldPageWithCursorsAndChangeEtagWhenRegistryChanges() throws Exception {
+        toolRegistry.register("spec", List.of(tool("a", "{}"), tool("b", "{}"), tool("c", "{}")));
+
+        ToolCatalog.Page first = toolCatalog.page(null);
+        JsonNode firstBody = read(first.body());
+        assertThat(firstBody.get("tools")).extracting(node -> node.get("name").asText()).containsExactly("a", "b");
+
+        String cursor = firstBody.get("nextCursor").asText();
+        JsonNode secondBody = read(toolCatalog.page(cursor).body());
+        assertThat(secondBody.get("tools")).extracting(node -> node.get("name").asText()).containsExactly("c");
+        assertThat(secondBody.has("nextCursor")).isFalse();
+
+        toolRegistry.register("other", List.of(tool("d", "{}")));
+
+        assertThat(toolCatalog.page(null).etag()).isNotEqualTo(first.etag());
+        assertThatThrownBy(() -> toolCatalog.page(cursor)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> toolCatalog.page("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldServeReadOnlyBuffers() {
+        toolRegistry.register("spec", List.of(tool("a", "{}")));
+
+        ByteBuffer body = toolCatalog.page(null).body();
+        body.get(new byte[body.remaining()]);
+
+        assertThat(body.isReadOnly()).isTrue();
+        assertThat(toolCatalog.page(null).body().remaining()).isPositive();
+    }
+
+    private JsonNode read(ByteBuffer body) throws Exception {
+        return objectMapper.readTree(StandardCharsets.UTF_8.decode(body).toString());
+    }
+
+    private static ToolCallback tool(String name, String inputSchema) {
+        ToolCallback tool = mock(ToolCallback.class);
+        when(tool.getToolDefinition()).thenReturn(ToolDefinition.builder()
+            .name(name)
+            .description("tool " + name)
+            .inputSchema(inputSchema)
+            .build());
+        return tool;
+    }
+}
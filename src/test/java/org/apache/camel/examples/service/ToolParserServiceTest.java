@@ -1,25 +1,49 @@
 package org.apache.camel.examples.service;
 
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
 import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.swagger.v3.oas.models.servers.Server;
 import org.apache.camel.ProducerTemplate;
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.apache.camel.examples.deadline.CallDeadline;
 import org.apache.camel.examples.domain.HttpRequestBean;
 import org.apache.camel.examples.domain.HttpResponseBean;
+import org.apache.camel.examples.encoding.JsonBodyWriter;
+import org.apache.camel.examples.mapping.ResponseMapping;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.tool.function.FunctionToolCallback;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -139,6 +163,226 @@ class ToolParserServiceTest {
         assertTrue(callbacks.isEmpty());
     }
 
+    @Test
+    void testParseAttachesCompiledToolOptions() throws Exception {
+        OpenAPI openAPI = loadOpenAPIFromYaml();
+        
+        // 只为getJson配置响应映射
+        OpenApiToolsProperties.ToolSettings settings = new OpenApiToolsProperties.ToolSettings();
+        settings.setMapping(new ResponseMapping());
+        OpenApiToolsProperties.Spec spec = new OpenApiToolsProperties.Spec();
+        spec.setToolPrefix("httpbin_");
+        spec.getTools().put("getJson", settings);
+        
+        HttpResponseBean mockResponse = new HttpResponseBean(200, new HashMap<>(), "{}");
+        when(producerTemplate.requestBody(eq("direct:httpRequest"), any(HttpRequestBean.class), eq(HttpResponseBean.class)))
+                .thenReturn(mockResponse);
+
+        List<FunctionToolCallback<Map<String, Object>, HttpResponseBean>> callbacks = toolParserService.parse(openAPI, spec);
+        FunctionToolCallback<Map<String, Object>, HttpResponseBean> getJsonCallback = callbacks.stream()
+                .filter(callback -> callback.getToolDefinition().name().equals("httpbin_getJson"))
+                .findFirst()
+                .orElseThrow();
+        getJsonCallback.call("{}");
+
+        ArgumentCaptor<HttpRequestBean> captor = ArgumentCaptor.forClass(HttpRequestBean.class);
+        verify(producerTemplate).requestBody(eq("direct:httpRequest"), captor.capture(), eq(HttpResponseBean.class));
+        assertNotNull(captor.getValue().getOptions().getResponseMapper());
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejectedBeforeUpstreamCall() throws Exception {
+        OpenAPI openAPI = loadOpenAPIFromYaml();
+        
+        FunctionToolCallback<Map<String, Object>, HttpResponseBean> getJsonCallback = toolParserService.parse(openAPI).stream()
+                .filter(callback -> callback.getToolDefinition().name().equals("getJson"))
+                .findFirst()
+                .orElseThrow();
+        String result = getJsonCallback.call("{\"size\": \"big\", \"type\": \"pdf\"}");
+        
+        assertTrue(result.contains("400"));
+        assertTrue(result.contains("size"));
+        assertTrue(result.contains("type"));
+        verifyNoInteractions(producerTemplate);
+    }
+
+    @Test
+    void testRequestBodyIsSerializedAsJsonBytes() throws Exception {
+        String json = new String(new ClassPathResource("path-var.json").getInputStream().readAllBytes());
+        OpenAPI openAPI = openApiParserService.parseFromString(json);
+        
+        HttpResponseBean mockResponse = new HttpResponseBean(200, new HashMap<>(), "{}");
+        when(producerTemplate.requestBody(eq("direct:httpRequest"), any(HttpRequestBean.class), eq(HttpResponseBean.class)))
+                .thenReturn(mockResponse);
+        
+        toolParserService.parse(openAPI).get(0).call("{\"instance\": \"i-1\", \"end\": \"1\", "
+                + "\"body\": {\"projectId\": \"p\", \"serviceName\": \"s\", \"serviceVersion\": \"\"}}");
+        
+        ArgumentCaptor<HttpRequestBean> captor = ArgumentCaptor.forClass(HttpRequestBean.class);
+        verify(producerTemplate).requestBody(eq("direct:httpRequest"), captor.capture(), eq(HttpResponseBean.class));
+        assertNull(captor.getValue().getBody());
+        assertEquals("{\"projectId\":\"p\",\"serviceName\":\"s\",\"serviceVersion\":\"\"}",
+                new String(captor.getValue().getBodyBytes(), java.nio.charset.StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testBodyContentTypeFollowsDeclaredMediaType() throws Exception {
+        OpenAPI openAPI = openApiParserService.parseFromString("""
+            openapi: 3.0.0
+            info: {title: bodies, version: "1"}
+            servers: [{url: "http://localhost:8080"}]
+            paths:
+              /notes:
+                post:
+                  operationId: createNote
+                  requestBody:
+                    content:
+                      application/xml:
+                        schema: {type: string}
+                  responses: {"200": {description: ok}}
+              /orders:
+                post:
+                  operationId: createOrder
+                  requestBody:
+                    content:
+                      application/json:
+                        schema: {type: object}
+                  responses: {"200": {description: ok}}
+            """);
+        when(producerTemplate.requestBody(eq("direct:httpRequest"), any(HttpRequestBean.class), eq(HttpResponseBean.class)))
+                .thenReturn(new HttpResponseBean(200, new HashMap<>(), "{}"));
+        Map<String, FunctionToolCallback<Map<String, Object>, HttpResponseBean>> tools = new HashMap<>();
+        toolParserService.parse(openAPI).forEach(tool -> tools.put(tool.getToolDefinition().name(), tool));
+        
+        tools.get("createNote").call("{\"body\": \"<note>hi</note>\"}");
+        tools.get("createOrder").call("{\"body\": {\"id\": 1}}");
+        
+        ArgumentCaptor<HttpRequestBean> captor = ArgumentCaptor.forClass(HttpRequestBean.class);
+        verify(producerTemplate, times(2)).requestBody(eq("direct:httpRequest"), captor.capture(), eq(HttpResponseBean.class));
+        assertEquals("application/xml; charset=UTF-8", captor.getAllValues().get(0).getHeaders().get("Content-Type"));
+        assertEquals("<note>hi</note>", new String(captor.getAllValues().get(0).getBodyBytes(), java.nio.charset.StandardCharsets.UTF_8));
+        assertEquals(JsonBodyWriter.CONTENT_TYPE, captor.getAllValues().get(1).getHeaders().get("Content-Type"));
+    }
+
+    @Test
+    void testCallIsAbortedWhenTotalTimeoutExpires() throws Exception {
+        OpenAPI openAPI = loadOpenAPIFromYaml();
+        openAPI.getPaths().get("/json").getGet().addExtension("x-timeout", "200ms");
+        
+        when(producerTemplate.requestBody(eq("direct:httpRequest"), any(HttpRequestBean.class), eq(HttpResponseBean.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(2000);
+                    return new HttpResponseBean(200, new HashMap<>(), "{}");
+                });
+        
+        FunctionToolCallback<Map<String, Object>, HttpResponseBean> getJsonCallback = toolParserService.parse(openAPI).stream()
+                .filter(callback -> callback.getToolDefinition().name().equals("getJson"))
+                .findFirst()
+                .orElseThrow();
+        long start = System.nanoTime();
+        String result = getJsonCallback.call("{}");
+        
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1500);
+        assertTrue(result.contains("504"));
+        ArgumentCaptor<HttpRequestBean> captor = ArgumentCaptor.forClass(HttpRequestBean.class);
+        verify(producerTemplate).requestBody(eq("direct:httpRequest"), captor.capture(), eq(HttpResponseBean.class));
+        assertEquals(CallDeadline.Outcome.TIMED_OUT, captor.getValue().getDeadline().getOutcome());
+        assertEquals(200, captor.getValue().getOptions().getTimeout().getTotal().toMillis());
+    }
+
+    @Test
+    void testQueuedCallIsNotSentAfterDeadline() throws Exception {
+        OpenApiToolsProperties properties = new OpenApiToolsProperties();
+        properties.getCallTimeout().setThreads(1);
+        ReflectionTestUtils.setField(toolParserService, "openApiToolsProperties", properties);
+        toolParserService.start();
+        OpenAPI openAPI = loadOpenAPIFromYaml();
+        openAPI.getPaths().get("/json").getGet().addExtension("x-timeout", "200ms");
+        
+        CountDownLatch started = new CountDownLatch(1);
+        when(producerTemplate.requestBody(eq("direct:httpRequest"), any(HttpRequestBean.class), eq(HttpResponseBean.class)))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    Thread.sleep(500);
+                    return new HttpResponseBean(200, new HashMap<>(), "{}");
+                });
+        
+        FunctionToolCallback<Map<String, Object>, HttpResponseBean> getJsonCallback = toolParserService.parse(openAPI).stream()
+                .filter(callback -> callback.getToolDefinition().name().equals("getJson"))
+                .findFirst()
+                .orElseThrow();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> getJsonCallback.call("{}"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // 唯一的调用线程被占用, 第二次调用排队直到截止时间
+        String second = getJsonCallback.call("{}");
+        
+        assertTrue(second.contains("504"));
+        assertTrue(first.get().contains("504"));
+        // 等调用线程空闲后, 排队期间超时的调用也不会再发出
+        Thread.sleep(600);
+        verify(producerTemplate, times(1)).requestBody(eq("direct:httpRequest"), any(HttpRequestBean.class), eq(HttpResponseBean.class));
+        toolParserService.shutdown();
+    }
+
+    @Test
+    void testGeneratedToolsDoNotRetainSwaggerModel() throws Exception {
+        OpenAPI openAPI = largeOpenAPI(10_000);
+        WeakReference<OpenAPI> model = new WeakReference<>(openAPI);
+        WeakReference<Operation> operation = new WeakReference<>(openAPI.getPaths().get("/items/9999/{id}").getGet());
+        
+        List<FunctionToolCallback<Map<String, Object>, HttpResponseBean>> callbacks = toolParserService.parse(openAPI);
+        openAPI = null;
+        
+        for (int i = 0; i < 20 && (model.get() != null || operation.get() != null); i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertNull(model.get(), "生成的工具不应持有OpenAPI模型");
+        assertNull(operation.get(), "生成的工具不应持有Operation");
+        assertEquals(10_000, callbacks.size());
+        
+        // 模型回收后工具照常按参数绑定表构造请求
+        when(producerTemplate.requestBody(eq("direct:httpRequest"), any(HttpRequestBean.class), eq(HttpResponseBean.class)))
+                .thenReturn(new HttpResponseBean(200, new HashMap<>(), "{}"));
+        callbacks.get(9_999).call("{\"id\": \"42\", \"limit\": 5, \"X-Tenant\": \"t1\"}");
+        
+        ArgumentCaptor<HttpRequestBean> captor = ArgumentCaptor.forClass(HttpRequestBean.class);
+        verify(producerTemplate).requestBody(eq("direct:httpRequest"), captor.capture(), eq(HttpResponseBean.class));
+        assertEquals("GET", captor.getValue().getMethod());
+        assertEquals("http://api.example.com/items/9999/42", captor.getValue().getUrl());
+        assertEquals(Map.of("limit", "5"), captor.getValue().getQueryParams());
+        assertEquals(Map.of("X-Tenant", "t1"), captor.getValue().getHeaders());
+    }
+
+    /**
+     * 生成包含大量操作的文档, 每个操作带参数、示例和响应schema
+     */
+    private static OpenAPI largeOpenAPI(int operations) {
+        Paths paths = new Paths();
+        for (int i = 0; i < operations; i++) {
+            ObjectSchema item = new ObjectSchema();
+            item.addProperty("id", new StringSchema().example("item-" + i));
+            item.addProperty("count", new IntegerSchema().description("数量 " + i));
+            Operation get = new Operation()
+                    .operationId("getItem" + i)
+                    .summary("查询条目 " + i)
+                    .description("查询条目的详细说明 " + "x".repeat(200))
+                    .addParametersItem(new Parameter().name("id").in("path").required(true).schema(new StringSchema()))
+                    .addParametersItem(new Parameter().name("limit").in("query").schema(new IntegerSchema()))
+                    .addParametersItem(new Parameter().name("X-Tenant").in("header").schema(new StringSchema()))
+                    .responses(new ApiResponses().addApiResponse("200", new ApiResponse()
+                            .description("OK")
+                            .content(new Content().addMediaType("application/json",
+                                    new io.swagger.v3.oas.models.media.MediaType().schema(item).example(Map.of("id", "item-" + i))))));
+            get.addExtension("x-owner", "team-" + i);
+            paths.addPathItem("/items/" + i + "/{id}", new PathItem().get(get));
+        }
+        return new OpenAPI()
+                .info(new Info().title("large").version("1"))
+                .addServersItem(new Server().url("http://api.example.com"))
+                .paths(paths);
+    }
+
     /**
      * 从YAML文件加载OpenAPI对象
      */
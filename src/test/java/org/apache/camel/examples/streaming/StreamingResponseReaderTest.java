@@ -0,0 +1,106 @@
+package org.apache.camel.examples.streaming;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingResponseReaderTest {
+
+    private final List<String> received = new ArrayList<>();
+    private final ChunkListener listener = (sequence, chunk) -> received.add(sequence + ":" + chunk);
+
+    @Test
+    void shouldParseServerSentEvents() throws IOException {
+        String events = ": keep-alive\n\n"
+            + "event: delta\nid: 1\ndata: {\"text\":\"Hel\"}\n\n"
+            + "data: {\"text\":\"lo\"}\n\n"
+            + "retry: 1000\ndata: {\"done\":true}";
+
+        String aggregated = StreamingResponseReader.read(stream(events, StandardCharsets.UTF_8), "text/event-stream", listener);
+
+        assertThat(received).containsExactly("1:{\"text\":\"Hel\"}", "2:{\"text\":\"lo\"}", "3:{\"done\":true}");
+        assertThat(aggregated).isEqualTo("[{\"text\":\"Hel\"},{\"text\":\"lo\"},{\"done\":true}]");
+    }
+
+    @Test
+    void shouldJoinMultiLineEventData() throws IOException {
+        String aggregated = StreamingResponseReader.read(stream("data: first\ndata:second\n\n", StandardCharsets.UTF_8),
+            "text/event-stream; charset=utf-8", listener);
+
+        assertThat(received).containsExactly("1:first\nsecond");
+        assertThat(aggregated).isEqualTo("first\nsecond");
+    }
+
+    @Test
+    void shouldAggregateJsonLines() throws IOException {
+        String aggregated = StreamingResponseReader.read(stream("{\"id\":1}\n\n{\"id\":2}\r\n", StandardCharsets.UTF_8),
+            "application/x-ndjson", listener);
+
+        assertThat(received).containsExactly("1:{\"id\":1}", "2:{\"id\":2}");
+        assertThat(aggregated).isEqualTo("[{\"id\":1},{\"id\":2}]");
+    }
+
+    @Test
+    void shouldJoinPlainTextChunksAndHonourCharset() throws IOException {
+        Charset gbk = Charset.forName("GBK");
+        String aggregated = StreamingResponseReader.read(stream("第一块\n{\"id\":2}\n", gbk), "text/plain; charset=GBK", null);
+
+        assertThat(aggregated).isEqualTo("第一块\n{\"id\":2}");
+    }
+
+    @Test
+    void shouldDeliverChunksBeforeStreamEnds() throws IOException {
+        List<Integer> consumedAtChunk = new ArrayList<>();
+        CountingStream body = new CountingStream("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+
+        StreamingResponseReader.read(body, "application/json", (sequence, chunk) -> consumedAtChunk.add(body.reads));
+
+        assertThat(consumedAtChunk).hasSize(2);
+        assertThat(consumedAtChunk.get(0)).isLessThan(body.reads);
+    }
+
+    private static InputStream stream(String content, Charset charset) {
+        return new ByteArrayInputStream(content.getBytes(charset));
+    }
+
+    /**
+     * 每次只返回一个字节, 模拟分块到达的上游响应
+     */
+    private static class CountingStream extends InputStream {
+
+        private final byte[] content;
+        private int position;
+        private int reads;
+
+        CountingStream(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public int read() {
+            reads++;
+            return position < content.length ? content[position++] : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int next = read();
+            if (next < 0) {
+                return -1;
+            }
+            buffer[offset] = (byte) next;
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.apache.camel.examples.traffic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrafficLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReplayRecordsAcrossSegmentsInRecordedOrder() throws Exception {
+        try (TrafficLog log = new TrafficLog(directory, 256)) {
+            for (int i = 0; i < 20; i++) {
+                log.append(record("/items", Map.of("page", "1"), null, 200, "{\"page\":" + i + "}"));
+            }
+            log.append(record("/orders", Map.of(), "{\"id\":1}", 201, "created"));
+        }
+
+        assertThat(TrafficLog.segments(directory)).hasSizeGreaterThan(1);
+        TrafficReplay replay = TrafficReplay.load(directory);
+        assertThat(replay.size()).isEqualTo(21);
+
+        String key = TrafficRecord.key("tool", "GET", TrafficRecord.canonicalUrl("http://api/items", Map.of("page", "1")), null);
+        for (int i = 0; i < 20; i++) {
+            assertThat(body(replay.next(key).orElseThrow())).isEqualTo("{\"page\":" + i + "}");
+        }
+        // 取完后从头循环
+        assertThat(body(replay.next(key).orElseThrow())).isEqualTo("{\"page\":0}");
+
+        TrafficRecord created = replay.next(TrafficRecord.key("tool", "GET", "http://api/orders",
+            "{\"id\":1}".getBytes(StandardCharsets.UTF_8))).orElseThrow();
+        assertThat(created.status()).isEqualTo(201);
+        assertThat(created.latencyNanos()).isEqualTo(5_000_000L);
+        assertThat(created.headers()).containsEntry("Content-Type", "application/json");
+        assertThat(replay.next(TrafficRecord.key("tool", "GET", "http://api/orders", null))).isEmpty();
+    }
+
+    @Test
+    void shouldMatchRequestsRegardlessOfQueryParameterOrder() {
+        Map<String, String> query = new LinkedHashMap<>();
+        query.put("b", "2");
+        query.put("a", "1");
+        query.put("throwExceptionOnFailure", "false");
+
+        assertThat(TrafficRecord.canonicalUrl("http://api/items", query)).isEqualTo("http://api/items?a=1&b=2");
+    }
+
+    @Test
+    void shouldStripServerFromUrl() {
+        assertThat(TrafficRecord.relativeUrl("http://replica-2:8080/v1/items", "http://replica-2:8080/v1")).isEqualTo("/items");
+        assertThat(TrafficRecord.relativeUrl("http://replica-2:8080/v1/items", "http://replica-1:8080/v1"))
+            .isEqualTo("http://replica-2:8080/v1/items");
+        assertThat(TrafficRecord.relativeUrl("http://api/items", null)).isEqualTo("http://api/items");
+    }
+
+    @Test
+    void shouldAppendNewSegmentsAndIgnoreTornTail() throws Exception {
+        try (TrafficLog log = new TrafficLog(directory, 4096)) {
+            log.append(record("/a", Map.of(), null, 200, "first"));
+        }
+        try (TrafficLog log = new TrafficLog(directory, 4096)) {
+            log.append(record("/a", Map.of(), null, 200, "second"));
+            log.append(record("/b", Map.of(), null, 200, "torn"));
+        }
+        List<Path> segments = TrafficLog.segments(directory);
+        assertThat(segments).hasSize(2);
+
+        // 模拟写入中途退出: 破坏第二个分段最后一条记录的内容
+        try (RandomAccessFile file = new RandomAccessFile(segments.get(1).toFile(), "rw")) {
+            int firstLength = readInt(file, TrafficLog.HEADER_BYTES);
+            long torn = TrafficLog.HEADER_BYTES + TrafficLog.RECORD_HEADER_BYTES + firstLength + TrafficLog.RECORD_HEADER_BYTES + 30;
+            file.seek(torn);
+            file.write(0x7F);
+        }
+
+        TrafficReplay replay = TrafficReplay.load(directory);
+        assertThat(replay.size()).isEqualTo(2);
+        String key = TrafficRecord.key("tool", "GET", "http://api/a", null);
+        assertThat(body(replay.next(key).orElseThrow())).isEqualTo("first");
+        assertThat(body(replay.next(key).orElseThrow())).isEqualTo("second");
+        assertThat(replay.next(TrafficRecord.key("tool", "GET", "http://api/b", null))).isEmpty();
+    }
+
+    private static int readInt(RandomAccessFile file, long position) throws Exception {
+        file.seek(position);
+        return file.readInt();
+    }
+
+    private static TrafficRecord record(String path, Map<String, String> query, String requestBody, int status, String body) {
+        return new TrafficRecord(System.currentTimeMillis(), 5_000_000L, "tool", "GET",
+            TrafficRecord.canonicalUrl("http://api" + path, query),
+            requestBody != null ? requestBody.getBytes(StandardCharsets.UTF_8) : null,
+            status, Map.of("Content-Type", "application/json"), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(TrafficRecord record) {
+        return new String(record.responseBody(), StandardCharsets.UTF_8);
+    }
+}
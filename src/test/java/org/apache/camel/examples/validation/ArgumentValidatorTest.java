@@ -0,0 +1,84 @@
+package org.apache.camel.examples.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArgumentValidatorTest {
+
+    private static final String SCHEMA = """
+        {
+          "type": "object",
+          "properties": {
+            "instance": { "type": "string" },
+            "size": { "type": "integer", "minimum": 1, "maximum": 1000 },
+            "type": { "type": "string", "enum": ["json", "xml"] },
+            "verbose": { "type": "boolean" },
+            "body": {
+              "type": "object",
+              "properties": {
+                "projectId": { "type": "string", "pattern": "^project-" },
+                "tags": { "type": "array", "items": { "type": "string", "maxLength": 3 } }
+              },
+              "required": ["projectId"]
+            }
+          },
+          "required": ["instance"]
+        }
+        """;
+
+    private final ArgumentValidator validator = ArgumentValidator.compile(SCHEMA);
+
+    @Test
+    void shouldAcceptValidArgumentsIncludingStringScalars() {
+        assertThat(validator.validate(Map.of(
+            "instance", "i-1",
+            "size", "20",
+            "type", "json",
+            "verbose", "true",
+            "body", Map.of("projectId", "project-1", "tags", List.of("a", "bc"))))).isEmpty();
+    }
+
+    @Test
+    void shouldReportEveryViolationWithPath() {
+        List<ArgumentValidator.Violation> violations = validator.validate(Map.of(
+            "size", 2000,
+            "type", "pdf",
+            "verbose", "yes",
+            "body", Map.of("tags", List.of("abcd"))));
+
+        assertThat(violations).extracting(ArgumentValidator.Violation::path)
+            .containsExactlyInAnyOrder("instance", "size", "type", "verbose", "body.projectId", "body.tags[0]");
+    }
+
+    @Test
+    void shouldRejectWrongTypes() {
+        assertThat(validator.validate(Map.of("instance", "i-1", "size", 1.5)))
+            .extracting(ArgumentValidator.Violation::message)
+            .containsExactly("类型应为integer");
+        assertThat(validator.validate(Map.of("instance", List.of("a"))))
+            .extracting(ArgumentValidator.Violation::path)
+            .containsExactly("instance");
+    }
+
+    @Test
+    void shouldValidateBodyPassedAsJsonString() {
+        assertThat(validator.validate(Map.of("instance", "i-1", "body", "{\"projectId\":\"project-2\"}"))).isEmpty();
+        assertThat(validator.validate(Map.of("instance", "i-1", "body", "{\"projectId\":\"other\"}")))
+            .extracting(ArgumentValidator.Violation::path)
+            .containsExactly("body.projectId");
+        assertThat(validator.validate(Map.of("instance", "i-1", "body", "not json")))
+            .extracting(ArgumentValidator.Violation::message)
+            .containsExactly("类型应为object");
+    }
+
+    @Test
+    void shouldDescribeViolationsAsJson() {
+        String description = ArgumentValidator.describe(List.of(new ArgumentValidator.Violation("size", "不能大于 1000")));
+
+        assertThat(description).contains("\"path\":\"size\"").contains("\"violations\"");
+    }
+}
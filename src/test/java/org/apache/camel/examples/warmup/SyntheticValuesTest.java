@@ -0,0 +1,73 @@
+package org.apache.camel.examples.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.examples.validation.ArgumentValidator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticValuesTest {
+
+    private static final String SCHEMA = """
+        {
+          "type": "object",
+          "properties": {
+            "orderId": {"type": "string", "minLength": 10},
+            "status": {"type": "string", "enum": ["PAID", "SHIPPED"]},
+            "limit": {"type": "integer", "minimum": 5, "maximum": 100},
+            "ratio": {"type": "number", "maximum": 0.5},
+            "since": {"type": "string", "format": "date-time"},
+            "expand": {"type": "boolean"},
+            "tags": {"type": "array", "items": {"type": "string", "example": "vip"}},
+            "body": {
+              "type": "object",
+              "properties": {
+                "note": {"type": "string", "default": "hi"}
+              }
+            }
+          },
+          "required": ["orderId", "status", "limit"]
+        }
+        """;
+
+    @Test
+    void shouldGenerateArgumentsThatPassValidation() {
+        Map<String, Object> arguments = SyntheticValues.arguments(SCHEMA);
+
+        assertThat(arguments)
+            .containsEntry("orderId", "warmupxxxx")
+            .containsEntry("status", "PAID")
+            .containsEntry("limit", 5)
+            .containsEntry("ratio", 0.5)
+            .containsEntry("since", "2024-01-01T00:00:00Z")
+            .containsEntry("expand", true)
+            .containsEntry("tags", List.of("vip"))
+            .containsEntry("body", Map.of("note", "hi"));
+        assertThat(ArgumentValidator.compile(SCHEMA).validate(arguments)).isEmpty();
+    }
+
+    @Test
+    void shouldStopAtMaxDepthForRecursiveSchemas() throws Exception {
+        String nested = "{\"type\":\"object\",\"properties\":{\"child\":{\"type\":\"object\",\"properties\":{}}}}";
+        for (int i = 0; i < 10; i++) {
+            nested = "{\"type\":\"object\",\"properties\":{\"child\":" + nested + "}}";
+        }
+
+        String generated = SyntheticValues.generate(new ObjectMapper().readTree(nested)).toString();
+
+        assertThat(generated).contains("\"child\":null");
+    }
+
+    @Test
+    void shouldInferTypeFromShape() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertThat(SyntheticValues.generate(mapper.readTree("{\"items\":{\"type\":\"integer\"}}")).toString())
+            .isEqualTo("[1]");
+        assertThat(SyntheticValues.generate(mapper.readTree("{\"type\":[\"null\",\"string\"],\"format\":\"uuid\"}")).asText())
+            .isEqualTo("00000000-0000-0000-0000-000000000000");
+    }
+}
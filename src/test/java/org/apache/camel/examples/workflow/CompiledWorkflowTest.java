@@ -0,0 +1,199 @@
+package org.apache.camel.examples.workflow;
+
+import org.apache.camel.examples.config.OpenApiToolsProperties;
+import org.apache.camel.examples.domain.HttpResponseBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompiledWorkflowTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, ToolCallback> tools = new HashMap<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldPassResultsBetweenStepsAndRunBranchesConcurrently() {
+        ToolCallback customer = tool("getCustomer", 200, "{\"name\":\"Ann\"}", 300);
+        tool("getOrder", 200, "{\"id\":\"o1\",\"customerId\":42,\"items\":[{\"sku\":\"A-1\"}]}", 300);
+        ToolCallback sku = tool("getSku", 200, "{\"stock\":3}", 300);
+        tool("getShipment", 200, "{\"carrier\":\"SF\"}", 300);
+
+        CompiledWorkflow workflow = CompiledWorkflow.compile(workflow("order_overview", Duration.ofSeconds(5),
+            step("order", "getOrder", Map.of("orderId", "{{input.orderId}}")),
+            step("customer", "getCustomer", args("customerId", "{{order.customerId}}", "label", "c-{{order.customerId}}")),
+            step("sku", "getSku", Map.of("sku", "{{order.items[0].sku}}")),
+            step("shipment", "getShipment", Map.of("orderId", "{{input.orderId}}"))));
+
+        long start = System.nanoTime();
+        HttpResponseBean response = workflow.execute(Map.of("orderId", "o1"), this::find, executor);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo("{\"order\":{\"id\":\"o1\",\"customerId\":42,\"items\":[{\"sku\":\"A-1\"}]},"
+            + "\"customer\":{\"name\":\"Ann\"},\"sku\":{\"stock\":3},\"shipment\":{\"carrier\":\"SF\"}}");
+        // 关键路径为两步(order -> customer/sku), 四个调用串行需要1200ms
+        assertThat(elapsedMillis).isLessThan(1000);
+        verify(customer).call("{\"customerId\":42,\"label\":\"c-42\"}");
+        verify(sku).call("{\"sku\":\"A-1\"}");
+    }
+
+    @Test
+    void shouldSkipDependentStepsWhenUpstreamFails() {
+        tool("getOrder", 404, "not found", 0);
+        ToolCallback customer = tool("getCustomer", 200, "{}", 0);
+
+        CompiledWorkflow workflow = CompiledWorkflow.compile(workflow("lookup", Duration.ofSeconds(5),
+            step("order", "getOrder", Map.of()),
+            step("customer", "getCustomer", Map.of("customerId", "{{order.customerId}}"))));
+
+        HttpResponseBean response = workflow.execute(Map.of(), this::find, executor);
+
+        assertThat(response.getStatusCode()).isEqualTo(502);
+        assertThat(response.getBody())
+            .contains("\"statusCode\":404")
+            .contains("依赖的步骤 order 未成功");
+        verify(customer, never()).call(anyString());
+    }
+
+    @Test
+    void shouldReturnCompletedStepsWhenDeadlineExpires() {
+        tool("fast", 200, "{\"ok\":true}", 0);
+        tool("slow", 200, "{}", 2000);
+
+        CompiledWorkflow workflow = CompiledWorkflow.compile(workflow("deadline", Duration.ofMillis(300),
+            step("fast", "fast", Map.of()),
+            step("slow", "slow", Map.of())));
+
+        long start = System.nanoTime();
+        HttpResponseBean response = workflow.execute(Map.of(), this::find, executor);
+
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(1500);
+        assertThat(response.getStatusCode()).isEqualTo(504);
+        assertThat(response.getBody())
+            .contains("\"fast\":{\"ok\":true}")
+            .contains("超过截止时间");
+    }
+
+    @Test
+    void shouldInterruptRunningStepsWhenDeadlineExpires() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ToolCallback slow = mock(ToolCallback.class);
+        when(slow.call(anyString())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "{\"statusCode\":200,\"headers\":{},\"body\":\"{}\"}";
+        });
+        tools.put("slow", slow);
+
+        CompiledWorkflow workflow = CompiledWorkflow.compile(workflow("interrupt", Duration.ofMillis(200),
+            step("slow", "slow", Map.of())));
+
+        HttpResponseBean response = workflow.execute(Map.of(), this::find, executor);
+
+        assertThat(response.getStatusCode()).isEqualTo(504);
+        // 工具线程被中断, 工具调用据此中止上游请求
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldReportMissingTool() {
+        CompiledWorkflow workflow = CompiledWorkflow.compile(workflow("missing", Duration.ofSeconds(1),
+            step("a", "unknown", Map.of())));
+
+        HttpResponseBean response = workflow.execute(Map.of(), this::find, executor);
+
+        assertThat(response.getStatusCode()).isEqualTo(502);
+        assertThat(response.getBody()).contains("工具不存在: unknown");
+    }
+
+    @Test
+    void shouldRejectCyclesAndUnknownReferences() {
+        assertThatThrownBy(() -> CompiledWorkflow.compile(workflow("cycle", Duration.ofSeconds(1),
+            step("a", "x", Map.of("v", "{{b.id}}")),
+            step("b", "x", Map.of("v", "{{a.id}}")))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("循环依赖");
+        assertThatThrownBy(() -> CompiledWorkflow.compile(workflow("unknown", Duration.ofSeconds(1),
+            step("a", "x", Map.of("v", "{{missing.id}}")))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("missing");
+    }
+
+    @Test
+    void shouldGenerateInputSchema() {
+        OpenApiToolsProperties.Workflow definition = workflow("schema", Duration.ofSeconds(1), step("a", "x", Map.of()));
+        OpenApiToolsProperties.WorkflowInput orderId = new OpenApiToolsProperties.WorkflowInput();
+        orderId.setDescription("订单号");
+        definition.getInputs().put("orderId", orderId);
+
+        assertThat(CompiledWorkflow.compile(definition).getInputSchema()).isEqualTo(
+            "{\"type\":\"object\",\"properties\":{\"orderId\":{\"type\":\"string\",\"description\":\"订单号\"}},\"required\":[\"orderId\"]}");
+    }
+
+    private Optional<ToolCallback> find(String name) {
+        return Optional.ofNullable(tools.get(name));
+    }
+
+    private ToolCallback tool(String name, int statusCode, String body, long delayMillis) {
+        ToolCallback tool = mock(ToolCallback.class);
+        String escaped = body.replace("\\", "\\\\").replace("\"", "\\\"");
+        when(tool.call(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(delayMillis);
+            return "{\"statusCode\":" + statusCode + ",\"headers\":{},\"body\":\"" + escaped + "\"}";
+        });
+        tools.put(name, tool);
+        return tool;
+    }
+
+    private static Map<String, Object> args(String... keyValues) {
+        Map<String, Object> arguments = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            arguments.put(keyValues[i], keyValues[i + 1]);
+        }
+        return arguments;
+    }
+
+    private static OpenApiToolsProperties.Workflow workflow(String name, Duration timeout, OpenApiToolsProperties.WorkflowStep... steps) {
+        OpenApiToolsProperties.Workflow workflow = new OpenApiToolsProperties.Workflow();
+        workflow.setName(name);
+        workflow.setTimeout(timeout);
+        workflow.setSteps(List.of(steps));
+        return workflow;
+    }
+
+    private static OpenApiToolsProperties.WorkflowStep step(String id, String tool, Map<String, Object> arguments) {
+        OpenApiToolsProperties.WorkflowStep step = new OpenApiToolsProperties.WorkflowStep();
+        step.setId(id);
+        step.setTool(tool);
+        step.setArguments(new LinkedHashMap<>(arguments));
+        return step;
+    }
+}